@@ -0,0 +1,94 @@
+package com.real_time.ticket.system.real_time.ticket.system.benchmarks;
+
+import com.real_time.ticket.system.real_time.ticket.system.inventory.TicketInventory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time to sell out the backend inventory: vendor threads release tickets and
+ * consumer threads purchase them with the same calls the simulation service
+ * makes, without its pacing sleeps, until every ticket is sold.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, batchSize = 1)
+@Measurement(iterations = 10, batchSize = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Benchmark)
+public class InventorySellOutBenchmark {
+
+    @Param({"1", "4"})
+    public int vendors;
+
+    @Param({"1", "4"})
+    public int consumers;
+
+    @Param({"64", "1024"})
+    public int maxCapacity;
+
+    @Param({"200000"})
+    public int totalTickets;
+
+    private TicketInventory inventory; // A fresh inventory for every sell-out
+
+    @Setup(Level.Invocation)
+    public void setUp() {
+        inventory = new TicketInventory();
+        inventory.reset(totalTickets, maxCapacity);
+    }
+
+    @Benchmark
+    public long sellOut() throws InterruptedException {
+        AtomicLong sold = new AtomicLong(); // Tickets purchased by all consumers together
+        List<Thread> threads = new ArrayList<>(vendors + consumers);
+        for (int i = 0; i < vendors; i++) {
+            threads.add(Thread.ofPlatform().name("Vendor-" + i).start(this::runVendor));
+        }
+        for (int i = 0; i < consumers; i++) {
+            threads.add(Thread.ofPlatform().name("Consumer-" + i).start(() -> runConsumer(sold)));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return sold.get();
+    }
+
+    // Release tickets until the whole total has been released.
+    private void runVendor() {
+        try {
+            while (!inventory.isFullyReleased()) {
+                inventory.releaseTicket(1, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Purchase tickets until every ticket has been sold.
+    private void runConsumer(AtomicLong sold) {
+        try {
+            while (!inventory.isSoldOut()) {
+                if (inventory.purchaseTicket(1, TimeUnit.MILLISECONDS) != TicketInventory.NO_TICKET) {
+                    sold.incrementAndGet();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
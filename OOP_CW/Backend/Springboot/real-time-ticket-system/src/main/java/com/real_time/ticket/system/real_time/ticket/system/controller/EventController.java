@@ -0,0 +1,164 @@
+package com.real_time.ticket.system.real_time.ticket.system.controller;
+
+// Import necessary classes and packages
+import com.real_time.ticket.system.real_time.ticket.system.dto.EventStatusDTO;
+import com.real_time.ticket.system.real_time.ticket.system.dto.SimulatingConfigDTO;
+import com.real_time.ticket.system.real_time.ticket.system.dto.TaskStatsDTO;
+import com.real_time.ticket.system.real_time.ticket.system.inventory.TicketInventory;
+import com.real_time.ticket.system.real_time.ticket.system.services.AdmissionController;
+import com.real_time.ticket.system.real_time.ticket.system.services.EventRegistry;
+import com.real_time.ticket.system.real_time.ticket.system.services.TicketEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.annotation.*;
+
+import jakarta.validation.Valid;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Indicate this is a REST controller for the events, each with its own pool, rates and tasks
+@RestController
+@RequestMapping("/api/v1/events") // Base URL for this controller's endpoints
+@CrossOrigin(origins = "http://localhost:5173") // Allow requests from the frontend URL
+public class EventController {
+
+    // Logger for tracking system activities
+    private static final Logger logger = LoggerFactory.getLogger(EventController.class);
+
+    // Longest a buyer waits for a ticket in an empty pool (the admission wait SLO may shorten it)
+    private static final long PURCHASE_WAIT_SECONDS = 5;
+
+    // Holds every event
+    private final EventRegistry eventRegistry;
+
+    // Turns buyers away under overload
+    private final AdmissionController admissionController;
+
+    // Constructor to inject the event registry and the admission controller
+    public EventController(EventRegistry eventRegistry, AdmissionController admissionController) {
+        this.eventRegistry = eventRegistry;
+        this.admissionController = admissionController;
+    }
+
+    // Endpoint to get the status of every event
+    @GetMapping
+    public List<EventStatusDTO> getEvents() {
+        return eventRegistry.getStatuses();
+    }
+
+    // Endpoint to create an event or update its configuration
+    @PutMapping("/{eventId}/config")
+    public ResponseEntity<String> updateConfig(@PathVariable String eventId,
+                                               @Valid @RequestBody SimulatingConfigDTO config,
+                                               BindingResult bindingResult) {
+        if (bindingResult.hasErrors()) { // Check for validation errors
+            logger.error("Invalid configuration for event {}: {}", eventId, bindingResult.getAllErrors());
+            return ResponseEntity.badRequest().body("Invalid configuration: " + bindingResult.getAllErrors());
+        }
+        try {
+            eventRegistry.configure(eventId, config);
+            return ResponseEntity.ok("Configuration updated.");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+        }
+    }
+
+    // Endpoint to start a run of an event
+    @PostMapping("/{eventId}/start")
+    public ResponseEntity<String> startEvent(@PathVariable String eventId) {
+        TicketEvent event = eventRegistry.getEvent(eventId);
+        if (event == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("No event " + eventId + ".");
+        }
+        if (!event.start()) { // Check if the event is already running
+            return ResponseEntity.ok("Event already running.");
+        }
+        return ResponseEntity.ok("Event started.");
+    }
+
+    // Endpoint to stop the run of an event
+    @PostMapping("/{eventId}/stop")
+    public ResponseEntity<String> stopEvent(@PathVariable String eventId) {
+        TicketEvent event = eventRegistry.getEvent(eventId);
+        if (event == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("No event " + eventId + ".");
+        }
+        if (!event.stop()) { // Check if the event is already stopped
+            return ResponseEntity.ok("Event already stopped.");
+        }
+        return ResponseEntity.ok("Event stopped.");
+    }
+
+    // Endpoint for a buyer to purchase one ticket of a running event; answers 429 at once under overload
+    @PostMapping("/{eventId}/purchase")
+    public ResponseEntity<String> purchaseTicket(@PathVariable String eventId,
+                                                 @RequestParam(defaultValue = "buyer") String buyer) {
+        TicketEvent event = eventRegistry.getEvent(eventId);
+        if (event == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("No event " + eventId + ".");
+        }
+        if (!admissionController.tryEnter()) {
+            return tooManyRequests("Too many buyers are waiting. Please try again later.");
+        }
+        long started = System.nanoTime();
+        long ticketId = TicketInventory.NO_TICKET;
+        try {
+            ticketId = event.purchaseTicket(buyer,
+                    admissionController.getWaitTimeoutNanos(PURCHASE_WAIT_SECONDS, TimeUnit.SECONDS), TimeUnit.NANOSECONDS);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Purchase interrupted.");
+        } finally {
+            admissionController.exit(System.nanoTime() - started, ticketId != TicketInventory.NO_TICKET);
+        }
+        if (ticketId == TicketInventory.NO_TICKET) {
+            return tooManyRequests("No ticket became available in time. Please try again later.");
+        }
+        return ResponseEntity.ok("Purchased ticket " + ticketId + ".");
+    }
+
+    // Endpoint to get the status of one event
+    @GetMapping("/{eventId}/status")
+    public ResponseEntity<EventStatusDTO> getEventStatus(@PathVariable String eventId) {
+        TicketEvent event = eventRegistry.getEvent(eventId);
+        if (event == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(event.getStatus());
+    }
+
+    // Endpoint to get the throughput of every task of one event
+    @GetMapping("/{eventId}/tasks")
+    public ResponseEntity<List<TaskStatsDTO>> getEventTasks(@PathVariable String eventId) {
+        TicketEvent event = eventRegistry.getEvent(eventId);
+        if (event == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(event.getTaskStats());
+    }
+
+    // Endpoint to stop and remove an event
+    @DeleteMapping("/{eventId}")
+    public ResponseEntity<String> deleteEvent(@PathVariable String eventId) {
+        if (!eventRegistry.delete(eventId)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("No event " + eventId + ".");
+        }
+        return ResponseEntity.ok("Event deleted.");
+    }
+
+    // Build a 429 answer telling the buyer when to try again
+    private ResponseEntity<String> tooManyRequests(String message) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(admissionController.getRetryAfterSeconds()))
+                .body(message);
+    }
+}
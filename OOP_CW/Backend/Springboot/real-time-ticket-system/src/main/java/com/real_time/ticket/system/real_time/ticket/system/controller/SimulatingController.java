@@ -2,19 +2,27 @@ package com.real_time.ticket.system.real_time.ticket.system.controller;
 
 // Import necessary classes and packages
 import com.real_time.ticket.system.real_time.ticket.system.dto.SimulatingConfigDTO;
+import com.real_time.ticket.system.real_time.ticket.system.dto.TaskStatsDTO;
+import com.real_time.ticket.system.real_time.ticket.system.inventory.InventorySnapshot;
+import com.real_time.ticket.system.real_time.ticket.system.inventory.TicketInventory;
 import com.real_time.ticket.system.real_time.ticket.system.services.ConsumerServiceIMPL;
+import com.real_time.ticket.system.real_time.ticket.system.services.SimulationEngine;
+import com.real_time.ticket.system.real_time.ticket.system.services.StatusBroadcaster;
 import com.real_time.ticket.system.real_time.ticket.system.services.TicketServiceIMPL;
-import com.real_time.ticket.system.real_time.ticket.system.threads.ConsumerThread;
-import com.real_time.ticket.system.real_time.ticket.system.threads.VendorThread;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import jakarta.validation.Valid;
 
+import java.util.List;
+
 // Indicate this is a REST controller
 @RestController
 @RequestMapping("/api/v1/simulating") // Base URL for this controller's endpoints
@@ -29,45 +37,44 @@ public class SimulatingController {
     @Autowired
     private final TicketServiceIMPL ticketService;
 
-    // Thread objects for simulation
-    private final ConsumerThread consumerThread;
-    private final VendorThread vendorThread;
+    // Runs the vendor and consumer tasks
+    private final SimulationEngine simulationEngine;
+
+    // The in-memory inventory the vendor and consumer tasks move tickets through
+    private final TicketInventory ticketInventory;
 
-    // Variables to track system status and configuration
-    private String systemStatus = "STOPPED"; // System is initially stopped
-    private SimulatingConfigDTO simulatingConfig = new SimulatingConfigDTO(); // Holds simulation settings
+    // Pushes the status to the clients of the status stream
+    private final StatusBroadcaster statusBroadcaster;
 
-    // Threads to run the simulation
-    private Thread consumerThreadInstance;
-    private Thread vendorThreadInstance;
+    // Holds the simulation settings used by the next start
+    private volatile SimulatingConfigDTO simulatingConfig = new SimulatingConfigDTO();
 
-    // Constructor to initialize services and threads
+    // Constructor to initialize the services and the simulation engine
     public SimulatingController(ConsumerServiceIMPL consumerService, TicketServiceIMPL ticketService,
-                                ConsumerThread consumerThread, VendorThread vendorThread) {
+                                SimulationEngine simulationEngine, TicketInventory ticketInventory,
+                                StatusBroadcaster statusBroadcaster) {
         this.consumerService = consumerService;
         this.ticketService = ticketService;
-        this.consumerThread = consumerThread;
-        this.vendorThread = vendorThread;
+        this.simulationEngine = simulationEngine;
+        this.ticketInventory = ticketInventory;
+        this.statusBroadcaster = statusBroadcaster;
+        statusBroadcaster.setSystemStatusSource(simulationEngine::getSystemStatus); // The stream reads the status from the engine
     }
 
     // Endpoint to start the simulation
     @PostMapping("/start")
     @CrossOrigin(origins = "http://localhost:5173") // Allow requests from the frontend URL
     public String startSimulation() {
-        if ("RUNNING".equals(systemStatus)) { // Check if simulation is already running
-            return "Simulation already running.";
+        SimulatingConfigDTO config = simulatingConfig;
+        if (config.getTotalTickets() <= 0 || config.getMaxTicketCapacity() <= 0) {
+            return "Update the configuration before starting the simulation.";
         }
 
-        systemStatus = "RUNNING"; // Update system status
         logger.info("Starting simulation...");
-
-        // Create and start threads for the simulation
-        consumerThreadInstance = new Thread(consumerThread);
-        vendorThreadInstance = new Thread(vendorThread);
-
-        consumerThreadInstance.start(); // Start consumer thread
-        vendorThreadInstance.start(); // Start vendor thread
-
+        // The engine resets the inventory and starts new vendor and consumer tasks
+        if (!simulationEngine.start(config)) { // Check if simulation is already running
+            return "Simulation already running.";
+        }
         return "Simulation started.";
     }
 
@@ -75,32 +82,14 @@ public class SimulatingController {
     @PostMapping("/stop")
     @CrossOrigin(origins = "http://localhost:5173")
     public String stopSimulation() {
-        if ("STOPPED".equals(systemStatus)) { // Check if simulation is already stopped
+        logger.info("Stopping simulation...");
+        // The engine stops every task and waits for its threads to end
+        if (!simulationEngine.stop()) { // Check if simulation is already stopped
             return "Simulation already stopped.";
         }
-
-        systemStatus = "STOPPED"; // Update system status
-        logger.info("Stopping simulation...");
-
-        // Stop both threads gracefully
-        stopThread(consumerThreadInstance);
-        stopThread(vendorThreadInstance);
-
         return "Simulation stopped.";
     }
 
-    // Method to safely stop a thread
-    private void stopThread(Thread thread) {
-        if (thread != null && thread.isAlive()) { // Check if the thread is running
-            thread.interrupt(); // Interrupt the thread
-            try {
-                thread.join(5000); // Wait for up to 5 seconds for the thread to finish
-            } catch (InterruptedException e) {
-                logger.error("Thread interrupted during stop", e); // Log any interruption
-            }
-        }
-    }
-
     // Endpoint to update simulation configuration settings
     @PutMapping("/updateConfig")
     @CrossOrigin(origins = "http://localhost:5173")
@@ -130,20 +119,46 @@ public class SimulatingController {
     @GetMapping("/status")
     @CrossOrigin(origins = "http://localhost:5173")
     public SystemStatus getSystemStatus() {
-        logger.info("Fetching system status...");
-        // Return the current system status and available tickets
-        return new SystemStatus(systemStatus, simulatingConfig.getTotalTickets());
+        logger.debug("Fetching system status...");
+        // Return the current system status and the live inventory counters
+        return new SystemStatus(simulationEngine.getSystemStatus(), ticketInventory.snapshot());
+    }
+
+    // Endpoint to get the throughput of every vendor and consumer task
+    @GetMapping("/tasks")
+    @CrossOrigin(origins = "http://localhost:5173")
+    public List<TaskStatsDTO> getTaskStats() {
+        return simulationEngine.getTaskStats();
+    }
+
+    // Endpoint to receive the system status as a Server-Sent Events stream instead of polling /status
+    @GetMapping(path = "/status/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @CrossOrigin(origins = "http://localhost:5173")
+    public ResponseEntity<SseEmitter> streamSystemStatus() {
+        SseEmitter emitter = statusBroadcaster.subscribe();
+        if (emitter == null) { // Too many clients are already connected
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok(emitter);
     }
 
     // Inner class to hold system status information
     public static class SystemStatus {
         private String systemStatus; // Current status of the system
-        private int ticketsAvailable; // Number of tickets available
-
-        // Constructor to initialize status
-        public SystemStatus(String systemStatus, int ticketsAvailable) {
+        private int ticketsAvailable; // Number of tickets waiting in the pool
+        private long ticketsReleased; // Number of tickets released by vendors
+        private long ticketsSold; // Number of tickets purchased by consumers
+        private int totalTickets; // Number of tickets in the current run
+        private int maxTicketCapacity; // Most tickets the pool holds at once
+
+        // Constructor to initialize status from an inventory snapshot
+        public SystemStatus(String systemStatus, InventorySnapshot inventory) {
             this.systemStatus = systemStatus;
-            this.ticketsAvailable = ticketsAvailable;
+            this.ticketsAvailable = inventory.getTicketsAvailable();
+            this.ticketsReleased = inventory.getTicketsReleased();
+            this.ticketsSold = inventory.getTicketsSold();
+            this.totalTickets = inventory.getTotalTickets();
+            this.maxTicketCapacity = inventory.getMaxCapacity();
         }
 
         // Getter for system status
@@ -155,5 +170,25 @@ public class SimulatingController {
         public int getTicketsAvailable() {
             return ticketsAvailable;
         }
+
+        // Getter for released tickets
+        public long getTicketsReleased() {
+            return ticketsReleased;
+        }
+
+        // Getter for sold tickets
+        public long getTicketsSold() {
+            return ticketsSold;
+        }
+
+        // Getter for the total tickets of the run
+        public int getTotalTickets() {
+            return totalTickets;
+        }
+
+        // Getter for the maximum ticket capacity
+        public int getMaxTicketCapacity() {
+            return maxTicketCapacity;
+        }
     }
 }
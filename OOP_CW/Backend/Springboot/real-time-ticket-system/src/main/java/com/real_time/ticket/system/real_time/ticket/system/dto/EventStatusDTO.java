@@ -0,0 +1,76 @@
+package com.real_time.ticket.system.real_time.ticket.system.dto;
+
+// Import the inventory counters the status is built from
+import com.real_time.ticket.system.real_time.ticket.system.inventory.InventorySnapshot;
+
+// This class holds the status of one event returned by /api/v1/events
+public class EventStatusDTO {
+
+    private final String eventId;               // The ID of the event
+    private final String systemStatus;          // RUNNING, COMPLETED or STOPPED
+    private final int ticketsAvailable;         // Tickets waiting in the event's pool
+    private final long ticketsReleased;         // Tickets released by the event's vendors
+    private final long ticketsSold;             // Tickets purchased by the event's consumers
+    private final int totalTickets;             // Tickets in the current (or last) run
+    private final int maxTicketCapacity;        // Most tickets the pool holds at once
+    private final double ticketReleaseRate;     // Tickets per second released by each vendor
+    private final double consumerRetrievalRate; // Tickets per second bought by each consumer
+
+    // Constructor to initialize the status from the event's configuration and an inventory snapshot
+    public EventStatusDTO(String eventId, String systemStatus, SimulatingConfigDTO config, InventorySnapshot inventory) {
+        this.eventId = eventId;
+        this.systemStatus = systemStatus;
+        this.ticketsAvailable = inventory.getTicketsAvailable();
+        this.ticketsReleased = inventory.getTicketsReleased();
+        this.ticketsSold = inventory.getTicketsSold();
+        this.totalTickets = inventory.getTotalTickets();
+        this.maxTicketCapacity = inventory.getMaxCapacity();
+        this.ticketReleaseRate = config.getTicketReleaseRate();
+        this.consumerRetrievalRate = config.getConsumerRetrievalRate();
+    }
+
+    // Getter for the event ID
+    public String getEventId() {
+        return eventId;
+    }
+
+    // Getter for the system status
+    public String getSystemStatus() {
+        return systemStatus;
+    }
+
+    // Getter for available tickets
+    public int getTicketsAvailable() {
+        return ticketsAvailable;
+    }
+
+    // Getter for released tickets
+    public long getTicketsReleased() {
+        return ticketsReleased;
+    }
+
+    // Getter for sold tickets
+    public long getTicketsSold() {
+        return ticketsSold;
+    }
+
+    // Getter for the total tickets of the run
+    public int getTotalTickets() {
+        return totalTickets;
+    }
+
+    // Getter for the maximum ticket capacity
+    public int getMaxTicketCapacity() {
+        return maxTicketCapacity;
+    }
+
+    // Getter for the ticket release rate
+    public double getTicketReleaseRate() {
+        return ticketReleaseRate;
+    }
+
+    // Getter for the consumer retrieval rate
+    public double getConsumerRetrievalRate() {
+        return consumerRetrievalRate;
+    }
+}
@@ -1,8 +1,11 @@
 package com.real_time.ticket.system.real_time.ticket.system.dto;
 
 // Importing validation classes to check input values
+import jakarta.validation.constraints.DecimalMax; // Ensures maximum value for decimal variables
+import jakarta.validation.constraints.Max;      // Ensures maximum value for variables
 import jakarta.validation.constraints.Min;      // Ensures minimum value for variables
 import jakarta.validation.constraints.NotNull; // Ensures variables cannot be null
+import jakarta.validation.constraints.Positive; // Ensures decimal variables are greater than zero
 
 // This class is used to hold the configuration settings for the simulation
 public class SimulatingConfigDTO {
@@ -12,26 +15,38 @@ public class SimulatingConfigDTO {
     @Min(value = 1, message = "Total tickets must be greater than or equal to 1")
     private int totalTickets;
 
-    // Rate at which tickets are released (cannot be null and must be at least 1)
+    // Tickets per second released by the vendor (fractional rates such as 0.5 are allowed)
     @NotNull(message = "Ticket release rate cannot be null")
-    @Min(value = 1, message = "Ticket release rate must be greater than or equal to 1")
-    private int ticketReleaseRate;
+    @Positive(message = "Ticket release rate must be greater than 0 tickets per second")
+    @DecimalMax(value = "1000000000", message = "Ticket release rate must be at most 1000000000 tickets per second")
+    private double ticketReleaseRate;
 
-    // Rate at which consumers retrieve tickets (cannot be null and must be at least 1)
+    // Tickets per second retrieved by the consumer (fractional rates such as 0.5 are allowed)
     @NotNull(message = "Consumer retrieval rate cannot be null")
-    @Min(value = 1, message = "Consumer retrieval rate must be greater than or equal to 1")
-    private int consumerRetrievalRate;
+    @Positive(message = "Consumer retrieval rate must be greater than 0 tickets per second")
+    @DecimalMax(value = "1000000000", message = "Consumer retrieval rate must be at most 1000000000 tickets per second")
+    private double consumerRetrievalRate;
 
     // Maximum capacity of tickets in the system (cannot be null and must be at least 1)
     @NotNull(message = "Max ticket capacity cannot be null")
     @Min(value = 1, message = "Max ticket capacity must be greater than or equal to 1")
     private int maxTicketCapacity;
 
+    // Number of vendor tasks (optional; the engine default is used when missing)
+    @Min(value = 1, message = "Vendor count must be greater than or equal to 1")
+    @Max(value = 10000, message = "Vendor count must be at most 10000")
+    private Integer vendorCount;
+
+    // Number of consumer tasks (optional; the engine default is used when missing)
+    @Min(value = 1, message = "Consumer count must be greater than or equal to 1")
+    @Max(value = 10000, message = "Consumer count must be at most 10000")
+    private Integer consumerCount;
+
     // Default constructor (used when no values are provided)
     public SimulatingConfigDTO() {}
 
     // Constructor with parameters to initialize all settings at once
-    public SimulatingConfigDTO(int totalTickets, int ticketReleaseRate, int consumerRetrievalRate, int maxTicketCapacity) {
+    public SimulatingConfigDTO(int totalTickets, double ticketReleaseRate, double consumerRetrievalRate, int maxTicketCapacity) {
         this.totalTickets = totalTickets;                 // Set the total number of tickets
         this.ticketReleaseRate = ticketReleaseRate;       // Set the ticket release rate
         this.consumerRetrievalRate = consumerRetrievalRate; // Set the consumer retrieval rate
@@ -49,22 +64,22 @@ public class SimulatingConfigDTO {
     }
 
     // Getter method to retrieve the ticket release rate
-    public int getTicketReleaseRate() {
+    public double getTicketReleaseRate() {
         return ticketReleaseRate;
     }
 
     // Setter method to update the ticket release rate
-    public void setTicketReleaseRate(int ticketReleaseRate) {
+    public void setTicketReleaseRate(double ticketReleaseRate) {
         this.ticketReleaseRate = ticketReleaseRate;
     }
 
     // Getter method to retrieve the consumer retrieval rate
-    public int getConsumerRetrievalRate() {
+    public double getConsumerRetrievalRate() {
         return consumerRetrievalRate;
     }
 
     // Setter method to update the consumer retrieval rate
-    public void setConsumerRetrievalRate(int consumerRetrievalRate) {
+    public void setConsumerRetrievalRate(double consumerRetrievalRate) {
         this.consumerRetrievalRate = consumerRetrievalRate;
     }
 
@@ -78,8 +93,28 @@ public class SimulatingConfigDTO {
         this.maxTicketCapacity = maxTicketCapacity;
     }
 
+    // Getter method to retrieve the number of vendor tasks (null = engine default)
+    public Integer getVendorCount() {
+        return vendorCount;
+    }
+
+    // Setter method to update the number of vendor tasks
+    public void setVendorCount(Integer vendorCount) {
+        this.vendorCount = vendorCount;
+    }
+
+    // Getter method to retrieve the number of consumer tasks (null = engine default)
+    public Integer getConsumerCount() {
+        return consumerCount;
+    }
+
+    // Setter method to update the number of consumer tasks
+    public void setConsumerCount(Integer consumerCount) {
+        this.consumerCount = consumerCount;
+    }
+
     // Method to update ticket rates from database values (if the system syncs with a database)
-    public void syncWithDatabaseValues(int dbTicketReleaseRate, int dbConsumerRetrievalRate) {
+    public void syncWithDatabaseValues(double dbTicketReleaseRate, double dbConsumerRetrievalRate) {
         this.ticketReleaseRate = dbTicketReleaseRate;         // Update ticket release rate with database value
         this.consumerRetrievalRate = dbConsumerRetrievalRate; // Update consumer retrieval rate with database value
     }
@@ -92,6 +127,8 @@ public class SimulatingConfigDTO {
                 ", ticketReleaseRate=" + ticketReleaseRate +
                 ", consumerRetrievalRate=" + consumerRetrievalRate +
                 ", maxTicketCapacity=" + maxTicketCapacity +
+                ", vendorCount=" + vendorCount +
+                ", consumerCount=" + consumerCount +
                 '}';
     }
 }
@@ -0,0 +1,109 @@
+package com.real_time.ticket.system.real_time.ticket.system.dto;
+
+// This class holds one status update pushed to the status stream subscribers
+public class StatusUpdateDTO {
+
+    private final long sequence;             // Increases by one for every update the server produces
+    private final long timestamp;            // When the update was produced (epoch milliseconds)
+    private final String systemStatus;       // Current status of the system
+    private final int ticketsAvailable;      // Tickets waiting in the pool
+    private final long ticketsReleased;      // Tickets released so far (total, not a delta)
+    private final long ticketsSold;          // Tickets sold so far (total, not a delta)
+    private final int totalTickets;          // Tickets in the current run
+    private final int maxTicketCapacity;     // Most tickets the pool holds at once
+    private final long releasedSinceLast;    // Tickets released since the previous update
+    private final long soldSinceLast;        // Tickets sold since the previous update
+    private final double releasedPerSecond;  // Release rate over the last interval
+    private final double soldPerSecond;      // Sale rate over the last interval
+
+    // Constructor to initialize all values of the update at once
+    public StatusUpdateDTO(long sequence, long timestamp, String systemStatus, int ticketsAvailable,
+                           long ticketsReleased, long ticketsSold, int totalTickets, int maxTicketCapacity,
+                           long releasedSinceLast, long soldSinceLast, double releasedPerSecond,
+                           double soldPerSecond) {
+        this.sequence = sequence;
+        this.timestamp = timestamp;
+        this.systemStatus = systemStatus;
+        this.ticketsAvailable = ticketsAvailable;
+        this.ticketsReleased = ticketsReleased;
+        this.ticketsSold = ticketsSold;
+        this.totalTickets = totalTickets;
+        this.maxTicketCapacity = maxTicketCapacity;
+        this.releasedSinceLast = releasedSinceLast;
+        this.soldSinceLast = soldSinceLast;
+        this.releasedPerSecond = releasedPerSecond;
+        this.soldPerSecond = soldPerSecond;
+    }
+
+    // Getter for the update sequence number
+    public long getSequence() {
+        return sequence;
+    }
+
+    // Getter for the time the update was produced
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    // Getter for the system status
+    public String getSystemStatus() {
+        return systemStatus;
+    }
+
+    // Getter for the tickets waiting in the pool
+    public int getTicketsAvailable() {
+        return ticketsAvailable;
+    }
+
+    // Getter for the tickets released so far
+    public long getTicketsReleased() {
+        return ticketsReleased;
+    }
+
+    // Getter for the tickets sold so far
+    public long getTicketsSold() {
+        return ticketsSold;
+    }
+
+    // Getter for the total tickets of the run
+    public int getTotalTickets() {
+        return totalTickets;
+    }
+
+    // Getter for the maximum ticket capacity
+    public int getMaxTicketCapacity() {
+        return maxTicketCapacity;
+    }
+
+    // Getter for the tickets released since the previous update
+    public long getReleasedSinceLast() {
+        return releasedSinceLast;
+    }
+
+    // Getter for the tickets sold since the previous update
+    public long getSoldSinceLast() {
+        return soldSinceLast;
+    }
+
+    // Getter for the release rate over the last interval
+    public double getReleasedPerSecond() {
+        return releasedPerSecond;
+    }
+
+    // Getter for the sale rate over the last interval
+    public double getSoldPerSecond() {
+        return soldPerSecond;
+    }
+
+    // Converts the update into a readable string format
+    @Override
+    public String toString() {
+        return "StatusUpdateDTO{" +
+                "sequence=" + sequence +
+                ", systemStatus='" + systemStatus + '\'' +
+                ", ticketsAvailable=" + ticketsAvailable +
+                ", ticketsReleased=" + ticketsReleased +
+                ", ticketsSold=" + ticketsSold +
+                '}';
+    }
+}
@@ -0,0 +1,55 @@
+package com.real_time.ticket.system.real_time.ticket.system.dto;
+
+// This class holds the throughput of one vendor or consumer task
+public class TaskStatsDTO {
+
+    private final String name;               // Name of the task, for example "vendor-1"
+    private final String role;               // VENDOR or CONSUMER
+    private final boolean running;           // True while the task is still working
+    private final long tickets;              // Tickets released or purchased by the task
+    private final double ticketsPerSecond;   // Average throughput since the task started
+
+    // Constructor to initialize all values at once
+    public TaskStatsDTO(String name, String role, boolean running, long tickets, double ticketsPerSecond) {
+        this.name = name;
+        this.role = role;
+        this.running = running;
+        this.tickets = tickets;
+        this.ticketsPerSecond = ticketsPerSecond;
+    }
+
+    // Getter for the task name
+    public String getName() {
+        return name;
+    }
+
+    // Getter for the task role
+    public String getRole() {
+        return role;
+    }
+
+    // Getter for whether the task is still working
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Getter for the tickets moved by the task
+    public long getTickets() {
+        return tickets;
+    }
+
+    // Getter for the average throughput of the task
+    public double getTicketsPerSecond() {
+        return ticketsPerSecond;
+    }
+
+    // Converts the statistics into a readable string format
+    @Override
+    public String toString() {
+        return "TaskStatsDTO{" +
+                "name='" + name + '\'' +
+                ", tickets=" + tickets +
+                ", ticketsPerSecond=" + ticketsPerSecond +
+                '}';
+    }
+}
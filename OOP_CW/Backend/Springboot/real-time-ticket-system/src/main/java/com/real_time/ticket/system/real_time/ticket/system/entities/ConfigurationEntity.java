@@ -12,29 +12,29 @@ public class ConfigurationEntity {
     @Id
     private Long id = 1L; // The ID is fixed at 1 since only one configuration is expected
 
-    // Variable to store the rate at which consumers retrieve tickets
-    private int consumerRetrievalRate;
+    // Variable to store the rate at which consumers retrieve tickets (tickets per second)
+    private double consumerRetrievalRate;
 
-    // Variable to store the rate at which tickets are released
-    private int ticketReleaseRate;
+    // Variable to store the rate at which tickets are released (tickets per second)
+    private double ticketReleaseRate;
 
     // Getter method to retrieve the consumer retrieval rate from the database
-    public int getConsumerRetrievalRate() {
+    public double getConsumerRetrievalRate() {
         return consumerRetrievalRate;
     }
 
     // Setter method to update the consumer retrieval rate in the database
-    public void setConsumerRetrievalRate(int consumerRetrievalRate) {
+    public void setConsumerRetrievalRate(double consumerRetrievalRate) {
         this.consumerRetrievalRate = consumerRetrievalRate;
     }
 
     // Getter method to retrieve the ticket release rate from the database
-    public int getTicketReleaseRate() {
+    public double getTicketReleaseRate() {
         return ticketReleaseRate;
     }
 
     // Setter method to update the ticket release rate in the database
-    public void setTicketReleaseRate(int ticketReleaseRate) {
+    public void setTicketReleaseRate(double ticketReleaseRate) {
         this.ticketReleaseRate = ticketReleaseRate;
     }
 }
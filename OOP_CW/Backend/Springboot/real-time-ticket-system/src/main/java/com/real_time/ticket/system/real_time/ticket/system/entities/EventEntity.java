@@ -0,0 +1,108 @@
+package com.real_time.ticket.system.real_time.ticket.system.entities;
+
+// Importing necessary annotations for database entity mapping
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+// This class represents the configuration of one event, stored in the database
+@Entity
+@Table(name = "ticket_event")
+public class EventEntity {
+
+    // Primary key: the ID the event is addressed by in /api/v1/events/{eventId}
+    @Id
+    @Column(length = 64)
+    private String eventId;
+
+    // Tickets the vendors may release in one run of the event
+    private int totalTickets;
+
+    // Most tickets the event's pool holds at once
+    private int maxTicketCapacity;
+
+    // Tickets per second released by each vendor of the event
+    private double ticketReleaseRate;
+
+    // Tickets per second bought by each consumer of the event
+    private double consumerRetrievalRate;
+
+    // Vendor and consumer tasks of the event (null = the engine defaults)
+    private Integer vendorCount;
+    private Integer consumerCount;
+
+    // Default constructor required by JPA
+    protected EventEntity() {
+    }
+
+    // Constructor to create the configuration of one event
+    public EventEntity(String eventId) {
+        this.eventId = eventId;
+    }
+
+    // Getter method to retrieve the ID of the event
+    public String getEventId() {
+        return eventId;
+    }
+
+    // Getter method to retrieve the total number of tickets
+    public int getTotalTickets() {
+        return totalTickets;
+    }
+
+    // Setter method to update the total number of tickets
+    public void setTotalTickets(int totalTickets) {
+        this.totalTickets = totalTickets;
+    }
+
+    // Getter method to retrieve the maximum ticket capacity
+    public int getMaxTicketCapacity() {
+        return maxTicketCapacity;
+    }
+
+    // Setter method to update the maximum ticket capacity
+    public void setMaxTicketCapacity(int maxTicketCapacity) {
+        this.maxTicketCapacity = maxTicketCapacity;
+    }
+
+    // Getter method to retrieve the ticket release rate
+    public double getTicketReleaseRate() {
+        return ticketReleaseRate;
+    }
+
+    // Setter method to update the ticket release rate
+    public void setTicketReleaseRate(double ticketReleaseRate) {
+        this.ticketReleaseRate = ticketReleaseRate;
+    }
+
+    // Getter method to retrieve the consumer retrieval rate
+    public double getConsumerRetrievalRate() {
+        return consumerRetrievalRate;
+    }
+
+    // Setter method to update the consumer retrieval rate
+    public void setConsumerRetrievalRate(double consumerRetrievalRate) {
+        this.consumerRetrievalRate = consumerRetrievalRate;
+    }
+
+    // Getter method to retrieve the number of vendor tasks (null = engine default)
+    public Integer getVendorCount() {
+        return vendorCount;
+    }
+
+    // Setter method to update the number of vendor tasks
+    public void setVendorCount(Integer vendorCount) {
+        this.vendorCount = vendorCount;
+    }
+
+    // Getter method to retrieve the number of consumer tasks (null = engine default)
+    public Integer getConsumerCount() {
+        return consumerCount;
+    }
+
+    // Setter method to update the number of consumer tasks
+    public void setConsumerCount(Integer consumerCount) {
+        this.consumerCount = consumerCount;
+    }
+}
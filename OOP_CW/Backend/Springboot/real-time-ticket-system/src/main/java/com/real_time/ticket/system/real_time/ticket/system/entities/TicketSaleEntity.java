@@ -0,0 +1,78 @@
+package com.real_time.ticket.system.real_time.ticket.system.entities;
+
+// Importing necessary annotations for database entity mapping
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+
+// This class represents one ticket sold by a consumer, stored in the database
+@Entity
+@Table(name = "ticket_sale")
+public class TicketSaleEntity {
+
+    // Primary key taken from a sequence. Hibernate reserves 500 IDs per sequence call (pooled optimizer, one call
+    // per default write batch), so inserts can be sent in JDBC batches (an IDENTITY column would turn batching off)
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ticket_sale_seq")
+    @SequenceGenerator(name = "ticket_sale_seq", sequenceName = "ticket_sale_seq", allocationSize = 500)
+    private Long id;
+
+    // The event the ticket belongs to (null for the single simulation); ticket IDs are only unique per event
+    @Column(length = 64)
+    private String eventId;
+
+    // The ID of the ticket that was sold
+    @Column(nullable = false)
+    private long ticketId;
+
+    // The name of the consumer task that bought the ticket
+    @Column(nullable = false, length = 64)
+    private String buyer;
+
+    // When the ticket was sold
+    @Column(nullable = false)
+    private Instant soldAt;
+
+    // Default constructor required by JPA
+    protected TicketSaleEntity() {
+    }
+
+    // Constructor to create a sale of one ticket
+    public TicketSaleEntity(String eventId, long ticketId, String buyer, Instant soldAt) {
+        this.eventId = eventId;
+        this.ticketId = ticketId;
+        this.buyer = buyer;
+        this.soldAt = soldAt;
+    }
+
+    // Getter method to retrieve the ID of the sale (null until it is saved)
+    public Long getId() {
+        return id;
+    }
+
+    // Getter method to retrieve the event the ticket belongs to
+    public String getEventId() {
+        return eventId;
+    }
+
+    // Getter method to retrieve the ID of the ticket that was sold
+    public long getTicketId() {
+        return ticketId;
+    }
+
+    // Getter method to retrieve the consumer task that bought the ticket
+    public String getBuyer() {
+        return buyer;
+    }
+
+    // Getter method to retrieve when the ticket was sold
+    public Instant getSoldAt() {
+        return soldAt;
+    }
+}
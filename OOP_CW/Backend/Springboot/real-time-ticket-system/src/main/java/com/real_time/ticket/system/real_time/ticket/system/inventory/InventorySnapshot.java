@@ -0,0 +1,88 @@
+package com.real_time.ticket.system.real_time.ticket.system.inventory;
+
+// This class holds a copy of the ticket inventory counters taken at one moment
+public class InventorySnapshot {
+
+    private final long timestamp;          // When the snapshot was taken (epoch milliseconds)
+    private final int totalTickets;        // Tickets that may be released in this run
+    private final int maxCapacity;         // Most tickets the pool holds at once
+    private final int ticketsAvailable;    // Released tickets waiting to be sold
+    private final long ticketsReleased;    // Tickets released by vendors so far
+    private final long ticketsSold;        // Tickets purchased by consumers so far
+    private final long ticketsToRelease;   // Tickets vendors have not released yet
+    private final long rejectedReleases;   // Releases given up because the pool stayed full
+    private final long timedOutPurchases;  // Purchases given up because the pool stayed empty
+
+    // Constructor to create a snapshot from counter values that were already read
+    public InventorySnapshot(long timestamp, int totalTickets, int maxCapacity, int ticketsAvailable,
+                             long ticketsReleased, long ticketsSold, long ticketsToRelease,
+                             long rejectedReleases, long timedOutPurchases) {
+        this.timestamp = timestamp;
+        this.totalTickets = totalTickets;
+        this.maxCapacity = maxCapacity;
+        this.ticketsAvailable = ticketsAvailable;
+        this.ticketsReleased = ticketsReleased;
+        this.ticketsSold = ticketsSold;
+        this.ticketsToRelease = ticketsToRelease;
+        this.rejectedReleases = rejectedReleases;
+        this.timedOutPurchases = timedOutPurchases;
+    }
+
+    // Getter for the time the snapshot was taken
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    // Getter for the total number of tickets in this run
+    public int getTotalTickets() {
+        return totalTickets;
+    }
+
+    // Getter for the maximum capacity of the pool
+    public int getMaxCapacity() {
+        return maxCapacity;
+    }
+
+    // Getter for the number of tickets waiting to be sold
+    public int getTicketsAvailable() {
+        return ticketsAvailable;
+    }
+
+    // Getter for the number of tickets released so far
+    public long getTicketsReleased() {
+        return ticketsReleased;
+    }
+
+    // Getter for the number of tickets sold so far
+    public long getTicketsSold() {
+        return ticketsSold;
+    }
+
+    // Getter for the number of tickets not released yet
+    public long getTicketsToRelease() {
+        return ticketsToRelease;
+    }
+
+    // Getter for the number of releases given up because the pool stayed full
+    public long getRejectedReleases() {
+        return rejectedReleases;
+    }
+
+    // Getter for the number of purchases given up because the pool stayed empty
+    public long getTimedOutPurchases() {
+        return timedOutPurchases;
+    }
+
+    // Converts the snapshot into a readable string format
+    @Override
+    public String toString() {
+        return "InventorySnapshot{" +
+                "available=" + ticketsAvailable +
+                ", released=" + ticketsReleased +
+                ", sold=" + ticketsSold +
+                ", toRelease=" + ticketsToRelease +
+                ", total=" + totalTickets +
+                ", maxCapacity=" + maxCapacity +
+                '}';
+    }
+}
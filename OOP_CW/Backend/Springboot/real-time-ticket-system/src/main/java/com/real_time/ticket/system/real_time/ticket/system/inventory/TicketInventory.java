@@ -0,0 +1,181 @@
+package com.real_time.ticket.system.real_time.ticket.system.inventory;
+
+// Import Component annotation to make the inventory a Spring-managed bean
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The in-memory ticket inventory the simulation moves tickets through.
+ *
+ * Vendors release tickets into a bounded pool (never more than the configured
+ * total, never more than the maximum capacity at once) and consumers purchase
+ * them out of it. Each ticket has a unique ID. Release and purchase are atomic:
+ * many vendor and consumer threads can call them at the same time, and every
+ * ticket is released once and sold once.
+ *
+ * The counters are LongAdders, so updating them does not slow the threads down,
+ * and {@link #snapshot()} reads them without taking any lock.
+ */
+@Component
+public class TicketInventory {
+
+    // Returned by the purchase methods when no ticket could be bought (ticket IDs start at 1)
+    public static final long NO_TICKET = -1L;
+
+    // The inventory of the current run; replaced as a whole by reset()
+    private volatile Stock stock = new Stock(0, 1);
+
+    /**
+     * Start a new run with an empty pool. Threads still using the previous run
+     * finish against the old pool and cannot affect the new one.
+     *
+     * @param totalTickets The total number of tickets vendors may release.
+     * @param maxCapacity  The most tickets the pool can hold at once.
+     */
+    public void reset(int totalTickets, int maxCapacity) {
+        if (totalTickets <= 0) {
+            throw new IllegalArgumentException("Total tickets must be greater than zero.");
+        }
+        if (maxCapacity <= 0) {
+            throw new IllegalArgumentException("Max ticket capacity must be greater than zero.");
+        }
+        this.stock = new Stock(totalTickets, maxCapacity);
+    }
+
+    /**
+     * Release one new ticket into the pool, waiting up to the timeout for space.
+     *
+     * @param timeout How long to wait while the pool is full.
+     * @param unit    The unit of the timeout.
+     * @return The ID of the released ticket, or {@link #NO_TICKET} if every ticket
+     *         has already been released or the pool stayed full.
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    public long releaseTicket(long timeout, TimeUnit unit) throws InterruptedException {
+        Stock current = stock;
+        if (!current.claim()) {
+            return NO_TICKET; // The whole total has been released already
+        }
+        long ticketId = current.nextId.getAndIncrement();
+        current.released.increment(); // Counted before a consumer can see it, so sold never exceeds released
+        boolean added = false;
+        try {
+            added = current.tickets.offer(ticketId, timeout, unit);
+        } finally {
+            if (!added) {
+                current.released.decrement();
+                current.issued.decrementAndGet(); // Give the claim back so a later release can use it
+                current.rejectedReleases.increment();
+            }
+        }
+        return added ? ticketId : NO_TICKET;
+    }
+
+    /**
+     * Purchase one ticket, waiting up to the timeout for one to be released.
+     *
+     * @param timeout How long to wait while the pool is empty.
+     * @param unit    The unit of the timeout.
+     * @return The ID of the purchased ticket, or {@link #NO_TICKET} if none arrived in time.
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    public long purchaseTicket(long timeout, TimeUnit unit) throws InterruptedException {
+        Stock current = stock;
+        Long ticketId = current.tickets.poll(timeout, unit);
+        if (ticketId == null) {
+            current.timedOutPurchases.increment();
+            return NO_TICKET;
+        }
+        current.sold.increment();
+        return ticketId;
+    }
+
+    /**
+     * Purchase one ticket only if one is available right now.
+     *
+     * @return The ID of the purchased ticket, or {@link #NO_TICKET} if the pool is empty.
+     */
+    public long tryPurchaseTicket() {
+        Stock current = stock;
+        Long ticketId = current.tickets.poll();
+        if (ticketId == null) {
+            return NO_TICKET;
+        }
+        current.sold.increment();
+        return ticketId;
+    }
+
+    /**
+     * Check whether vendors have released the whole total.
+     *
+     * @return True if no more tickets can be released in this run.
+     */
+    public boolean isFullyReleased() {
+        Stock current = stock;
+        return current.issued.get() >= current.totalTickets;
+    }
+
+    /**
+     * Check whether every ticket of the run has been released and sold.
+     *
+     * @return True if the run is sold out.
+     */
+    public boolean isSoldOut() {
+        Stock current = stock;
+        return current.totalTickets > 0 && current.sold.sum() >= current.totalTickets;
+    }
+
+    /**
+     * Read all the counters at once without blocking vendors or consumers.
+     *
+     * @return An immutable copy of the inventory counters.
+     */
+    public InventorySnapshot snapshot() {
+        Stock current = stock;
+        // Sold is read before released: every sold ticket was counted as released first
+        long sold = current.sold.sum();
+        int available = current.tickets.size();
+        long released = current.released.sum();
+        return new InventorySnapshot(System.currentTimeMillis(), current.totalTickets, current.maxCapacity,
+                available, released, sold, Math.max(0, current.totalTickets - current.issued.get()),
+                current.rejectedReleases.sum(), current.timedOutPurchases.sum());
+    }
+
+    // The pool and counters of one run.
+    private static final class Stock {
+        private final int totalTickets;                 // Tickets that may be released in this run
+        private final int maxCapacity;                  // Most tickets the pool holds at once
+        private final BlockingQueue<Long> tickets;      // The released, unsold ticket IDs
+        private final AtomicInteger issued = new AtomicInteger(); // Release claims handed out so far
+        private final AtomicLong nextId = new AtomicLong(1);      // The next ticket ID
+        private final LongAdder released = new LongAdder();       // Tickets put into the pool
+        private final LongAdder sold = new LongAdder();           // Tickets purchased from the pool
+        private final LongAdder rejectedReleases = new LongAdder();  // Releases given up because the pool stayed full
+        private final LongAdder timedOutPurchases = new LongAdder(); // Purchases given up because the pool stayed empty
+
+        private Stock(int totalTickets, int maxCapacity) {
+            this.totalTickets = totalTickets;
+            this.maxCapacity = maxCapacity;
+            this.tickets = new ArrayBlockingQueue<>(maxCapacity);
+        }
+
+        // Claim the right to release one more ticket; many vendors together never exceed the total.
+        private boolean claim() {
+            while (true) {
+                int current = issued.get();
+                if (current >= totalTickets) {
+                    return false;
+                }
+                if (issued.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.real_time.ticket.system.real_time.ticket.system.repo;
+
+// Importing the EventEntity class to work with the event configurations
+import com.real_time.ticket.system.real_time.ticket.system.entities.EventEntity;
+
+// Importing JpaRepository for database operations and Repository annotation for marking this interface as a repository
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+// This annotation tells Spring that this is a repository (data access layer) for the event configurations
+@Repository
+public interface EventRepo extends JpaRepository<EventEntity, String> {
+    // EventRegistry loads an event from here the first time it is asked for after a restart
+}
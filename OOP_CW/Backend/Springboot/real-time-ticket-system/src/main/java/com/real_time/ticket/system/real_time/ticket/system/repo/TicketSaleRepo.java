@@ -0,0 +1,14 @@
+package com.real_time.ticket.system.real_time.ticket.system.repo;
+
+// Importing the TicketSaleEntity class to work with the sales data
+import com.real_time.ticket.system.real_time.ticket.system.entities.TicketSaleEntity;
+
+// Importing JpaRepository for database operations and Repository annotation for marking this interface as a repository
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+// This annotation tells Spring that this is a repository (data access layer) for the ticket sales
+@Repository
+public interface TicketSaleRepo extends JpaRepository<TicketSaleEntity, Long> {
+    // The sales are written in batches by TicketSaleWriter through saveAll()
+}
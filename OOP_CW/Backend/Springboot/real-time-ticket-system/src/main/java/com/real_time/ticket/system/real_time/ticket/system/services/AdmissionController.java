@@ -0,0 +1,131 @@
+package com.real_time.ticket.system.real_time.ticket.system.services;
+
+// Import Micrometer meters to publish how much load is let through and turned away
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+// Import Value annotation to read the admission settings from application.properties
+import org.springframework.beans.factory.annotation.Value;
+// Import Component annotation to make the controller a Spring-managed bean
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Decides whether a buyer's purchase request may wait for a ticket at all,
+ * so that under overload requests are refused at once (HTTP 429) instead of
+ * piling up on the server's request threads with ever longer waits.
+ *
+ * A request is rejected when ticketing.admission.max-waiters requests are
+ * already waiting. No admitted request waits longer than
+ * ticketing.admission.wait-slo-ms; once a wait has reached it, new requests
+ * are shed at once for the next SLO period, after which the next admitted
+ * request shows whether the waits are short again. Either limit is turned off
+ * with 0.
+ */
+@Component
+public class AdmissionController {
+
+    // Most requests waiting at once (0 = no limit)
+    private final int maxWaiters;
+
+    // Longest useful wait in nanoseconds (0 = no SLO)
+    private final long waitSloNanos;
+
+    // How long a turned-away buyer should wait before trying again, in seconds
+    private final long retryAfterSeconds;
+
+    // Requests admitted and still waiting
+    private final AtomicInteger waiters = new AtomicInteger();
+
+    // New requests are shed until this time (System.nanoTime)
+    private volatile long sheddingUntil = System.nanoTime();
+
+    // Meters: requests let through, turned away at the waiter limit, and shed because waits reached the SLO
+    private final Counter admittedCounter;
+    private final Counter rejectedCounter;
+    private final Counter shedCounter;
+
+    // Constructor for injecting the admission settings and registering the meters
+    public AdmissionController(MeterRegistry meterRegistry,
+                               @Value("${ticketing.admission.max-waiters:100}") int maxWaiters,
+                               @Value("${ticketing.admission.wait-slo-ms:1000}") long waitSloMillis) {
+        if (maxWaiters < 0 || waitSloMillis < 0) {
+            throw new IllegalArgumentException("ticketing.admission.max-waiters and wait-slo-ms must not be negative.");
+        }
+        this.maxWaiters = maxWaiters;
+        this.waitSloNanos = TimeUnit.MILLISECONDS.toNanos(waitSloMillis);
+        this.retryAfterSeconds = Math.max(1, TimeUnit.MILLISECONDS.toSeconds(waitSloMillis)); // Retry-After counts whole seconds
+        this.admittedCounter = Counter.builder("ticketing.admission.admitted")
+                .description("Purchase requests allowed to wait for a ticket")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("ticketing.admission.rejected")
+                .description("Purchase requests refused because too many were already waiting")
+                .register(meterRegistry);
+        this.shedCounter = Counter.builder("ticketing.admission.shed")
+                .description("Purchase requests refused, or given up, because waits reached the SLO")
+                .register(meterRegistry);
+        Gauge.builder("ticketing.admission.waiting", waiters, AtomicInteger::get)
+                .description("Purchase requests waiting for a ticket")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Ask to start waiting for a ticket. Every true answer must be followed by
+     * exactly one {@link #exit(long, boolean)}.
+     *
+     * @return True if the request may wait, false if it was rejected or shed.
+     */
+    public boolean tryEnter() {
+        if (waitSloNanos > 0 && System.nanoTime() - sheddingUntil < 0) {
+            shedCounter.increment(); // Waits reached the SLO a moment ago: fail fast
+            return false;
+        }
+        if (waiters.incrementAndGet() > maxWaiters && maxWaiters > 0) {
+            waiters.decrementAndGet();
+            rejectedCounter.increment(); // Too many already waiting
+            return false;
+        }
+        admittedCounter.increment();
+        return true;
+    }
+
+    /**
+     * Report that an admitted request stopped waiting.
+     *
+     * @param waitedNanos How long it waited.
+     * @param served      Whether it got a ticket.
+     */
+    public void exit(long waitedNanos, boolean served) {
+        waiters.decrementAndGet();
+        if (waitSloNanos > 0 && waitedNanos >= waitSloNanos) {
+            sheddingUntil = System.nanoTime() + waitSloNanos; // Shed new requests for one SLO period
+            if (!served) {
+                shedCounter.increment(); // Gave up at the SLO with nothing
+            }
+        }
+    }
+
+    /**
+     * Get how long an admitted request may wait: the SLO if there is one and it is shorter.
+     *
+     * @param timeout The request's own timeout.
+     * @param unit    The unit of the timeout.
+     * @return The timeout to wait with, in nanoseconds.
+     */
+    public long getWaitTimeoutNanos(long timeout, TimeUnit unit) {
+        long timeoutNanos = unit.toNanos(timeout);
+        return waitSloNanos > 0 ? Math.min(timeoutNanos, waitSloNanos) : timeoutNanos;
+    }
+
+    // Get how long a turned-away buyer should wait before trying again, in seconds (for the Retry-After header)
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    // Get the number of requests admitted and still waiting
+    public int getWaiterCount() {
+        return waiters.get();
+    }
+}
@@ -0,0 +1,162 @@
+package com.real_time.ticket.system.real_time.ticket.system.services;
+
+// Import the ConfigurationEntity to read the stored rates
+import com.real_time.ticket.system.real_time.ticket.system.entities.ConfigurationEntity;
+// Import the ConfigurationRepo to load the configuration from the database
+import com.real_time.ticket.system.real_time.ticket.system.repo.ConfigurationRepo;
+// Import logging functionality to record messages during the execution of methods
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+// Import Value annotation to read the refresh interval from application.properties
+import org.springframework.beans.factory.annotation.Value;
+// Import Component annotation to make the cache a Spring-managed bean
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps the simulation rates in memory so the vendor and consumer threads do
+ * not query the database on every loop.
+ *
+ * The rates are held in one immutable {@link Rates} object behind a volatile
+ * field, so reading them is a single memory read with no lock. The object is
+ * replaced when the configuration is saved through the services
+ * ({@link #publish(ConfigurationEntity)}) or when {@link #refresh()} is called.
+ * If ticketing.config.cache-ttl-ms is above zero, the rates are also reloaded
+ * once they are older than that, which picks up changes made to the database
+ * directly. One caller does the reload while the others keep using the old
+ * rates.
+ */
+@Component
+public class ConfigurationCache {
+
+    // Logger to record messages, warnings, and errors for debugging purposes
+    private static final Logger logger = LoggerFactory.getLogger(ConfigurationCache.class);
+
+    // The ID of the single configuration row
+    private static final long CONFIGURATION_ID = 1L;
+
+    // Rate used when no configuration (or no positive rate) is stored
+    private static final double DEFAULT_RATE = 5;
+
+    // A reference to ConfigurationRepo, used only when the cache has to be (re)loaded
+    private final ConfigurationRepo configurationRepo;
+
+    // How long loaded rates stay valid in nanoseconds (0 = until the next publish or refresh)
+    private final long ttlNanos;
+
+    // True while one thread is reloading expired rates
+    private final AtomicBoolean reloading = new AtomicBoolean();
+
+    // The current rates (null until first loaded)
+    private volatile Rates rates;
+
+    // Constructor for injecting the ConfigurationRepo and the refresh interval
+    public ConfigurationCache(ConfigurationRepo configurationRepo,
+                              @Value("${ticketing.config.cache-ttl-ms:0}") long ttlMillis) {
+        if (ttlMillis < 0) {
+            throw new IllegalArgumentException("ticketing.config.cache-ttl-ms must not be negative.");
+        }
+        this.configurationRepo = configurationRepo;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+    }
+
+    /**
+     * Get the current rates, loading them from the database the first time and
+     * whenever they are older than the TTL.
+     *
+     * @return The current rates (never null).
+     */
+    public Rates getRates() {
+        Rates current = rates;
+        if (current == null) {
+            return loadFirst();
+        }
+        if (ttlNanos > 0 && System.nanoTime() - current.getLoadedAtNanos() > ttlNanos
+                && reloading.compareAndSet(false, true)) {
+            try {
+                return refresh();
+            } catch (RuntimeException e) {
+                // Keep serving the old rates if the database cannot be reached
+                logger.warn("Could not reload the configuration, keeping the cached rates: {}", e.getMessage());
+            } finally {
+                reloading.set(false);
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Reload the rates from the database now.
+     *
+     * @return The reloaded rates.
+     */
+    public Rates refresh() {
+        ConfigurationEntity config = configurationRepo.findById(CONFIGURATION_ID).orElse(null);
+        if (config == null) {
+            logger.warn("No configuration found, using the default rates.");
+        }
+        return publish(config);
+    }
+
+    /**
+     * Replace the cached rates with the ones of a configuration that was just saved.
+     *
+     * @param config The saved configuration (null means none is stored).
+     * @return The new rates.
+     */
+    public Rates publish(ConfigurationEntity config) {
+        double releaseRate = config != null && config.getTicketReleaseRate() > 0
+                ? config.getTicketReleaseRate() : DEFAULT_RATE;
+        double retrievalRate = config != null && config.getConsumerRetrievalRate() > 0
+                ? config.getConsumerRetrievalRate() : DEFAULT_RATE;
+        Rates updated = new Rates(releaseRate, retrievalRate, System.nanoTime());
+        rates = updated;
+        logger.debug("Configuration cache updated: {}", updated);
+        return updated;
+    }
+
+    // The first threads to ask wait for one load instead of each querying the database.
+    private synchronized Rates loadFirst() {
+        Rates current = rates;
+        return current != null ? current : refresh();
+    }
+
+    /**
+     * An immutable copy of the simulation rates in tickets per second.
+     */
+    public static final class Rates {
+        private final double ticketReleaseRate;     // Tickets per second released by each vendor
+        private final double consumerRetrievalRate; // Tickets per second bought by each consumer
+        private final long loadedAtNanos;           // When these rates were loaded (System.nanoTime)
+
+        private Rates(double ticketReleaseRate, double consumerRetrievalRate, long loadedAtNanos) {
+            this.ticketReleaseRate = ticketReleaseRate;
+            this.consumerRetrievalRate = consumerRetrievalRate;
+            this.loadedAtNanos = loadedAtNanos;
+        }
+
+        // Getter for the ticket release rate
+        public double getTicketReleaseRate() {
+            return ticketReleaseRate;
+        }
+
+        // Getter for the consumer retrieval rate
+        public double getConsumerRetrievalRate() {
+            return consumerRetrievalRate;
+        }
+
+        // Getter for the time the rates were loaded
+        public long getLoadedAtNanos() {
+            return loadedAtNanos;
+        }
+
+        // Converts the rates into a readable string format
+        @Override
+        public String toString() {
+            return "Rates{ticketReleaseRate=" + ticketReleaseRate
+                    + ", consumerRetrievalRate=" + consumerRetrievalRate + '}';
+        }
+    }
+}
@@ -2,14 +2,22 @@ package com.real_time.ticket.system.real_time.ticket.system.services;
 
 // Import the ConfigurationEntity to work with the configuration data
 import com.real_time.ticket.system.real_time.ticket.system.entities.ConfigurationEntity;
+// Import the TicketInventory the consumers purchase tickets from
+import com.real_time.ticket.system.real_time.ticket.system.inventory.TicketInventory;
 // Import the ConfigurationRepo to interact with the database
 import com.real_time.ticket.system.real_time.ticket.system.repo.ConfigurationRepo;
+// Import Micrometer meters to publish ticket counts and wait times
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 // Import logging functionality to record messages during the execution of methods
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 // Import Spring's Service annotation to mark this class as a service layer
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.TimeUnit;
+
 // This annotation marks the class as a Service, meaning it contains business logic
 @Service
 public class ConsumerServiceIMPL {
@@ -20,45 +28,99 @@ public class ConsumerServiceIMPL {
     // A reference to ConfigurationRepo, which is used to interact with configuration data in the database
     private final ConfigurationRepo configurationRepo;
 
-    // Constructor for injecting the ConfigurationRepo dependency
-    public ConsumerServiceIMPL(ConfigurationRepo configurationRepo) {
-        this.configurationRepo = configurationRepo;  // Assigns the passed repository to the class variable
+    // In-memory copy of the rates, so the consumer loop does not query the database
+    private final ConfigurationCache configurationCache;
+
+    // The in-memory inventory the tickets are purchased from
+    private final TicketInventory ticketInventory;
+
+    // Saves the sales to the database in batches, in the background
+    private final TicketSaleWriter ticketSaleWriter;
+
+    // Counts every ticket purchased (ticketing.tickets.purchased)
+    private final Counter ticketCounter;
+
+    // Times every purchase call, including the wait inside the inventory (ticketing.consumer.wait)
+    private final Timer waitTimer;
+
+    // Constructor for injecting the ConfigurationRepo, ConfigurationCache, TicketInventory and TicketSaleWriter dependencies and registering the meters
+    public ConsumerServiceIMPL(ConfigurationRepo configurationRepo, ConfigurationCache configurationCache,
+                               TicketInventory ticketInventory, TicketSaleWriter ticketSaleWriter,
+                               MeterRegistry meterRegistry) {
+        this.configurationRepo = configurationRepo;    // Assigns the passed repository to the class variable
+        this.configurationCache = configurationCache;  // Assigns the passed cache to the class variable
+        this.ticketInventory = ticketInventory;        // Assigns the passed inventory to the class variable
+        this.ticketSaleWriter = ticketSaleWriter;      // Assigns the passed sale writer to the class variable
+        this.ticketCounter = Counter.builder("ticketing.tickets.purchased")
+                .description("Tickets purchased from the pool by consumers")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("ticketing.consumer.wait")
+                .description("Time a consumer spent in one purchase, including waiting for a ticket in an empty pool")
+                .register(meterRegistry);
     }
 
-    // Method to get the consumer retrieval rate from the database
-    public int getConsumerRetrievalRate() {
-        // Try to retrieve the configuration from the database using the ID 1
-        ConfigurationEntity config = configurationRepo.findById(1L).orElse(null);
-
-        // If the configuration is found, return the consumer retrieval rate
-        if (config != null) {
-            return config.getConsumerRetrievalRate();
-        } else {
-            // If no configuration is found, log a warning and return a default value
-            logger.warn("No configuration found, returning default consumer retrieval rate.");
-            return 5;  // Default rate if no data is found
-        }
+    // Method to get the consumer retrieval rate (tickets per second) from the configuration cache
+    public double getConsumerRetrievalRate() {
+        // The cache falls back to the default rate (and logs a warning) when no configuration is stored
+        return configurationCache.getRates().getConsumerRetrievalRate();
     }
 
     // Method to update the consumer retrieval rate in the database
-    public void updateConsumerRetrievalRate(int newRate) {
+    public void updateConsumerRetrievalRate(double newRate) {
         // Try to retrieve the configuration by ID or create a new one if not found
         ConfigurationEntity config = configurationRepo.findById(1L).orElse(new ConfigurationEntity());
 
         // Update the consumer retrieval rate with the new value
         config.setConsumerRetrievalRate(newRate);
 
-        // Save the updated configuration back to the database
-        configurationRepo.save(config);
+        // Save the updated configuration back to the database and refresh the cached rates
+        configurationCache.publish(configurationRepo.save(config));
 
         // Log a message indicating the update was successful
         logger.info("Updated consumer retrieval rate to {}", newRate);
     }
 
-    // Example placeholder method to simulate a consumer action
-    public void simulateConsumerAction() {
-        // Log a message indicating that a consumer is performing an action
-        logger.info("Consumer is performing an action (e.g., purchasing a ticket)");
-        // You can add more code here to define the actions performed by the consumer
+    /**
+     * Purchase one ticket from the inventory, waiting up to the timeout while the pool is empty.
+     * The sale is queued to be saved to the database; this only waits for the database when
+     * the write buffer is full.
+     *
+     * @param buyer   The name of the consumer buying the ticket.
+     * @param timeout How long to wait for a ticket to be released.
+     * @param unit    The unit of the timeout.
+     * @return The ID of the purchased ticket, or TicketInventory.NO_TICKET if none was bought.
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    public long purchaseTicket(String buyer, long timeout, TimeUnit unit) throws InterruptedException {
+        return purchaseTicket(null, ticketInventory, buyer, timeout, unit);
+    }
+
+    /**
+     * Purchase one ticket of an event, waiting up to the timeout while its pool is empty.
+     *
+     * @param eventId   The event the ticket belongs to (null for the single simulation).
+     * @param inventory The inventory of the event.
+     * @param buyer     The name of the consumer buying the ticket.
+     * @param timeout   How long to wait for a ticket to be released.
+     * @param unit      The unit of the timeout.
+     * @return The ID of the purchased ticket, or TicketInventory.NO_TICKET if none was bought.
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    public long purchaseTicket(String eventId, TicketInventory inventory, String buyer, long timeout, TimeUnit unit)
+            throws InterruptedException {
+        long start = System.nanoTime();
+        long ticketId = inventory.purchaseTicket(timeout, unit);
+        waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (ticketId != TicketInventory.NO_TICKET) {
+            ticketCounter.increment();
+            logger.debug("Consumer purchased ticket {}", ticketId);
+            ticketSaleWriter.recordSale(eventId, ticketId, buyer);
+        }
+        return ticketId;
+    }
+
+    // Check whether every ticket of the current run has been sold
+    public boolean isSoldOut() {
+        return ticketInventory.isSoldOut();
     }
 }
@@ -0,0 +1,273 @@
+package com.real_time.ticket.system.real_time.ticket.system.services;
+
+// Import the configuration and status classes of an event
+import com.real_time.ticket.system.real_time.ticket.system.dto.EventStatusDTO;
+import com.real_time.ticket.system.real_time.ticket.system.dto.SimulatingConfigDTO;
+// Import the entity and repository the event configurations are stored with
+import com.real_time.ticket.system.real_time.ticket.system.entities.EventEntity;
+import com.real_time.ticket.system.real_time.ticket.system.repo.EventRepo;
+// Import lifecycle annotations to start and stop the reaper with the application
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+// Import logging functionality to record messages during the execution of methods
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+// Import Value annotation to read the event settings from application.properties
+import org.springframework.beans.factory.annotation.Value;
+// Import Service annotation to mark this class as a service layer
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Holds every event of /api/v1/events, each with its own pool, rates and
+ * tasks ({@link TicketEvent}).
+ *
+ * The events are kept in a ConcurrentHashMap keyed by event ID, so finding an
+ * event is one hash lookup that never waits for another event. The
+ * configurations are stored in the database; an event that is not in memory
+ * (for example after a restart) is loaded the first time it is asked for.
+ *
+ * An event only holds an inventory and threads while it runs. A reaper thread
+ * checks every ticketing.events.reap-interval-ms for runs that have finished
+ * by themselves and lets go of their resources. At most
+ * ticketing.events.max-events events may exist at once.
+ */
+@Service
+public class EventRegistry {
+
+    // Logger to record messages, warnings, and errors for debugging purposes
+    private static final Logger logger = LoggerFactory.getLogger(EventRegistry.class);
+
+    // Event IDs appear in URLs and thread names, so keep them short and plain
+    private static final Pattern EVENT_ID = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    // The services every event's tasks use
+    private final TicketServiceIMPL ticketService;
+    private final ConsumerServiceIMPL consumerService;
+
+    // The repository the event configurations are stored in
+    private final EventRepo eventRepo;
+
+    // Engine settings given to every event
+    private final String executorType;
+    private final int defaultVendorCount;
+    private final int defaultConsumerCount;
+
+    // Most events that may exist at once
+    private final int maxEvents;
+
+    // How often finished runs are let go of in milliseconds
+    private final long reapIntervalMillis;
+
+    // The events by ID
+    private final ConcurrentMap<String, TicketEvent> events = new ConcurrentHashMap<>();
+
+    // The number of events in the map, raised before a new event is put in so the limit can never be passed
+    private final AtomicInteger eventCount = new AtomicInteger();
+
+    // The thread that lets go of finished runs
+    private ScheduledExecutorService reaper;
+
+    // Constructor for injecting the services, the repository and the event settings
+    public EventRegistry(TicketServiceIMPL ticketService, ConsumerServiceIMPL consumerService, EventRepo eventRepo,
+                         @Value("${ticketing.engine.executor:virtual}") String executorType,
+                         @Value("${ticketing.engine.vendors:1}") int defaultVendorCount,
+                         @Value("${ticketing.engine.consumers:1}") int defaultConsumerCount,
+                         @Value("${ticketing.events.max-events:1000}") int maxEvents,
+                         @Value("${ticketing.events.reap-interval-ms:1000}") long reapIntervalMillis) {
+        if (maxEvents <= 0) {
+            throw new IllegalArgumentException("ticketing.events.max-events must be greater than zero.");
+        }
+        if (reapIntervalMillis <= 0) {
+            throw new IllegalArgumentException("ticketing.events.reap-interval-ms must be greater than zero.");
+        }
+        this.ticketService = ticketService;
+        this.consumerService = consumerService;
+        this.eventRepo = eventRepo;
+        this.executorType = executorType;
+        this.defaultVendorCount = defaultVendorCount;
+        this.defaultConsumerCount = defaultConsumerCount;
+        this.maxEvents = maxEvents;
+        this.reapIntervalMillis = reapIntervalMillis;
+    }
+
+    // Start the reaper thread once the bean is ready
+    @PostConstruct
+    public void start() {
+        reaper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "event-reaper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reaper.scheduleWithFixedDelay(this::releaseFinishedRuns, reapIntervalMillis, reapIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    // Stop the reaper and every running event when the application shuts down
+    @PreDestroy
+    public void shutdown() {
+        if (reaper != null) {
+            reaper.shutdownNow();
+        }
+        for (TicketEvent event : events.values()) {
+            event.stop();
+        }
+    }
+
+    /**
+     * Find an event, loading its stored configuration if it is not in memory yet.
+     *
+     * @param eventId The ID of the event.
+     * @return The event, or null if no event has this ID.
+     */
+    public TicketEvent getEvent(String eventId) {
+        if (!isValidEventId(eventId)) {
+            return null;
+        }
+        TicketEvent event = events.get(eventId);
+        if (event != null) {
+            return event;
+        }
+        EventEntity saved = eventRepo.findById(eventId).orElse(null);
+        if (saved == null) {
+            return null;
+        }
+        return events.computeIfAbsent(eventId, id -> loadEvent(id, saved));
+    }
+
+    /**
+     * Create an event or change its configuration. The rates of a running event
+     * change at once; the ticket counts apply from its next start.
+     *
+     * @param eventId The ID of the event.
+     * @param config  The validated configuration.
+     * @return The created or updated event.
+     * @throws IllegalArgumentException If the event ID is not valid.
+     * @throws IllegalStateException    If the event is new and the event limit is reached.
+     */
+    public TicketEvent configure(String eventId, SimulatingConfigDTO config) {
+        if (!isValidEventId(eventId)) {
+            throw new IllegalArgumentException("Event IDs are 1 to 64 letters, digits, '-' or '_'.");
+        }
+        TicketEvent event = getEvent(eventId);
+        if (event == null) {
+            // The limit is checked inside compute and the count raised before the event is put in,
+            // so requests creating different events at the same time can never pass maxEvents together
+            event = events.compute(eventId, (id, existing) -> existing != null ? existing : createEvent(id, config));
+        }
+        eventRepo.save(toEntity(eventId, config));
+        event.updateConfig(config);
+        return event;
+    }
+
+    /**
+     * Stop an event and remove it, together with its stored configuration.
+     *
+     * @param eventId The ID of the event.
+     * @return False if no event has this ID.
+     */
+    public boolean delete(String eventId) {
+        TicketEvent event = getEvent(eventId);
+        if (event == null) {
+            return false;
+        }
+        // Delete the stored row first, so a lookup after the map entry is gone cannot load the event back
+        eventRepo.deleteById(eventId);
+        if (events.remove(eventId, event)) {
+            eventCount.decrementAndGet();
+        }
+        event.stop();
+        logger.info("Event {} deleted.", eventId);
+        return true;
+    }
+
+    /**
+     * Read the status of every event, including stored events not loaded since the start.
+     *
+     * @return One status per event.
+     */
+    public List<EventStatusDTO> getStatuses() {
+        for (EventEntity saved : eventRepo.findAll()) {
+            events.computeIfAbsent(saved.getEventId(), id -> loadEvent(id, saved));
+        }
+        List<EventStatusDTO> statuses = new ArrayList<>(events.size());
+        for (TicketEvent event : events.values()) {
+            statuses.add(event.getStatus());
+        }
+        return statuses;
+    }
+
+    // Get the number of events in memory
+    public int getEventCount() {
+        return events.size();
+    }
+
+    // Let go of the inventory and threads of every run that has finished (runs on the reaper thread only).
+    private void releaseFinishedRuns() {
+        try {
+            for (TicketEvent event : events.values()) {
+                event.releaseIfFinished();
+            }
+        } catch (RuntimeException e) {
+            // Never let an error cancel the scheduled reaper
+            logger.error("Error releasing finished events: {}", e.getMessage(), e);
+        }
+    }
+
+    // Create a new event, taking one of the maxEvents places first (runs inside events.compute).
+    private TicketEvent createEvent(String eventId, SimulatingConfigDTO config) {
+        if (eventCount.incrementAndGet() > maxEvents) {
+            eventCount.decrementAndGet();
+            throw new IllegalStateException("The limit of " + maxEvents + " events is reached.");
+        }
+        logger.info("Event {} created.", eventId);
+        return newEvent(eventId, config);
+    }
+
+    // Put a stored event back in memory; it already existed, so it is counted but never refused.
+    private TicketEvent loadEvent(String eventId, EventEntity saved) {
+        eventCount.incrementAndGet();
+        return newEvent(eventId, toConfig(saved));
+    }
+
+    // Create the in-memory event; its inventory and threads are only created when it starts.
+    private TicketEvent newEvent(String eventId, SimulatingConfigDTO config) {
+        return new TicketEvent(eventId, config, ticketService, consumerService, executorType,
+                defaultVendorCount, defaultConsumerCount);
+    }
+
+    // Check an event ID against the allowed characters and length.
+    private static boolean isValidEventId(String eventId) {
+        return eventId != null && EVENT_ID.matcher(eventId).matches();
+    }
+
+    // Copy a stored configuration into the DTO the engine starts from.
+    private static SimulatingConfigDTO toConfig(EventEntity saved) {
+        SimulatingConfigDTO config = new SimulatingConfigDTO(saved.getTotalTickets(), saved.getTicketReleaseRate(),
+                saved.getConsumerRetrievalRate(), saved.getMaxTicketCapacity());
+        config.setVendorCount(saved.getVendorCount());
+        config.setConsumerCount(saved.getConsumerCount());
+        return config;
+    }
+
+    // Copy a configuration into the entity it is stored as.
+    private static EventEntity toEntity(String eventId, SimulatingConfigDTO config) {
+        EventEntity entity = new EventEntity(eventId);
+        entity.setTotalTickets(config.getTotalTickets());
+        entity.setMaxTicketCapacity(config.getMaxTicketCapacity());
+        entity.setTicketReleaseRate(config.getTicketReleaseRate());
+        entity.setConsumerRetrievalRate(config.getConsumerRetrievalRate());
+        entity.setVendorCount(config.getVendorCount());
+        entity.setConsumerCount(config.getConsumerCount());
+        return entity;
+    }
+}
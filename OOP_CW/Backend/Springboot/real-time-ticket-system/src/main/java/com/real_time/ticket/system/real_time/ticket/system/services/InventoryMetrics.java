@@ -0,0 +1,69 @@
+package com.real_time.ticket.system.real_time.ticket.system.services;
+
+// Import the inventory the gauges read
+import com.real_time.ticket.system.real_time.ticket.system.inventory.InventorySnapshot;
+import com.real_time.ticket.system.real_time.ticket.system.inventory.TicketInventory;
+// Import Micrometer classes to register the gauges
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+// Import Component annotation so Spring Boot binds the gauges to the registry
+import org.springframework.stereotype.Component;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Publishes the state of the ticket inventory and the simulation as gauges.
+ * Gauges are only read when the metrics are scraped, so they cost nothing
+ * while the simulation runs. The ticket counters here belong to the current
+ * run and start again at zero on every start; use ticketing.tickets.released
+ * and ticketing.tickets.purchased for rates.
+ */
+@Component
+public class InventoryMetrics implements MeterBinder {
+
+    // The inventory, engine and stream the gauges read
+    private final TicketInventory ticketInventory;
+    private final SimulationEngine simulationEngine;
+    private final StatusBroadcaster statusBroadcaster;
+
+    // Constructor for injecting the components the gauges read
+    public InventoryMetrics(TicketInventory ticketInventory, SimulationEngine simulationEngine,
+                            StatusBroadcaster statusBroadcaster) {
+        this.ticketInventory = ticketInventory;
+        this.simulationEngine = simulationEngine;
+        this.statusBroadcaster = statusBroadcaster;
+    }
+
+    // Register every gauge with the registry
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        inventoryGauge(registry, "ticketing.pool.available", "Tickets waiting in the pool",
+                InventorySnapshot::getTicketsAvailable);
+        inventoryGauge(registry, "ticketing.pool.capacity", "Most tickets the pool holds at once",
+                InventorySnapshot::getMaxCapacity);
+        inventoryGauge(registry, "ticketing.pool.occupancy", "Share of the pool capacity in use (0 to 1)",
+                snapshot -> (double) snapshot.getTicketsAvailable() / snapshot.getMaxCapacity());
+        inventoryGauge(registry, "ticketing.run.released", "Tickets released in the current run",
+                InventorySnapshot::getTicketsReleased);
+        inventoryGauge(registry, "ticketing.run.sold", "Tickets sold in the current run",
+                InventorySnapshot::getTicketsSold);
+        inventoryGauge(registry, "ticketing.run.tickets", "Tickets in the current run",
+                InventorySnapshot::getTotalTickets);
+
+        Gauge.builder("ticketing.engine.running", simulationEngine, engine -> engine.isRunning() ? 1 : 0)
+                .description("1 while the simulation tasks are running")
+                .register(registry);
+        Gauge.builder("ticketing.status.subscribers", statusBroadcaster, StatusBroadcaster::getSubscriberCount)
+                .description("Clients connected to the status stream")
+                .register(registry);
+    }
+
+    // Register one gauge that reads a value from a fresh inventory snapshot.
+    private void inventoryGauge(MeterRegistry registry, String name, String description,
+                                ToDoubleFunction<InventorySnapshot> value) {
+        Gauge.builder(name, ticketInventory, inventory -> value.applyAsDouble(inventory.snapshot()))
+                .description(description)
+                .register(registry);
+    }
+}
@@ -0,0 +1,258 @@
+package com.real_time.ticket.system.real_time.ticket.system.services;
+
+// Import the configuration and statistics classes the engine works with
+import com.real_time.ticket.system.real_time.ticket.system.dto.SimulatingConfigDTO;
+import com.real_time.ticket.system.real_time.ticket.system.dto.TaskStatsDTO;
+// Import the inventory the tasks move tickets through
+import com.real_time.ticket.system.real_time.ticket.system.inventory.TicketInventory;
+// Import the vendor and consumer tasks
+import com.real_time.ticket.system.real_time.ticket.system.threads.ConsumerThread;
+import com.real_time.ticket.system.real_time.ticket.system.threads.SimulationTask;
+import com.real_time.ticket.system.real_time.ticket.system.threads.VendorThread;
+// Import lifecycle annotation to stop the tasks when the application shuts down
+import jakarta.annotation.PreDestroy;
+// Import logging functionality to record messages during the execution of methods
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+// Import Autowired to pick the constructor Spring uses for the single simulation
+import org.springframework.beans.factory.annotation.Autowired;
+// Import Value annotation to read the engine settings from application.properties
+import org.springframework.beans.factory.annotation.Value;
+// Import Service annotation to mark this class as a service layer
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Runs the simulation: a configurable number of vendor and consumer tasks on
+ * an executor owned by this service.
+ *
+ * Every start creates new task objects and a new executor, and every stop
+ * stops the tasks, shuts the executor down and waits for its threads to end,
+ * so the simulation can be started and stopped any number of times without
+ * leaking threads or carrying state from one run to the next.
+ *
+ * The executor is chosen with ticketing.engine.executor: "virtual" (the
+ * default) runs every task on its own virtual thread; "fixed" uses a pool of
+ * platform threads with one thread per task.
+ *
+ * The Spring bean runs the single simulation of /api/v1/simulating with the
+ * rates from the configuration cache. {@link EventRegistry} creates one more
+ * engine per event, with the event's own inventory and rates.
+ */
+@Service
+public class SimulationEngine {
+
+    // Logger to record messages, warnings, and errors for debugging purposes
+    private static final Logger logger = LoggerFactory.getLogger(SimulationEngine.class);
+
+    // How long stop() waits for the tasks to end
+    private static final long STOP_TIMEOUT_SECONDS = 5;
+
+    // The services the tasks use
+    private final TicketServiceIMPL ticketService;
+    private final ConsumerServiceIMPL consumerService;
+
+    // The inventory reset at the start of every run
+    private final TicketInventory ticketInventory;
+
+    // The event the engine runs (null for the single simulation) and where its tasks read their rates
+    private final String eventId;
+    private final DoubleSupplier releaseRate;
+    private final DoubleSupplier retrievalRate;
+
+    // Executor type and the default task counts from application.properties
+    private final String executorType;
+    private final int defaultVendorCount;
+    private final int defaultConsumerCount;
+
+    // State of the current run (changed only while holding the lock; volatile so the status can be read without it)
+    private volatile ExecutorService executor;
+    private volatile List<SimulationTask> tasks = List.of();
+    private volatile List<Future<?>> futures = List.of();
+
+    // Constructor for injecting the services and the engine settings of the single simulation
+    @Autowired
+    public SimulationEngine(TicketServiceIMPL ticketService, ConsumerServiceIMPL consumerService,
+                            TicketInventory ticketInventory,
+                            @Value("${ticketing.engine.executor:virtual}") String executorType,
+                            @Value("${ticketing.engine.vendors:1}") int defaultVendorCount,
+                            @Value("${ticketing.engine.consumers:1}") int defaultConsumerCount) {
+        this(ticketService, consumerService, null, ticketInventory, ticketService::getTicketReleaseRate,
+                consumerService::getConsumerRetrievalRate, executorType, defaultVendorCount, defaultConsumerCount);
+    }
+
+    /**
+     * Constructor to create the engine of one event.
+     *
+     * @param ticketService        The service the vendor tasks release through.
+     * @param consumerService      The service the consumer tasks purchase through.
+     * @param eventId              The event (null for the single simulation).
+     * @param ticketInventory      The inventory of the event.
+     * @param releaseRate          Returns the current release rate of each vendor.
+     * @param retrievalRate        Returns the current retrieval rate of each consumer.
+     * @param executorType         "virtual" or "fixed".
+     * @param defaultVendorCount   Vendor tasks when the configuration sets none.
+     * @param defaultConsumerCount Consumer tasks when the configuration sets none.
+     */
+    public SimulationEngine(TicketServiceIMPL ticketService, ConsumerServiceIMPL consumerService,
+                            String eventId, TicketInventory ticketInventory,
+                            DoubleSupplier releaseRate, DoubleSupplier retrievalRate,
+                            String executorType, int defaultVendorCount, int defaultConsumerCount) {
+        if (!"virtual".equalsIgnoreCase(executorType) && !"fixed".equalsIgnoreCase(executorType)) {
+            throw new IllegalArgumentException("ticketing.engine.executor must be 'virtual' or 'fixed'.");
+        }
+        if (defaultVendorCount <= 0 || defaultConsumerCount <= 0) {
+            throw new IllegalArgumentException("ticketing.engine.vendors and ticketing.engine.consumers must be greater than zero.");
+        }
+        this.ticketService = ticketService;
+        this.consumerService = consumerService;
+        this.ticketInventory = ticketInventory;
+        this.eventId = eventId;
+        this.releaseRate = releaseRate;
+        this.retrievalRate = retrievalRate;
+        this.executorType = executorType.toLowerCase();
+        this.defaultVendorCount = defaultVendorCount;
+        this.defaultConsumerCount = defaultConsumerCount;
+    }
+
+    /**
+     * Start a new run with a fresh inventory and new tasks.
+     *
+     * @param config The configuration of the run (total tickets, capacity and optional task counts).
+     * @return False if a run is already going.
+     */
+    public synchronized boolean start(SimulatingConfigDTO config) {
+        if (isRunning()) {
+            return false;
+        }
+        shutdownExecutor(); // Make sure the threads of a finished run are gone
+
+        int vendorCount = config.getVendorCount() != null ? config.getVendorCount() : defaultVendorCount;
+        int consumerCount = config.getConsumerCount() != null ? config.getConsumerCount() : defaultConsumerCount;
+        ticketInventory.reset(config.getTotalTickets(), config.getMaxTicketCapacity());
+
+        List<SimulationTask> newTasks = new ArrayList<>();
+        for (int i = 1; i <= vendorCount; i++) {
+            newTasks.add(new VendorThread("vendor-" + i, ticketService, ticketInventory, releaseRate));
+        }
+        for (int i = 1; i <= consumerCount; i++) {
+            newTasks.add(new ConsumerThread("consumer-" + i, consumerService, eventId, ticketInventory, retrievalRate));
+        }
+
+        executor = createExecutor(newTasks.size());
+        List<Future<?>> newFutures = new ArrayList<>();
+        for (SimulationTask task : newTasks) {
+            newFutures.add(executor.submit(task));
+        }
+        executor.shutdown(); // No more tasks for this run; the threads end by themselves when the tasks finish
+        tasks = List.copyOf(newTasks);
+        futures = List.copyOf(newFutures);
+        logger.info("Simulation{} started with {} vendors and {} consumers on {} threads.",
+                eventId != null ? " of event " + eventId : "", vendorCount, consumerCount, executorType);
+        return true;
+    }
+
+    /**
+     * Stop the current run and wait for its threads to end.
+     *
+     * @return False if there was nothing to stop.
+     */
+    public synchronized boolean stop() {
+        if (executor == null) {
+            return false;
+        }
+        for (SimulationTask task : tasks) {
+            task.stop(); // Clears each task's flag and interrupts the thread running it
+        }
+        shutdownExecutor();
+        logger.info("Simulation{} stopped.", eventId != null ? " of event " + eventId : "");
+        return true;
+    }
+
+    /**
+     * Check whether any task of the current run is still working.
+     *
+     * @return True while the run has not been stopped and has not finished by itself.
+     */
+    public boolean isRunning() {
+        for (Future<?> future : futures) {
+            if (!future.isDone()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the status shown to the clients.
+     *
+     * @return RUNNING while tasks are working, COMPLETED if the last run finished by itself, otherwise STOPPED.
+     */
+    public String getSystemStatus() {
+        if (isRunning()) {
+            return "RUNNING";
+        }
+        return executor != null ? "COMPLETED" : "STOPPED";
+    }
+
+    /**
+     * Read the throughput of every task of the current (or last) run.
+     *
+     * @return One entry per vendor and consumer task.
+     */
+    public List<TaskStatsDTO> getTaskStats() {
+        List<SimulationTask> current = tasks;
+        List<TaskStatsDTO> stats = new ArrayList<>(current.size());
+        for (SimulationTask task : current) {
+            stats.add(task.getStats());
+        }
+        return stats;
+    }
+
+    // Stop the tasks when the application shuts down
+    @PreDestroy
+    public void shutdown() {
+        stop();
+    }
+
+    // Create the executor for one run.
+    private ExecutorService createExecutor(int taskCount) {
+        if ("fixed".equals(executorType)) {
+            AtomicInteger threadNumber = new AtomicInteger();
+            ThreadFactory factory = runnable -> new Thread(runnable, threadPrefix() + threadNumber.incrementAndGet());
+            return Executors.newFixedThreadPool(taskCount, factory); // Every task blocks in its loop, so one thread each
+        }
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(threadPrefix(), 1).factory());
+    }
+
+    // The name of the run's threads, so a thread dump shows which event they belong to.
+    private String threadPrefix() {
+        return eventId != null ? "event-" + eventId + "-" : "simulation-";
+    }
+
+    // Interrupt whatever is still running and wait for the executor's threads to end (caller holds the lock).
+    private void shutdownExecutor() {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdownNow();
+        try {
+            if (!executor.awaitTermination(STOP_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                logger.warn("Simulation tasks did not stop within {} seconds.", STOP_TIMEOUT_SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("Interrupted while waiting for the simulation tasks to stop", e);
+        }
+        executor = null;
+    }
+}
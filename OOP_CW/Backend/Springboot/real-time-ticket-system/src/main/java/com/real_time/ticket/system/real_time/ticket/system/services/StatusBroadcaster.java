@@ -0,0 +1,306 @@
+package com.real_time.ticket.system.real_time.ticket.system.services;
+
+// Import the update that is pushed to the subscribers
+import com.real_time.ticket.system.real_time.ticket.system.dto.StatusUpdateDTO;
+// Import the inventory the counters are read from
+import com.real_time.ticket.system.real_time.ticket.system.inventory.InventorySnapshot;
+import com.real_time.ticket.system.real_time.ticket.system.inventory.TicketInventory;
+// Import lifecycle annotations to start and stop the producer with the application
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+// Import logging functionality to record messages during the execution of methods
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+// Import Value annotation to read the stream settings from application.properties
+import org.springframework.beans.factory.annotation.Value;
+// Import Component annotation to make the broadcaster a Spring-managed bean
+import org.springframework.stereotype.Component;
+// Import SseEmitter to push Server-Sent Events to the clients
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Pushes the system status to every subscriber of the status stream.
+ *
+ * One producer thread reads the inventory at a fixed interval
+ * (ticketing.status.push-interval-ms) and builds one update that all
+ * subscribers share; nothing is produced while there are no subscribers, and
+ * an interval where nothing changed is skipped.
+ *
+ * Each subscriber has a single pending slot instead of a queue. A client that
+ * is still receiving the previous update simply has its pending update
+ * replaced by the newer one, so a slow client sees fewer updates but never
+ * makes the server buffer more than one update for it. The counters in every
+ * update are totals, so a skipped update loses nothing. A client whose send
+ * has been stuck for longer than ticketing.status.send-timeout-ms is dropped;
+ * the producer checks for such clients on every tick, even when nothing
+ * changed.
+ */
+@Component
+public class StatusBroadcaster {
+
+    // Logger to record messages, warnings, and errors for debugging purposes
+    private static final Logger logger = LoggerFactory.getLogger(StatusBroadcaster.class);
+
+    // The inventory the counters are read from
+    private final TicketInventory ticketInventory;
+
+    // How often an update is produced in milliseconds
+    private final long pushIntervalMillis;
+
+    // Most clients that may subscribe at once
+    private final int maxSubscribers;
+
+    // How long one send may take before the client is dropped in nanoseconds
+    private final long sendTimeoutNanos;
+
+    // The connected clients
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    // Places taken out of maxSubscribers, raised before a client is added so the limit can never be passed
+    private final AtomicInteger subscriberSlots = new AtomicInteger();
+
+    // Sends the updates to the clients, so a slow client never holds up the producer
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    // The single thread that produces the updates
+    private ScheduledExecutorService producer;
+
+    // Where the current system status (RUNNING/STOPPED) is read from
+    private volatile Supplier<String> systemStatusSource = () -> "STOPPED";
+
+    // The most recent update of the producer, sent straight away to new subscribers
+    private volatile StatusUpdateDTO latest;
+
+    // Values of the previous update, only touched by the producer thread (new subscribers never change them)
+    private long sequence;
+    private long lastReleased;
+    private long lastSold;
+    private long lastProducedAtNanos;
+
+    // Constructor for injecting the inventory and the stream settings
+    public StatusBroadcaster(TicketInventory ticketInventory,
+                             @Value("${ticketing.status.push-interval-ms:500}") long pushIntervalMillis,
+                             @Value("${ticketing.status.max-subscribers:1000}") int maxSubscribers,
+                             @Value("${ticketing.status.send-timeout-ms:10000}") long sendTimeoutMillis) {
+        if (pushIntervalMillis <= 0) {
+            throw new IllegalArgumentException("ticketing.status.push-interval-ms must be greater than zero.");
+        }
+        if (maxSubscribers <= 0) {
+            throw new IllegalArgumentException("ticketing.status.max-subscribers must be greater than zero.");
+        }
+        if (sendTimeoutMillis <= 0) {
+            throw new IllegalArgumentException("ticketing.status.send-timeout-ms must be greater than zero.");
+        }
+        this.ticketInventory = ticketInventory;
+        this.pushIntervalMillis = pushIntervalMillis;
+        this.maxSubscribers = maxSubscribers;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis);
+    }
+
+    // Start the producer thread once the bean is ready
+    @PostConstruct
+    public void start() {
+        producer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "status-broadcaster");
+            thread.setDaemon(true);
+            return thread;
+        });
+        producer.scheduleAtFixedRate(this::produce, pushIntervalMillis, pushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // Stop the producer and close every stream when the application shuts down
+    @PreDestroy
+    public void shutdown() {
+        if (producer != null) {
+            producer.shutdownNow();
+        }
+        for (Subscriber subscriber : subscribers) {
+            subscriber.close();
+        }
+        senders.shutdownNow();
+    }
+
+    /**
+     * Set where the system status (RUNNING/STOPPED) is read from.
+     *
+     * @param systemStatusSource Returns the current system status.
+     */
+    public void setSystemStatusSource(Supplier<String> systemStatusSource) {
+        this.systemStatusSource = systemStatusSource;
+    }
+
+    /**
+     * Register a new client of the status stream.
+     *
+     * @return The emitter to hand back to Spring MVC, or null if the subscriber limit is reached.
+     */
+    public SseEmitter subscribe() {
+        if (subscriberSlots.incrementAndGet() > maxSubscribers) {
+            subscriberSlots.decrementAndGet();
+            return null;
+        }
+        SseEmitter emitter = new SseEmitter(0L); // The stream stays open until the client or the server closes it
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(error -> remove(subscriber));
+        subscribers.add(subscriber);
+
+        // Give the new client the current state straight away
+        StatusUpdateDTO current = latest;
+        subscriber.offer(current != null ? current : buildFirstUpdate(ticketInventory.snapshot(), systemStatusSource.get()));
+        logger.debug("Status stream subscriber added ({} connected)", subscribers.size());
+        return emitter;
+    }
+
+    // Get the number of connected clients
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    // Remove a client and give back its place (only once, whichever callback gets here first).
+    private void remove(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            subscriberSlots.decrementAndGet();
+        }
+    }
+
+    // Build one update and hand it to every subscriber (runs on the producer thread only).
+    private void produce() {
+        try {
+            if (subscribers.isEmpty()) {
+                return; // Nobody is listening, so do not even read the counters
+            }
+            // Drop clients that stopped reading before anything else, so they go even when nothing changes
+            for (Subscriber subscriber : subscribers) {
+                subscriber.dropIfStuck();
+            }
+            InventorySnapshot snapshot = ticketInventory.snapshot();
+            String systemStatus = systemStatusSource.get();
+            StatusUpdateDTO previous = latest;
+            if (previous != null && previous.getTicketsReleased() == snapshot.getTicketsReleased()
+                    && previous.getTicketsSold() == snapshot.getTicketsSold()
+                    && previous.getTicketsAvailable() == snapshot.getTicketsAvailable()
+                    && previous.getTotalTickets() == snapshot.getTotalTickets()
+                    && previous.getSystemStatus().equals(systemStatus)) {
+                return; // Nothing changed since the last update
+            }
+            StatusUpdateDTO update = buildUpdate(snapshot, systemStatus);
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(update);
+            }
+        } catch (RuntimeException e) {
+            // Never let an error cancel the scheduled producer
+            logger.error("Error producing status update: {}", e.getMessage(), e);
+        }
+    }
+
+    // Build the state for a client that subscribed before the first update, without touching the
+    // producer's deltas (sequence 0 and no rates, since there is no previous update to compare with).
+    private static StatusUpdateDTO buildFirstUpdate(InventorySnapshot snapshot, String systemStatus) {
+        return new StatusUpdateDTO(0, snapshot.getTimestamp(), systemStatus, snapshot.getTicketsAvailable(),
+                snapshot.getTicketsReleased(), snapshot.getTicketsSold(), snapshot.getTotalTickets(),
+                snapshot.getMaxCapacity(), 0, 0, 0.0, 0.0);
+    }
+
+    // Work out the deltas against the previous update and remember this one as the latest (producer thread only).
+    private StatusUpdateDTO buildUpdate(InventorySnapshot snapshot, String systemStatus) {
+        long now = System.nanoTime();
+        long released = snapshot.getTicketsReleased();
+        long sold = snapshot.getTicketsSold();
+        // A new run starts the counters again from zero, so never report a negative delta
+        long releasedDelta = Math.max(0, released - lastReleased);
+        long soldDelta = Math.max(0, sold - lastSold);
+        double seconds = lastProducedAtNanos == 0 ? 0.0 : (now - lastProducedAtNanos) / 1e9;
+        StatusUpdateDTO update = new StatusUpdateDTO(++sequence, snapshot.getTimestamp(), systemStatus,
+                snapshot.getTicketsAvailable(), released, sold, snapshot.getTotalTickets(),
+                snapshot.getMaxCapacity(), releasedDelta, soldDelta,
+                seconds > 0 ? releasedDelta / seconds : 0.0, seconds > 0 ? soldDelta / seconds : 0.0);
+        lastReleased = released;
+        lastSold = sold;
+        lastProducedAtNanos = now;
+        latest = update;
+        return update;
+    }
+
+    // One connected client with a single pending update slot.
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final AtomicReference<StatusUpdateDTO> pending = new AtomicReference<>(); // Newest unsent update
+        private final AtomicBoolean sending = new AtomicBoolean(); // True while a sender is draining this client
+        private volatile long sendStartedAtNanos;                  // When the current send started
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        // Replace the pending update and start a sender if none is running.
+        private void offer(StatusUpdateDTO update) {
+            pending.set(update); // Conflate: an older unsent update is simply replaced
+            if (sending.compareAndSet(false, true)) {
+                sendStartedAtNanos = System.nanoTime();
+                try {
+                    senders.execute(this::drain);
+                } catch (RuntimeException e) {
+                    sending.set(false); // The senders are shut down
+                }
+            }
+        }
+
+        // Drop the client if its current send has been stuck for longer than the send timeout.
+        private void dropIfStuck() {
+            if (sending.get() && System.nanoTime() - sendStartedAtNanos > sendTimeoutNanos) {
+                logger.info("Dropping a status stream client that stopped reading.");
+                close();
+            }
+        }
+
+        // Send the pending update until there is none left.
+        private void drain() {
+            try {
+                while (true) {
+                    StatusUpdateDTO update = pending.getAndSet(null);
+                    if (update == null) {
+                        sending.set(false);
+                        // An update may have arrived after the check above; pick it up if no other sender did
+                        if (pending.get() == null || !sending.compareAndSet(false, true)) {
+                            return;
+                        }
+                        continue;
+                    }
+                    sendStartedAtNanos = System.nanoTime();
+                    emitter.send(SseEmitter.event()
+                            .name("status")
+                            .id(Long.toString(update.getSequence()))
+                            .data(update));
+                }
+            } catch (IOException | IllegalStateException e) {
+                // The client went away (or the emitter was already completed)
+                remove(this);
+                sending.set(false);
+            }
+        }
+
+        // Remove the client and end its stream.
+        private void close() {
+            remove(this);
+            try {
+                emitter.complete();
+            } catch (IllegalStateException e) {
+                // Already completed
+            }
+        }
+    }
+}
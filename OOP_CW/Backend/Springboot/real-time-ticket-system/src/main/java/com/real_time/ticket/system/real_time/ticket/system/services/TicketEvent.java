@@ -0,0 +1,182 @@
+package com.real_time.ticket.system.real_time.ticket.system.services;
+
+// Import the configuration and status classes of an event
+import com.real_time.ticket.system.real_time.ticket.system.dto.EventStatusDTO;
+import com.real_time.ticket.system.real_time.ticket.system.dto.SimulatingConfigDTO;
+import com.real_time.ticket.system.real_time.ticket.system.dto.TaskStatsDTO;
+// Import the inventory each run of the event gets
+import com.real_time.ticket.system.real_time.ticket.system.inventory.InventorySnapshot;
+import com.real_time.ticket.system.real_time.ticket.system.inventory.TicketInventory;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One event held by the {@link EventRegistry}: its configuration and, while
+ * it is running, its own inventory and {@link SimulationEngine}.
+ *
+ * An event that is only configured costs a few objects. The inventory (whose
+ * pool is allocated at full capacity) and the engine's threads are created
+ * when the event is started, and are let go again when it is stopped or once
+ * its run has finished; only a copy of the final counters and task
+ * statistics is kept, so hundreds of finished events hold almost no memory.
+ *
+ * Starting and stopping lock this event only. Reading the status takes no
+ * lock at all, so a busy event never slows down the others.
+ */
+public final class TicketEvent {
+
+    private final String eventId;                     // The ID the event is addressed by
+    private final TicketServiceIMPL ticketService;     // The services the event's tasks use
+    private final ConsumerServiceIMPL consumerService;
+    private final String executorType;                // "virtual" or "fixed"
+    private final int defaultVendorCount;             // Tasks used when the configuration sets none
+    private final int defaultConsumerCount;
+
+    private volatile SimulatingConfigDTO config;      // The current configuration (rates apply at once, the rest at the next start)
+    private volatile Run run;                         // The resources of the current run (null when none are held)
+    private volatile String lastStatus = "STOPPED";   // Status of the last run after its resources were let go
+    private volatile InventorySnapshot lastInventory; // Final counters of the last run (null before the first run)
+    private volatile List<TaskStatsDTO> lastTaskStats = List.of(); // Final task statistics of the last run
+
+    // Constructor to create an event that is configured but not running
+    TicketEvent(String eventId, SimulatingConfigDTO config, TicketServiceIMPL ticketService,
+                ConsumerServiceIMPL consumerService, String executorType,
+                int defaultVendorCount, int defaultConsumerCount) {
+        this.eventId = eventId;
+        this.config = config;
+        this.ticketService = ticketService;
+        this.consumerService = consumerService;
+        this.executorType = executorType;
+        this.defaultVendorCount = defaultVendorCount;
+        this.defaultConsumerCount = defaultConsumerCount;
+    }
+
+    // Get the ID of the event
+    public String getEventId() {
+        return eventId;
+    }
+
+    // Get the current configuration of the event
+    public SimulatingConfigDTO getConfig() {
+        return config;
+    }
+
+    // Replace the configuration; running tasks pick up the new rates on their next loop
+    void updateConfig(SimulatingConfigDTO config) {
+        this.config = config;
+    }
+
+    /**
+     * Start a new run of the event, creating its inventory and engine if it holds none.
+     *
+     * @return False if the event is already running.
+     */
+    public synchronized boolean start() {
+        Run current = run;
+        if (current == null) {
+            TicketInventory inventory = new TicketInventory();
+            SimulationEngine engine = new SimulationEngine(ticketService, consumerService, eventId, inventory,
+                    () -> config.getTicketReleaseRate(), () -> config.getConsumerRetrievalRate(),
+                    executorType, defaultVendorCount, defaultConsumerCount);
+            current = new Run(inventory, engine);
+        }
+        if (!current.engine.start(config)) {
+            return false;
+        }
+        run = current;
+        return true;
+    }
+
+    /**
+     * Stop the current run and let go of its inventory and threads.
+     *
+     * @return False if there was nothing to stop.
+     */
+    public synchronized boolean stop() {
+        Run current = run;
+        if (current == null) {
+            return false;
+        }
+        tearDown(current, "STOPPED");
+        return true;
+    }
+
+    // Let go of the resources of a run that finished by itself (called by the registry's reaper).
+    synchronized void releaseIfFinished() {
+        Run current = run;
+        if (current != null && !current.engine.isRunning()) {
+            tearDown(current, "COMPLETED");
+        }
+    }
+
+    /**
+     * Purchase one ticket of the current run for a buyer, waiting up to the
+     * timeout while the pool is empty. Takes no lock, so buyers of one event
+     * never wait for its start or stop.
+     *
+     * @param buyer   The name of the buyer.
+     * @param timeout How long to wait for a ticket to be released.
+     * @param unit    The unit of the timeout.
+     * @return The ID of the purchased ticket, or TicketInventory.NO_TICKET if none arrived in time.
+     * @throws IllegalStateException If the event is not running.
+     * @throws InterruptedException  If the thread is interrupted while waiting.
+     */
+    public long purchaseTicket(String buyer, long timeout, TimeUnit unit) throws InterruptedException {
+        Run current = run;
+        if (current == null || !current.engine.isRunning()) {
+            throw new IllegalStateException("Event " + eventId + " is not running.");
+        }
+        return consumerService.purchaseTicket(eventId, current.inventory, buyer, timeout, unit);
+    }
+
+    /**
+     * Read the status of the event without taking a lock.
+     *
+     * @return The live counters while a run holds resources, otherwise the final counters of the last run.
+     */
+    public EventStatusDTO getStatus() {
+        SimulatingConfigDTO currentConfig = config;
+        Run current = run;
+        if (current != null) {
+            return new EventStatusDTO(eventId, current.engine.getSystemStatus(), currentConfig,
+                    current.inventory.snapshot());
+        }
+        InventorySnapshot inventory = lastInventory;
+        if (inventory == null) { // Never run: show the configured run with nothing released yet
+            inventory = new InventorySnapshot(System.currentTimeMillis(), currentConfig.getTotalTickets(),
+                    currentConfig.getMaxTicketCapacity(), 0, 0, 0, currentConfig.getTotalTickets(), 0, 0);
+        }
+        return new EventStatusDTO(eventId, lastStatus, currentConfig, inventory);
+    }
+
+    /**
+     * Read the throughput of every task of the current (or last) run.
+     *
+     * @return One entry per vendor and consumer task.
+     */
+    public List<TaskStatsDTO> getTaskStats() {
+        Run current = run;
+        return current != null ? current.engine.getTaskStats() : lastTaskStats;
+    }
+
+    // Keep the final counters, stop the threads and drop the run (caller holds the lock).
+    private void tearDown(Run current, String status) {
+        current.engine.stop();
+        lastInventory = current.inventory.snapshot();
+        lastTaskStats = current.engine.getTaskStats();
+        lastStatus = status;
+        run = null;
+    }
+
+    // The inventory and engine of one run.
+    private static final class Run {
+        private final TicketInventory inventory;
+        private final SimulationEngine engine;
+
+        private Run(TicketInventory inventory, SimulationEngine engine) {
+            this.inventory = inventory;
+            this.engine = engine;
+        }
+    }
+}
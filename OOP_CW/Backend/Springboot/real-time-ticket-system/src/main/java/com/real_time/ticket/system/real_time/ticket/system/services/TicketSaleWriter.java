@@ -0,0 +1,250 @@
+package com.real_time.ticket.system.real_time.ticket.system.services;
+
+// Import the sale entity and its repository
+import com.real_time.ticket.system.real_time.ticket.system.entities.TicketSaleEntity;
+import com.real_time.ticket.system.real_time.ticket.system.repo.TicketSaleRepo;
+// Import Micrometer meters to publish how the writer keeps up
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+// Import lifecycle annotations to start and stop the writer with the application
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+// Import logging functionality to record messages during the execution of methods
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+// Import Value annotation to read the writer settings from application.properties
+import org.springframework.beans.factory.annotation.Value;
+// Import Component annotation to make the writer a Spring-managed bean
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Saves the ticket sales to the database behind the consumers' backs
+ * (write-behind).
+ *
+ * A consumer only puts its sale into a bounded in-memory buffer. One writer
+ * thread takes the sales out and saves them with one saveAll() per batch,
+ * which Hibernate sends as JDBC batch inserts
+ * (spring.jpa.properties.hibernate.jdbc.batch_size) with IDs reserved from a
+ * pooled sequence. A batch is written as soon as it holds
+ * ticketing.sales.batch-size sales or when the first sale in it has waited
+ * ticketing.sales.flush-interval-ms, whichever comes first.
+ *
+ * When the database cannot keep up and the buffer
+ * (ticketing.sales.buffer-capacity) is full, consumers wait for space, so the
+ * sales slow down to the speed of the database instead of using up memory.
+ * A batch that fails is logged and counted, and the writer carries on.
+ */
+@Component
+public class TicketSaleWriter {
+
+    // Logger to record messages, warnings, and errors for debugging purposes
+    private static final Logger logger = LoggerFactory.getLogger(TicketSaleWriter.class);
+
+    // How long shutdown waits for the buffered sales to be written
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    // The repository the batches are saved through
+    private final TicketSaleRepo ticketSaleRepo;
+
+    // Whether sales are saved at all (ticketing.sales.enabled)
+    private final boolean enabled;
+
+    // The sales waiting to be written
+    private final BlockingQueue<TicketSaleEntity> buffer;
+
+    // Most sales saved in one batch
+    private final int batchSize;
+
+    // Longest time a sale waits in the buffer before its batch is written, in nanoseconds
+    private final long flushIntervalNanos;
+
+    // Sales accepted into the buffer, and sales written or given up on, since the start
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+
+    // Meters: sales saved, sales lost to failed batches, consumers that had to wait, time per batch
+    private final Counter persistedCounter;
+    private final Counter failedCounter;
+    private final Counter blockedCounter;
+    private final Timer flushTimer;
+
+    // The writer thread, and the flag that keeps it going
+    private Thread writerThread;
+    private volatile boolean running = false;
+
+    // Constructor for injecting the repository and the writer settings and registering the meters
+    public TicketSaleWriter(TicketSaleRepo ticketSaleRepo, MeterRegistry meterRegistry,
+                            @Value("${ticketing.sales.enabled:true}") boolean enabled,
+                            @Value("${ticketing.sales.buffer-capacity:10000}") int bufferCapacity,
+                            @Value("${ticketing.sales.batch-size:500}") int batchSize,
+                            @Value("${ticketing.sales.flush-interval-ms:200}") long flushIntervalMillis) {
+        if (bufferCapacity <= 0 || batchSize <= 0 || flushIntervalMillis <= 0) {
+            throw new IllegalArgumentException("ticketing.sales.buffer-capacity, batch-size and flush-interval-ms must be greater than zero.");
+        }
+        this.ticketSaleRepo = ticketSaleRepo;
+        this.enabled = enabled;
+        this.buffer = new ArrayBlockingQueue<>(bufferCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.persistedCounter = Counter.builder("ticketing.sales.persisted")
+                .description("Ticket sales saved to the database")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("ticketing.sales.failed")
+                .description("Ticket sales lost because their batch could not be saved")
+                .register(meterRegistry);
+        this.blockedCounter = Counter.builder("ticketing.sales.blocked")
+                .description("Sales whose consumer had to wait because the write buffer was full")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("ticketing.sales.flush")
+                .description("Time to save one batch of ticket sales")
+                .register(meterRegistry);
+        Gauge.builder("ticketing.sales.buffered", buffer, BlockingQueue::size)
+                .description("Ticket sales waiting to be saved")
+                .register(meterRegistry);
+    }
+
+    // Start the writer thread
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            logger.info("Saving ticket sales is turned off.");
+            return;
+        }
+        running = true;
+        writerThread = Thread.ofPlatform().name("ticket-sale-writer").daemon(true).start(this::writeLoop);
+    }
+
+    // Write the sales still in the buffer and stop the writer thread when the application shuts down
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (writerThread == null) {
+            return;
+        }
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(SHUTDOWN_TIMEOUT_SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!buffer.isEmpty()) {
+            logger.warn("{} ticket sales were not saved before shutdown.", buffer.size());
+        }
+    }
+
+    /**
+     * Queue one sale to be saved. Returns at once unless the buffer is full,
+     * in which case it waits for the writer to make space.
+     *
+     * @param ticketId The ID of the ticket that was sold.
+     * @param buyer    The name of the consumer that bought it.
+     * @throws InterruptedException If the thread is interrupted while waiting for space.
+     */
+    public void recordSale(long ticketId, String buyer) throws InterruptedException {
+        recordSale(null, ticketId, buyer);
+    }
+
+    /**
+     * Queue one sale of an event to be saved.
+     *
+     * @param eventId  The event the ticket belongs to (null for the single simulation).
+     * @param ticketId The ID of the ticket that was sold (unique within its event).
+     * @param buyer    The name of the consumer that bought it.
+     * @throws InterruptedException If the thread is interrupted while waiting for space.
+     */
+    public void recordSale(String eventId, long ticketId, String buyer) throws InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        TicketSaleEntity sale = new TicketSaleEntity(eventId, ticketId, buyer, Instant.now());
+        if (!buffer.offer(sale)) {
+            blockedCounter.increment();
+            buffer.put(sale); // Backpressure: wait for the writer instead of growing without limit
+        }
+        accepted.incrementAndGet();
+    }
+
+    /**
+     * Wait until every sale queued so far has been written (or given up on).
+     *
+     * @param timeout The longest time to wait.
+     * @param unit    The unit of the timeout.
+     * @return True if everything was written in time.
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    public boolean awaitFlushed(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (completed.get() < accepted.get()) {
+            if (System.nanoTime() - deadline >= 0) {
+                return false;
+            }
+            Thread.sleep(5);
+        }
+        return true;
+    }
+
+    // Get the number of sales waiting to be written
+    public int getBufferedCount() {
+        return buffer.size();
+    }
+
+    // The writer thread: collect a batch by size or time, then save it
+    private void writeLoop() {
+        List<TicketSaleEntity> batch = new ArrayList<>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            try {
+                TicketSaleEntity first = buffer.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue; // Nothing sold; check whether the application is shutting down
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize) {
+                    buffer.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                        break;
+                    }
+                    TicketSaleEntity next = buffer.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break; // The oldest sale has waited long enough
+                    }
+                    batch.add(next);
+                }
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                if (!batch.isEmpty()) {
+                    writeBatch(batch); // Do not lose the sales already taken out of the buffer
+                }
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // Save one batch in a single transaction; on failure the batch is logged and counted as lost
+    private void writeBatch(List<TicketSaleEntity> batch) {
+        long start = System.nanoTime();
+        try {
+            ticketSaleRepo.saveAll(batch);
+            persistedCounter.increment(batch.size());
+        } catch (RuntimeException e) {
+            failedCounter.increment(batch.size());
+            logger.error("Could not save {} ticket sales: {}", batch.size(), e.getMessage());
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            completed.addAndGet(batch.size());
+        }
+    }
+}
@@ -2,14 +2,22 @@ package com.real_time.ticket.system.real_time.ticket.system.services;
 
 // Import the ConfigurationEntity class to use configuration-related data
 import com.real_time.ticket.system.real_time.ticket.system.entities.ConfigurationEntity;
+// Import the TicketInventory the vendors release tickets into
+import com.real_time.ticket.system.real_time.ticket.system.inventory.TicketInventory;
 // Import the ConfigurationRepo interface to interact with the database
 import com.real_time.ticket.system.real_time.ticket.system.repo.ConfigurationRepo;
+// Import Micrometer meters to publish ticket counts and wait times
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 // Import Logger for printing messages during execution
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 // Import Service annotation to mark this class as a service for business logic
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.TimeUnit;
+
 // This annotation marks this class as a Service in Spring
 @Service
 public class TicketServiceIMPL {
@@ -20,38 +28,84 @@ public class TicketServiceIMPL {
     // ConfigurationRepo is used to interact with the database table for configurations
     private final ConfigurationRepo configurationRepo;
 
-    // Constructor to initialize ConfigurationRepo using dependency injection
-    public TicketServiceIMPL(ConfigurationRepo configurationRepo) {
-        this.configurationRepo = configurationRepo;  // Save the injected repository
-    }
+    // In-memory copy of the rates, so the vendor loop does not query the database
+    private final ConfigurationCache configurationCache;
+
+    // The in-memory inventory the released tickets go into
+    private final TicketInventory ticketInventory;
 
-    // Method to get the ticket release rate from the database
-    public int getTicketReleaseRate() {
-        // Try to retrieve the configuration from the database using ID 1
-        ConfigurationEntity config = configurationRepo.findById(1L).orElse(null);
+    // Counts every ticket released (ticketing.tickets.released)
+    private final Counter ticketCounter;
 
-        // If a configuration exists, return the ticket release rate; otherwise, return a default value
-        return config != null ? config.getTicketReleaseRate() : 5; // Default rate if not found
+    // Times every release call, including the wait inside the inventory (ticketing.vendor.wait)
+    private final Timer waitTimer;
+
+    // Constructor to initialize ConfigurationRepo, ConfigurationCache, TicketInventory and the meters using dependency injection
+    public TicketServiceIMPL(ConfigurationRepo configurationRepo, ConfigurationCache configurationCache,
+                             TicketInventory ticketInventory, MeterRegistry meterRegistry) {
+        this.configurationRepo = configurationRepo;    // Save the injected repository
+        this.configurationCache = configurationCache;  // Save the injected cache
+        this.ticketInventory = ticketInventory;        // Save the injected inventory
+        this.ticketCounter = Counter.builder("ticketing.tickets.released")
+                .description("Tickets released into the pool by vendors")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("ticketing.vendor.wait")
+                .description("Time a vendor spent in one release, including waiting for space in a full pool")
+                .register(meterRegistry);
+    }
+
+    // Method to get the ticket release rate (tickets per second) from the configuration cache
+    public double getTicketReleaseRate() {
+        // The cache falls back to the default rate when no configuration is stored
+        return configurationCache.getRates().getTicketReleaseRate();
     }
 
     // Method to update the ticket release rate in the database
-    public void updateTicketReleaseRate(int newRate) {
+    public void updateTicketReleaseRate(double newRate) {
         // Retrieve the configuration or create a new one if it doesn't exist
         ConfigurationEntity config = configurationRepo.findById(1L).orElse(new ConfigurationEntity());
 
         // Set the new ticket release rate
         config.setTicketReleaseRate(newRate);
 
-        // Save the updated configuration back into the database
-        configurationRepo.save(config);
+        // Save the updated configuration back into the database and refresh the cached rates
+        configurationCache.publish(configurationRepo.save(config));
+    }
+
+    /**
+     * Release one ticket into the inventory, waiting up to the timeout while the pool is full.
+     *
+     * @param timeout How long to wait for space in the pool.
+     * @param unit    The unit of the timeout.
+     * @return The ID of the released ticket, or TicketInventory.NO_TICKET if nothing was released.
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    public long releaseTicket(long timeout, TimeUnit unit) throws InterruptedException {
+        return releaseTicket(ticketInventory, timeout, unit);
     }
 
-    // Method to simulate vendor action (example: releasing tickets)
-    public void simulateVendorAction() {
-        // Print a log message indicating that the vendor is releasing tickets
-        logger.info("Vendor is releasing tickets...");
+    /**
+     * Release one ticket into the inventory of an event, waiting up to the timeout while its pool is full.
+     *
+     * @param inventory The inventory of the event.
+     * @param timeout   How long to wait for space in the pool.
+     * @param unit      The unit of the timeout.
+     * @return The ID of the released ticket, or TicketInventory.NO_TICKET if nothing was released.
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    public long releaseTicket(TicketInventory inventory, long timeout, TimeUnit unit) throws InterruptedException {
+        long start = System.nanoTime();
+        long ticketId = inventory.releaseTicket(timeout, unit);
+        waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (ticketId != TicketInventory.NO_TICKET) {
+            ticketCounter.increment();
+            logger.debug("Vendor released ticket {}", ticketId);
+        }
+        return ticketId;
+    }
 
-        // Placeholder for additional logic, such as releasing tickets or updating inventory
-        // You can add more detailed actions for the vendor here
+    // Check whether vendors have released every ticket of the current run
+    public boolean isFullyReleased() {
+        return ticketInventory.isFullyReleased();
     }
 }
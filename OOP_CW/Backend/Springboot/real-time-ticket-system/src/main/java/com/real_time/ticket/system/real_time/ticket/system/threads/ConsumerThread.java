@@ -1,71 +1,87 @@
 package com.real_time.ticket.system.real_time.ticket.system.threads;
 
-// Import required service classes for consumer and ticket functionalities
+// Import required service and inventory classes for consumer functionalities
+import com.real_time.ticket.system.real_time.ticket.system.inventory.TicketInventory;
 import com.real_time.ticket.system.real_time.ticket.system.services.ConsumerServiceIMPL;
-import com.real_time.ticket.system.real_time.ticket.system.services.TicketServiceIMPL;
 // Import Logger to log important messages and errors
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-// Import Component annotation to mark this class as a Spring-managed component
-import org.springframework.stereotype.Component;
 
-// This annotation makes this class a Spring-managed bean
-@Component
-public class ConsumerThread implements Runnable {
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+
+// One consumer task: purchases tickets from one event's inventory at that event's retrieval rate
+public class ConsumerThread extends SimulationTask {
 
     // Logger to track activity and print messages during execution
     private static final Logger logger = LoggerFactory.getLogger(ConsumerThread.class);
 
-    // References to services that handle consumer and ticket-related logic
+    // How long one purchase waits for a ticket in an empty pool before checking the flags again
+    private static final long PURCHASE_WAIT_MILLIS = 100;
+
+    // Reference to the service that handles consumer-related logic
     private final ConsumerServiceIMPL consumerService;
-    private final TicketServiceIMPL ticketService;
 
-    // A flag to control whether the thread should keep running
-    private volatile boolean running = true;
+    // The event the tickets belong to (null for the single simulation) and its inventory
+    private final String eventId;
+    private final TicketInventory ticketInventory;
+
+    // Where the retrieval rate (tickets per second) is read from on every loop
+    private final DoubleSupplier retrievalRate;
 
-    // Constructor to inject ConsumerServiceIMPL and TicketServiceIMPL using dependency injection
-    public ConsumerThread(ConsumerServiceIMPL consumerService, TicketServiceIMPL ticketService) {
+    // Constructor to create a consumer task with its own name and state for one event
+    public ConsumerThread(String name, ConsumerServiceIMPL consumerService, String eventId,
+                          TicketInventory ticketInventory, DoubleSupplier retrievalRate) {
+        super(name);
         this.consumerService = consumerService; // Initialize consumerService
-        this.ticketService = ticketService;     // Initialize ticketService
+        this.eventId = eventId;
+        this.ticketInventory = ticketInventory;
+        this.retrievalRate = retrievalRate;
     }
 
-    // This method runs when the thread starts
+    // Get the role shown in the statistics
     @Override
-    public void run() {
+    public String getRole() {
+        return "CONSUMER";
+    }
+
+    // The loop that runs while the task is started
+    @Override
+    protected void work() throws InterruptedException {
+        // Paces the purchases to the retrieval rate without drifting (the rate is re-read every loop)
+        RatePacer pacer = new RatePacer(retrievalRate.getAsDouble(), 0);
         try {
-            // Loop that keeps running as long as the 'running' flag is true and the thread is not interrupted
-            while (running && !Thread.currentThread().isInterrupted()) {
-                // Get the consumer retrieval rate (in seconds) from the database
-                int retrievalRate = consumerService.getConsumerRetrievalRate();
+            // Loop that keeps running until the task is stopped or interrupted
+            while (shouldRun()) {
+                // Get the consumer retrieval rate (tickets per second) of the event
+                pacer.setRate(retrievalRate.getAsDouble(), 0);
 
-                // Log that the consumer is purchasing tickets
-                logger.info("Consumer purchasing tickets...");
+                // Stop once every ticket of the run has been sold
+                if (ticketInventory.isSoldOut()) {
+                    logger.info("{}: all tickets sold.", getName());
+                    break;
+                }
 
-                // Simulate consumer action (e.g., buying a ticket)
-                consumerService.simulateConsumerAction();
+                // Purchase one ticket from the inventory (waits while the pool is empty)
+                long ticketId = consumerService.purchaseTicket(eventId, ticketInventory, getName(),
+                        PURCHASE_WAIT_MILLIS, TimeUnit.MILLISECONDS);
 
-                // Pause the thread for a duration based on the retrieval rate (converted to milliseconds)
-                Thread.sleep(retrievalRate * 1000);
+                // Wait until the retrieval rate allows the next purchase
+                if (ticketId != TicketInventory.NO_TICKET) {
+                    countTicket();
+                    pacer.acquire(1);
+                }
             }
         } catch (InterruptedException e) {
-            // Handle thread interruption gracefully and set the thread's interrupt status
-            Thread.currentThread().interrupt();
-            logger.warn("ConsumerThread interrupted."); // Log the interruption
+            // Handle the interruption gracefully; run() preserves the interrupt status
+            logger.debug("{} interrupted.", getName());
+            throw e;
         } catch (Exception ex) {
             // Log any other unexpected errors that occur
-            logger.error("Error in ConsumerThread: {}", ex.getMessage(), ex);
+            logger.error("Error in {}: {}", getName(), ex.getMessage(), ex);
         } finally {
-            // Log that the thread has stopped
-            logger.info("ConsumerThread stopped.");
+            // Log that the task has stopped
+            logger.info("{} stopped.", getName());
         }
     }
-
-    // Method to stop the thread safely
-    public void stop() {
-        // Set the 'running' flag to false to exit the loop in the run method
-        running = false;
-
-        // Interrupt the thread to handle any blocking calls (like sleep)
-        Thread.currentThread().interrupt();
-    }
 }
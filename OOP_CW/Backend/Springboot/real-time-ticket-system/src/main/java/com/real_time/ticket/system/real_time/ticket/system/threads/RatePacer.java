@@ -0,0 +1,97 @@
+package com.real_time.ticket.system.real_time.ticket.system.threads;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Paces a VendorThread or ConsumerThread to a rate in tickets per second using a token bucket.
+ *
+ * The bucket is tracked as a schedule (the "theoretical arrival time" of the
+ * generic cell rate algorithm) instead of sleeping a fixed time after each ticket,
+ * so time spent doing the work is not added on top of the wait and the rate does
+ * not drift. Up to {@code burst} tickets can be taken back to back after a quiet
+ * period, which also lets very high rates (millions per second) catch up after
+ * the thread has been woken a little late.
+ *
+ * A RatePacer is owned by one thread and is not thread-safe.
+ */
+public final class RatePacer {
+    private static final long SPIN_THRESHOLD_NANOS = 20_000L; // Waits shorter than this spin instead of parking
+
+    private long intervalNanos; // Time between two tickets at the configured rate
+    private long burstNanos;    // How far the schedule may fall behind (burst tickets worth of time)
+    private long nextTicketAt;  // The time the schedule says the next ticket is due
+
+    /**
+     * Constructor to create a pacer for a rate.
+     *
+     * @param ticketsPerSecond The rate in tickets per second (may be fractional).
+     * @param burst            The most tickets that may be taken back to back (0 picks about 1 ms worth).
+     */
+    public RatePacer(double ticketsPerSecond, int burst) {
+        setRate(ticketsPerSecond, burst);
+        this.nextTicketAt = System.nanoTime();
+    }
+
+    /**
+     * Change the rate without resetting the schedule.
+     *
+     * @param ticketsPerSecond The rate in tickets per second (may be fractional).
+     * @param burst            The most tickets that may be taken back to back (0 picks about 1 ms worth).
+     */
+    public void setRate(double ticketsPerSecond, int burst) {
+        if (!(ticketsPerSecond > 0)) {
+            throw new IllegalArgumentException("Rate must be greater than zero.");
+        }
+        if (burst < 0) {
+            throw new IllegalArgumentException("Burst must not be negative.");
+        }
+        this.intervalNanos = Math.max(1L, Math.round(TimeUnit.SECONDS.toNanos(1) / ticketsPerSecond));
+        int effectiveBurst = burst > 0 ? burst : defaultBurst(ticketsPerSecond);
+        this.burstNanos = intervalNanos * effectiveBurst;
+    }
+
+    /**
+     * Pick a burst of about one millisecond of tickets, and at least one ticket.
+     *
+     * @param ticketsPerSecond The rate in tickets per second.
+     * @return The default burst size for the rate.
+     */
+    public static int defaultBurst(double ticketsPerSecond) {
+        return (int) Math.max(1L, Math.min(Integer.MAX_VALUE, Math.round(ticketsPerSecond / 1000.0)));
+    }
+
+    /**
+     * Wait until {@code tickets} more tickets are allowed by the rate.
+     *
+     * @param tickets The number of tickets about to be released or bought.
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    public void acquire(int tickets) throws InterruptedException {
+        // A schedule that fell behind (idle time) restarts from now, so idling only ever earns the burst
+        long start = Math.max(nextTicketAt, System.nanoTime());
+        nextTicketAt = start + intervalNanos * tickets;
+        long allowedAt = nextTicketAt - burstNanos; // The bucket holds up to burst tickets of credit
+        waitUntil(allowedAt);
+    }
+
+    // Sleep for long waits, park for short ones and spin for the last few microseconds.
+    private static void waitUntil(long deadline) throws InterruptedException {
+        while (true) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            if (remaining >= TimeUnit.MILLISECONDS.toNanos(2)) {
+                Thread.sleep(TimeUnit.NANOSECONDS.toMillis(remaining) - 1); // Wake a little early, then fine-tune
+            } else if (remaining > SPIN_THRESHOLD_NANOS) {
+                LockSupport.parkNanos(remaining - SPIN_THRESHOLD_NANOS);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+}
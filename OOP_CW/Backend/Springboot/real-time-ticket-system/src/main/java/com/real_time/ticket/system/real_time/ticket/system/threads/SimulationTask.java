@@ -0,0 +1,91 @@
+package com.real_time.ticket.system.real_time.ticket.system.threads;
+
+// Import the per-task statistics returned to the controller
+import com.real_time.ticket.system.real_time.ticket.system.dto.TaskStatsDTO;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The state every vendor and consumer task keeps for itself: its name, the
+ * running flag, the thread it runs on, and how many tickets it has moved.
+ * A new task object is created for every run, so nothing carries over from a
+ * previous run.
+ */
+public abstract class SimulationTask implements Runnable {
+
+    private final String name;                          // For example "vendor-1"
+    private final AtomicLong tickets = new AtomicLong(); // Tickets released or purchased by this task
+    private volatile boolean running = true;            // Cleared by stop()
+    private volatile Thread runner;                     // The thread running this task (null when not running)
+    private volatile long startedAtNanos;               // When run() started (0 = not started yet)
+    private volatile long finishedAtNanos;              // When run() returned (0 = not finished yet)
+
+    // Constructor to give the task its name
+    protected SimulationTask(String name) {
+        this.name = name;
+    }
+
+    // The work of the task; returns when the task is stopped, interrupted or has nothing left to do
+    protected abstract void work() throws InterruptedException;
+
+    // Get the role shown in the statistics ("VENDOR" or "CONSUMER")
+    public abstract String getRole();
+
+    // Runs the task and records when it started and finished
+    @Override
+    public final void run() {
+        runner = Thread.currentThread();
+        startedAtNanos = System.nanoTime();
+        try {
+            work();
+        } catch (InterruptedException e) {
+            // Preserve the interrupt status so the executor sees it
+            Thread.currentThread().interrupt();
+        } finally {
+            finishedAtNanos = System.nanoTime();
+            runner = null;
+        }
+    }
+
+    // Method to stop the task safely from another thread
+    public void stop() {
+        // Set the 'running' flag to false to break out of the loop
+        running = false;
+
+        // Interrupt the thread running this task (not the caller) to exit from any blocking calls
+        Thread thread = runner;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    // Check whether the loop should keep going
+    protected boolean shouldRun() {
+        return running && !Thread.currentThread().isInterrupted();
+    }
+
+    // Count one more ticket moved by this task
+    protected void countTicket() {
+        tickets.incrementAndGet();
+    }
+
+    // Get the name of the task
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Read the statistics of this task.
+     *
+     * @return The tickets moved so far and the average tickets per second since the task started.
+     */
+    public TaskStatsDTO getStats() {
+        long started = startedAtNanos;
+        long finished = finishedAtNanos;
+        long count = tickets.get();
+        boolean active = started != 0 && finished == 0;
+        long end = finished != 0 ? finished : System.nanoTime();
+        double seconds = started == 0 ? 0.0 : (end - started) / 1e9;
+        return new TaskStatsDTO(name, getRole(), active, count, seconds > 0 ? count / seconds : 0.0);
+    }
+}
@@ -1,67 +1,83 @@
 package com.real_time.ticket.system.real_time.ticket.system.threads;
 
-// Import necessary service and logging classes
+// Import necessary service, inventory and logging classes
+import com.real_time.ticket.system.real_time.ticket.system.inventory.TicketInventory;
 import com.real_time.ticket.system.real_time.ticket.system.services.TicketServiceIMPL;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-// Mark this class as a Spring component
-import org.springframework.stereotype.Component;
 
-// This annotation tells Spring that this class is a component to be managed
-@Component
-public class VendorThread implements Runnable {
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+
+// One vendor task: releases tickets into one event's inventory at that event's release rate
+public class VendorThread extends SimulationTask {
 
     // Create a logger to track and print messages about what's happening
     private static final Logger logger = LoggerFactory.getLogger(VendorThread.class);
 
+    // How long one release waits for space in a full pool before checking the flags again
+    private static final long RELEASE_WAIT_MILLIS = 100;
+
     // Declare a reference to the TicketServiceIMPL, which handles ticket-related functionality
     private final TicketServiceIMPL ticketService;
 
-    // A flag to control if the thread should keep running or stop
-    private volatile boolean running = true;
+    // The inventory this task releases tickets into
+    private final TicketInventory ticketInventory;
+
+    // Where the release rate (tickets per second) is read from on every loop
+    private final DoubleSupplier releaseRate;
 
-    // Constructor to inject TicketServiceIMPL into this class
-    public VendorThread(TicketServiceIMPL ticketService) {
+    // Constructor to create a vendor task with its own name and state for one inventory
+    public VendorThread(String name, TicketServiceIMPL ticketService, TicketInventory ticketInventory,
+                        DoubleSupplier releaseRate) {
+        super(name);
         this.ticketService = ticketService; // Initialize the ticketService
+        this.ticketInventory = ticketInventory;
+        this.releaseRate = releaseRate;
     }
 
-    // The method that will be executed when the thread starts
+    // Get the role shown in the statistics
     @Override
-    public void run() {
+    public String getRole() {
+        return "VENDOR";
+    }
+
+    // The loop that runs while the task is started
+    @Override
+    protected void work() throws InterruptedException {
+        // Paces the releases to the release rate without drifting (the rate is re-read every loop)
+        RatePacer pacer = new RatePacer(releaseRate.getAsDouble(), 0);
         try {
-            // Loop that keeps running while 'running' is true and the thread isn't interrupted
-            while (running && !Thread.currentThread().isInterrupted()) {
-                // Get the ticket release rate (time interval) from the database
-                int ticketReleaseRate = ticketService.getTicketReleaseRate();
+            // Loop that keeps running until the task is stopped or interrupted
+            while (shouldRun()) {
+                // Get the ticket release rate (tickets per second) of the event
+                pacer.setRate(releaseRate.getAsDouble(), 0);
 
-                // Log that the vendor is releasing tickets
-                logger.info("Vendor releasing tickets...");
+                // Stop once every ticket of the run has been released
+                if (ticketInventory.isFullyReleased()) {
+                    logger.info("{}: all tickets released.", getName());
+                    break;
+                }
 
-                // Simulate the vendor's action of releasing tickets (this is a placeholder method)
-                ticketService.simulateVendorAction();
+                // Release one ticket into the inventory (waits while the pool is full)
+                long ticketId = ticketService.releaseTicket(ticketInventory, RELEASE_WAIT_MILLIS, TimeUnit.MILLISECONDS);
 
-                // Pause the thread based on the release rate (converted to milliseconds)
-                Thread.sleep(ticketReleaseRate * 1000);
+                // Wait until the release rate allows the next release
+                if (ticketId != TicketInventory.NO_TICKET) {
+                    countTicket();
+                    pacer.acquire(1);
+                }
             }
         } catch (InterruptedException e) {
-            // If the thread is interrupted, preserve the interrupt status and log a warning
-            Thread.currentThread().interrupt();
-            logger.warn("VendorThread interrupted.");
+            // If the task is interrupted, log it and let run() preserve the interrupt status
+            logger.debug("{} interrupted.", getName());
+            throw e;
         } catch (Exception ex) {
             // If any other error occurs, log the error details
-            logger.error("Error in VendorThread: {}", ex.getMessage(), ex);
+            logger.error("Error in {}: {}", getName(), ex.getMessage(), ex);
         } finally {
-            // Log that the thread has stopped
-            logger.info("VendorThread stopped.");
+            // Log that the task has stopped
+            logger.info("{} stopped.", getName());
         }
     }
-
-    // Method to stop the thread safely
-    public void stop() {
-        // Set the 'running' flag to false to break out of the loop in the run method
-        running = false;
-
-        // Interrupt the thread to exit from any blocking calls (like sleep)
-        Thread.currentThread().interrupt();
-    }
 }
@@ -0,0 +1,83 @@
+package com.real_time.ticket.system.real_time.ticket.system.inventory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TicketInventoryTests {
+
+	@Test
+	void sellsEveryTicketExactlyOnce() throws InterruptedException {
+		TicketInventory inventory = new TicketInventory();
+		int totalTickets = 200_000;
+		inventory.reset(totalTickets, 64);
+		Set<Long> sold = ConcurrentHashMap.newKeySet();
+		LongAdder purchases = new LongAdder();
+
+		List<Thread> threads = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			threads.add(new Thread(() -> {
+				try {
+					while (!inventory.isFullyReleased()) {
+						inventory.releaseTicket(10, TimeUnit.MILLISECONDS);
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}));
+			threads.add(new Thread(() -> {
+				try {
+					while (!inventory.isSoldOut()) {
+						long ticketId = inventory.purchaseTicket(10, TimeUnit.MILLISECONDS);
+						if (ticketId != TicketInventory.NO_TICKET) {
+							sold.add(ticketId);
+							purchases.increment();
+						}
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}));
+		}
+		threads.forEach(Thread::start);
+		for (Thread thread : threads) {
+			thread.join(60_000);
+		}
+
+		// Throughput is measured by the JMH benchmarks in Backend/Springboot/benchmarks, not here
+		InventorySnapshot snapshot = inventory.snapshot();
+		assertEquals(totalTickets, purchases.sum(), "tickets lost or sold twice");
+		assertEquals(totalTickets, sold.size(), "a ticket ID was sold twice");
+		assertEquals(totalTickets, snapshot.getTicketsReleased());
+		assertEquals(totalTickets, snapshot.getTicketsSold());
+		assertEquals(0, snapshot.getTicketsAvailable());
+		assertEquals(0, snapshot.getTicketsToRelease());
+	}
+
+	@Test
+	void neverHoldsMoreThanTheCapacity() throws InterruptedException {
+		TicketInventory inventory = new TicketInventory();
+		inventory.reset(10, 3);
+
+		for (int i = 0; i < 3; i++) {
+			assertTrue(inventory.releaseTicket(0, TimeUnit.MILLISECONDS) != TicketInventory.NO_TICKET);
+		}
+		assertEquals(TicketInventory.NO_TICKET, inventory.releaseTicket(0, TimeUnit.MILLISECONDS));
+
+		InventorySnapshot snapshot = inventory.snapshot();
+		assertEquals(3, snapshot.getTicketsAvailable());
+		assertEquals(3, snapshot.getTicketsReleased());
+		assertEquals(7, snapshot.getTicketsToRelease());
+		assertEquals(1, snapshot.getRejectedReleases());
+		assertFalse(inventory.isFullyReleased());
+	}
+}
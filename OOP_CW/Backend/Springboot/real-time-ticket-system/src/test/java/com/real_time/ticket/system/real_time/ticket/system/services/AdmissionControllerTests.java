@@ -0,0 +1,46 @@
+package com.real_time.ticket.system.real_time.ticket.system.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdmissionControllerTests {
+
+	@Test
+	void rejectsBuyersBeyondTheWaiterLimit() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		AdmissionController admission = new AdmissionController(registry, 2, 0);
+
+		assertTrue(admission.tryEnter());
+		assertTrue(admission.tryEnter());
+		assertFalse(admission.tryEnter()); // A third buyer would wait behind two others
+		assertEquals(2, admission.getWaiterCount());
+
+		admission.exit(0, true);
+		assertTrue(admission.tryEnter()); // Room again once one has left
+		assertEquals(1.0, registry.get("ticketing.admission.rejected").counter().count());
+		assertEquals(3.0, registry.get("ticketing.admission.admitted").counter().count());
+	}
+
+	@Test
+	void shedsBuyersAfterAWaitReachedTheSlo() throws InterruptedException {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		AdmissionController admission = new AdmissionController(registry, 0, 200);
+		assertEquals(TimeUnit.MILLISECONDS.toNanos(200), admission.getWaitTimeoutNanos(5, TimeUnit.SECONDS));
+
+		assertTrue(admission.tryEnter());
+		admission.exit(TimeUnit.MILLISECONDS.toNanos(200), false); // Waited the whole SLO for nothing
+		assertFalse(admission.tryEnter()); // Shed at once instead of waiting as long again
+		assertEquals(2.0, registry.get("ticketing.admission.shed").counter().count());
+
+		Thread.sleep(250); // One SLO period later the next buyer may try again
+		assertTrue(admission.tryEnter());
+		admission.exit(0, true);
+		assertEquals(0, admission.getWaiterCount());
+	}
+}
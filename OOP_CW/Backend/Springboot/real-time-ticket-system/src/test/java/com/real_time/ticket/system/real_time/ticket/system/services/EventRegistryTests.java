@@ -0,0 +1,97 @@
+package com.real_time.ticket.system.real_time.ticket.system.services;
+
+import com.real_time.ticket.system.real_time.ticket.system.dto.EventStatusDTO;
+import com.real_time.ticket.system.real_time.ticket.system.dto.SimulatingConfigDTO;
+import com.real_time.ticket.system.real_time.ticket.system.repo.EventRepo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+@SpringBootTest(properties = "ticketing.events.reap-interval-ms=50")
+class EventRegistryTests {
+
+	@Autowired
+	private EventRegistry eventRegistry;
+
+	@Test
+	void runsManyEventsSideBySide() throws InterruptedException {
+		int eventCount = 50;
+		List<TicketEvent> events = new ArrayList<>();
+		for (int e = 0; e < eventCount; e++) {
+			// Every event has its own total and capacity, so a mix-up between pools would show in the counts
+			SimulatingConfigDTO config = new SimulatingConfigDTO(1_000 + e, 1_000_000, 1_000_000, 10 + e);
+			config.setVendorCount(2);
+			config.setConsumerCount(2);
+			events.add(eventRegistry.configure("sale-" + e, config));
+		}
+		for (TicketEvent event : events) {
+			assertTrue(event.start());
+		}
+
+		long deadline = System.currentTimeMillis() + 30_000;
+		for (TicketEvent event : events) {
+			while (!"COMPLETED".equals(event.getStatus().getSystemStatus()) && System.currentTimeMillis() < deadline) {
+				Thread.sleep(10);
+			}
+		}
+		for (int e = 0; e < eventCount; e++) {
+			EventStatusDTO status = events.get(e).getStatus();
+			assertEquals("COMPLETED", status.getSystemStatus(), "sale-" + e);
+			assertEquals(1_000 + e, status.getTicketsReleased());
+			assertEquals(1_000 + e, status.getTicketsSold());
+			assertEquals(10 + e, status.getMaxTicketCapacity());
+		}
+
+		assertTrue(eventRegistry.delete("sale-0"));
+		assertNull(eventRegistry.getEvent("sale-0"));
+		assertFalse(eventRegistry.delete("sale-0"));
+		assertNull(eventRegistry.getEvent("not a valid id"));
+	}
+
+	@Test
+	void neverCreatesMoreThanTheEventLimit() throws InterruptedException {
+		int maxEvents = 10;
+		EventRegistry registry = new EventRegistry(null, null, mock(EventRepo.class), "virtual", 1, 1, maxEvents, 1_000);
+		CountDownLatch ready = new CountDownLatch(1);
+		AtomicInteger refused = new AtomicInteger();
+
+		// Many threads create different events at once, so a check outside the map update would let some extra in
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < 8; t++) {
+			int thread = t;
+			threads.add(new Thread(() -> {
+				try {
+					ready.await();
+					for (int e = 0; e < 25; e++) {
+						try {
+							registry.configure("limit-" + thread + "-" + e, new SimulatingConfigDTO(10, 1, 1, 5));
+						} catch (IllegalStateException full) {
+							refused.incrementAndGet();
+						}
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}));
+		}
+		threads.forEach(Thread::start);
+		ready.countDown();
+		for (Thread thread : threads) {
+			thread.join(10_000);
+		}
+
+		assertEquals(maxEvents, registry.getEventCount());
+		assertEquals(8 * 25 - maxEvents, refused.get());
+	}
+}
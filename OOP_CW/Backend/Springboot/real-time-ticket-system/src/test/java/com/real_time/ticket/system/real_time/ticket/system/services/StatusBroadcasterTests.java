@@ -0,0 +1,52 @@
+package com.real_time.ticket.system.real_time.ticket.system.services;
+
+import com.real_time.ticket.system.real_time.ticket.system.inventory.TicketInventory;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+class StatusBroadcasterTests {
+
+	@Test
+	void neverAcceptsMoreThanTheSubscriberLimit() throws InterruptedException {
+		int maxSubscribers = 5;
+		StatusBroadcaster broadcaster = new StatusBroadcaster(new TicketInventory(), 500, maxSubscribers, 10_000);
+		CountDownLatch ready = new CountDownLatch(1);
+		AtomicInteger accepted = new AtomicInteger();
+
+		// Many clients subscribe at once, so a check outside the add would let some extra in
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < 8; t++) {
+			threads.add(new Thread(() -> {
+				try {
+					ready.await();
+					for (int i = 0; i < 10; i++) {
+						if (broadcaster.subscribe() != null) {
+							accepted.incrementAndGet();
+						}
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}));
+		}
+		threads.forEach(Thread::start);
+		ready.countDown();
+		for (Thread thread : threads) {
+			thread.join(10_000);
+		}
+
+		assertEquals(maxSubscribers, accepted.get());
+		assertEquals(maxSubscribers, broadcaster.getSubscriberCount());
+		broadcaster.shutdown();
+		assertEquals(0, broadcaster.getSubscriberCount());
+		assertNotNull(broadcaster.subscribe()); // Closed clients give their places back
+		broadcaster.shutdown();
+	}
+}
@@ -0,0 +1,64 @@
+package com.real_time.ticket.system.real_time.ticket.system.services;
+
+import com.real_time.ticket.system.real_time.ticket.system.repo.TicketSaleRepo;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class TicketSaleWriterTests {
+
+	@Autowired
+	private TicketSaleWriter ticketSaleWriter;
+
+	@Autowired
+	private TicketSaleRepo ticketSaleRepo;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void savesEverySaleInBatches() throws InterruptedException {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		long savedBefore = ticketSaleRepo.count();
+		long statementsBefore = statistics.getPrepareStatementCount();
+		int consumers = 4;
+		int salesPerConsumer = 5_000; // 20,000 sales into a buffer of 1,000, so the consumers have to wait
+
+		List<Thread> threads = new ArrayList<>();
+		for (int c = 0; c < consumers; c++) {
+			String buyer = "consumer-" + c;
+			long firstTicket = (long) c * salesPerConsumer;
+			threads.add(new Thread(() -> {
+				try {
+					for (int i = 0; i < salesPerConsumer; i++) {
+						ticketSaleWriter.recordSale(firstTicket + i, buyer);
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}));
+		}
+		threads.forEach(Thread::start);
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		assertTrue(ticketSaleWriter.awaitFlushed(30, TimeUnit.SECONDS));
+		long totalSales = (long) consumers * salesPerConsumer;
+		assertEquals(totalSales, ticketSaleRepo.count() - savedBefore);
+		// One insert statement per batch plus one sequence call per 500 IDs, not one statement per sale
+		long statements = statistics.getPrepareStatementCount() - statementsBefore;
+		assertTrue(statements < totalSales / 10, "Expected batched inserts but saw " + statements + " statements");
+	}
+}
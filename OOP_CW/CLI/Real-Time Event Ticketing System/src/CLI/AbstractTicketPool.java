@@ -0,0 +1,368 @@
+package CLI;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Shared state for the ticket pool engines: the running flag, the capacity
+ * and the ticket counters. Subclasses only decide how tickets are stored.
+ *
+ * The counters are {@link LongAdder}s, which spread updates over several cells,
+ * so many vendors and consumers can count at the same time without fighting
+ * over one lock or one memory location. A ticket is counted as released just
+ * before it is made visible (and uncounted if the add then fails), so readers
+ * never see more tickets retrieved than released.
+ *
+ * Holds ({@link #reserveTicket}) are kept here too. A held ticket is taken
+ * out of the pool through {@link #removeTicketIds}, which does not count it as
+ * retrieved; it is counted only when its hold is confirmed. Expired and
+ * released holds put their ticket back through {@link #putBackTicketId},
+ * which counts nothing either, so no counter ever shows a sale or a release
+ * that did not happen. If vendors have filled the pool in the meantime, the
+ * ticket waits until there is room again. Stopping the pool gives back every
+ * hold still active. With a journal, every hold that ends without a sale is
+ * recorded as a CANCEL before its ticket goes back.
+ */
+public abstract class AbstractTicketPool implements TicketPool {
+    private static final long HOLD_TICK_MILLIS = 10; // Holds expire at most this much late
+    private static final int HOLD_WHEEL_SIZE = 512;  // Slots of the hold timer's wheel (about 5 s per turn)
+    protected final int maxCapacity;            // The maximum number of tickets the pool can hold
+    private volatile boolean running = true;    // Indicates if the pool is active or not
+    private final LongAdder releasedTickets = new LongAdder();  // Tickets added to the pool so far
+    private final LongAdder retrievedTickets = new LongAdder(); // Tickets taken from the pool so far
+    private final LongAdder rejectedOffers = new LongAdder();   // Offers refused, or cut short by their timeout, because the pool was full
+    private final LongAdder timedOutTakes = new LongAdder();    // Takes that found nothing before their timeout
+    private final LongAdder blockedPuts = new LongAdder();      // Adds that had to wait for space
+    private final boolean trackingLatency;                      // Whether the latency histograms are recorded
+    protected final LatencyHistogram putWait = new LatencyHistogram();   // How long adds waited for space
+    protected final LatencyHistogram takeWait = new LatencyHistogram();  // How long takes waited for a ticket
+    protected final LatencyHistogram ticketAge = new LatencyHistogram(); // How long tickets sat in the pool
+    private final AtomicInteger issuedTickets = new AtomicInteger(); // Tickets claimed by vendors so far
+    private final LongAdder heldTickets = new LongAdder();      // Tickets held and not yet sold or back in the pool
+    private final LongAdder expiredHolds = new LongAdder();     // Holds whose time ran out
+    private final Queue<Long> returningTickets = new ConcurrentLinkedQueue<>(); // Given back while the pool was full
+    private volatile HoldTimer holdTimer;                       // Expires the holds (created by the first hold)
+    private volatile EventJournal journal;                      // Records holds given back (null = no journal)
+
+    /**
+     * Constructor to store the maximum capacity of the pool.
+     *
+     * @param maxCapacity     The maximum number of tickets the pool can hold.
+     * @param trackingLatency Whether to record the put-wait, take-wait and ticket age histograms.
+     */
+    protected AbstractTicketPool(int maxCapacity, boolean trackingLatency) {
+        if (maxCapacity <= 0) {
+            throw new IllegalArgumentException("Maximum ticket capacity must be greater than zero.");
+        }
+        this.maxCapacity = maxCapacity;
+        this.trackingLatency = trackingLatency;
+    }
+
+    @Override
+    public int getMaxCapacity() {
+        return maxCapacity; // Return the maximum capacity
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running; // Return whether the pool is active
+    }
+
+    @Override
+    public void stop() {
+        running = false; // Set the pool to inactive
+        HoldTimer timer;
+        synchronized (this) {
+            timer = holdTimer; // No timer can be created after this (see holdTimer())
+        }
+        if (timer != null) {
+            for (TicketHold hold : timer.stop()) {
+                journalCancel(hold.getTicketId());
+                returnTicket(hold.getTicketId()); // Nobody can pay for it any more
+            }
+            returnWaitingTickets(); // Tickets that still find the pool full stay counted as held
+        }
+        EventLog.log(EventType.POOL_STOPPED); // Inform that the pool is stopped
+    }
+
+    @Override
+    public TicketHold reserveTicket(long holdTime, long timeout, TimeUnit unit) throws InterruptedException {
+        long[] taken = new long[1];
+        if (removeTicketIds(taken, 1, timeout, unit) == 0) {
+            return null;
+        }
+        heldTickets.increment(); // Not sold yet: counted as retrieved when the hold is confirmed
+        HoldTimer timer = holdTimer();
+        TicketHold hold = timer != null ? timer.hold(taken[0], holdTime, unit) : null;
+        if (hold == null) {
+            returnTicket(taken[0]); // The pool stopped meanwhile
+        }
+        return hold;
+    }
+
+    @Override
+    public boolean confirmHold(TicketHold hold) {
+        if (!holdTimer.end(hold, TicketHold.State.CONFIRMED)) {
+            return false; // Too late: the hold has expired or was released
+        }
+        countRetrieved(1);
+        heldTickets.decrement();
+        EventLog.log(EventType.TICKET_RETRIEVED, hold.getTicketId()); // Sold now, not when it was reserved
+        return true;
+    }
+
+    @Override
+    public boolean releaseHold(TicketHold hold) {
+        if (!holdTimer.end(hold, TicketHold.State.RELEASED)) {
+            return false;
+        }
+        journalCancel(hold.getTicketId());
+        returnTicket(hold.getTicketId());
+        return true;
+    }
+
+    @Override
+    public void setJournal(EventJournal journal) {
+        this.journal = journal;
+    }
+
+    // Get the hold timer, creating it the first time a ticket is held. Returns null once the pool has stopped.
+    private HoldTimer holdTimer() {
+        HoldTimer timer = holdTimer;
+        if (timer == null) {
+            synchronized (this) {
+                timer = holdTimer;
+                if (timer == null && running) {
+                    timer = new HoldTimer(HOLD_TICK_MILLIS, HOLD_WHEEL_SIZE, this::expireHold, this::returnWaitingTickets);
+                    holdTimer = timer;
+                }
+            }
+        }
+        return timer;
+    }
+
+    // Put the ticket of an expired hold back (called on the hold timer thread).
+    private void expireHold(TicketHold hold) {
+        expiredHolds.increment();
+        journalCancel(hold.getTicketId());
+        returnTicket(hold.getTicketId());
+    }
+
+    // Record a hold that ended without a sale, before its ticket can be taken and sold again.
+    private void journalCancel(long ticketId) {
+        EventJournal target = journal;
+        if (target != null) {
+            target.append(EventJournal.Operation.CANCEL, ticketId);
+        }
+    }
+
+    // Put a held ticket back into the pool, or keep it waiting if the pool is full.
+    private void returnTicket(long ticketId) {
+        if (putBackTicketId(ticketId)) {
+            heldTickets.decrement();
+        } else {
+            returningTickets.add(ticketId);
+        }
+    }
+
+    // Retry the tickets that found the pool full (called on the hold timer thread after every tick).
+    private void returnWaitingTickets() {
+        Long ticketId;
+        while ((ticketId = returningTickets.peek()) != null) {
+            if (!putBackTicketId(ticketId)) {
+                return; // Still full; try again next tick
+            }
+            heldTickets.decrement();
+            returningTickets.poll();
+        }
+    }
+
+    /**
+     * Take up to {@code maxTickets} ticket IDs like {@link #takeTicketIds}, but
+     * without counting or logging them as retrieved. Used for holds, whose
+     * tickets are not sold until the hold is confirmed.
+     *
+     * @param target     The array that receives the IDs, starting at index 0.
+     * @param maxTickets The maximum number of IDs to take.
+     * @param timeout    How long to wait for the first ticket.
+     * @param unit       The unit of the timeout.
+     * @return The number of IDs taken (0 if none arrived before the timeout).
+     * @throws InterruptedException If the operation is interrupted.
+     */
+    protected abstract int removeTicketIds(long[] target, int maxTickets, long timeout, TimeUnit unit)
+            throws InterruptedException;
+
+    /**
+     * Put a ticket that was already released back into the pool without
+     * waiting, and without counting it as released or rejected again.
+     *
+     * @param ticketId The ID of the ticket to put back.
+     * @return True if the ticket is back in the pool, false if the pool is full.
+     */
+    protected abstract boolean putBackTicketId(long ticketId);
+
+    @Override
+    public boolean tryIssueTicket(int totalTickets) {
+        return tryIssueTickets(totalTickets, 1) == 1;
+    }
+
+    @Override
+    public int tryIssueTickets(int totalTickets, int maxTickets) {
+        while (true) {
+            int issued = issuedTickets.get();
+            int granted = Math.min(maxTickets, totalTickets - issued);
+            if (granted <= 0) {
+                return 0; // Every ticket has already been claimed by some vendor
+            }
+            if (issuedTickets.compareAndSet(issued, issued + granted)) {
+                return granted; // This vendor won the claim for the next tickets
+            }
+        }
+    }
+
+    @Override
+    public void restore(long releasedTickets, long retrievedTickets, long[] ticketIds, int count) {
+        issuedTickets.set((int) releasedTickets); // Claims that never got released are issued again
+        boolean overflow = false;
+        for (int i = 0; i < count; i++) {
+            if (!putBackTicketId(ticketIds[i])) {
+                // Held or just-sold tickets can make the recovered pool too big: wait like a returned hold
+                heldTickets.increment();
+                returningTickets.add(ticketIds[i]);
+                overflow = true;
+            }
+        }
+        if (overflow) {
+            holdTimer(); // Its ticks move the waiting tickets into the pool as space frees up
+        }
+        this.releasedTickets.add(releasedTickets); // Includes the tickets put back, so retrieved never runs ahead
+        this.retrievedTickets.add(retrievedTickets);
+    }
+
+    /**
+     * Count tickets as released. Call this before the tickets become visible to consumers.
+     *
+     * @param count The number of tickets about to be added.
+     */
+    protected void countReleased(int count) {
+        releasedTickets.add(count);
+    }
+
+    /**
+     * Take back tickets counted by {@link #countReleased(int)} that never made it into the pool.
+     *
+     * @param count The number of tickets that were not added.
+     */
+    protected void uncountReleased(int count) {
+        if (count > 0) {
+            releasedTickets.add(-count);
+        }
+    }
+
+    /**
+     * Count tickets taken out of the pool by a consumer.
+     *
+     * @param count The number of tickets taken.
+     */
+    protected void countRetrieved(int count) {
+        retrievedTickets.add(count);
+    }
+
+    /**
+     * Count an offer that was refused, or cut short by its timeout, because the pool was full.
+     */
+    protected void countRejected() {
+        rejectedOffers.increment();
+    }
+
+    /**
+     * Count a take that found no ticket before its timeout (a non-blocking poll has a zero timeout).
+     */
+    protected void countTimedOut() {
+        timedOutTakes.increment();
+    }
+
+    /**
+     * Count an add that found the pool full and had to wait.
+     */
+    protected void countBlockedPut() {
+        blockedPuts.increment();
+    }
+
+    /**
+     * Record an add or take that did not have to wait. No clock is read on this fast path.
+     *
+     * @param histogram The put-wait or take-wait histogram.
+     */
+    protected void recordNoWait(LatencyHistogram histogram) {
+        if (trackingLatency) {
+            histogram.record(0L);
+        }
+    }
+
+    /**
+     * Read the clock for latency tracking, for example when a wait starts.
+     *
+     * @return The time from {@link System#nanoTime()}, or 0 when latency is not tracked.
+     */
+    protected long latencyClock() {
+        return trackingLatency ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Record the time passed since an earlier {@link #latencyClock()} reading.
+     *
+     * @param histogram The histogram to record into.
+     * @param startedAt The earlier clock reading.
+     */
+    protected void recordSince(LatencyHistogram histogram, long startedAt) {
+        if (trackingLatency) {
+            histogram.record(System.nanoTime() - startedAt);
+        }
+    }
+
+    @Override
+    public boolean isTrackingLatency() {
+        return trackingLatency;
+    }
+
+    @Override
+    public LatencyHistogram getPutWaitHistogram() {
+        return putWait;
+    }
+
+    @Override
+    public LatencyHistogram getTakeWaitHistogram() {
+        return takeWait;
+    }
+
+    @Override
+    public LatencyHistogram getTicketAgeHistogram() {
+        return ticketAge;
+    }
+
+    @Override
+    public int getTotalAddedTickets() {
+        return (int) releasedTickets.sum(); // Return the total tickets added
+    }
+
+    @Override
+    public int getTotalRetrievedTickets() {
+        return (int) retrievedTickets.sum(); // Return the total tickets retrieved
+    }
+
+    @Override
+    public TicketPoolSnapshot snapshot() {
+        // Retrieved is read before released: every retrieved ticket was counted as released first,
+        // so the snapshot can never show more tickets retrieved than released
+        long retrieved = retrievedTickets.sum();
+        int inPool = getCurrentTicketCount();
+        long released = releasedTickets.sum();
+        return new TicketPoolSnapshot(System.currentTimeMillis(), running, maxCapacity, inPool,
+                released, retrieved, rejectedOffers.sum(), timedOutTakes.sum(), blockedPuts.sum(),
+                heldTickets.sum(), expiredHolds.sum());
+    }
+}
@@ -0,0 +1,137 @@
+package CLI;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decides whether a Consumer may start waiting for tickets at all, so that
+ * overload turns into fast refusals instead of an ever longer queue.
+ *
+ * Two limits can be set, each on its own:
+ * - a maximum number of waiters: a Consumer arriving while that many are
+ *   already waiting is rejected at once;
+ * - a wait SLO (the longest wait that is still useful): no admitted Consumer
+ *   waits longer than the SLO, and once a wait has reached it, new Consumers
+ *   are shed at once for the next SLO period. The first Consumer admitted
+ *   after that period shows whether the waits are short again.
+ *
+ * A Consumer that was turned away sleeps for {@link #getRetryAfterMillis()}
+ * before it tries again. Every decision is counted, so the status screen and
+ * the headless report show how much load was refused.
+ */
+public final class AdmissionController {
+    private static final long DEFAULT_RETRY_AFTER_MILLIS = 1; // Retry delay when there is no wait SLO
+
+    private final int maxWaiters;                          // Most Consumers waiting at once (0 = no limit)
+    private final long waitSloNanos;                       // Longest useful wait (0 = no SLO)
+    private final AtomicInteger waiters = new AtomicInteger(); // Consumers admitted and still waiting
+    private final LongAdder admitted = new LongAdder();    // Consumers let through
+    private final LongAdder rejected = new LongAdder();    // Turned away because maxWaiters were already waiting
+    private final LongAdder shed = new LongAdder();        // Turned away, or given up, because waits reached the SLO
+    private volatile long sheddingUntil;                   // New Consumers are shed until this time (System.nanoTime)
+
+    /**
+     * Constructor to create an admission controller.
+     *
+     * @param maxWaiters    The most Consumers that may wait at once (0 means no limit).
+     * @param waitSloMillis The longest wait in milliseconds that is still useful (0 means no SLO).
+     */
+    public AdmissionController(int maxWaiters, int waitSloMillis) {
+        if (maxWaiters < 0 || waitSloMillis < 0) {
+            throw new IllegalArgumentException("Maximum waiters and wait SLO must not be negative.");
+        }
+        this.maxWaiters = maxWaiters;
+        this.waitSloNanos = TimeUnit.MILLISECONDS.toNanos(waitSloMillis);
+        this.sheddingUntil = System.nanoTime(); // Not shedding yet
+    }
+
+    /**
+     * Create the admission controller selected in the configuration.
+     *
+     * @param configuration The system configuration (maximum waiters and wait SLO).
+     * @return An admission controller, or null when every Consumer is let through.
+     */
+    public static AdmissionController create(Configuration configuration) {
+        if (configuration.getMaxWaiters() == 0 && configuration.getWaitSlo() == 0) {
+            return null;
+        }
+        return new AdmissionController(configuration.getMaxWaiters(), configuration.getWaitSlo());
+    }
+
+    /**
+     * Ask to start waiting for tickets. Every true answer must be followed by
+     * exactly one {@link #exit(long, boolean)}.
+     *
+     * @return True if the Consumer may wait, false if it was rejected or shed.
+     */
+    public boolean tryEnter() {
+        if (waitSloNanos > 0 && System.nanoTime() - sheddingUntil < 0) {
+            shed.increment(); // Waits reached the SLO a moment ago: fail fast
+            return false;
+        }
+        if (waiters.incrementAndGet() > maxWaiters && maxWaiters > 0) {
+            waiters.decrementAndGet();
+            rejected.increment(); // Too many already waiting
+            return false;
+        }
+        admitted.increment();
+        return true;
+    }
+
+    /**
+     * Report that an admitted Consumer stopped waiting.
+     *
+     * @param waitedNanos How long it waited.
+     * @param served      Whether it got any tickets.
+     */
+    public void exit(long waitedNanos, boolean served) {
+        waiters.decrementAndGet();
+        if (waitSloNanos > 0 && waitedNanos >= waitSloNanos) {
+            sheddingUntil = System.nanoTime() + waitSloNanos; // Shed new arrivals for one SLO period
+            if (!served) {
+                shed.increment(); // Gave up at the SLO with nothing
+            }
+        }
+    }
+
+    /**
+     * Get how long an admitted Consumer may wait: the SLO if there is one and it is shorter.
+     *
+     * @param timeoutNanos The Consumer's own timeout in nanoseconds.
+     * @return The timeout to wait with, in nanoseconds.
+     */
+    public long getWaitTimeoutNanos(long timeoutNanos) {
+        return waitSloNanos > 0 ? Math.min(timeoutNanos, waitSloNanos) : timeoutNanos;
+    }
+
+    // Get how long a Consumer that was turned away sleeps before it tries again, in milliseconds.
+    public long getRetryAfterMillis() {
+        return waitSloNanos > 0 ? TimeUnit.NANOSECONDS.toMillis(waitSloNanos) : DEFAULT_RETRY_AFTER_MILLIS;
+    }
+
+    // Get the most Consumers that may wait at once (0 means no limit).
+    public int getMaxWaiters() {
+        return maxWaiters;
+    }
+
+    // Get the number of Consumers admitted and still waiting.
+    public int getWaiters() {
+        return waiters.get();
+    }
+
+    // Get the number of Consumers let through.
+    public long getAdmitted() {
+        return admitted.sum();
+    }
+
+    // Get the number of Consumers turned away because too many were already waiting.
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    // Get the number of Consumers turned away, or given up, because waits reached the SLO.
+    public long getShed() {
+        return shed.sum();
+    }
+}
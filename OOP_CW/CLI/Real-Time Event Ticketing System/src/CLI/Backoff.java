@@ -0,0 +1,46 @@
+package CLI;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Waiting strategy for the lock-free pools. A thread that finds the pool full
+ * (or empty) first spins briefly, then yields, then parks for growing periods.
+ * Create one Backoff per wait and call {@link #idle()} after every failed attempt.
+ */
+public class Backoff {
+    private static final int SPIN_LIMIT = 64;              // Attempts that only spin
+    private static final int YIELD_LIMIT = 128;            // Attempts that yield the CPU
+    private static final long MIN_PARK_NANOS = 1_000L;     // First park period (1 microsecond)
+    private static final long MAX_PARK_NANOS = 1_000_000L; // Longest park period (1 millisecond)
+
+    private int attempts = 0;                   // Failed attempts so far
+    private long parkNanos = MIN_PARK_NANOS;    // Current park period
+
+    /**
+     * Wait a little before the next attempt.
+     *
+     * @throws InterruptedException If the waiting thread is interrupted.
+     */
+    public void idle() throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        attempts++;
+        if (attempts <= SPIN_LIMIT) {
+            Thread.onSpinWait(); // Hint to the CPU that this is a busy-wait loop
+        } else if (attempts <= YIELD_LIMIT) {
+            Thread.yield(); // Give other threads a chance to run
+        } else {
+            LockSupport.parkNanos(parkNanos); // Sleep briefly without holding any lock
+            parkNanos = Math.min(parkNanos * 2, MAX_PARK_NANOS);
+        }
+    }
+
+    /**
+     * Start again from the cheapest waiting step.
+     */
+    public void reset() {
+        attempts = 0;
+        parkNanos = MIN_PARK_NANOS;
+    }
+}
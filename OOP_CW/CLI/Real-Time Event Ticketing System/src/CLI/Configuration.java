@@ -4,6 +4,7 @@ import com.google.gson.Gson; // Library to handle JSON data.
 import com.google.gson.GsonBuilder; // Library for creating well-formatted JSON.
 
 import java.io.*; // Library for file operations (read/write).
+import java.util.List; // Library for the list of consumer tiers.
 import java.util.Scanner; // Library for user input.
 
 /**
@@ -11,14 +12,67 @@ import java.util.Scanner; // Library for user input.
  */
 public class Configuration {
 
+    // The fastest rate a single Vendor or Consumer can be paced to (one ticket per nanosecond).
+    public static final double MAX_RATE = 1_000_000_000.0;
+
     // Store the total number of tickets to release.
     private final int totalTickets;
-    // Store how often tickets are released (in seconds).
-    private final int ticketReleaseRate;
-    // Store how often customers can retrieve tickets (in seconds).
-    private final int customerRetrievalRate;
+    // Store how fast each Vendor releases tickets (tickets per second, may be fractional).
+    private final double ticketReleaseRate;
+    // Store how fast each Consumer retrieves tickets (tickets per second, may be fractional).
+    private final double customerRetrievalRate;
     // Store the maximum number of tickets that can be in the system.
     private final int maximumTicketCapacity;
+    // Store how many Vendor threads release tickets at the same time.
+    private final int vendorCount;
+    // Store how many Consumer threads buy tickets at the same time.
+    private final int consumerCount;
+    // Store whether Vendors and Consumers run on virtual or platform threads.
+    private final ThreadMode threadMode;
+    // Store which ticket pool engine holds the tickets.
+    private final PoolType poolType;
+    // Store how many shards a sharded pool uses (0 means one per CPU core).
+    private final int shardCount;
+    // Store how many tickets a Vendor releases in one batch.
+    private final int vendorBatchSize;
+    // Store how many tickets a Consumer buys in one batch.
+    private final int consumerBatchSize;
+    // Store how much the event log writes.
+    private final LogLevel logLevel;
+    // Store how often ticket events are logged (one ticket in every logSampleRate).
+    private final int logSampleRate;
+    // Store the file the event log is written to (empty means the console).
+    private final String logFile;
+    // Store how many tickets a Vendor may release back to back (0 means about 1 ms worth).
+    private final int releaseBurst;
+    // Store how many tickets a Consumer may retrieve back to back (0 means about 1 ms worth).
+    private final int retrievalBurst;
+    // Store whether the pool records put-wait, take-wait and ticket age histograms (null in older files).
+    private final Boolean latencyTracking;
+    // Store the file the latency report is written to when the system stops (empty means no report).
+    private final String latencyReportFile;
+    // Store the folder the event journal is written to (empty means no journal).
+    private final String journalDirectory;
+    // Store when the event journal is forced to disk (null in older files).
+    private final JournalSyncPolicy journalSync;
+    // Store how often the event journal is forced with the INTERVAL policy, in milliseconds.
+    private final int journalFlushInterval;
+    // Store the folder pool snapshots are written to (empty means no snapshots).
+    private final String snapshotDirectory;
+    // Store how often a pool snapshot is taken, in milliseconds.
+    private final int snapshotInterval;
+    // Store how long a held ticket stays reserved before it expires back into the pool, in milliseconds (0 means no holds).
+    private final int holdTime;
+    // Store the share of holds a Consumer abandons, letting them expire (0 to below 1).
+    private final double holdAbandonRate;
+    // Store how waiting Consumers are served when they are split into tiers (null in older files).
+    private final DispatchPolicy dispatchPolicy;
+    // Store the consumer tiers as "name:consumers:weight" entries separated by commas (empty means one tier).
+    private final String consumerTiers;
+    // Store the most Consumers that may wait for tickets at once (0 means no limit).
+    private final int maxWaiters;
+    // Store the longest useful wait for tickets in milliseconds; longer waits make Consumers be shed (0 means no SLO).
+    private final int waitSlo;
 
     // Constructor to create a Configuration object using values from the Builder.
     private Configuration(Builder builder) {
@@ -26,6 +80,31 @@ public class Configuration {
         this.ticketReleaseRate = builder.ticketReleaseRate;
         this.customerRetrievalRate = builder.customerRetrievalRate;
         this.maximumTicketCapacity = builder.maximumTicketCapacity;
+        this.vendorCount = builder.vendorCount;
+        this.consumerCount = builder.consumerCount;
+        this.threadMode = builder.threadMode;
+        this.poolType = builder.poolType;
+        this.shardCount = builder.shardCount;
+        this.vendorBatchSize = builder.vendorBatchSize;
+        this.consumerBatchSize = builder.consumerBatchSize;
+        this.logLevel = builder.logLevel;
+        this.logSampleRate = builder.logSampleRate;
+        this.logFile = builder.logFile;
+        this.releaseBurst = builder.releaseBurst;
+        this.retrievalBurst = builder.retrievalBurst;
+        this.latencyTracking = builder.latencyTracking;
+        this.latencyReportFile = builder.latencyReportFile;
+        this.journalDirectory = builder.journalDirectory;
+        this.journalSync = builder.journalSync;
+        this.journalFlushInterval = builder.journalFlushInterval;
+        this.snapshotDirectory = builder.snapshotDirectory;
+        this.snapshotInterval = builder.snapshotInterval;
+        this.holdTime = builder.holdTime;
+        this.holdAbandonRate = builder.holdAbandonRate;
+        this.dispatchPolicy = builder.dispatchPolicy;
+        this.consumerTiers = builder.consumerTiers;
+        this.maxWaiters = builder.maxWaiters;
+        this.waitSlo = builder.waitSlo;
     }
 
     // Get the total number of tickets.
@@ -33,13 +112,13 @@ public class Configuration {
         return totalTickets;
     }
 
-    // Get the rate at which tickets are released (seconds).
-    public int getTicketReleaseRate() {
+    // Get the rate at which each Vendor releases tickets (tickets per second).
+    public double getTicketReleaseRate() {
         return ticketReleaseRate;
     }
 
-    // Get the rate at which customers retrieve tickets (seconds).
-    public int getCustomerRetrievalRate() {
+    // Get the rate at which each Consumer retrieves tickets (tickets per second).
+    public double getCustomerRetrievalRate() {
         return customerRetrievalRate;
     }
 
@@ -48,13 +127,249 @@ public class Configuration {
         return maximumTicketCapacity;
     }
 
+    // Get the number of Vendor threads.
+    public int getVendorCount() {
+        return vendorCount;
+    }
+
+    // Get the number of Consumer threads.
+    public int getConsumerCount() {
+        return consumerCount;
+    }
+
+    // Get the kind of thread the Vendors and Consumers run on.
+    public ThreadMode getThreadMode() {
+        return threadMode;
+    }
+
+    // Get the ticket pool engine that holds the tickets.
+    public PoolType getPoolType() {
+        return poolType;
+    }
+
+    // Get the number of shards for a sharded pool (0 means one per CPU core).
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    // Get the number of tickets a Vendor releases in one batch.
+    public int getVendorBatchSize() {
+        return vendorBatchSize;
+    }
+
+    // Get the number of tickets a Consumer buys in one batch.
+    public int getConsumerBatchSize() {
+        return consumerBatchSize;
+    }
+
+    // Get how much the event log writes.
+    public LogLevel getLogLevel() {
+        return logLevel;
+    }
+
+    // Get how often ticket events are logged (one ticket in every logSampleRate).
+    public int getLogSampleRate() {
+        return logSampleRate;
+    }
+
+    // Get the file the event log is written to (empty means the console).
+    public String getLogFile() {
+        return logFile;
+    }
+
+    // Get how many tickets a Vendor may release back to back (0 means about 1 ms worth).
+    public int getReleaseBurst() {
+        return releaseBurst;
+    }
+
+    // Get how many tickets a Consumer may retrieve back to back (0 means about 1 ms worth).
+    public int getRetrievalBurst() {
+        return retrievalBurst;
+    }
+
+    // Get whether the pool records latency histograms.
+    public boolean isLatencyTracking() {
+        return latencyTracking == null || latencyTracking;
+    }
+
+    // Get the file the latency report is written to when the system stops (empty means no report).
+    public String getLatencyReportFile() {
+        return latencyReportFile;
+    }
+
+    // Get the folder the event journal is written to (empty means no journal).
+    public String getJournalDirectory() {
+        return journalDirectory;
+    }
+
+    // Get when the event journal is forced to disk.
+    public JournalSyncPolicy getJournalSync() {
+        return journalSync;
+    }
+
+    // Get how often the event journal is forced with the INTERVAL policy, in milliseconds.
+    public int getJournalFlushInterval() {
+        return journalFlushInterval;
+    }
+
+    // Get the folder pool snapshots are written to (empty means no snapshots).
+    public String getSnapshotDirectory() {
+        return snapshotDirectory;
+    }
+
+    // Get how often a pool snapshot is taken, in milliseconds.
+    public int getSnapshotInterval() {
+        return snapshotInterval;
+    }
+
+    // Get how long a held ticket stays reserved before it expires back into the pool, in milliseconds (0 means no holds).
+    public int getHoldTime() {
+        return holdTime;
+    }
+
+    // Get the share of holds a Consumer abandons, letting them expire.
+    public double getHoldAbandonRate() {
+        return holdAbandonRate;
+    }
+
+    // Get how waiting Consumers are served when they are split into tiers.
+    public DispatchPolicy getDispatchPolicy() {
+        return dispatchPolicy;
+    }
+
+    // Get the consumer tiers as written in the configuration (empty means one tier).
+    public String getConsumerTiers() {
+        return consumerTiers;
+    }
+
+    // Get the most Consumers that may wait for tickets at once (0 means no limit).
+    public int getMaxWaiters() {
+        return maxWaiters;
+    }
+
+    // Get the longest useful wait for tickets in milliseconds (0 means no SLO).
+    public int getWaitSlo() {
+        return waitSlo;
+    }
+
+    // Get the consumer tiers in priority order; without tiers, every Consumer is in one "general" tier.
+    public List<ConsumerTier> getTiers() {
+        List<ConsumerTier> tiers = ConsumerTier.parseAll(consumerTiers);
+        return tiers.isEmpty() ? List.of(new ConsumerTier("general", consumerCount, 1)) : tiers;
+    }
+
+    // Create a Builder pre-filled with this configuration's values.
+    public Builder toBuilder() {
+        Builder builder = new Builder()
+                .setTotalTickets(totalTickets)
+                .setTicketReleaseRate(ticketReleaseRate)
+                .setCustomerRetrievalRate(customerRetrievalRate)
+                .setMaximumTicketCapacity(maximumTicketCapacity);
+        // Older configuration files do not have the fields below, so keep the Builder defaults for them.
+        if (vendorCount > 0) {
+            builder.setVendorCount(vendorCount);
+        }
+        if (consumerCount > 0) {
+            builder.setConsumerCount(consumerCount);
+        }
+        if (threadMode != null) {
+            builder.setThreadMode(threadMode);
+        }
+        if (poolType != null) {
+            builder.setPoolType(poolType);
+        }
+        builder.setShardCount(shardCount);
+        if (vendorBatchSize > 0) {
+            builder.setVendorBatchSize(vendorBatchSize);
+        }
+        if (consumerBatchSize > 0) {
+            builder.setConsumerBatchSize(consumerBatchSize);
+        }
+        if (logLevel != null) {
+            builder.setLogLevel(logLevel);
+        }
+        if (logSampleRate > 0) {
+            builder.setLogSampleRate(logSampleRate);
+        }
+        if (logFile != null) {
+            builder.setLogFile(logFile);
+        }
+        builder.setReleaseBurst(releaseBurst);
+        builder.setRetrievalBurst(retrievalBurst);
+        if (latencyTracking != null) {
+            builder.setLatencyTracking(latencyTracking);
+        }
+        if (latencyReportFile != null) {
+            builder.setLatencyReportFile(latencyReportFile);
+        }
+        if (journalDirectory != null) {
+            builder.setJournalDirectory(journalDirectory);
+        }
+        if (journalSync != null) {
+            builder.setJournalSync(journalSync);
+        }
+        if (journalFlushInterval > 0) {
+            builder.setJournalFlushInterval(journalFlushInterval);
+        }
+        if (snapshotDirectory != null) {
+            builder.setSnapshotDirectory(snapshotDirectory);
+        }
+        if (snapshotInterval > 0) {
+            builder.setSnapshotInterval(snapshotInterval);
+        }
+        builder.setHoldTime(holdTime);
+        builder.setHoldAbandonRate(holdAbandonRate);
+        if (dispatchPolicy != null) {
+            builder.setDispatchPolicy(dispatchPolicy);
+        }
+        if (consumerTiers != null) {
+            builder.setConsumerTiers(consumerTiers);
+        }
+        builder.setMaxWaiters(maxWaiters);
+        builder.setWaitSlo(waitSlo);
+        return builder;
+    }
+
     // Print the configuration details to the console.
     public void displayConfiguration() {
         System.out.println("System Configuration:");
         System.out.println("Total Tickets: " + totalTickets);
-        System.out.println("Ticket Release Rate: " + ticketReleaseRate + " sec");
-        System.out.println("Customer Retrieval Rate: " + customerRetrievalRate + " sec");
+        System.out.println("Ticket Release Rate: " + ticketReleaseRate + " tickets/sec per vendor (burst "
+                + burstText(releaseBurst) + ")");
+        System.out.println("Customer Retrieval Rate: " + customerRetrievalRate + " tickets/sec per customer (burst "
+                + burstText(retrievalBurst) + ")");
         System.out.println("Maximum Ticket Capacity: " + maximumTicketCapacity);
+        System.out.println("Vendors: " + vendorCount);
+        System.out.println("Consumers: " + consumerCount);
+        System.out.println("Thread Mode: " + threadMode);
+        System.out.println("Pool Type: " + poolType);
+        if (poolType == PoolType.SHARDED) {
+            System.out.println("Shards: " + (shardCount > 0 ? shardCount : "one per CPU core"));
+        }
+        System.out.println("Vendor Batch Size: " + vendorBatchSize);
+        System.out.println("Consumer Batch Size: " + consumerBatchSize);
+        System.out.println("Log Level: " + logLevel + " (1 in " + logSampleRate + " tickets, to "
+                + (logFile.isEmpty() ? "console" : logFile) + ")");
+        System.out.println("Latency Tracking: " + (isLatencyTracking()
+                ? "on" + (latencyReportFile.isEmpty() ? "" : " (report to " + latencyReportFile + ")")
+                : "off"));
+        System.out.println("Event Journal: " + (journalDirectory.isEmpty() ? "off"
+                : journalDirectory + " (sync " + journalSync
+                + (journalSync == JournalSyncPolicy.INTERVAL ? " every " + journalFlushInterval + " ms" : "") + ")"));
+        System.out.println("Pool Snapshots: " + (snapshotDirectory.isEmpty() ? "off"
+                : snapshotDirectory + " (every " + snapshotInterval + " ms)"));
+        System.out.println("Ticket Holds: " + (holdTime == 0 ? "off"
+                : holdTime + " ms, " + Math.round(holdAbandonRate * 100) + "% abandoned"));
+        System.out.println("Consumer Tiers: " + (consumerTiers.isEmpty() ? "none" : consumerTiers)
+                + " (dispatch " + dispatchPolicy + ")");
+        System.out.println("Admission Control: " + (maxWaiters == 0 && waitSlo == 0 ? "off"
+                : (maxWaiters == 0 ? "any number" : "at most " + maxWaiters) + " waiting, "
+                + (waitSlo == 0 ? "no wait SLO" : "shed above " + waitSlo + " ms wait")));
+    }
+
+    // Describe a burst size for displayConfiguration.
+    private static String burstText(int burst) {
+        return burst > 0 ? String.valueOf(burst) : "auto";
     }
 
     // Save the configuration as a JSON file for future use.
@@ -70,7 +385,8 @@ public class Configuration {
     public static Configuration loadFromJson(String filePath) throws IOException {
         Gson gson = new Gson(); // Create a simple JSON object to read data.
         try (FileReader reader = new FileReader(filePath)) {
-            return gson.fromJson(reader, Configuration.class); // Convert JSON data into a Configuration object.
+            Configuration loaded = gson.fromJson(reader, Configuration.class); // Convert JSON data into a Configuration object.
+            return loaded.toBuilder().build(); // Re-validate the values and fill in defaults for missing fields.
         }
     }
 
@@ -81,6 +397,31 @@ public class Configuration {
             writer.write("Ticket Release Rate: " + ticketReleaseRate + "\n");
             writer.write("Customer Retrieval Rate: " + customerRetrievalRate + "\n");
             writer.write("Maximum Ticket Capacity: " + maximumTicketCapacity + "\n");
+            writer.write("Vendors: " + vendorCount + "\n");
+            writer.write("Consumers: " + consumerCount + "\n");
+            writer.write("Thread Mode: " + threadMode + "\n");
+            writer.write("Pool Type: " + poolType + "\n");
+            writer.write("Shards: " + shardCount + "\n");
+            writer.write("Vendor Batch Size: " + vendorBatchSize + "\n");
+            writer.write("Consumer Batch Size: " + consumerBatchSize + "\n");
+            writer.write("Log Level: " + logLevel + "\n");
+            writer.write("Log Sample Rate: " + logSampleRate + "\n");
+            writer.write("Log File: " + logFile + "\n");
+            writer.write("Release Burst: " + releaseBurst + "\n");
+            writer.write("Retrieval Burst: " + retrievalBurst + "\n");
+            writer.write("Latency Tracking: " + isLatencyTracking() + "\n");
+            writer.write("Latency Report File: " + latencyReportFile + "\n");
+            writer.write("Journal Directory: " + journalDirectory + "\n");
+            writer.write("Journal Sync: " + journalSync + "\n");
+            writer.write("Journal Flush Interval: " + journalFlushInterval + "\n");
+            writer.write("Snapshot Directory: " + snapshotDirectory + "\n");
+            writer.write("Snapshot Interval: " + snapshotInterval + "\n");
+            writer.write("Hold Time: " + holdTime + "\n");
+            writer.write("Hold Abandon Rate: " + holdAbandonRate + "\n");
+            writer.write("Dispatch Policy: " + dispatchPolicy + "\n");
+            writer.write("Consumer Tiers: " + consumerTiers + "\n");
+            writer.write("Max Waiters: " + maxWaiters + "\n");
+            writer.write("Wait SLO: " + waitSlo + "\n");
         }
     }
 
@@ -89,26 +430,158 @@ public class Configuration {
         try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
             // Read each line and extract the value after ": ".
             int totalTickets = Integer.parseInt(reader.readLine().split(": ")[1]);
-            int ticketReleaseRate = Integer.parseInt(reader.readLine().split(": ")[1]);
-            int customerRetrievalRate = Integer.parseInt(reader.readLine().split(": ")[1]);
+            double ticketReleaseRate = Double.parseDouble(reader.readLine().split(": ")[1]);
+            double customerRetrievalRate = Double.parseDouble(reader.readLine().split(": ")[1]);
             int maximumTicketCapacity = Integer.parseInt(reader.readLine().split(": ")[1]);
 
-            // Create and return a Configuration object using a Builder.
-            return new Builder()
+            // Create a Builder with the required values.
+            Builder builder = new Builder()
                     .setTotalTickets(totalTickets)
                     .setTicketReleaseRate(ticketReleaseRate)
                     .setCustomerRetrievalRate(customerRetrievalRate)
-                    .setMaximumTicketCapacity(maximumTicketCapacity)
-                    .build();
+                    .setMaximumTicketCapacity(maximumTicketCapacity);
+
+            // The thread settings are optional, so older files without them still load.
+            String line = reader.readLine();
+            if (line != null) {
+                builder.setVendorCount(Integer.parseInt(line.split(": ")[1]));
+            }
+            line = reader.readLine();
+            if (line != null) {
+                builder.setConsumerCount(Integer.parseInt(line.split(": ")[1]));
+            }
+            line = reader.readLine();
+            if (line != null) {
+                builder.setThreadMode(ThreadMode.fromText(line.split(": ")[1]));
+            }
+            line = reader.readLine();
+            if (line != null) {
+                builder.setPoolType(PoolType.fromText(line.split(": ")[1]));
+            }
+            line = reader.readLine();
+            if (line != null) {
+                builder.setShardCount(Integer.parseInt(line.split(": ")[1]));
+            }
+            line = reader.readLine();
+            if (line != null) {
+                builder.setVendorBatchSize(Integer.parseInt(line.split(": ")[1]));
+            }
+            line = reader.readLine();
+            if (line != null) {
+                builder.setConsumerBatchSize(Integer.parseInt(line.split(": ")[1]));
+            }
+            line = reader.readLine();
+            if (line != null) {
+                builder.setLogLevel(LogLevel.fromText(line.split(": ")[1]));
+            }
+            line = reader.readLine();
+            if (line != null) {
+                builder.setLogSampleRate(Integer.parseInt(line.split(": ")[1]));
+            }
+            line = reader.readLine();
+            if (line != null) {
+                String[] parts = line.split(": ", 2);
+                builder.setLogFile(parts.length > 1 ? parts[1] : ""); // An empty value means the console
+            }
+            line = reader.readLine();
+            if (line != null) {
+                builder.setReleaseBurst(Integer.parseInt(line.split(": ")[1]));
+            }
+            line = reader.readLine();
+            if (line != null) {
+                builder.setRetrievalBurst(Integer.parseInt(line.split(": ")[1]));
+            }
+            line = reader.readLine();
+            if (line != null) {
+                builder.setLatencyTracking(Boolean.parseBoolean(line.split(": ")[1].trim()));
+            }
+            line = reader.readLine();
+            if (line != null) {
+                String[] parts = line.split(": ", 2);
+                builder.setLatencyReportFile(parts.length > 1 ? parts[1] : ""); // An empty value means no report
+            }
+            line = reader.readLine();
+            if (line != null) {
+                String[] parts = line.split(": ", 2);
+                builder.setJournalDirectory(parts.length > 1 ? parts[1] : ""); // An empty value means no journal
+            }
+            line = reader.readLine();
+            if (line != null) {
+                builder.setJournalSync(JournalSyncPolicy.fromText(line.split(": ")[1]));
+            }
+            line = reader.readLine();
+            if (line != null) {
+                builder.setJournalFlushInterval(Integer.parseInt(line.split(": ")[1].trim()));
+            }
+            line = reader.readLine();
+            if (line != null) {
+                String[] parts = line.split(": ", 2);
+                builder.setSnapshotDirectory(parts.length > 1 ? parts[1] : ""); // An empty value means no snapshots
+            }
+            line = reader.readLine();
+            if (line != null) {
+                builder.setSnapshotInterval(Integer.parseInt(line.split(": ")[1].trim()));
+            }
+            line = reader.readLine();
+            if (line != null) {
+                builder.setHoldTime(Integer.parseInt(line.split(": ")[1].trim()));
+            }
+            line = reader.readLine();
+            if (line != null) {
+                builder.setHoldAbandonRate(Double.parseDouble(line.split(": ")[1].trim()));
+            }
+            line = reader.readLine();
+            if (line != null) {
+                builder.setDispatchPolicy(DispatchPolicy.fromText(line.split(": ")[1]));
+            }
+            line = reader.readLine();
+            if (line != null) {
+                String[] parts = line.split(": ", 2);
+                builder.setConsumerTiers(parts.length > 1 ? parts[1] : ""); // An empty value means one tier
+            }
+            line = reader.readLine();
+            if (line != null) {
+                builder.setMaxWaiters(Integer.parseInt(line.split(": ")[1].trim()));
+            }
+            line = reader.readLine();
+            if (line != null) {
+                builder.setWaitSlo(Integer.parseInt(line.split(": ")[1].trim()));
+            }
+            return builder.build();
         }
     }
 
     // Inner Builder class to help create Configuration objects step by step.
     public static class Builder {
         private int totalTickets; // Total tickets to release.
-        private int ticketReleaseRate; // Rate to release tickets (seconds).
-        private int customerRetrievalRate; // Rate customers retrieve tickets (seconds).
+        private double ticketReleaseRate; // Tickets per second each Vendor releases.
+        private double customerRetrievalRate; // Tickets per second each Consumer retrieves.
         private int maximumTicketCapacity; // Maximum tickets allowed in the system.
+        private int vendorCount = 1; // Number of Vendor threads (one by default).
+        private int consumerCount = 1; // Number of Consumer threads (one by default).
+        private ThreadMode threadMode = ThreadMode.VIRTUAL; // Kind of thread to run on.
+        private PoolType poolType = PoolType.QUEUE; // Ticket pool engine to use.
+        private int shardCount = 0; // Shards for a sharded pool (0 = one per CPU core).
+        private int vendorBatchSize = 1; // Tickets per vendor release (one by default).
+        private int consumerBatchSize = 1; // Tickets per consumer purchase (one by default).
+        private LogLevel logLevel = LogLevel.DEBUG; // Event log level (every ticket by default).
+        private int logSampleRate = 1; // Log one ticket in every logSampleRate (all by default).
+        private String logFile = ""; // Event log file (empty = console).
+        private int releaseBurst = 0; // Vendor burst size (0 = about 1 ms worth of tickets).
+        private int retrievalBurst = 0; // Consumer burst size (0 = about 1 ms worth of tickets).
+        private Boolean latencyTracking = true; // Record latency histograms (on by default).
+        private String latencyReportFile = ""; // Latency report written on stop (empty = none, the default).
+        private String journalDirectory = ""; // Event journal folder (empty = no journal).
+        private JournalSyncPolicy journalSync = JournalSyncPolicy.INTERVAL; // When the journal is forced to disk.
+        private int journalFlushInterval = 10; // Journal force interval in milliseconds.
+        private String snapshotDirectory = ""; // Pool snapshot folder (empty = no snapshots).
+        private int snapshotInterval = 5000; // Pool snapshot interval in milliseconds.
+        private int holdTime = 0; // Ticket hold time in milliseconds (0 = consumers buy without holding).
+        private double holdAbandonRate = 0; // Share of holds left to expire.
+        private DispatchPolicy dispatchPolicy = DispatchPolicy.DIRECT; // How waiting Consumers are served.
+        private String consumerTiers = ""; // Consumer tiers (empty = every Consumer in one tier).
+        private int maxWaiters = 0; // Most Consumers waiting at once (0 = no limit).
+        private int waitSlo = 0; // Longest useful wait in milliseconds (0 = no SLO).
 
         // Set the total number of tickets.
         public Builder setTotalTickets(int totalTickets) {
@@ -119,19 +592,21 @@ public class Configuration {
             return this;
         }
 
-        // Set the ticket release rate.
-        public Builder setTicketReleaseRate(int ticketReleaseRate) {
-            if (ticketReleaseRate <= 0) { // Validate input.
-                throw new IllegalArgumentException("Ticket release rate must be greater than zero.");
+        // Set the ticket release rate (tickets per second for each Vendor).
+        public Builder setTicketReleaseRate(double ticketReleaseRate) {
+            if (!(ticketReleaseRate > 0) || ticketReleaseRate > MAX_RATE) { // Validate input (also rejects NaN).
+                throw new IllegalArgumentException("Ticket release rate must be greater than zero and at most "
+                        + (long) MAX_RATE + " tickets per second.");
             }
             this.ticketReleaseRate = ticketReleaseRate;
             return this;
         }
 
-        // Set the customer retrieval rate.
-        public Builder setCustomerRetrievalRate(int customerRetrievalRate) {
-            if (customerRetrievalRate <= 0) { // Validate input.
-                throw new IllegalArgumentException("Customer retrieval rate must be greater than zero.");
+        // Set the customer retrieval rate (tickets per second for each Consumer).
+        public Builder setCustomerRetrievalRate(double customerRetrievalRate) {
+            if (!(customerRetrievalRate > 0) || customerRetrievalRate > MAX_RATE) { // Validate input (also rejects NaN).
+                throw new IllegalArgumentException("Customer retrieval rate must be greater than zero and at most "
+                        + (long) MAX_RATE + " tickets per second.");
             }
             this.customerRetrievalRate = customerRetrievalRate;
             return this;
@@ -146,11 +621,228 @@ public class Configuration {
             return this;
         }
 
+        // Set the number of Vendor threads.
+        public Builder setVendorCount(int vendorCount) {
+            if (vendorCount <= 0) { // Validate input.
+                throw new IllegalArgumentException("Vendor count must be greater than zero.");
+            }
+            this.vendorCount = vendorCount;
+            return this;
+        }
+
+        // Set the number of Consumer threads.
+        public Builder setConsumerCount(int consumerCount) {
+            if (consumerCount <= 0) { // Validate input.
+                throw new IllegalArgumentException("Consumer count must be greater than zero.");
+            }
+            this.consumerCount = consumerCount;
+            return this;
+        }
+
+        // Set whether Vendors and Consumers run on virtual or platform threads.
+        public Builder setThreadMode(ThreadMode threadMode) {
+            if (threadMode == null) { // Validate input.
+                throw new IllegalArgumentException("Thread mode must not be empty.");
+            }
+            this.threadMode = threadMode;
+            return this;
+        }
+
+        // Set which ticket pool engine holds the tickets.
+        public Builder setPoolType(PoolType poolType) {
+            if (poolType == null) { // Validate input.
+                throw new IllegalArgumentException("Pool type must not be empty.");
+            }
+            this.poolType = poolType;
+            return this;
+        }
+
+        // Set the number of shards for a sharded pool (0 means one per CPU core).
+        public Builder setShardCount(int shardCount) {
+            if (shardCount < 0) { // Validate input.
+                throw new IllegalArgumentException("Shard count must not be negative.");
+            }
+            this.shardCount = shardCount;
+            return this;
+        }
+
+        // Set how many tickets a Vendor releases in one batch.
+        public Builder setVendorBatchSize(int vendorBatchSize) {
+            if (vendorBatchSize <= 0) { // Validate input.
+                throw new IllegalArgumentException("Vendor batch size must be greater than zero.");
+            }
+            this.vendorBatchSize = vendorBatchSize;
+            return this;
+        }
+
+        // Set how many tickets a Consumer buys in one batch.
+        public Builder setConsumerBatchSize(int consumerBatchSize) {
+            if (consumerBatchSize <= 0) { // Validate input.
+                throw new IllegalArgumentException("Consumer batch size must be greater than zero.");
+            }
+            this.consumerBatchSize = consumerBatchSize;
+            return this;
+        }
+
+        // Set how much the event log writes.
+        public Builder setLogLevel(LogLevel logLevel) {
+            if (logLevel == null) { // Validate input.
+                throw new IllegalArgumentException("Log level must not be empty.");
+            }
+            this.logLevel = logLevel;
+            return this;
+        }
+
+        // Set how often ticket events are logged (one ticket in every logSampleRate).
+        public Builder setLogSampleRate(int logSampleRate) {
+            if (logSampleRate <= 0) { // Validate input.
+                throw new IllegalArgumentException("Log sample rate must be greater than zero.");
+            }
+            this.logSampleRate = logSampleRate;
+            return this;
+        }
+
+        // Set the file the event log is written to (empty means the console).
+        public Builder setLogFile(String logFile) {
+            this.logFile = logFile == null ? "" : logFile.trim();
+            return this;
+        }
+
+        // Set how many tickets a Vendor may release back to back (0 means about 1 ms worth).
+        public Builder setReleaseBurst(int releaseBurst) {
+            if (releaseBurst < 0) { // Validate input.
+                throw new IllegalArgumentException("Release burst must not be negative.");
+            }
+            this.releaseBurst = releaseBurst;
+            return this;
+        }
+
+        // Set how many tickets a Consumer may retrieve back to back (0 means about 1 ms worth).
+        public Builder setRetrievalBurst(int retrievalBurst) {
+            if (retrievalBurst < 0) { // Validate input.
+                throw new IllegalArgumentException("Retrieval burst must not be negative.");
+            }
+            this.retrievalBurst = retrievalBurst;
+            return this;
+        }
+
+        // Set whether the pool records put-wait, take-wait and ticket age histograms.
+        public Builder setLatencyTracking(boolean latencyTracking) {
+            this.latencyTracking = latencyTracking;
+            return this;
+        }
+
+        // Set the file the latency report is written to when the system stops (empty means no report).
+        public Builder setLatencyReportFile(String latencyReportFile) {
+            this.latencyReportFile = latencyReportFile == null ? "" : latencyReportFile.trim();
+            return this;
+        }
+
+        // Set the folder the event journal is written to (empty means no journal).
+        public Builder setJournalDirectory(String journalDirectory) {
+            this.journalDirectory = journalDirectory == null ? "" : journalDirectory.trim();
+            return this;
+        }
+
+        // Set when the event journal is forced to disk.
+        public Builder setJournalSync(JournalSyncPolicy journalSync) {
+            if (journalSync == null) { // Validate input.
+                throw new IllegalArgumentException("Journal sync policy must not be empty.");
+            }
+            this.journalSync = journalSync;
+            return this;
+        }
+
+        // Set how often the event journal is forced with the INTERVAL policy, in milliseconds.
+        public Builder setJournalFlushInterval(int journalFlushInterval) {
+            if (journalFlushInterval <= 0) { // Validate input.
+                throw new IllegalArgumentException("Journal flush interval must be greater than zero.");
+            }
+            this.journalFlushInterval = journalFlushInterval;
+            return this;
+        }
+
+        // Set the folder pool snapshots are written to (empty means no snapshots).
+        public Builder setSnapshotDirectory(String snapshotDirectory) {
+            this.snapshotDirectory = snapshotDirectory == null ? "" : snapshotDirectory.trim();
+            return this;
+        }
+
+        // Set how often a pool snapshot is taken, in milliseconds.
+        public Builder setSnapshotInterval(int snapshotInterval) {
+            if (snapshotInterval <= 0) { // Validate input.
+                throw new IllegalArgumentException("Snapshot interval must be greater than zero.");
+            }
+            this.snapshotInterval = snapshotInterval;
+            return this;
+        }
+
+        // Set how long a held ticket stays reserved before it expires back into the pool, in milliseconds (0 means no holds).
+        public Builder setHoldTime(int holdTime) {
+            if (holdTime < 0) { // Validate input.
+                throw new IllegalArgumentException("Hold time must not be negative.");
+            }
+            this.holdTime = holdTime;
+            return this;
+        }
+
+        // Set the share of holds a Consumer abandons, letting them expire.
+        public Builder setHoldAbandonRate(double holdAbandonRate) {
+            if (!(holdAbandonRate >= 0) || holdAbandonRate >= 1) { // Validate input (also rejects NaN).
+                throw new IllegalArgumentException("Hold abandon rate must be at least 0 and below 1.");
+            }
+            this.holdAbandonRate = holdAbandonRate;
+            return this;
+        }
+
+        // Set how waiting Consumers are served when they are split into tiers.
+        public Builder setDispatchPolicy(DispatchPolicy dispatchPolicy) {
+            if (dispatchPolicy == null) { // Validate input.
+                throw new IllegalArgumentException("Dispatch policy must not be empty.");
+            }
+            this.dispatchPolicy = dispatchPolicy;
+            return this;
+        }
+
+        // Set the consumer tiers, for example "presale:4:3,general:16:1" (empty means every Consumer in one tier).
+        public Builder setConsumerTiers(String consumerTiers) {
+            String text = consumerTiers == null ? "" : consumerTiers.trim();
+            ConsumerTier.parseAll(text); // Validate input (throws IllegalArgumentException).
+            this.consumerTiers = text;
+            return this;
+        }
+
+        // Set the most Consumers that may wait for tickets at once; more are turned away (0 means no limit).
+        public Builder setMaxWaiters(int maxWaiters) {
+            if (maxWaiters < 0) { // Validate input.
+                throw new IllegalArgumentException("Maximum waiters must not be negative.");
+            }
+            this.maxWaiters = maxWaiters;
+            return this;
+        }
+
+        // Set the longest useful wait for tickets in milliseconds; once waits reach it, Consumers are shed (0 means no SLO).
+        public Builder setWaitSlo(int waitSlo) {
+            if (waitSlo < 0) { // Validate input.
+                throw new IllegalArgumentException("Wait SLO must not be negative.");
+            }
+            this.waitSlo = waitSlo;
+            return this;
+        }
+
         // Create a Configuration object after validating all parameters.
         public Configuration build() {
             if (totalTickets == 0 || ticketReleaseRate == 0 || customerRetrievalRate == 0 || maximumTicketCapacity == 0) {
                 throw new IllegalStateException("All configuration parameters must be set before building.");
             }
+            List<ConsumerTier> tiers = ConsumerTier.parseAll(consumerTiers);
+            if (!tiers.isEmpty()) {
+                int tierConsumers = 0;
+                for (ConsumerTier tier : tiers) {
+                    tierConsumers += tier.getConsumers();
+                }
+                consumerCount = tierConsumers; // The tiers decide how many Consumers there are
+            }
             return new Configuration(this);
         }
     }
@@ -1,37 +1,182 @@
 package CLI;
 
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
 // Consumer class represents a thread that processes tickets from the TicketPool
 public class Consumer implements Runnable {
+    private static final long TAKE_WAIT_NANOS = TimeUnit.SECONDS.toNanos(1); // Longest wait before checking the pool is still running
+    static final double PAY_TIME_SHARE = 0.5; // A paying buyer takes up to this share of the hold time to pay
     private final TicketPool ticketPool; // The shared TicketPool used to retrieve tickets
+    private final int batchSize;         // The number of tickets bought in one purchase
+    private final double retrievalRate;  // Tickets per second this consumer buys
+    private final int retrievalBurst;    // Tickets this consumer may buy back to back (0 means about 1 ms worth)
+    private final EventJournal journal;  // Records every purchase (null when there is no journal)
+    private final int holdTime;          // How long a held ticket stays reserved in ms (0 = buy without holding)
+    private final double abandonRate;    // Share of holds this consumer abandons, letting them expire
+    private final TicketDispatcher dispatcher; // Serves the consumer tiers (null = take from the pool directly)
+    private final int tier;              // The index of this consumer's tier in the dispatcher
+    private final AdmissionController admission; // Decides whether this consumer may wait (null = always)
 
-    // Constructor to initialize the Consumer with a TicketPool
-    public Consumer(TicketPool ticketPool) {
+    /**
+     * Create a Consumer that buys at the batch size, rate, burst and hold settings of the Configuration.
+     *
+     * @param ticketPool    The shared TicketPool to buy tickets from.
+     * @param configuration The configuration to read the consumer settings from.
+     * @param options       The journal, tier and admission controller to use (new Options() for none).
+     */
+    public Consumer(TicketPool ticketPool, Configuration configuration, Options options) {
         this.ticketPool = ticketPool;
+        this.batchSize = configuration.getConsumerBatchSize();
+        this.retrievalRate = configuration.getCustomerRetrievalRate();
+        this.retrievalBurst = configuration.getRetrievalBurst();
+        this.journal = options.journal;
+        this.holdTime = configuration.getHoldTime();
+        this.abandonRate = configuration.getHoldAbandonRate();
+        this.dispatcher = options.dispatcher;
+        this.tier = options.tier;
+        this.admission = options.admission;
     }
 
     // The run method is executed when the thread starts
     @Override
     public void run() {
+        long[] ticketIds = new long[batchSize]; // Ticket IDs of one purchase, reused for every purchase
+        TicketHold[] holds = holdTime > 0 ? new TicketHold[batchSize] : null; // Holds of one purchase, reused too
+        RatePacer pacer = new RatePacer(retrievalRate, retrievalBurst); // Paces purchases to the retrieval rate
         try {
             // Keep processing tickets while the TicketPool is active
             while (ticketPool.isRunning()) {
-                // Take a ticket from the TicketPool (blocks if no tickets are available)
-                Ticket ticket = ticketPool.takeTicket();
+                // Ask to wait at all; when turned away, come back later instead of joining a queue that is too
+                // long or too slow already
+                long waitNanos = TAKE_WAIT_NANOS;
+                long waitStarted = 0L;
+                if (admission != null) {
+                    if (!admission.tryEnter()) {
+                        Thread.sleep(admission.getRetryAfterMillis());
+                        continue;
+                    }
+                    waitNanos = admission.getWaitTimeoutNanos(waitNanos); // Never wait beyond the wait SLO
+                    waitStarted = System.nanoTime();
+                }
+
+                // Take up to a batch of tickets in one bulk step (waits up to 1 second for the first one,
+                // so the consumer notices when the pool stops)
+                int taken = 0;
+                try {
+                    if (holdTime > 0) {
+                        taken = reserve(holds, waitNanos); // Holds are taken from the pool directly, whatever the tier
+                    } else if (dispatcher != null) {
+                        taken = dispatcher.takeTicketIds(tier, ticketIds, batchSize, waitNanos, TimeUnit.NANOSECONDS);
+                    } else {
+                        taken = ticketPool.takeTicketIds(ticketIds, batchSize, waitNanos, TimeUnit.NANOSECONDS);
+                    }
+                } finally {
+                    if (admission != null) {
+                        admission.exit(System.nanoTime() - waitStarted, taken > 0);
+                    }
+                }
+                if (taken == 0) {
+                    continue; // Nothing arrived in time, check again whether the pool is still running
+                }
+
+                // Pay for the held tickets (outside the admission wait, which only covers waiting for tickets)
+                if (holdTime > 0) {
+                    taken = pay(holds, taken, ticketIds);
+                    if (taken == 0) {
+                        continue; // Every hold was abandoned or ran out before the payment
+                    }
+                }
 
-                // Display a message showing the current thread and ticket being processed
-                System.out.println(Thread.currentThread().getName() + " processed Ticket ID: " + ticket.getId());
+                // Record the purchase in the journal with one claim for the whole batch
+                if (journal != null) {
+                    journal.appendBatch(EventJournal.Operation.SELL, ticketIds, taken);
+                }
 
-                // Pause the thread for 1 second to simulate ticket processing time
-                Thread.sleep(1000L);
+                // Log the current thread and tickets being processed (written later by the EventLog's background writer)
+                for (int i = 0; i < taken; i++) {
+                    EventLog.log(EventType.CONSUMER_PROCESSED, ticketIds[i]);
+                }
+
+                // Wait until the retrieval rate allows the tickets just bought (no wait while within the burst)
+                pacer.acquire(taken);
             }
 
             // When the TicketPool stops, show a message that this consumer has finished
-            System.out.println(Thread.currentThread().getName() + " has completed processing tickets.");
+            EventLog.log(EventType.CONSUMER_COMPLETED);
         } catch (InterruptedException e) {
             // Handle interruptions gracefully, if the thread is interrupted
             Thread.currentThread().interrupt(); // Set the thread's interrupted status
-            System.out.println(Thread.currentThread().getName() + " interrupted while processing tickets.");
+            EventLog.log(EventType.CONSUMER_INTERRUPTED);
         }
     }
-}
 
+    // Hold up to a batch of tickets, waiting for the first one only. Returns the number of holds put into holds.
+    private int reserve(TicketHold[] holds, long waitNanos) throws InterruptedException {
+        int reserved = 0;
+        while (reserved < batchSize) {
+            TicketHold hold = ticketPool.reserveTicket(TimeUnit.MILLISECONDS.toNanos(holdTime),
+                    reserved == 0 ? waitNanos : 0, TimeUnit.NANOSECONDS);
+            if (hold == null) {
+                break;
+            }
+            holds[reserved++] = hold;
+        }
+        return reserved;
+    }
+
+    // Walk away from some holds (at the abandon rate, letting them expire) and pay for the rest after a random
+    // time within PAY_TIME_SHARE of the hold time. Returns the number of tickets bought, whose IDs go into ticketIds.
+    private int pay(TicketHold[] holds, int reserved, long[] ticketIds) throws InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int paying = 0;
+        for (int i = 0; i < reserved; i++) {
+            if (abandonRate > 0 && random.nextDouble() < abandonRate) {
+                continue; // The buyer abandons the hold; the ticket returns to the pool when it expires
+            }
+            holds[paying++] = holds[i];
+        }
+        if (paying > 0) {
+            Thread.sleep((long) (random.nextDouble() * holdTime * PAY_TIME_SHARE)); // Filling in the payment
+        }
+        int bought = 0;
+        for (int i = 0; i < paying; i++) {
+            if (ticketPool.confirmHold(holds[i])) {
+                ticketIds[bought++] = holds[i].getTicketId();
+            }
+        }
+        Arrays.fill(holds, 0, reserved, null); // Do not keep ended holds alive until the next purchase
+        return bought;
+    }
+
+    /**
+     * The optional parts a Consumer works with. Everything is off by default, so
+     * new Options() gives a consumer that takes straight from the pool.
+     */
+    public static final class Options {
+        private EventJournal journal = null;         // Records every purchase (null = no journal)
+        private TicketDispatcher dispatcher = null;  // Serves the consumer tiers (null = take from the pool directly)
+        private int tier = 0;                        // The index of the consumer's tier in the dispatcher
+        private AdmissionController admission = null; // Decides whether the consumer may wait (null = always)
+
+        // Record every purchase in the EventJournal (null for none).
+        public Options setJournal(EventJournal journal) {
+            this.journal = journal;
+            return this;
+        }
+
+        // Take tickets through the TicketDispatcher as a member of the given tier (null dispatcher for none).
+        public Options setTier(TicketDispatcher dispatcher, int tier) {
+            this.dispatcher = dispatcher;
+            this.tier = tier;
+            return this;
+        }
+
+        // Wait for tickets only when the AdmissionController lets the consumer in (null to always wait).
+        public Options setAdmission(AdmissionController admission) {
+            this.admission = admission;
+            return this;
+        }
+    }
+}
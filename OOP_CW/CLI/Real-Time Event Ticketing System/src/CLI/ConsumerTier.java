@@ -0,0 +1,87 @@
+package CLI;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One tier of Consumers, for example presale or general sale buyers.
+ *
+ * Tiers are written in the Configuration as "name:consumers:weight" entries
+ * separated by commas, for example "presale:4:3,general:16:1". The order is
+ * the priority order: the first tier is served first by the PRIORITY policy.
+ * The weight is only used by the WEIGHTED policy.
+ */
+public final class ConsumerTier {
+    private final String name;    // The name shown in the status and results
+    private final int consumers;  // Consumer threads in this tier
+    private final int weight;     // Share of the tickets under the WEIGHTED policy
+
+    /**
+     * Constructor to create a tier.
+     *
+     * @param name      The name of the tier.
+     * @param consumers The number of Consumer threads in the tier.
+     * @param weight    The tier's weight under the WEIGHTED policy.
+     */
+    public ConsumerTier(String name, int consumers, int weight) {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Tier name must not be empty.");
+        }
+        if (consumers <= 0 || weight <= 0) {
+            throw new IllegalArgumentException("Tier " + name + " needs at least one consumer and a weight above zero.");
+        }
+        this.name = name.trim();
+        this.consumers = consumers;
+        this.weight = weight;
+    }
+
+    // Get the name of the tier.
+    public String getName() {
+        return name;
+    }
+
+    // Get the number of Consumer threads in the tier.
+    public int getConsumers() {
+        return consumers;
+    }
+
+    // Get the weight of the tier.
+    public int getWeight() {
+        return weight;
+    }
+
+    /**
+     * Read a tier list such as "presale:4:3,general:16:1". The weight may be
+     * left out ("presale:4") and is then 1.
+     *
+     * @param text The tier list (empty means no tiers).
+     * @return The tiers in priority order.
+     * @throws IllegalArgumentException If an entry cannot be read.
+     */
+    public static List<ConsumerTier> parseAll(String text) {
+        if (text == null || text.isBlank()) {
+            return Collections.emptyList();
+        }
+        List<ConsumerTier> tiers = new ArrayList<>();
+        for (String entry : text.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length < 2 || parts.length > 3) {
+                throw new IllegalArgumentException("Tier '" + entry.trim() + "' must be written as name:consumers:weight.");
+            }
+            try {
+                int consumers = Integer.parseInt(parts[1].trim());
+                int weight = parts.length == 3 ? Integer.parseInt(parts[2].trim()) : 1;
+                tiers.add(new ConsumerTier(parts[0], consumers, weight));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Tier '" + entry.trim() + "' must have whole numbers for consumers and weight.");
+            }
+        }
+        return tiers;
+    }
+
+    @Override
+    public String toString() {
+        return name + ":" + consumers + ":" + weight;
+    }
+}
@@ -0,0 +1,540 @@
+package CLI;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a {@link Configuration} as a discrete-event simulation on a virtual
+ * clock, instead of with real threads that sleep between releases and
+ * purchases. A two-hour on-sale takes as long as it takes to process its
+ * events, so millions of tickets are simulated in seconds.
+ *
+ * Every vendor release, consumer purchase, take timeout and hold expiry is an
+ * event in a priority queue ordered by its virtual time. The simulation takes
+ * the earliest event, moves the clock to its time and carries it out, which
+ * may schedule later events. Nothing ever waits for real.
+ *
+ * The model follows the threaded run:
+ * - each vendor claims up to its batch of the total, adds it to a pool of the
+ *   configured capacity and waits while the pool is full;
+ * - each consumer buys up to its batch, or waits (up to 1 second, or the wait
+ *   SLO) while the pool is empty; waiting consumers are served in the order of
+ *   the dispatch policy (DIRECT is served first come, first served);
+ * - ticket holds, their abandon rate, and admission control (maximum waiters
+ *   and wait SLO) work as in the threaded run; a paying buyer pays after a
+ *   random time within half the hold time, and only then buys again.
+ * The time between two releases of a vendor, and between two purchases of a
+ * consumer, is drawn from an exponential distribution whose mean matches the
+ * configured rate, so arrivals are random but average out to the same rates.
+ *
+ * All randomness comes from one generator created from the seed, and events
+ * at the same virtual time run in the order they were scheduled, so the same
+ * configuration and seed always give exactly the same results.
+ */
+public final class DiscreteEventSimulation {
+    private static final int RELEASE = 0;        // Event: a vendor releases its next batch
+    private static final int PURCHASE = 1;       // Event: a consumer tries to buy its next batch
+    private static final int GIVE_UP = 2;        // Event: a waiting consumer's take times out
+    private static final int HOLD_EXPIRED = 3;   // Event: an abandoned hold runs out
+    private static final int PAID = 4;           // Event: a consumer pays for its held tickets
+    private static final long TAKE_WAIT_NANOS = TimeUnit.SECONDS.toNanos(1); // Same longest take as a Consumer
+    private static final long RETRY_AFTER_NANOS = TimeUnit.MILLISECONDS.toNanos(1); // Retry delay without a wait SLO
+
+    private final Configuration configuration;   // The run being simulated
+    private final boolean admissionControl;       // Whether a maximum of waiters or a wait SLO is set
+    private final long seed;                      // Where the random numbers start
+    private final SplittableRandom random;        // Every random number of the run
+    private final PriorityQueue<Event> events = new PriorityQueue<>(); // Pending events, earliest first
+    private long now = 0L;                        // The virtual clock, in nanoseconds since the start
+    private long nextSequence = 0L;               // Orders events scheduled for the same time
+    private long processedEvents = 0L;            // Events carried out so far
+
+    // The pool: a ring of ticket IDs, each with the virtual time it was added
+    private final long[] poolIds;
+    private final long[] poolAddedAt;
+    private int poolHead = 0;
+    private int poolSize = 0;
+    private final Queue<Long> returningTickets = new ArrayDeque<>(); // Expired holds waiting for room in the pool
+
+    private final VendorState[] vendors;
+    private final Queue<VendorState> blockedVendors = new ArrayDeque<>(); // Vendors waiting for room, in order
+    private final ConsumerState[] consumers;
+    private final List<ConsumerTier> tiers;
+    private final List<Queue<Waiter>> waiting;     // Waiting consumers, one queue per tier
+    private final double[] pass;                   // WEIGHTED: virtual time each tier has used
+    private double virtualTime = 0;                // WEIGHTED: pass of the last tier served
+    private int waiterCount = 0;                   // Consumers waiting now
+    private long sheddingUntil = -1L;              // Admission: new purchases are shed before this time
+
+    // The counters, matching those of a TicketPool and the AdmissionController
+    private int issuedTickets = 0;
+    private long nextTicketId = 1L;
+    private long released = 0L;
+    private long retrieved = 0L;
+    private long timedOut = 0L;
+    private long blockedPuts = 0L;
+    private long held = 0L;
+    private long expiredHolds = 0L;
+    private long admitted = 0L;
+    private long rejected = 0L;
+    private long shed = 0L;
+    private final long[] servedTickets;
+    private final LatencyHistogram[] waitHistograms;
+    private final LatencyHistogram putWait = new LatencyHistogram();
+    private final LatencyHistogram takeWait = new LatencyHistogram();
+    private final LatencyHistogram ticketAge = new LatencyHistogram();
+
+    /**
+     * Constructor to set up a simulation of a configuration. Nothing runs until {@link #run(long)}.
+     *
+     * @param configuration The run to simulate.
+     * @param seed          Where the random numbers start; the same seed gives the same results.
+     */
+    public DiscreteEventSimulation(Configuration configuration, long seed) {
+        this.configuration = configuration;
+        this.admissionControl = configuration.getMaxWaiters() > 0 || configuration.getWaitSlo() > 0;
+        this.seed = seed;
+        this.random = new SplittableRandom(seed);
+        this.poolIds = new long[configuration.getMaximumTicketCapacity()];
+        this.poolAddedAt = new long[configuration.getMaximumTicketCapacity()];
+        this.vendors = new VendorState[configuration.getVendorCount()];
+        for (int i = 0; i < vendors.length; i++) {
+            vendors[i] = new VendorState(i);
+        }
+        this.tiers = configuration.getTiers();
+        this.waiting = new ArrayList<>(tiers.size());
+        this.pass = new double[tiers.size()];
+        this.servedTickets = new long[tiers.size()];
+        this.waitHistograms = new LatencyHistogram[tiers.size()];
+        List<ConsumerState> consumerList = new ArrayList<>();
+        for (int tier = 0; tier < tiers.size(); tier++) {
+            waiting.add(new ArrayDeque<>());
+            waitHistograms[tier] = new LatencyHistogram();
+            for (int i = 0; i < tiers.get(tier).getConsumers(); i++) {
+                consumerList.add(new ConsumerState(consumerList.size(), tier));
+            }
+        }
+        this.consumers = consumerList.toArray(new ConsumerState[0]);
+    }
+
+    /**
+     * Run the simulation until every ticket is retrieved or the virtual time limit is reached.
+     *
+     * @param maxVirtualNanos The longest virtual time to simulate (0 means no limit).
+     * @return True if every ticket was retrieved.
+     */
+    public boolean run(long maxVirtualNanos) {
+        long limit = maxVirtualNanos > 0 ? maxVirtualNanos : Long.MAX_VALUE;
+        for (VendorState vendor : vendors) {
+            schedule(0L, RELEASE, vendor.index, 0L); // Every vendor and consumer starts at once
+        }
+        for (ConsumerState consumer : consumers) {
+            schedule(0L, PURCHASE, consumer.index, 0L);
+        }
+        while (retrieved < configuration.getTotalTickets() && !events.isEmpty()) {
+            Event event = events.poll();
+            if (event.time > limit) {
+                now = limit;
+                break;
+            }
+            now = event.time;
+            processedEvents++;
+            switch (event.kind) {
+                case RELEASE:
+                    release(vendors[event.entity]);
+                    break;
+                case PURCHASE:
+                    purchase(consumers[event.entity]);
+                    break;
+                case GIVE_UP:
+                    giveUp(consumers[event.entity], event.value);
+                    break;
+                case PAID:
+                    pay(consumers[event.entity], (int) event.value);
+                    break;
+                case HOLD_EXPIRED:
+                default:
+                    expireHold(event.value);
+                    break;
+            }
+            settle();
+        }
+        return retrieved >= configuration.getTotalTickets();
+    }
+
+    // A vendor claims its next batch and adds as much of it as fits.
+    private void release(VendorState vendor) {
+        int claim = Math.min(configuration.getVendorBatchSize(), configuration.getTotalTickets() - issuedTickets);
+        if (claim <= 0) {
+            return; // Every ticket is claimed: this vendor is done
+        }
+        issuedTickets += claim;
+        vendor.batch = claim;
+        vendor.pending = claim;
+        vendor.blocked = false;
+        addPending(vendor);
+        if (vendor.pending > 0) {
+            blockedPuts++; // The pool is full, so this release has to wait
+            vendor.blocked = true;
+            vendor.blockedSince = now;
+            blockedVendors.add(vendor);
+        }
+    }
+
+    // Add as much of a vendor's pending batch as fits; when it is all in, schedule the vendor's next release.
+    private boolean addPending(VendorState vendor) {
+        int fit = Math.min(vendor.pending, poolIds.length - poolSize);
+        for (int i = 0; i < fit; i++) {
+            addToPool(nextTicketId++);
+        }
+        released += fit;
+        vendor.pending -= fit;
+        if (vendor.pending == 0) {
+            putWait.record(vendor.blocked ? now - vendor.blockedSince : 0L);
+            schedule(now + interval(vendor.batch, configuration.getTicketReleaseRate()), RELEASE, vendor.index, 0L);
+        }
+        return fit > 0;
+    }
+
+    // A consumer asks to buy: it is shed or rejected, buys at once, or starts waiting.
+    private void purchase(ConsumerState consumer) {
+        long waitSloNanos = TimeUnit.MILLISECONDS.toNanos(configuration.getWaitSlo());
+        if (waitSloNanos > 0 && now < sheddingUntil) {
+            shed++; // Waits reached the SLO a moment ago: come back later
+            schedule(now + waitSloNanos, PURCHASE, consumer.index, 0L);
+            return;
+        }
+        if (poolSize > 0) {
+            countAdmitted();
+            serve(consumer, now); // Tickets are there, so nobody can be waiting ahead of this consumer
+            return;
+        }
+        int maxWaiters = configuration.getMaxWaiters();
+        if (maxWaiters > 0 && waiterCount >= maxWaiters) {
+            rejected++; // Too many already waiting
+            schedule(now + (waitSloNanos > 0 ? waitSloNanos : RETRY_AFTER_NANOS), PURCHASE, consumer.index, 0L);
+            return;
+        }
+        countAdmitted();
+        consumer.waitToken++;
+        consumer.waiting = true;
+        waiting.get(consumer.tier).add(new Waiter(consumer, consumer.waitToken, now, nextSequence));
+        waiterCount++;
+        long timeout = waitSloNanos > 0 ? Math.min(TAKE_WAIT_NANOS, waitSloNanos) : TAKE_WAIT_NANOS;
+        schedule(now + timeout, GIVE_UP, consumer.index, consumer.waitToken);
+    }
+
+    // Count a purchase let through (only counted with admission control, as by the AdmissionController).
+    private void countAdmitted() {
+        if (admissionControl) {
+            admitted++;
+        }
+    }
+
+    // A waiting consumer's take times out; it tries again at once, as the Consumer's loop does.
+    private void giveUp(ConsumerState consumer, long token) {
+        if (!consumer.waiting || consumer.waitToken != token) {
+            return; // Served before the timeout
+        }
+        consumer.waiting = false;
+        waiterCount--;
+        timedOut++;
+        long waitSloNanos = TimeUnit.MILLISECONDS.toNanos(configuration.getWaitSlo());
+        if (waitSloNanos > 0) {
+            sheddingUntil = now + waitSloNanos; // The wait reached the SLO
+            shed++;
+        }
+        schedule(now, PURCHASE, consumer.index, 0L);
+    }
+
+    // An abandoned hold runs out and its ticket goes back to the pool (or waits for room).
+    private void expireHold(long ticketId) {
+        held--;
+        expiredHolds++;
+        returningTickets.add(ticketId);
+    }
+
+    // A consumer pays for its held tickets: they are sold, and it buys again once the rate allows.
+    private void pay(ConsumerState consumer, int tickets) {
+        held -= tickets;
+        servedTickets[consumer.tier] += tickets;
+        retrieved += tickets;
+        schedule(now + interval(tickets, configuration.getCustomerRetrievalRate()), PURCHASE, consumer.index, 0L);
+    }
+
+    // Move tickets until nothing can move: returning holds and blocked vendors into the pool, tickets to waiters.
+    private void settle() {
+        boolean moved = true;
+        while (moved) {
+            moved = false;
+            while (!returningTickets.isEmpty() && poolSize < poolIds.length) {
+                addToPool(returningTickets.poll());
+                moved = true;
+            }
+            while (!blockedVendors.isEmpty() && poolSize < poolIds.length) {
+                VendorState vendor = blockedVendors.peek();
+                moved |= addPending(vendor);
+                if (vendor.pending > 0) {
+                    break;
+                }
+                blockedVendors.poll();
+            }
+            while (poolSize > 0) {
+                Waiter waiter = nextWaiter();
+                if (waiter == null) {
+                    break;
+                }
+                waiting.get(waiter.consumer.tier).poll();
+                waiter.consumer.waiting = false;
+                waiterCount--;
+                serve(waiter.consumer, waiter.since);
+                moved = true;
+            }
+        }
+    }
+
+    // Hand up to a batch of tickets to a consumer that started waiting at the given time.
+    private void serve(ConsumerState consumer, long since) {
+        int taken = Math.min(configuration.getConsumerBatchSize(), poolSize);
+        int holdTime = configuration.getHoldTime();
+        int sold = 0;
+        for (int i = 0; i < taken; i++) {
+            int slot = poolHead;
+            poolHead = (poolHead + 1) % poolIds.length;
+            poolSize--;
+            ticketAge.record(now - poolAddedAt[slot]);
+            if (holdTime > 0 && configuration.getHoldAbandonRate() > 0
+                    && random.nextDouble() < configuration.getHoldAbandonRate()) {
+                held++; // The buyer walks away; the ticket comes back when the hold expires
+                schedule(now + TimeUnit.MILLISECONDS.toNanos(holdTime), HOLD_EXPIRED, 0, poolIds[slot]);
+            } else {
+                sold++;
+            }
+        }
+        long waited = now - since;
+        takeWait.record(waited);
+        waitHistograms[consumer.tier].record(waited);
+        long waitSloNanos = TimeUnit.MILLISECONDS.toNanos(configuration.getWaitSlo());
+        if (waitSloNanos > 0 && waited >= waitSloNanos) {
+            sheddingUntil = now + waitSloNanos; // Served, but only after the SLO
+        }
+        if (configuration.getDispatchPolicy() == DispatchPolicy.WEIGHTED) {
+            double start = Math.max(pass[consumer.tier], virtualTime);
+            virtualTime = start;
+            pass[consumer.tier] = start + (double) taken / tiers.get(consumer.tier).getWeight();
+        }
+        if (sold == 0) {
+            schedule(now, PURCHASE, consumer.index, 0L); // Every hold abandoned: try again at once, as a Consumer does
+        } else if (holdTime > 0) {
+            held += sold; // Held until the buyer has paid
+            double payMillis = random.nextDouble() * holdTime * Consumer.PAY_TIME_SHARE;
+            schedule(now + (long) (payMillis * 1_000_000), PAID, consumer.index, sold);
+        } else {
+            servedTickets[consumer.tier] += sold;
+            retrieved += sold;
+            schedule(now + interval(sold, configuration.getCustomerRetrievalRate()), PURCHASE, consumer.index, 0L);
+        }
+    }
+
+    // Pick the waiter the dispatch policy serves next, dropping waiters that gave up. Returns null if nobody waits.
+    private Waiter nextWaiter() {
+        Waiter best = null;
+        double bestPass = Double.MAX_VALUE;
+        for (int tier = 0; tier < waiting.size(); tier++) {
+            Queue<Waiter> queue = waiting.get(tier);
+            Waiter head;
+            while ((head = queue.peek()) != null
+                    && (!head.consumer.waiting || head.consumer.waitToken != head.token)) {
+                queue.poll(); // Gave up before being served
+            }
+            if (head == null) {
+                continue;
+            }
+            switch (configuration.getDispatchPolicy()) {
+                case PRIORITY:
+                    return head; // The highest tier with a waiter wins
+                case WEIGHTED:
+                    double tierPass = Math.max(pass[tier], virtualTime);
+                    if (tierPass < bestPass) {
+                        bestPass = tierPass;
+                        best = head;
+                    }
+                    break;
+                case FIFO:
+                case DIRECT:
+                default:
+                    if (best == null || head.sequence < best.sequence) {
+                        best = head; // Longest waiting so far
+                    }
+                    break;
+            }
+        }
+        return best;
+    }
+
+    // Put one ticket at the back of the pool (the caller has checked there is room).
+    private void addToPool(long ticketId) {
+        int slot = (poolHead + poolSize) % poolIds.length;
+        poolIds[slot] = ticketId;
+        poolAddedAt[slot] = now;
+        poolSize++;
+    }
+
+    // Draw the time until the next release or purchase: exponential, with the mean the rate gives for the tickets.
+    private long interval(int tickets, double ticketsPerSecond) {
+        double meanNanos = tickets / ticketsPerSecond * 1_000_000_000.0;
+        return (long) (-Math.log(1.0 - random.nextDouble()) * meanNanos);
+    }
+
+    // Add an event to the queue.
+    private void schedule(long time, int kind, int entity, long value) {
+        events.add(new Event(time, nextSequence++, kind, entity, value));
+    }
+
+    /**
+     * Read the counters in the same form as {@link TicketPool#snapshot()}.
+     *
+     * @return The counters of the simulated pool.
+     */
+    public TicketPoolSnapshot snapshot() {
+        return new TicketPoolSnapshot(System.currentTimeMillis(), retrieved < configuration.getTotalTickets(),
+                poolIds.length, poolSize, released, retrieved, 0L, timedOut, blockedPuts, held, expiredHolds);
+    }
+
+    // Get the seed the random numbers started from.
+    public long getSeed() {
+        return seed;
+    }
+
+    // Get the virtual time simulated so far, in nanoseconds.
+    public long getVirtualNanos() {
+        return now;
+    }
+
+    // Get the number of events carried out so far.
+    public long getProcessedEvents() {
+        return processedEvents;
+    }
+
+    // Get the histogram of how long each release waited for room in a full pool (virtual nanoseconds).
+    public LatencyHistogram getPutWaitHistogram() {
+        return putWait;
+    }
+
+    // Get the histogram of how long each purchase waited for tickets (virtual nanoseconds).
+    public LatencyHistogram getTakeWaitHistogram() {
+        return takeWait;
+    }
+
+    // Get the histogram of how long each ticket sat in the pool (virtual nanoseconds).
+    public LatencyHistogram getTicketAgeHistogram() {
+        return ticketAge;
+    }
+
+    // Get the consumer tiers in priority order.
+    public List<ConsumerTier> getTiers() {
+        return tiers;
+    }
+
+    // Get the number of tickets the consumers of one tier bought.
+    public long getServedTickets(int tier) {
+        return servedTickets[tier];
+    }
+
+    // Get the histogram of how long the consumers of one tier waited for each purchase (virtual nanoseconds).
+    public LatencyHistogram getWaitHistogram(int tier) {
+        return waitHistograms[tier];
+    }
+
+    // Get the number of purchases let through by admission control.
+    public long getAdmitted() {
+        return admitted;
+    }
+
+    // Get the number of purchases turned away because too many consumers were waiting.
+    public long getRejected() {
+        return rejected;
+    }
+
+    // Get the number of purchases turned away, or given up, because waits reached the SLO.
+    public long getShed() {
+        return shed;
+    }
+
+    /**
+     * One pending event. Events are ordered by virtual time, then by the order they were scheduled in.
+     */
+    private static final class Event implements Comparable<Event> {
+        private final long time;      // When it happens, in virtual nanoseconds
+        private final long sequence;  // The order it was scheduled in
+        private final int kind;       // RELEASE, PURCHASE, GIVE_UP or HOLD_EXPIRED
+        private final int entity;     // The vendor or consumer it belongs to
+        private final long value;     // GIVE_UP: the wait it ends; HOLD_EXPIRED: the ticket
+
+        private Event(long time, long sequence, int kind, int entity, long value) {
+            this.time = time;
+            this.sequence = sequence;
+            this.kind = kind;
+            this.entity = entity;
+            this.value = value;
+        }
+
+        @Override
+        public int compareTo(Event other) {
+            int byTime = Long.compare(time, other.time);
+            return byTime != 0 ? byTime : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    /**
+     * The state of one simulated vendor.
+     */
+    private static final class VendorState {
+        private final int index;     // Position in the vendor array
+        private int batch;           // Tickets claimed by the current release
+        private int pending;         // Tickets of the current release not yet in the pool
+        private boolean blocked;     // Whether the current release found the pool full
+        private long blockedSince;   // When it found the pool full
+
+        private VendorState(int index) {
+            this.index = index;
+        }
+    }
+
+    /**
+     * The state of one simulated consumer.
+     */
+    private static final class ConsumerState {
+        private final int index;     // Position in the consumer array
+        private final int tier;      // The index of its tier
+        private boolean waiting;     // Whether it is waiting for tickets now
+        private long waitToken;      // Tells its current wait apart from earlier ones
+
+        private ConsumerState(int index, int tier) {
+            this.index = index;
+            this.tier = tier;
+        }
+    }
+
+    /**
+     * One wait of a consumer in its tier's queue.
+     */
+    private static final class Waiter {
+        private final ConsumerState consumer; // Who is waiting
+        private final long token;             // Which of its waits this is
+        private final long since;             // When it started waiting
+        private final long sequence;          // Arrival order across all tiers
+
+        private Waiter(ConsumerState consumer, long token, long since, long sequence) {
+            this.consumer = consumer;
+            this.token = token;
+            this.since = since;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package CLI;
+
+/**
+ * Decides which waiting Consumer gets the next tickets when consumers are split into tiers.
+ */
+public enum DispatchPolicy {
+    // No dispatcher: every Consumer takes from the pool itself, and whoever gets there first wins.
+    DIRECT,
+    // The Consumer that has waited longest is served first, whatever its tier.
+    FIFO,
+    // A waiting Consumer of a higher tier (listed earlier) is always served before a lower one.
+    PRIORITY,
+    // Each tier gets a share of the tickets in proportion to its weight while several tiers are waiting.
+    WEIGHTED;
+
+    /**
+     * Convert text such as "priority" or "WEIGHTED" into a DispatchPolicy.
+     *
+     * @param text The text to convert.
+     * @return The matching DispatchPolicy.
+     */
+    public static DispatchPolicy fromText(String text) {
+        return DispatchPolicy.valueOf(text.trim().toUpperCase());
+    }
+}
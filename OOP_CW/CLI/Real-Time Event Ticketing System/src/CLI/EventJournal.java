@@ -0,0 +1,682 @@
+package CLI;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+/**
+ * An append-only binary journal of ticket operations (release, sell, cancel),
+ * so a run can be replayed or recovered after a crash.
+ *
+ * Every record has the same size ({@link #RECORD_SIZE} bytes: ticket ID,
+ * time, actor, check value and operation), so a record's place in the files
+ * follows from its position number alone. The records go into segment files
+ * of {@link #RECORDS_PER_SEGMENT} records each, named journal-0000000000.tkj,
+ * journal-0000000001.tkj and so on, which are memory-mapped: appending is a
+ * handful of stores into memory, with no system call and no lock.
+ *
+ * An appender claims positions for its whole batch with one atomic add, so
+ * vendors and consumers append at the same time without waiting for each
+ * other. The operation code is written last (with release ordering), so a
+ * record whose operation is still 0 is not finished yet. The check value
+ * covers every other field, so a record torn by a machine crash is detected.
+ *
+ * The {@link JournalSyncPolicy} decides when the mapped pages are forced to
+ * disk. With INTERVAL a background thread forces them every flush interval;
+ * with ALWAYS an append waits until a force has covered its records, and all
+ * appenders waiting at the same time share that one force (group commit).
+ *
+ * Every append is counted while it runs, and {@link #close()} waits for the
+ * running appends to finish before it unmaps the files; an append that
+ * starts after close is refused, so no record is ever written into a closed
+ * segment.
+ *
+ * Use {@link Reader} to replay the records or to follow the journal while it
+ * is being written.
+ */
+public final class EventJournal implements AutoCloseable {
+    /** The size of one record in bytes. */
+    public static final int RECORD_SIZE = 32;
+    /** The size of the header at the start of every segment file in bytes. */
+    public static final int HEADER_SIZE = 64;
+    /** The number of records in one segment file (32 MB of records). */
+    public static final int RECORDS_PER_SEGMENT = 1 << 20;
+
+    private static final int MAGIC = 0x544B4A31;  // "TKJ1" at the start of every segment file
+    private static final int VERSION = 1;         // The record layout version
+    private static final long SEGMENT_BYTES = HEADER_SIZE + (long) RECORDS_PER_SEGMENT * RECORD_SIZE;
+
+    // Where each field sits inside a record
+    private static final int TICKET_OFFSET = 0;
+    private static final int TIME_OFFSET = 8;
+    private static final int ACTOR_OFFSET = 16;
+    private static final int CHECK_OFFSET = 24;
+    private static final int OPERATION_OFFSET = 28;
+
+    private static final long SYNC_WAIT_PARK_NANOS = 20_000L; // How long an ALWAYS appender parks between checks
+
+    // Lets the operation code be written with release ordering and read with acquire ordering
+    private static final VarHandle INT_VIEW = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+
+    /**
+     * The operations a record can describe.
+     */
+    public enum Operation {
+        // A vendor released the ticket into the pool.
+        RELEASE(1),
+        // A consumer bought the ticket.
+        SELL(2),
+        // A held ticket went back to the pool unsold (its hold expired or was released).
+        CANCEL(3);
+
+        private final int code; // The value stored in the record (0 means "not written yet")
+
+        Operation(int code) {
+            this.code = code;
+        }
+
+        // Get the value stored in the record.
+        public int getCode() {
+            return code;
+        }
+
+        /**
+         * Find the operation stored as the given code.
+         *
+         * @param code The stored value.
+         * @return The matching operation, or null if the code is unknown.
+         */
+        public static Operation fromCode(int code) {
+            for (Operation operation : values()) {
+                if (operation.code == code) {
+                    return operation;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Receives the records read by a {@link Reader}.
+     */
+    @FunctionalInterface
+    public interface RecordHandler {
+        /**
+         * Handle one record.
+         *
+         * @param position        The position of the record in the journal (0 is the first record).
+         * @param operation       What happened to the ticket.
+         * @param ticketId        The ID of the ticket.
+         * @param timestampMillis When the record was appended (epoch milliseconds).
+         * @param actor           The ID of the thread that appended the record.
+         */
+        void onRecord(long position, Operation operation, long ticketId, long timestampMillis, long actor);
+    }
+
+    private final Path directory;                 // The folder holding the segment files
+    private final JournalSyncPolicy syncPolicy;   // When records are forced to disk
+    private final long flushIntervalNanos;        // How often the INTERVAL flusher runs
+    private final AtomicLong tail;                // The next position an appender will claim
+    private final Map<Long, Segment> segments = new ConcurrentHashMap<>(); // The open segments by index
+    private volatile Segment active;              // The newest open segment (the usual target of appends)
+    private final AtomicLong syncRequests = new AtomicLong(); // Raised by ALWAYS appenders after writing
+    private volatile long syncCompleted = 0;      // The highest request covered by a finished force
+    private final Thread flusher;                 // The background force thread (null with NONE)
+    private volatile boolean closed = false;      // Set by close()
+    private final AtomicInteger appending = new AtomicInteger(); // Appends running now (close waits for them)
+    private volatile IOException flushError;      // The first error the flusher ran into, if any
+
+    private EventJournal(Path directory, JournalSyncPolicy syncPolicy, long flushIntervalMillis) throws IOException {
+        this.directory = directory;
+        this.syncPolicy = syncPolicy;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        Files.createDirectories(directory);
+        this.tail = new AtomicLong(findEnd());
+        this.active = segment(tail.get() / RECORDS_PER_SEGMENT);
+        if (syncPolicy != JournalSyncPolicy.NONE) {
+            this.flusher = Thread.ofPlatform().name("EventJournal-Flusher").daemon(true).start(this::flushLoop);
+        } else {
+            this.flusher = null;
+        }
+    }
+
+    /**
+     * Open the journal in a folder, continuing after the last record already in it.
+     *
+     * @param directory           The folder for the segment files (created if missing).
+     * @param syncPolicy          When records are forced to disk.
+     * @param flushIntervalMillis How often records are forced with {@link JournalSyncPolicy#INTERVAL}.
+     * @return The open journal.
+     * @throws IOException If the folder or the files cannot be opened.
+     */
+    public static EventJournal open(String directory, JournalSyncPolicy syncPolicy, int flushIntervalMillis)
+            throws IOException {
+        if (syncPolicy == null) {
+            throw new IllegalArgumentException("Journal sync policy must not be empty.");
+        }
+        if (flushIntervalMillis <= 0) {
+            throw new IllegalArgumentException("Journal flush interval must be greater than zero.");
+        }
+        return new EventJournal(Paths.get(directory), syncPolicy, flushIntervalMillis);
+    }
+
+    /**
+     * Open the journal set in a Configuration.
+     *
+     * @param configuration The configuration to read the journal settings from.
+     * @return The open journal, or null if the configuration has no journal directory.
+     * @throws IOException If the folder or the files cannot be opened.
+     */
+    public static EventJournal open(Configuration configuration) throws IOException {
+        if (configuration.getJournalDirectory().isEmpty()) {
+            return null;
+        }
+        return open(configuration.getJournalDirectory(), configuration.getJournalSync(),
+                configuration.getJournalFlushInterval());
+    }
+
+    /**
+     * Append one record.
+     *
+     * @param operation What happened to the ticket.
+     * @param ticketId  The ID of the ticket.
+     * @throws IllegalStateException If the journal is closed.
+     */
+    public void append(Operation operation, long ticketId) {
+        enterAppend();
+        try {
+            long position = tail.getAndIncrement();
+            Segment segment = segment(position / RECORDS_PER_SEGMENT);
+            segment.write(position, operation, ticketId, System.currentTimeMillis(), Thread.currentThread().threadId());
+            segment.written.incrementAndGet();
+        } finally {
+            appending.decrementAndGet();
+        }
+        awaitSyncIfNeeded();
+    }
+
+    /**
+     * Append one record for each ticket of a batch. The positions of the whole
+     * batch are claimed at once and, with {@link JournalSyncPolicy#ALWAYS}, the
+     * batch waits for one force.
+     *
+     * @param operation What happened to the tickets.
+     * @param ticketIds The array holding the ticket IDs.
+     * @param count     The number of IDs to append, starting at index 0.
+     * @throws IllegalStateException If the journal is closed.
+     */
+    public void appendBatch(Operation operation, long[] ticketIds, int count) {
+        if (count <= 0) {
+            return;
+        }
+        enterAppend();
+        try {
+            long start = tail.getAndAdd(count);
+            long time = System.currentTimeMillis();
+            long actor = Thread.currentThread().threadId();
+            Segment segment = segment(start / RECORDS_PER_SEGMENT);
+            int writtenInSegment = 0;
+            for (int i = 0; i < count; i++) {
+                long position = start + i;
+                if (position / RECORDS_PER_SEGMENT != segment.index) {
+                    segment.written.addAndGet(writtenInSegment); // The batch crosses into the next segment
+                    segment = segment(position / RECORDS_PER_SEGMENT);
+                    writtenInSegment = 0;
+                }
+                segment.write(position, operation, ticketIds[i], time, actor);
+                writtenInSegment++;
+            }
+            segment.written.addAndGet(writtenInSegment);
+        } finally {
+            appending.decrementAndGet();
+        }
+        awaitSyncIfNeeded();
+    }
+
+    // Count an append as running, or refuse it if the journal is closed. Every successful call is
+    // followed by exactly one appending.decrementAndGet().
+    private void enterAppend() {
+        appending.incrementAndGet(); // Counted before closed is read, so close() either waits for it or it sees closed
+        if (closed) {
+            appending.decrementAndGet();
+            throw new IllegalStateException("The event journal is closed.");
+        }
+    }
+
+    /**
+     * Force everything appended so far to disk now, whatever the sync policy.
+     *
+     * @throws IOException If a segment cannot be forced.
+     */
+    public void sync() throws IOException {
+        for (Segment segment : segments.values()) {
+            segment.force();
+        }
+    }
+
+    /**
+     * Get the position the next record will get, which is also the number of positions used so far.
+     *
+     * @return The next position.
+     */
+    public long getPosition() {
+        return tail.get();
+    }
+
+    // Get the folder holding the segment files.
+    public Path getDirectory() {
+        return directory;
+    }
+
+    // Get when records are forced to disk.
+    public JournalSyncPolicy getSyncPolicy() {
+        return syncPolicy;
+    }
+
+    /**
+     * Refuse new appends, wait for the running ones, stop the flusher, force
+     * every record to disk (unless the policy is NONE) and close the files.
+     *
+     * @throws IOException If the last force fails.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        while (appending.get() > 0) {
+            Thread.onSpinWait(); // An append only writes to memory, so this never takes long
+        }
+        if (flusher != null) {
+            LockSupport.unpark(flusher);
+            try {
+                flusher.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            sync();
+        }
+        for (Segment segment : segments.values()) {
+            segment.channel.close();
+        }
+        segments.clear();
+        if (flushError != null) {
+            throw flushError;
+        }
+    }
+
+    // With ALWAYS, wait until a force has started after this thread's records were written.
+    private void awaitSyncIfNeeded() {
+        if (syncPolicy != JournalSyncPolicy.ALWAYS) {
+            return;
+        }
+        long request = syncRequests.incrementAndGet();
+        LockSupport.unpark(flusher);
+        while (syncCompleted < request && flusher.isAlive()) {
+            LockSupport.parkNanos(SYNC_WAIT_PARK_NANOS);
+            if (Thread.currentThread().isInterrupted()) {
+                return; // The records are written, just not known to be on disk; let the caller see the interrupt
+            }
+        }
+    }
+
+    // The background flusher: force whatever was written, then report which requests that covered.
+    private void flushLoop() {
+        while (!closed) {
+            if (syncPolicy == JournalSyncPolicy.ALWAYS) {
+                if (syncRequests.get() == syncCompleted) {
+                    LockSupport.parkNanos(flushIntervalNanos); // Woken early by the next appender
+                    continue;
+                }
+            } else {
+                LockSupport.parkNanos(flushIntervalNanos);
+            }
+            long requested = syncRequests.get(); // Read before forcing, so every counted write is covered
+            try {
+                sync();
+            } catch (IOException e) {
+                if (flushError == null) {
+                    flushError = e;
+                    System.err.println("Event journal could not be forced to disk: " + e.getMessage());
+                }
+            }
+            syncCompleted = requested;
+            closeFinishedSegments();
+        }
+        syncCompleted = Long.MAX_VALUE; // Never leave an appender waiting after close
+    }
+
+    // Close segments that are completely written and older than the active one; they are already forced.
+    private void closeFinishedSegments() {
+        long activeIndex = active.index;
+        for (Segment segment : segments.values()) {
+            if (segment.index < activeIndex && segment.written.get() == RECORDS_PER_SEGMENT
+                    && segment.forcedWritten == RECORDS_PER_SEGMENT) {
+                segments.remove(segment.index);
+                try {
+                    segment.channel.close();
+                } catch (IOException e) {
+                    // The data is already forced, so a failed close loses nothing
+                }
+            }
+        }
+    }
+
+    // Get the segment with the given index, opening (or creating) it on first use.
+    private Segment segment(long index) {
+        Segment current = active;
+        if (current != null && current.index == index) {
+            return current; // The common case: no map lookup at all
+        }
+        Segment segment = segments.get(index);
+        if (segment != null) {
+            return segment;
+        }
+        return openSegment(index);
+    }
+
+    // Open or create a segment; only one thread does it for each index.
+    private synchronized Segment openSegment(long index) {
+        Segment segment = segments.get(index);
+        if (segment == null) {
+            try {
+                segment = new Segment(index, segmentPath(directory, index));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot open journal segment " + index, e);
+            }
+            segments.put(index, segment);
+        }
+        if (active == null || segment.index > active.index) {
+            active = segment;
+        }
+        return segment;
+    }
+
+    // Find the position after the last finished record in the folder (0 for a new journal).
+    private long findEnd() throws IOException {
+        List<Long> indexes = segmentIndexes(directory);
+        if (indexes.isEmpty()) {
+            return 0L;
+        }
+        long lastIndex = indexes.get(indexes.size() - 1);
+        Segment last = new Segment(lastIndex, segmentPath(directory, lastIndex));
+        segments.put(lastIndex, last);
+        long end = 0;
+        for (int slot = 0; slot < RECORDS_PER_SEGMENT; slot++) {
+            if (last.operationAt(slot) != 0) {
+                end = slot + 1; // Continue after the last record, leaving any unfinished ones behind as gaps
+            }
+        }
+        last.written.set(end);
+        last.forcedWritten = end;
+        return lastIndex * RECORDS_PER_SEGMENT + end;
+    }
+
+    // Mix every field of a record into the check value stored with it.
+    private static int checkValue(long position, int operation, long ticketId, long timestampMillis, long actor) {
+        long hash = position * 0x9E3779B97F4A7C15L;
+        hash = (hash ^ ticketId) * 0xBF58476D1CE4E5B9L;
+        hash = (hash ^ timestampMillis) * 0x94D049BB133111EBL;
+        hash = (hash ^ actor) * 0x9E3779B97F4A7C15L;
+        hash ^= operation;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    // The file of the segment with the given index.
+    private static Path segmentPath(Path directory, long index) {
+        return directory.resolve(String.format("journal-%010d.tkj", index));
+    }
+
+    // The indexes of the segment files in a folder, in order.
+    private static List<Long> segmentIndexes(Path directory) throws IOException {
+        List<Long> indexes = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return indexes;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.matches("journal-\\d{10}\\.tkj"))
+                    .forEach(name -> indexes.add(Long.parseLong(name.substring(8, 18))));
+        }
+        indexes.sort(null);
+        return indexes;
+    }
+
+    // One memory-mapped segment file opened for appending.
+    private static final class Segment {
+        private final long index;                 // Which segment this is
+        private final FileChannel channel;        // The open file
+        private final MappedByteBuffer buffer;    // The whole file, mapped read-write
+        private final AtomicLong written = new AtomicLong(); // Records finished in this segment
+        private volatile long forcedWritten = 0;  // The written count at the last force
+
+        private Segment(long index, Path path) throws IOException {
+            this.index = index;
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            // Mapping the full size grows a new file at once, so a reader never sees a short segment
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, SEGMENT_BYTES);
+            if (buffer.getInt(0) != MAGIC) {
+                buffer.putInt(4, VERSION);
+                buffer.putInt(8, RECORD_SIZE);
+                buffer.putInt(12, RECORDS_PER_SEGMENT);
+                buffer.putLong(16, index);
+                INT_VIEW.setRelease(buffer, 0, MAGIC); // The magic last: a reader only trusts a finished header
+            }
+        }
+
+        // Write one record; the operation code goes in last so readers never see half a record.
+        private void write(long position, Operation operation, long ticketId, long timestampMillis, long actor) {
+            int offset = HEADER_SIZE + (int) (position % RECORDS_PER_SEGMENT) * RECORD_SIZE;
+            buffer.putLong(offset + TICKET_OFFSET, ticketId);
+            buffer.putLong(offset + TIME_OFFSET, timestampMillis);
+            buffer.putLong(offset + ACTOR_OFFSET, actor);
+            buffer.putInt(offset + CHECK_OFFSET,
+                    checkValue(position, operation.code, ticketId, timestampMillis, actor));
+            INT_VIEW.setRelease(buffer, offset + OPERATION_OFFSET, operation.code);
+        }
+
+        // Read the operation code of a slot (0 if the slot is not written yet).
+        private int operationAt(int slot) {
+            return (int) INT_VIEW.getAcquire(buffer, HEADER_SIZE + slot * RECORD_SIZE + OPERATION_OFFSET);
+        }
+
+        // Force the written part of this segment to disk if anything was written since the last force.
+        private void force() throws IOException {
+            long finished = written.get();
+            if (finished == forcedWritten) {
+                return;
+            }
+            synchronized (this) {
+                buffer.force(); // Only the dirty pages are actually written
+                forcedWritten = Math.max(forcedWritten, finished);
+            }
+        }
+    }
+
+    /**
+     * Reads a journal folder: replays the records in position order, or
+     * follows the journal while another EventJournal keeps appending to it.
+     * Positions left unfinished by a crash and records that fail their check
+     * value are skipped.
+     */
+    public static final class Reader implements AutoCloseable {
+        private static final long IDLE_PARK_NANOS = 1_000_000L; // Wait between checks while following
+        private static final long GAP_WAIT_NANOS = TimeUnit.SECONDS.toNanos(1); // How long a gap may stay open
+
+        private final Path directory;     // The folder holding the segment files
+        private long mappedIndex = -1;    // The segment currently mapped
+        private MappedByteBuffer mapped;  // That segment, mapped read-only
+        private long skippedRecords = 0;  // Unfinished or damaged positions skipped so far
+
+        /**
+         * Constructor to read the journal in a folder.
+         *
+         * @param directory The folder holding the segment files.
+         */
+        public Reader(String directory) {
+            this.directory = Paths.get(directory);
+        }
+
+        /**
+         * Hand every record from a position up to the current end of the journal to the handler.
+         *
+         * @param fromPosition The first position to read (0 for the whole journal).
+         * @param handler      Receives the records in position order.
+         * @return The position after the last record read, to continue from later.
+         * @throws IOException If a segment file cannot be read.
+         */
+        public long replay(long fromPosition, RecordHandler handler) throws IOException {
+            long position = fromPosition;
+            while (true) {
+                long next = readFrom(position, handler, false);
+                if (next == position) {
+                    return position; // Nothing more was written
+                }
+                position = next;
+            }
+        }
+
+        /**
+         * Hand every record from a position to the handler and keep waiting for new
+         * records until the condition says to stop.
+         *
+         * @param fromPosition The first position to read.
+         * @param handler      Receives the records in position order.
+         * @param keepRunning  Checked while waiting; following stops once it returns false.
+         * @return The position after the last record read.
+         * @throws IOException If a segment file cannot be read.
+         */
+        public long tail(long fromPosition, RecordHandler handler, BooleanSupplier keepRunning) throws IOException {
+            long position = fromPosition;
+            while (keepRunning.getAsBoolean()) {
+                long next = readFrom(position, handler, true);
+                if (next == position) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS); // Caught up with the writer
+                }
+                position = next;
+            }
+            return position;
+        }
+
+        /**
+         * Get the number of positions skipped because they were never finished or failed their check.
+         *
+         * @return The skipped record count.
+         */
+        public long getSkippedRecords() {
+            return skippedRecords;
+        }
+
+        @Override
+        public void close() {
+            mapped = null; // The mapping is released by the garbage collector
+            mappedIndex = -1;
+        }
+
+        // Read finished records of one segment starting at a position; returns where to continue.
+        private long readFrom(long position, RecordHandler handler, boolean following) throws IOException {
+            long index = position / RECORDS_PER_SEGMENT;
+            MappedByteBuffer buffer = map(index);
+            if (buffer == null) {
+                return position; // The segment does not exist (yet)
+            }
+            int slot = (int) (position % RECORDS_PER_SEGMENT);
+            long gapSince = 0;
+            while (slot < RECORDS_PER_SEGMENT) {
+                int offset = HEADER_SIZE + slot * RECORD_SIZE;
+                int code = (int) INT_VIEW.getAcquire(buffer, offset + OPERATION_OFFSET);
+                long recordPosition = index * RECORDS_PER_SEGMENT + slot;
+                if (code == 0) {
+                    int nextWritten = nextWrittenSlot(buffer, slot + 1);
+                    boolean laterSegment = nextWritten < 0 && Files.exists(segmentPath(directory, index + 1));
+                    if (nextWritten < 0 && !laterSegment) {
+                        return recordPosition; // The end of the journal (for now)
+                    }
+                    if (following) {
+                        // A writer may still be filling this position in; give it time before skipping
+                        long now = System.nanoTime();
+                        if (gapSince == 0) {
+                            gapSince = now;
+                        }
+                        if (now - gapSince < GAP_WAIT_NANOS) {
+                            LockSupport.parkNanos(IDLE_PARK_NANOS);
+                            continue;
+                        }
+                    }
+                    // A position that was claimed but never finished (the writer crashed): skip it
+                    int skipTo = nextWritten >= 0 ? nextWritten : RECORDS_PER_SEGMENT;
+                    skippedRecords += skipTo - slot;
+                    slot = skipTo;
+                    gapSince = 0;
+                    continue;
+                }
+                gapSince = 0;
+                long ticketId = buffer.getLong(offset + TICKET_OFFSET);
+                long time = buffer.getLong(offset + TIME_OFFSET);
+                long actor = buffer.getLong(offset + ACTOR_OFFSET);
+                int check = buffer.getInt(offset + CHECK_OFFSET);
+                Operation operation = Operation.fromCode(code);
+                if (operation == null || check != checkValue(recordPosition, code, ticketId, time, actor)) {
+                    skippedRecords++; // Torn or damaged record
+                } else {
+                    handler.onRecord(recordPosition, operation, ticketId, time, actor);
+                }
+                slot++;
+            }
+            return (index + 1) * RECORDS_PER_SEGMENT; // Continue with the next segment
+        }
+
+        // Find the next slot with a record in it, or -1 if there is none in this segment.
+        private static int nextWrittenSlot(MappedByteBuffer buffer, int fromSlot) {
+            for (int slot = fromSlot; slot < RECORDS_PER_SEGMENT; slot++) {
+                if ((int) INT_VIEW.getAcquire(buffer, HEADER_SIZE + slot * RECORD_SIZE + OPERATION_OFFSET) != 0) {
+                    return slot;
+                }
+            }
+            return -1;
+        }
+
+        // Map a segment read-only, or return null if it does not exist or is not ready yet.
+        private MappedByteBuffer map(long index) throws IOException {
+            if (index == mappedIndex) {
+                return mapped;
+            }
+            Path path = segmentPath(directory, index);
+            if (!Files.exists(path)) {
+                return null;
+            }
+            try (FileChannel channel = FileChannel.open(path)) {
+                if (channel.size() < SEGMENT_BYTES) {
+                    return null; // The writer is still creating it
+                }
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, SEGMENT_BYTES);
+                if ((int) INT_VIEW.getAcquire(buffer, 0) != MAGIC) {
+                    return null; // The header is not written yet
+                }
+                mapped = buffer;
+                mappedIndex = index;
+                return buffer;
+            }
+        }
+    }
+}
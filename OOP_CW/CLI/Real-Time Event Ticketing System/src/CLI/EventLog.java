@@ -0,0 +1,276 @@
+package CLI;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous event log used instead of calling System.out.println for every ticket.
+ *
+ * Vendors, consumers and pools write small fixed-size records (event type, ticket ID,
+ * thread name, time) into a preallocated lock-free ring. A single background writer
+ * thread turns the records into text and writes them to the console or a file in
+ * batches, with one flush per batch. Logging a record never waits for I/O: if the
+ * ring is full the record is dropped and counted instead.
+ */
+public final class EventLog {
+    private static final int DEFAULT_CAPACITY = 1 << 16;  // Records the ring can hold
+    private static final int WRITE_BATCH = 1024;          // Most records formatted per write
+    private static final long IDLE_PARK_NANOS = 1_000_000L; // Writer sleep when there is nothing to do
+    private static final int SKIPPED = -1;                // Type of a slot claimed after the log closed
+    private static final DateTimeFormatter TIME_FORMAT =
+            DateTimeFormatter.ofPattern("HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+    // The log every thread writes to. Replaced (never changed) by configure().
+    private static volatile EventLog current = new EventLog(LogLevel.DEBUG, 1, null);
+
+    private final LogLevel level;        // Highest level that is written
+    private final int sampleRate;        // Write one ticket event in every sampleRate tickets
+    private final String filePath;       // File to append to, or null for the console
+    private final int capacity;          // Number of record slots
+    private final int[] types;           // Event type (ordinal) of each record
+    private final long[] ticketIds;      // Ticket ID of each record
+    private final long[] times;          // Time of each record in epoch milliseconds
+    private final String[] actors;       // Name of the thread that wrote each record
+    private final AtomicLongArray sequences; // The turn number of each slot (as in MpmcRingBuffer)
+    private final AtomicLong tail = new AtomicLong(); // Next position a producer will claim
+    private final LongAdder dropped = new LongAdder(); // Records lost because the ring was full
+    private final Thread writerThread;   // The single background writer
+    private volatile long written = 0;   // Records the writer has finished with
+    private volatile boolean closed = false; // Set first by close(): no new records are accepted
+    private volatile long closeAt = Long.MAX_VALUE; // The writer stops once it reaches this position
+
+    private EventLog(LogLevel level, int sampleRate, String filePath) {
+        this.level = level;
+        this.sampleRate = sampleRate;
+        this.filePath = filePath;
+        this.capacity = DEFAULT_CAPACITY;
+        this.types = new int[capacity];
+        this.ticketIds = new long[capacity];
+        this.times = new long[capacity];
+        this.actors = new String[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+        this.writerThread = Thread.ofPlatform().name("EventLog-Writer").daemon(true).unstarted(this::writeLoop);
+        if (level != LogLevel.OFF) {
+            writerThread.start(); // No writer is needed when nothing is ever logged
+        }
+    }
+
+    /**
+     * Replace the current log with one using the given settings. Records already
+     * in the old log are written out before it is closed, and a record that was
+     * being logged to the old log while it closed goes to the new one instead.
+     *
+     * @param level      The highest level that is written.
+     * @param sampleRate Write ticket events for one ticket ID in every sampleRate.
+     * @param filePath   The file to append to, or null (or empty) for the console.
+     */
+    public static void configure(LogLevel level, int sampleRate, String filePath) {
+        if (sampleRate <= 0) {
+            throw new IllegalArgumentException("Log sample rate must be greater than zero.");
+        }
+        String target = filePath == null || filePath.isBlank() ? null : filePath;
+        EventLog previous = current;
+        current = new EventLog(level, sampleRate, target);
+        previous.close();
+    }
+
+    /**
+     * Replace the current log with one using the log settings of a Configuration.
+     *
+     * @param configuration The configuration to read the log settings from.
+     */
+    public static void configure(Configuration configuration) {
+        configure(configuration.getLogLevel(), configuration.getLogSampleRate(), configuration.getLogFile());
+    }
+
+    /**
+     * Log an event that is not about a particular ticket.
+     *
+     * @param type The kind of event.
+     */
+    public static void log(EventType type) {
+        log(type, 0L);
+    }
+
+    /**
+     * Log an event about one ticket. Ticket events are sampled by ticket ID, so the
+     * "added" and "retrieved" lines of a sampled ticket are both written.
+     *
+     * @param type     The kind of event.
+     * @param ticketId The ID of the ticket.
+     */
+    public static void log(EventType type, long ticketId) {
+        EventLog log = current;
+        while (!log.append(type, ticketId)) {
+            log = current; // The log closed under us; configure() has already set the new one
+        }
+    }
+
+    /**
+     * Check whether events of the given type are currently written at all. Callers
+     * can use this to skip work that only exists to produce log records.
+     *
+     * @param type The kind of event.
+     * @return True if events of this type are written (before sampling).
+     */
+    public static boolean isEnabled(EventType type) {
+        return current.level.includes(type.getLevel());
+    }
+
+    /**
+     * Wait until every record logged so far has been written out.
+     */
+    public static void flush() {
+        current.awaitWritten(current.tail.get());
+    }
+
+    /**
+     * Get the number of records dropped because the ring was full.
+     *
+     * @return The dropped record count of the current log.
+     */
+    public static long getDroppedEvents() {
+        return current.dropped.sum();
+    }
+
+    // Claim a slot and fill it in. Never blocks: a full ring drops the record.
+    // Returns false only if the log was closed, so the caller can use the new one.
+    private boolean append(EventType type, long ticketId) {
+        if (!level.includes(type.getLevel())) {
+            return true;
+        }
+        if (sampleRate > 1 && type.isTicketEvent() && ticketId % sampleRate != 0) {
+            return true;
+        }
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position % capacity);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    if (closed) {
+                        // close() may have read the tail before this claim, so the writer
+                        // might never reach this slot: mark it skipped and log elsewhere
+                        types[index] = SKIPPED;
+                        sequences.lazySet(index, position + 1);
+                        return false;
+                    }
+                    types[index] = type.ordinal();
+                    ticketIds[index] = ticketId;
+                    times[index] = System.currentTimeMillis();
+                    actors[index] = Thread.currentThread().getName();
+                    sequences.lazySet(index, position + 1); // Publish the record to the writer
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                dropped.increment(); // The writer is behind; drop rather than block the caller
+                return true;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    // The background writer: format whatever records are ready and write them in one go.
+    private void writeLoop() {
+        EventType[] eventTypes = EventType.values();
+        StringBuilder text = new StringBuilder(WRITE_BATCH * 48);
+        long head = 0;
+        try (Writer out = openOutput()) {
+            while (true) {
+                int count = 0;
+                while (count < WRITE_BATCH) {
+                    int index = (int) (head % capacity);
+                    if (sequences.get(index) != head + 1) {
+                        break; // The next record has not been published yet
+                    }
+                    if (types[index] != SKIPPED) {
+                        if (filePath != null) {
+                            text.append(TIME_FORMAT.format(Instant.ofEpochMilli(times[index]))).append(' ');
+                        }
+                        eventTypes[types[index]].appendTo(text, actors[index], ticketIds[index]);
+                        text.append(System.lineSeparator());
+                    }
+                    actors[index] = null; // Do not keep thread names alive
+                    sequences.lazySet(index, head + capacity); // Free the slot for the next lap
+                    head++;
+                    count++;
+                }
+                if (count > 0) {
+                    out.write(text.toString());
+                    out.flush(); // One flush per batch instead of one per line
+                    text.setLength(0);
+                    written = head;
+                } else if (head >= closeAt) {
+                    return; // Every record accepted before the close has been written
+                } else {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS); // Nothing to write yet
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Event log stopped: " + e.getMessage());
+        } finally {
+            written = Long.MAX_VALUE; // Never leave a flush() caller waiting
+        }
+    }
+
+    // Open the log file in append mode, or wrap the console without ever closing it.
+    private Writer openOutput() throws IOException {
+        if (filePath != null) {
+            return new BufferedWriter(new FileWriter(filePath, true));
+        }
+        return new Writer() {
+            @Override
+            public void write(char[] buffer, int offset, int length) {
+                System.out.print(new String(buffer, offset, length));
+            }
+
+            @Override
+            public void write(String text) {
+                System.out.print(text); // A single call per batch on the shared PrintStream
+            }
+
+            @Override
+            public void flush() {
+                System.out.flush();
+            }
+
+            @Override
+            public void close() {
+                System.out.flush(); // Keep the console open for the rest of the program
+            }
+        };
+    }
+
+    // Wait until the writer has finished with every record before the given position.
+    private void awaitWritten(long position) {
+        if (level == LogLevel.OFF) {
+            return;
+        }
+        while (written < position && writerThread.isAlive()) {
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+    }
+
+    // Write out everything that is left, then stop the writer thread. The flag is
+    // set before the tail is read, so an appender that claims a slot after that
+    // read is sure to see it and move its record to the new log.
+    private void close() {
+        closed = true;
+        closeAt = tail.get();
+        awaitWritten(closeAt);
+    }
+}
@@ -0,0 +1,85 @@
+package CLI;
+
+/**
+ * The kinds of events written to the EventLog, with their level and message text.
+ * In the text, "{actor}" is replaced by the thread name and "{id}" by the ticket ID.
+ */
+public enum EventType {
+    TICKET_ADDED(LogLevel.DEBUG, "Ticket added: {id}"),
+    TICKET_RETRIEVED(LogLevel.DEBUG, "Ticket retrieved: {id}"),
+    VENDOR_ADDED(LogLevel.DEBUG, "{actor} added Ticket ID: {id}"),
+    CONSUMER_PROCESSED(LogLevel.DEBUG, "{actor} processed Ticket ID: {id}"),
+    VENDOR_COMPLETED(LogLevel.INFO, "{actor} has completed adding tickets."),
+    VENDOR_INTERRUPTED(LogLevel.INFO, "{actor} interrupted while adding tickets."),
+    CONSUMER_COMPLETED(LogLevel.INFO, "{actor} has completed processing tickets."),
+    CONSUMER_INTERRUPTED(LogLevel.INFO, "{actor} interrupted while processing tickets."),
+    POOL_STOPPED(LogLevel.INFO, "TicketPool has stopped.");
+
+    private final LogLevel level;   // The level the event is logged at
+    private final String prefix;    // The message text before the placeholder
+    private final String suffix;    // The message text after the placeholder
+    private final boolean hasActor; // True if the placeholder is {actor}, false if it is {id}
+    private final String idText;    // The text between {actor} and {id}, if the message has both
+
+    EventType(LogLevel level, String template) {
+        this.level = level;
+        // Split the template once here, so formatting an event never has to search the text
+        int actorAt = template.indexOf("{actor}");
+        int idAt = template.indexOf("{id}");
+        this.hasActor = actorAt >= 0;
+        if (hasActor) {
+            this.prefix = template.substring(0, actorAt);
+            if (idAt >= 0) {
+                this.idText = template.substring(actorAt + "{actor}".length(), idAt);
+                this.suffix = template.substring(idAt + "{id}".length());
+            } else {
+                this.idText = null;
+                this.suffix = template.substring(actorAt + "{actor}".length());
+            }
+        } else if (idAt >= 0) {
+            this.prefix = template.substring(0, idAt);
+            this.idText = "";
+            this.suffix = template.substring(idAt + "{id}".length());
+        } else {
+            this.prefix = template;
+            this.idText = null;
+            this.suffix = "";
+        }
+    }
+
+    /**
+     * Get the level this event is logged at.
+     *
+     * @return The event's LogLevel.
+     */
+    public LogLevel getLevel() {
+        return level;
+    }
+
+    /**
+     * Check whether this event is about a single ticket (and so can be sampled).
+     *
+     * @return True if the message includes a ticket ID.
+     */
+    public boolean isTicketEvent() {
+        return idText != null;
+    }
+
+    /**
+     * Append the message for one event to a StringBuilder.
+     *
+     * @param out      The StringBuilder to append to.
+     * @param actor    The name of the thread that raised the event.
+     * @param ticketId The ticket ID of the event (ignored if the message has none).
+     */
+    void appendTo(StringBuilder out, String actor, long ticketId) {
+        out.append(prefix);
+        if (hasActor) {
+            out.append(actor);
+        }
+        if (idText != null) {
+            out.append(idText).append(ticketId);
+        }
+        out.append(suffix);
+    }
+}
@@ -0,0 +1,514 @@
+package CLI;
+
+import com.google.gson.Gson; // Library to handle JSON data.
+import com.google.gson.GsonBuilder; // Library for creating well-formatted JSON.
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the ticketing system without any prompts, for scripted load tests.
+ *
+ * Each configuration file is loaded, run for the configured warm-up iterations
+ * (whose results are thrown away) and then for the measured iterations. Every
+ * iteration runs until all tickets have been retrieved, or until the given
+ * duration has passed. The measured results are printed as one JSON document:
+ * throughput, latency percentiles, vendor and customer blocked time, and
+ * garbage collection and allocation figures.
+ *
+ * With {@code --simulate}, each iteration is a {@link DiscreteEventSimulation}
+ * on a virtual clock instead of a threaded run: rates, durations and wait
+ * times are then in simulated time, and the same seed gives the same results.
+ *
+ * Usage: {@code java CLI.Main --headless [options] [config.json|config.txt ...]}
+ */
+public class HeadlessRunner {
+    private static final String DEFAULT_CONFIG = "configuration.json"; // Used when no file is given
+    private static final long POLL_MILLIS = 10L;  // How often the runner checks whether a run is done
+    private static final long JOIN_MILLIS = 5_000L; // How long to wait for each thread to finish after a run
+
+    private final List<String> configFiles = new ArrayList<>(); // The configurations to run, in order
+    private long durationMillis = 0;   // Stop each run after this long (0 = run until every ticket is retrieved)
+    private int ticketOverride = 0;    // Replaces the configured total tickets when above 0
+    private int warmups = 0;           // Iterations run and thrown away before measuring
+    private int iterations = 1;        // Measured iterations per configuration
+    private String outputFile = null;  // Where the JSON summary goes (null = standard output)
+    private boolean recover = false;   // Continue the first run of each configuration from its snapshots
+    private boolean simulate = false;  // Run discrete-event simulations on a virtual clock instead of threads
+    private long seed = 1L;            // Seed of the first simulated iteration (each further one adds 1)
+
+    /**
+     * Parse the command line and run every configuration it names.
+     *
+     * @param args The command line arguments after {@code --headless}.
+     * @return The process exit code (0 on success).
+     */
+    public static int run(String[] args) {
+        HeadlessRunner runner = new HeadlessRunner();
+        try {
+            runner.parseArguments(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            printUsage(System.err);
+            return 2;
+        }
+        try {
+            List<RunResult> results = runner.runAll();
+            runner.writeResults(results);
+            return 0;
+        } catch (IOException | IllegalArgumentException | IllegalStateException e) {
+            System.err.println("Headless run failed: " + e.getMessage());
+            return 1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Headless run interrupted.");
+            return 1;
+        }
+    }
+
+    /**
+     * Print the command line options.
+     *
+     * @param out Where to print them.
+     */
+    public static void printUsage(PrintStream out) {
+        out.println("Usage: java CLI.Main --headless [options] [config.json|config.txt ...]");
+        out.println("  --duration <seconds>   Stop each run after this long (default: when every ticket is retrieved)");
+        out.println("  --tickets <count>      Override the total tickets of every configuration");
+        out.println("  --warmups <count>      Warm-up iterations per configuration, not reported (default 0)");
+        out.println("  --iterations <count>   Measured iterations per configuration (default 1)");
+        out.println("  --output <file>        Write the JSON summary to a file instead of the console");
+        out.println("  --recover              Continue the first run from the latest snapshot and journal");
+        out.println("  --simulate             Simulate each run on a virtual clock instead of running threads");
+        out.println("  --seed <number>        Seed of the first simulated iteration (default 1)");
+        out.println("Configuration files default to " + DEFAULT_CONFIG + "; .txt files use the plain text format.");
+    }
+
+    // Read the options and configuration file names.
+    private void parseArguments(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "--headless":
+                    break; // Already decided by Main
+                case "--duration":
+                    double seconds = Double.parseDouble(valueAfter(args, i++));
+                    if (!(seconds > 0)) {
+                        throw new IllegalArgumentException("Duration must be greater than zero.");
+                    }
+                    durationMillis = (long) (seconds * 1000);
+                    break;
+                case "--tickets":
+                    ticketOverride = positive(valueAfter(args, i++), "Ticket count");
+                    break;
+                case "--warmups":
+                    warmups = Integer.parseInt(valueAfter(args, i++));
+                    if (warmups < 0) {
+                        throw new IllegalArgumentException("Warm-up count must not be negative.");
+                    }
+                    break;
+                case "--iterations":
+                    iterations = positive(valueAfter(args, i++), "Iteration count");
+                    break;
+                case "--output":
+                    outputFile = valueAfter(args, i++);
+                    break;
+                case "--recover":
+                    recover = true;
+                    break;
+                case "--simulate":
+                    simulate = true;
+                    break;
+                case "--seed":
+                    try {
+                        seed = Long.parseLong(valueAfter(args, i++));
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("Seed must be a whole number.");
+                    }
+                    break;
+                default:
+                    if (arg.startsWith("--")) {
+                        throw new IllegalArgumentException("Unknown option " + arg);
+                    }
+                    configFiles.add(arg);
+            }
+        }
+        if (configFiles.isEmpty()) {
+            configFiles.add(DEFAULT_CONFIG);
+        }
+        if (simulate && recover) {
+            throw new IllegalArgumentException("--recover needs a threaded run; it cannot be used with --simulate.");
+        }
+    }
+
+    // Get the value that follows an option.
+    private static String valueAfter(String[] args, int index) {
+        if (index + 1 >= args.length) {
+            throw new IllegalArgumentException(args[index] + " needs a value.");
+        }
+        return args[index + 1];
+    }
+
+    // Parse a whole number that must be greater than zero.
+    private static int positive(String text, String name) {
+        int value;
+        try {
+            value = Integer.parseInt(text);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be a whole number.");
+        }
+        if (value <= 0) {
+            throw new IllegalArgumentException(name + " must be greater than zero.");
+        }
+        return value;
+    }
+
+    // Run the warm-ups and measured iterations of every configuration, back to back.
+    private List<RunResult> runAll() throws IOException, InterruptedException {
+        List<RunResult> results = new ArrayList<>();
+        for (String configFile : configFiles) {
+            Configuration configuration = load(configFile);
+            boolean recoverNext = recover; // Only the first run of a configuration continues the earlier one
+            for (int i = 1; i <= warmups; i++) {
+                System.err.println("Warm-up " + i + "/" + warmups + " of " + configFile);
+                runOnce(configFile, configuration, i, recoverNext);
+                recoverNext = false;
+            }
+            for (int i = 1; i <= iterations; i++) {
+                System.err.println("Iteration " + i + "/" + iterations + " of " + configFile);
+                results.add(runOnce(configFile, configuration, i, recoverNext));
+                recoverNext = false;
+            }
+        }
+        return results;
+    }
+
+    // Load a configuration file (JSON unless it ends in .txt) and apply the ticket override.
+    private Configuration load(String configFile) throws IOException {
+        Configuration configuration = configFile.endsWith(".txt")
+                ? Configuration.loadFromPlainText(configFile)
+                : Configuration.loadFromJson(configFile);
+        if (ticketOverride > 0) {
+            configuration = configuration.toBuilder().setTotalTickets(ticketOverride).build();
+        }
+        return configuration;
+    }
+
+    // Start the vendors and consumers on a new pool, wait for the run to finish and collect the results.
+    private RunResult runOnce(String configFile, Configuration configuration, int iteration, boolean recoverEarlierRun)
+            throws IOException, InterruptedException {
+        if (simulate) {
+            return simulateOnce(configFile, configuration, iteration);
+        }
+        // Only log to a file: the console is kept for the JSON summary
+        EventLog.configure(configuration.getLogFile().isEmpty() ? LogLevel.OFF : configuration.getLogLevel(),
+                configuration.getLogSampleRate(), configuration.getLogFile());
+        TicketPool ticketPool = TicketPool.create(configuration);
+        PoolSnapshotter snapshotter = PoolSnapshotter.open(configuration, recoverEarlierRun); // null = no snapshots
+        if (snapshotter != null && recoverEarlierRun) {
+            snapshotter.restoreInto(ticketPool);
+            System.err.println(snapshotter.describeRecovery());
+        }
+        EventJournal journal = EventJournal.open(configuration); // Every iteration appends to the same journal (null = none)
+        ticketPool.setJournal(journal); // Holds that end unsold are journaled as CANCEL
+        if (snapshotter != null) {
+            snapshotter.start(ticketPool, journal);
+        }
+
+        System.gc(); // Start every iteration from a similar heap
+        long gcCountBefore = gcCount();
+        long gcTimeBefore = gcTimeMillis();
+        long allocatedBefore = allocatedBytes();
+        long started = System.nanoTime();
+
+        List<Thread> threads = new ArrayList<>();
+        Thread.Builder vendorThreads = configuration.getThreadMode().newThreadBuilder("Vendor");
+        for (int i = 0; i < configuration.getVendorCount(); i++) {
+            threads.add(vendorThreads.start(new Vendor(ticketPool, configuration, journal)));
+        }
+        TicketDispatcher dispatcher = TicketDispatcher.create(ticketPool, configuration); // null = no tiers to serve
+        AdmissionController admission = AdmissionController.create(configuration); // null = no admission limits
+        List<ConsumerTier> tiers = configuration.getTiers();
+        for (int tier = 0; tier < tiers.size(); tier++) {
+            Thread.Builder consumerThreads = configuration.getThreadMode()
+                    .newThreadBuilder("Consumer-" + tiers.get(tier).getName());
+            for (int i = 0; i < tiers.get(tier).getConsumers(); i++) {
+                threads.add(consumerThreads.start(new Consumer(ticketPool, configuration,
+                        new Consumer.Options().setJournal(journal).setTier(dispatcher, tier).setAdmission(admission))));
+            }
+        }
+
+        // Wait until every ticket has been retrieved or the duration is over
+        long deadline = durationMillis > 0 ? started + TimeUnit.MILLISECONDS.toNanos(durationMillis) : Long.MAX_VALUE;
+        while (ticketPool.snapshot().getRetrieved() < configuration.getTotalTickets()
+                && System.nanoTime() - deadline < 0) {
+            Thread.sleep(POLL_MILLIS);
+        }
+        long elapsedNanos = System.nanoTime() - started;
+        TicketPoolSnapshot counters = ticketPool.snapshot();
+
+        // Stop the run and wait for the threads so they do not disturb the next one
+        ticketPool.stop();
+        if (dispatcher != null) {
+            dispatcher.stop();
+        }
+        for (Thread thread : threads) {
+            thread.interrupt();
+        }
+        for (Thread thread : threads) {
+            thread.join(JOIN_MILLIS);
+        }
+        EventLog.flush();
+        if (journal != null) {
+            journal.close(); // Forces the last records to disk (unless the sync policy is NONE)
+        }
+        if (snapshotter != null) {
+            snapshotter.close(); // Writes a last snapshot covering the whole run
+        }
+
+        return new RunResult(configFile, iteration, configuration, counters, elapsedNanos, ticketPool, dispatcher,
+                admission, gcCount() - gcCountBefore, gcTimeMillis() - gcTimeBefore, allocatedBytes() - allocatedBefore);
+    }
+
+    // Simulate one iteration on a virtual clock (the duration limits simulated time) and collect the results.
+    private RunResult simulateOnce(String configFile, Configuration configuration, int iteration) {
+        DiscreteEventSimulation simulation = new DiscreteEventSimulation(configuration, seed + iteration - 1);
+        System.gc(); // Start every iteration from a similar heap
+        long gcCountBefore = gcCount();
+        long gcTimeBefore = gcTimeMillis();
+        long allocatedBefore = allocatedBytes();
+        long started = System.nanoTime();
+        simulation.run(TimeUnit.MILLISECONDS.toNanos(durationMillis));
+        long wallNanos = System.nanoTime() - started;
+        return new RunResult(configFile, iteration, configuration, simulation, wallNanos,
+                gcCount() - gcCountBefore, gcTimeMillis() - gcTimeBefore, allocatedBytes() - allocatedBefore);
+    }
+
+    // Write the results as JSON to the output file or the console.
+    private void writeResults(List<RunResult> results) throws IOException {
+        Gson gson = new GsonBuilder().setPrettyPrinting().serializeSpecialFloatingPointValues().create();
+        Summary summary = new Summary(Instant.now().toString(), Runtime.getRuntime().availableProcessors(),
+                System.getProperty("java.version"), results);
+        if (outputFile == null) {
+            System.out.println(gson.toJson(summary));
+        } else {
+            try (Writer writer = new FileWriter(outputFile)) {
+                gson.toJson(summary, writer);
+            }
+            System.err.println("Summary saved to " + outputFile);
+        }
+    }
+
+    // Total number of garbage collections so far, over all collectors.
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, collector.getCollectionCount());
+        }
+        return count;
+    }
+
+    // Total time spent in garbage collection so far, over all collectors.
+    private static long gcTimeMillis() {
+        long time = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            time += Math.max(0, collector.getCollectionTime());
+        }
+        return time;
+    }
+
+    // Bytes allocated by all threads so far (virtual threads are counted on their carriers), or -1 if unknown.
+    private static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean hotspotThreads = (com.sun.management.ThreadMXBean) threads;
+            if (hotspotThreads.isThreadAllocatedMemorySupported() && hotspotThreads.isThreadAllocatedMemoryEnabled()) {
+                return hotspotThreads.getTotalThreadAllocatedBytes();
+            }
+        }
+        return -1L;
+    }
+
+    /**
+     * The JSON document printed at the end: where it ran and every measured iteration.
+     */
+    private static final class Summary {
+        private final String generatedAt;       // When the summary was written (ISO-8601)
+        private final int availableProcessors;  // CPU cores the JVM could use
+        private final String javaVersion;       // The Java version that ran the benchmark
+        private final List<RunResult> runs;     // One entry per measured iteration
+
+        private Summary(String generatedAt, int availableProcessors, String javaVersion, List<RunResult> runs) {
+            this.generatedAt = generatedAt;
+            this.availableProcessors = availableProcessors;
+            this.javaVersion = javaVersion;
+            this.runs = runs;
+        }
+    }
+
+    /**
+     * The results of one measured iteration. Latency values are in nanoseconds
+     * (simulated nanoseconds for a SIMULATED run).
+     */
+    private static final class RunResult {
+        private final String configFile;        // The configuration file that was run
+        private final int iteration;            // Which measured iteration this is (from 1)
+        private final String mode;              // THREADS, or SIMULATED for a run on a virtual clock
+        private final Long seed;                // SIMULATED: the seed of the run (null otherwise)
+        private final Long simulatedEvents;     // SIMULATED: events carried out (null otherwise)
+        private final Double wallClockSeconds;  // SIMULATED: real time the simulation took (null otherwise)
+        private final PoolType poolType;        // The ticket pool engine
+        private final ThreadMode threadMode;    // Virtual or platform threads
+        private final int vendors;              // Number of Vendor threads
+        private final int consumers;            // Number of Consumer threads
+        private final int vendorBatchSize;      // Tickets per vendor release
+        private final int consumerBatchSize;    // Tickets per consumer purchase
+        private final double elapsedSeconds;    // How long the run took
+        private final boolean completed;        // Whether every ticket was retrieved before the run ended
+        private final long released;            // Tickets released during the run
+        private final long retrieved;           // Tickets retrieved during the run
+        private final double releasedPerSecond;  // Release throughput
+        private final double retrievedPerSecond; // Retrieval throughput
+        private final long blockedPuts;         // Adds that had to wait on a full pool
+        private final long timedOutTakes;       // Takes that found the pool empty until their timeout
+        private final long expiredHolds;        // Holds that ran out and put their ticket back
+        private final long rejectedOffers;      // Vendor adds cut short because the pool stayed full
+        private final long admitted;            // Consumer waits let through by admission control
+        private final long rejectedWaiters;     // Consumers turned away because too many were waiting
+        private final long shedWaiters;         // Consumers turned away or given up because waits reached the SLO
+        private final double vendorBlockedSeconds;   // Total time vendors waited for space
+        private final double consumerBlockedSeconds; // Total time consumers waited for tickets
+        private final LatencyHistogram.Summary putWait;   // Per-add wait percentiles
+        private final LatencyHistogram.Summary takeWait;  // Per-take wait percentiles
+        private final LatencyHistogram.Summary ticketAge; // Time tickets sat in the pool
+        private final DispatchPolicy dispatchPolicy;      // How waiting consumers were served
+        private final List<TierResult> tiers;             // Tickets and waits per consumer tier (empty without a dispatcher)
+        private final long gcCount;             // Garbage collections during the run
+        private final long gcTimeMillis;        // Time spent in garbage collection during the run
+        private final long allocatedBytes;      // Bytes allocated during the run (-1 if unknown)
+        private final double allocatedBytesPerTicket; // Allocation per retrieved ticket
+
+        // The results of a run with real threads.
+        private RunResult(String configFile, int iteration, Configuration configuration, TicketPoolSnapshot counters,
+                          long elapsedNanos, TicketPool ticketPool, TicketDispatcher dispatcher,
+                          AdmissionController admission, long gcCount, long gcTimeMillis,
+                          long allocatedBytes) {
+            this(configFile, iteration, configuration, "THREADS", null, null, null, elapsedNanos, counters,
+                    admission != null ? admission.getAdmitted() : 0,
+                    admission != null ? admission.getRejected() : 0,
+                    admission != null ? admission.getShed() : 0,
+                    ticketPool.getPutWaitHistogram(), ticketPool.getTakeWaitHistogram(),
+                    ticketPool.getTicketAgeHistogram(), dispatcherTiers(dispatcher),
+                    gcCount, gcTimeMillis, allocatedBytes);
+        }
+
+        // The results of a simulated run; rates are per simulated second.
+        private RunResult(String configFile, int iteration, Configuration configuration,
+                          DiscreteEventSimulation simulation, long wallNanos,
+                          long gcCount, long gcTimeMillis, long allocatedBytes) {
+            this(configFile, iteration, configuration, "SIMULATED", simulation.getSeed(),
+                    simulation.getProcessedEvents(), wallNanos / 1_000_000_000.0, simulation.getVirtualNanos(),
+                    simulation.snapshot(), simulation.getAdmitted(), simulation.getRejected(), simulation.getShed(),
+                    simulation.getPutWaitHistogram(), simulation.getTakeWaitHistogram(),
+                    simulation.getTicketAgeHistogram(), simulationTiers(configuration, simulation),
+                    gcCount, gcTimeMillis, allocatedBytes);
+        }
+
+        // Fill in every field; both kinds of run end up here.
+        private RunResult(String configFile, int iteration, Configuration configuration, String mode,
+                          Long seed, Long simulatedEvents, Double wallClockSeconds, long elapsedNanos,
+                          TicketPoolSnapshot counters, long admitted, long rejectedWaiters, long shedWaiters,
+                          LatencyHistogram putWait, LatencyHistogram takeWait, LatencyHistogram ticketAge,
+                          List<TierResult> tiers, long gcCount, long gcTimeMillis, long allocatedBytes) {
+            double seconds = elapsedNanos / 1_000_000_000.0;
+            this.configFile = configFile;
+            this.iteration = iteration;
+            this.mode = mode;
+            this.seed = seed;
+            this.simulatedEvents = simulatedEvents;
+            this.wallClockSeconds = wallClockSeconds;
+            this.poolType = configuration.getPoolType();
+            this.threadMode = configuration.getThreadMode();
+            this.vendors = configuration.getVendorCount();
+            this.consumers = configuration.getConsumerCount();
+            this.vendorBatchSize = configuration.getVendorBatchSize();
+            this.consumerBatchSize = configuration.getConsumerBatchSize();
+            this.elapsedSeconds = seconds;
+            this.completed = counters.getRetrieved() >= configuration.getTotalTickets();
+            this.released = counters.getReleased();
+            this.retrieved = counters.getRetrieved();
+            this.releasedPerSecond = released / seconds;
+            this.retrievedPerSecond = retrieved / seconds;
+            this.blockedPuts = counters.getBlockedPuts();
+            this.timedOutTakes = counters.getTimedOut();
+            this.expiredHolds = counters.getExpiredHolds();
+            this.rejectedOffers = counters.getRejected();
+            this.admitted = admitted;
+            this.rejectedWaiters = rejectedWaiters;
+            this.shedWaiters = shedWaiters;
+            this.putWait = putWait.summarize();
+            this.takeWait = takeWait.summarize();
+            this.ticketAge = ticketAge.summarize();
+            this.dispatchPolicy = configuration.getDispatchPolicy();
+            this.tiers = tiers;
+            this.vendorBlockedSeconds = this.putWait.getTotal() / 1_000_000_000.0;
+            this.consumerBlockedSeconds = this.takeWait.getTotal() / 1_000_000_000.0;
+            this.gcCount = gcCount;
+            this.gcTimeMillis = gcTimeMillis;
+            this.allocatedBytes = allocatedBytes;
+            this.allocatedBytesPerTicket = allocatedBytes >= 0 && retrieved > 0 ? (double) allocatedBytes / retrieved : -1;
+        }
+
+        // Get the results of each tier served by the dispatcher (empty without a dispatcher).
+        private static List<TierResult> dispatcherTiers(TicketDispatcher dispatcher) {
+            List<TierResult> tiers = new ArrayList<>();
+            if (dispatcher != null) {
+                for (int tier = 0; tier < dispatcher.getTiers().size(); tier++) {
+                    tiers.add(new TierResult(dispatcher.getTiers().get(tier), dispatcher.getServedTickets(tier),
+                            dispatcher.getWaitHistogram(tier).summarize()));
+                }
+            }
+            return tiers;
+        }
+
+        // Get the results of each simulated tier (empty for DIRECT, which has no dispatcher).
+        private static List<TierResult> simulationTiers(Configuration configuration, DiscreteEventSimulation simulation) {
+            List<TierResult> tiers = new ArrayList<>();
+            if (configuration.getDispatchPolicy() != DispatchPolicy.DIRECT) {
+                for (int tier = 0; tier < simulation.getTiers().size(); tier++) {
+                    tiers.add(new TierResult(simulation.getTiers().get(tier), simulation.getServedTickets(tier),
+                            simulation.getWaitHistogram(tier).summarize()));
+                }
+            }
+            return tiers;
+        }
+    }
+
+    /**
+     * The tickets and waits of one consumer tier. Wait values are in nanoseconds.
+     */
+    private static final class TierResult {
+        private final String name;                  // The name of the tier
+        private final int consumers;                // Consumer threads in the tier
+        private final int weight;                   // The tier's weight under the WEIGHTED policy
+        private final long tickets;                 // Tickets the tier's consumers took
+        private final LatencyHistogram.Summary wait; // Wait per successful take
+
+        private TierResult(ConsumerTier tier, long tickets, LatencyHistogram.Summary wait) {
+            this.name = tier.getName();
+            this.consumers = tier.getConsumers();
+            this.weight = tier.getWeight();
+            this.tickets = tickets;
+            this.wait = wait;
+        }
+    }
+}
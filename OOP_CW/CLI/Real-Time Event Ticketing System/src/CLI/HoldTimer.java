@@ -0,0 +1,236 @@
+package CLI;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Expires {@link TicketHold}s on a hashed timing wheel.
+ *
+ * The wheel is a ring of slots, one per tick of time. A hold goes into the slot
+ * its deadline falls on, together with the number of full turns of the wheel
+ * still to wait. One timer thread moves to the next slot every tick and
+ * expires the holds in it whose turns are used up. Adding a hold, ending it
+ * and expiring it all take the same small amount of work however many holds
+ * there are, so hundreds of thousands of holds cost no more per hold than a
+ * few; there is no scheduled task or sweep per hold.
+ *
+ * Other threads never touch the wheel. New holds and holds that ended early
+ * (confirmed or released) are handed to the timer thread through lock-free
+ * queues; an ended hold is unlinked from its slot directly, because every
+ * hold is a node of a doubly linked list.
+ *
+ * Holds expire at most one tick late and never early. Stopping the timer
+ * releases the holds still active and hands them back to the caller.
+ */
+public final class HoldTimer {
+    private static final int MAX_TRANSFERS_PER_TICK = 100_000; // Bounds the work of one tick
+
+    private final long tickNanos;                  // The length of one tick
+    private final Bucket[] wheel;                  // The slots
+    private final int mask;                        // wheel.length - 1 (the length is a power of two)
+    private final long startNanos;                 // The timer's clock starts here
+    private final Consumer<TicketHold> onExpired;  // Called on the timer thread for every expired hold
+    private final Runnable afterTick;              // Called on the timer thread after every tick
+    private final Queue<TicketHold> newHolds = new ConcurrentLinkedQueue<>();   // Holds to put into the wheel
+    private final Queue<TicketHold> endedHolds = new ConcurrentLinkedQueue<>(); // Holds to take out of the wheel
+    private final Thread worker;                   // The timer thread
+    private volatile boolean running = true;       // Cleared by stop()
+    private long tick = 0;                         // The next tick to process (timer thread only)
+
+    /**
+     * Constructor to create and start a timer.
+     *
+     * @param tickMillis The length of one tick in milliseconds (how late a hold may expire).
+     * @param wheelSize  The number of slots (rounded up to a power of two).
+     * @param onExpired  Called on the timer thread for every hold that expires.
+     * @param afterTick  Called on the timer thread after every tick.
+     */
+    public HoldTimer(long tickMillis, int wheelSize, Consumer<TicketHold> onExpired, Runnable afterTick) {
+        if (tickMillis <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("Tick length and wheel size must be greater than zero.");
+        }
+        int size = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = size - 1;
+        this.onExpired = onExpired;
+        this.afterTick = afterTick;
+        this.startNanos = System.nanoTime();
+        this.worker = Thread.ofPlatform().name("HoldTimer").daemon(true).start(this::run);
+    }
+
+    /**
+     * Create a hold on a ticket that expires after the given time.
+     *
+     * @param ticketId The reserved ticket.
+     * @param holdTime How long the hold lasts.
+     * @param unit     The unit of the hold time.
+     * @return The new, active hold, or null if the timer has stopped (the caller keeps the ticket).
+     */
+    public TicketHold hold(long ticketId, long holdTime, TimeUnit unit) {
+        TicketHold hold = new TicketHold(ticketId, System.nanoTime() - startNanos + unit.toNanos(holdTime));
+        newHolds.add(hold);
+        if (!running && hold.finish(TicketHold.State.RELEASED)) {
+            return null; // Stopped meanwhile, and stop() did not see this hold
+        }
+        return hold;
+    }
+
+    /**
+     * End a hold before it expires (confirm or release it).
+     *
+     * @param hold     The hold to end.
+     * @param newState CONFIRMED or RELEASED.
+     * @return True if the hold was still active and is now ended, false if it had already ended.
+     */
+    public boolean end(TicketHold hold, TicketHold.State newState) {
+        if (!hold.finish(newState)) {
+            return false; // Already confirmed, released or expired
+        }
+        endedHolds.add(hold); // The timer thread takes it out of its slot
+        return true;
+    }
+
+    /**
+     * Stop the timer thread and release every hold that is still active.
+     *
+     * @return The holds this call released; their tickets are the caller's to give back.
+     */
+    public List<TicketHold> stop() {
+        running = false;
+        LockSupport.unpark(worker);
+        boolean interrupted = false;
+        while (worker.isAlive()) {
+            try {
+                worker.join(); // The wheel is only safe to read once the timer thread is done with it
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        List<TicketHold> released = new ArrayList<>();
+        TicketHold hold;
+        while ((hold = newHolds.poll()) != null) {
+            if (hold.finish(TicketHold.State.RELEASED)) {
+                released.add(hold);
+            }
+        }
+        for (Bucket bucket : wheel) {
+            for (hold = bucket.head; hold != null; hold = hold.next) {
+                if (hold.finish(TicketHold.State.RELEASED)) {
+                    released.add(hold);
+                }
+            }
+        }
+        return released;
+    }
+
+    // The timer thread: wait for each tick, then update and expire its slot.
+    private void run() {
+        while (running) {
+            long tickEnd = (tick + 1) * tickNanos;
+            long sleep = tickEnd - (System.nanoTime() - startNanos);
+            if (sleep > 0) {
+                LockSupport.parkNanos(sleep);
+                continue; // Woken early (or by stop); check again
+            }
+            removeEndedHolds();
+            addNewHolds();
+            expire(wheel[(int) (tick & mask)]);
+            tick++;
+            afterTick.run();
+        }
+    }
+
+    // Put the new holds into their slots.
+    private void addNewHolds() {
+        for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+            TicketHold hold = newHolds.poll();
+            if (hold == null) {
+                return;
+            }
+            if (!hold.isActive()) {
+                continue; // Ended before it ever reached the wheel
+            }
+            long deadlineTick = hold.getDeadlineNanos() / tickNanos;
+            hold.remainingRounds = (deadlineTick - tick) / wheel.length;
+            long slotTick = Math.max(deadlineTick, tick); // A deadline already passed expires in this tick
+            wheel[(int) (slotTick & mask)].add(hold);
+        }
+    }
+
+    // Take the holds that ended early out of their slots.
+    private void removeEndedHolds() {
+        TicketHold hold;
+        while ((hold = endedHolds.poll()) != null) {
+            if (hold.bucket != null) {
+                hold.bucket.remove(hold);
+            }
+        }
+    }
+
+    // Expire the holds in a slot whose turns are used up; the others wait another turn.
+    private void expire(Bucket bucket) {
+        TicketHold hold = bucket.head;
+        while (hold != null) {
+            TicketHold next = hold.next;
+            if (hold.remainingRounds <= 0) {
+                bucket.remove(hold);
+                if (hold.finish(TicketHold.State.EXPIRED)) {
+                    onExpired.accept(hold);
+                }
+            } else {
+                hold.remainingRounds--;
+            }
+            hold = next;
+        }
+    }
+
+    /**
+     * One slot of the wheel: a doubly linked list of holds, used only by the timer thread.
+     */
+    static final class Bucket {
+        private TicketHold head; // The first hold in the slot
+        private TicketHold tail; // The last hold in the slot
+
+        // Add a hold at the end of the slot.
+        private void add(TicketHold hold) {
+            hold.bucket = this;
+            hold.previous = tail;
+            hold.next = null;
+            if (tail == null) {
+                head = hold;
+            } else {
+                tail.next = hold;
+            }
+            tail = hold;
+        }
+
+        // Unlink a hold from the slot.
+        private void remove(TicketHold hold) {
+            if (hold.previous == null) {
+                head = hold.next;
+            } else {
+                hold.previous.next = hold.next;
+            }
+            if (hold.next == null) {
+                tail = hold.previous;
+            } else {
+                hold.next.previous = hold.previous;
+            }
+            hold.next = null;
+            hold.previous = null;
+            hold.bucket = null;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package CLI;
+
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * A copy of the pool's state rebuilt from {@link EventJournal} records: the
+ * released and retrieved counters and the tickets still waiting in the pool.
+ *
+ * A vendor journals its batch just after adding it to the pool, so a consumer
+ * can take a ticket and journal the sale before the release is journaled.
+ * Such sales are remembered until their release arrives. Only one thread may
+ * apply records at a time.
+ */
+final class JournalReplica implements EventJournal.RecordHandler {
+    private final Set<Long> inPool = new LinkedHashSet<>();     // Released and not yet sold, in release order
+    private final Set<Long> soldBeforeRelease = new HashSet<>(); // Sold, but the release is not journaled yet
+    private long released = 0;  // RELEASE records applied
+    private long retrieved = 0; // SELL records applied
+    private long cancelled = 0; // CANCEL records applied (holds that went back to the pool)
+    private long applied = 0;   // Records applied since this replica was created
+
+    /**
+     * Create an empty replica (the state of a new run).
+     */
+    JournalReplica() {
+    }
+
+    /**
+     * Create a replica holding the state saved in a snapshot.
+     *
+     * @param snapshot The snapshot to start from.
+     */
+    JournalReplica(PoolSnapshot snapshot) {
+        released = snapshot.getReleasedTickets();
+        retrieved = snapshot.getRetrievedTickets();
+        for (long ticketId : snapshot.getTicketIds()) {
+            inPool.add(ticketId);
+        }
+        for (long ticketId : snapshot.getSoldBeforeRelease()) {
+            soldBeforeRelease.add(ticketId);
+        }
+    }
+
+    @Override
+    public void onRecord(long position, EventJournal.Operation operation, long ticketId, long timestampMillis,
+                         long actor) {
+        applied++;
+        switch (operation) {
+            case RELEASE:
+                released++;
+                if (!soldBeforeRelease.remove(ticketId)) {
+                    inPool.add(ticketId);
+                }
+                break;
+            case SELL:
+                retrieved++;
+                if (!inPool.remove(ticketId)) {
+                    soldBeforeRelease.add(ticketId);
+                }
+                break;
+            case CANCEL:
+                // A hold ended without a sale. Holds are not journaled, so the ticket never left the pool here
+                cancelled++;
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Get the number of tickets released, counting sales whose release never made it into the journal.
+     *
+     * @return The released ticket count.
+     */
+    long getReleased() {
+        return released + soldBeforeRelease.size();
+    }
+
+    // Get the number of tickets retrieved.
+    long getRetrieved() {
+        return retrieved;
+    }
+
+    // Get the number of holds journaled as given back to the pool.
+    long getCancelled() {
+        return cancelled;
+    }
+
+    // Get the number of records applied since this replica was created.
+    long getApplied() {
+        return applied;
+    }
+
+    /**
+     * Copy the IDs of the tickets waiting in the pool, in release order.
+     *
+     * @return A new array with the IDs.
+     */
+    long[] copyTicketIds() {
+        long[] ids = new long[inPool.size()];
+        int i = 0;
+        for (long ticketId : inPool) {
+            ids[i++] = ticketId;
+        }
+        return ids;
+    }
+
+    /**
+     * Capture the state as a snapshot.
+     *
+     * @param journalPosition   The journal position the state belongs to.
+     * @param configurationJson The configuration of the run, as JSON.
+     * @return The snapshot.
+     */
+    PoolSnapshot toSnapshot(long journalPosition, String configurationJson) {
+        long[] early = new long[soldBeforeRelease.size()];
+        int i = 0;
+        for (long ticketId : soldBeforeRelease) {
+            early[i++] = ticketId;
+        }
+        return new PoolSnapshot(System.currentTimeMillis(), journalPosition, released, retrieved, inPool.size(),
+                copyTicketIds(), early, configurationJson);
+    }
+}
@@ -0,0 +1,25 @@
+package CLI;
+
+/**
+ * How often the EventJournal forces its records to disk.
+ */
+public enum JournalSyncPolicy {
+    // Never force; the operating system writes the pages back when it likes. Survives a crash of this
+    // program but not of the machine.
+    NONE,
+    // A background thread forces new records every flush interval, so at most one interval is lost.
+    INTERVAL,
+    // An append returns only after its records are on disk. Appenders waiting at the same time share
+    // one force (group commit).
+    ALWAYS;
+
+    /**
+     * Convert text such as "interval" or "ALWAYS" into a JournalSyncPolicy.
+     *
+     * @param text The text to convert.
+     * @return The matching JournalSyncPolicy.
+     */
+    public static JournalSyncPolicy fromText(String text) {
+        return JournalSyncPolicy.valueOf(text.trim().toUpperCase());
+    }
+}
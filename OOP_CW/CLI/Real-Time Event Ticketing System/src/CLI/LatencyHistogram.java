@@ -0,0 +1,214 @@
+package CLI;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed-size latency histogram in the style of HdrHistogram, for recording
+ * wait times in nanoseconds from many threads at once.
+ *
+ * Values are sorted into log-linear buckets: every power of two is split into
+ * 16 equal sub-buckets, so any recorded value is known to within about 6%
+ * while the whole range from 1 ns to hundreds of years fits in under a
+ * thousand counters. Recording is one array increment, with no allocation and
+ * no lock. The counters are spread over several stripes (picked from the
+ * thread id) so threads on different cores rarely touch the same counter.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;                     // 16 sub-buckets per power of two
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;      // Sub-buckets per power of two
+    private static final int LINEAR_LIMIT = SUB_BUCKETS * 2;          // Values below this get a bucket each
+    private static final int BUCKET_COUNT = (63 - SUB_BUCKET_BITS) * SUB_BUCKETS + LINEAR_LIMIT; // Every long fits
+
+    private final AtomicLongArray[] stripes; // The bucket counters, one copy per stripe
+    private final AtomicLong max = new AtomicLong(); // The largest value recorded
+    private final LongAdder total = new LongAdder(); // The sum of all values recorded, for the mean
+
+    /**
+     * Constructor to create an empty histogram with one stripe per CPU core (rounded up to a power of two).
+     */
+    public LatencyHistogram() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        int stripeCount = 1;
+        while (stripeCount < cores) {
+            stripeCount <<= 1; // Round up to a power of two so a mask picks the stripe
+        }
+        this.stripes = new AtomicLongArray[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new AtomicLongArray(BUCKET_COUNT);
+        }
+    }
+
+    /**
+     * Record one latency value.
+     *
+     * @param nanos The latency in nanoseconds (negative values are recorded as 0).
+     */
+    public void record(long nanos) {
+        long value = Math.max(0L, nanos);
+        int stripe = (int) (Thread.currentThread().threadId() & (stripes.length - 1));
+        stripes[stripe].incrementAndGet(bucketIndex(value));
+        if (value > 0) {
+            total.add(value);
+            if (value > max.get()) {
+                max.accumulateAndGet(value, Math::max); // Only touched when a new maximum is seen
+            }
+        }
+    }
+
+    /**
+     * Read the histogram once and work out its percentiles. Recording can go on
+     * while this runs; the summary then reflects roughly the moment it was taken.
+     *
+     * @return An immutable summary of the recorded values.
+     */
+    public Summary summarize() {
+        long[] counts = new long[BUCKET_COUNT];
+        long count = 0;
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                long bucket = stripe.get(i);
+                counts[i] += bucket;
+                count += bucket;
+            }
+        }
+        long maxValue = max.get();
+        long totalValue = total.sum();
+        double mean = count == 0 ? 0.0 : (double) totalValue / count;
+        return new Summary(count, totalValue, mean,
+                valueAtPercentile(counts, count, 50.0, maxValue),
+                valueAtPercentile(counts, count, 90.0, maxValue),
+                valueAtPercentile(counts, count, 99.0, maxValue),
+                valueAtPercentile(counts, count, 99.9, maxValue),
+                maxValue);
+    }
+
+    // Find the bucket holding the value at the given percentile and report the top of that bucket.
+    private static long valueAtPercentile(long[] counts, long count, double percentile, long maxValue) {
+        if (count == 0) {
+            return 0L;
+        }
+        long rank = Math.max(1L, (long) Math.ceil(count * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(highestValueIn(i), maxValue); // Never report more than the real maximum
+            }
+        }
+        return maxValue;
+    }
+
+    // Values below LINEAR_LIMIT get their own bucket; above it, each power of two gets SUB_BUCKETS buckets.
+    static int bucketIndex(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS; // How far to drop the low bits
+        int subBucket = (int) (value >>> shift);                             // Between SUB_BUCKETS and 2 * SUB_BUCKETS - 1
+        return shift * SUB_BUCKETS + subBucket;
+    }
+
+    // The largest value that falls in the given bucket.
+    static long highestValueIn(int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long subBucket = index - shift * SUB_BUCKETS;
+        long highest = ((subBucket + 1) << shift) - 1;
+        return highest < 0 ? Long.MAX_VALUE : highest; // The very last bucket ends at the largest long
+    }
+
+    /**
+     * An immutable set of percentiles read from a LatencyHistogram. All values are in nanoseconds.
+     */
+    public static final class Summary {
+        private final long count; // Number of values recorded
+        private final long total; // Sum of all values recorded
+        private final double mean; // Average value
+        private final long p50;   // Median
+        private final long p90;   // 90th percentile
+        private final long p99;   // 99th percentile
+        private final long p999;  // 99.9th percentile
+        private final long max;   // Largest value recorded
+
+        private Summary(long count, long total, double mean, long p50, long p90, long p99, long p999, long max) {
+            this.count = count;
+            this.total = total;
+            this.mean = mean;
+            this.p50 = p50;
+            this.p90 = p90;
+            this.p99 = p99;
+            this.p999 = p999;
+            this.max = max;
+        }
+
+        // Get the number of values recorded.
+        public long getCount() {
+            return count;
+        }
+
+        // Get the sum of all values in nanoseconds (for a wait histogram, the total time spent waiting).
+        public long getTotal() {
+            return total;
+        }
+
+        // Get the average value in nanoseconds.
+        public double getMean() {
+            return mean;
+        }
+
+        // Get the median in nanoseconds.
+        public long getP50() {
+            return p50;
+        }
+
+        // Get the 90th percentile in nanoseconds.
+        public long getP90() {
+            return p90;
+        }
+
+        // Get the 99th percentile in nanoseconds.
+        public long getP99() {
+            return p99;
+        }
+
+        // Get the 99.9th percentile in nanoseconds.
+        public long getP999() {
+            return p999;
+        }
+
+        // Get the largest value recorded in nanoseconds.
+        public long getMax() {
+            return max;
+        }
+
+        /**
+         * Get the main percentiles as one line of text in readable units.
+         *
+         * @return For example "p50=12.0us p99=1.3ms p999=4.0ms max=9.8ms (n=1000)".
+         */
+        @Override
+        public String toString() {
+            if (count == 0) {
+                return "no samples";
+            }
+            return "p50=" + formatNanos(p50) + " p99=" + formatNanos(p99) + " p999=" + formatNanos(p999)
+                    + " max=" + formatNanos(max) + " (n=" + count + ")";
+        }
+
+        // Show a nanosecond value in the largest unit that keeps it above 1.
+        private static String formatNanos(long nanos) {
+            if (nanos < 1_000L) {
+                return nanos + "ns";
+            } else if (nanos < 1_000_000L) {
+                return String.format("%.1fus", nanos / 1_000.0);
+            } else if (nanos < 1_000_000_000L) {
+                return String.format("%.1fms", nanos / 1_000_000.0);
+            }
+            return String.format("%.2fs", nanos / 1_000_000_000.0);
+        }
+    }
+}
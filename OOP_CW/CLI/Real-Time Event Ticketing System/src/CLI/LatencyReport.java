@@ -0,0 +1,70 @@
+package CLI;
+
+import com.google.gson.Gson; // Library to handle JSON data.
+import com.google.gson.GsonBuilder; // Library for creating well-formatted JSON.
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.time.Instant;
+
+/**
+ * The latency results of one run: the pool counters and the put-wait,
+ * take-wait and ticket age percentiles, saved as a JSON file so runs can be
+ * compared afterwards. All latency values are in nanoseconds.
+ */
+public class LatencyReport {
+    private final String generatedAt;                // When the report was written (ISO-8601)
+    private final String units = "nanoseconds";      // The unit of every latency value below
+    private final PoolType poolType;                 // The ticket pool engine that was used
+    private final int vendorCount;                   // Number of Vendor threads
+    private final int consumerCount;                 // Number of Consumer threads
+    private final TicketPoolSnapshot counters;       // The pool counters at the end of the run
+    private final LatencyHistogram.Summary putWait;  // How long adds waited for space
+    private final LatencyHistogram.Summary takeWait; // How long takes waited for a ticket
+    private final LatencyHistogram.Summary ticketAge; // How long tickets sat in the pool
+
+    /**
+     * Constructor to read the current results of a pool.
+     *
+     * @param configuration The configuration the run used.
+     * @param ticketPool    The pool to read the counters and histograms from.
+     */
+    public LatencyReport(Configuration configuration, TicketPool ticketPool) {
+        this.generatedAt = Instant.now().toString();
+        this.poolType = configuration.getPoolType();
+        this.vendorCount = configuration.getVendorCount();
+        this.consumerCount = configuration.getConsumerCount();
+        this.counters = ticketPool.snapshot();
+        this.putWait = ticketPool.getPutWaitHistogram().summarize();
+        this.takeWait = ticketPool.getTakeWaitHistogram().summarize();
+        this.ticketAge = ticketPool.getTicketAgeHistogram().summarize();
+    }
+
+    // Get the put-wait percentiles.
+    public LatencyHistogram.Summary getPutWait() {
+        return putWait;
+    }
+
+    // Get the take-wait percentiles.
+    public LatencyHistogram.Summary getTakeWait() {
+        return takeWait;
+    }
+
+    // Get the ticket age percentiles.
+    public LatencyHistogram.Summary getTicketAge() {
+        return ticketAge;
+    }
+
+    /**
+     * Save the report as a JSON file.
+     *
+     * @param filePath The file to write (replaced if it exists).
+     * @throws IOException If the file cannot be written.
+     */
+    public void saveToJson(String filePath) throws IOException {
+        Gson gson = new GsonBuilder().setPrettyPrinting().create();
+        try (FileWriter writer = new FileWriter(filePath)) {
+            gson.toJson(this, writer); // Write the report as JSON to the file.
+        }
+    }
+}
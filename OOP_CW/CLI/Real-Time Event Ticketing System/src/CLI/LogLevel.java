@@ -0,0 +1,33 @@
+package CLI;
+
+/**
+ * How much the EventLog writes. Each level includes everything from the levels above it.
+ */
+public enum LogLevel {
+    // Write nothing at all.
+    OFF,
+    // Write lifecycle messages only (vendor finished, consumer interrupted, pool stopped).
+    INFO,
+    // Also write one line per ticket event (subject to the sample rate).
+    DEBUG;
+
+    /**
+     * Check whether a message of the given level should be written at this level.
+     *
+     * @param messageLevel The level of the message.
+     * @return True if the message should be written.
+     */
+    public boolean includes(LogLevel messageLevel) {
+        return messageLevel != OFF && messageLevel.ordinal() <= ordinal();
+    }
+
+    /**
+     * Convert text such as "debug" or "INFO" into a LogLevel.
+     *
+     * @param text The text to convert.
+     * @return The matching LogLevel.
+     */
+    public static LogLevel fromText(String text) {
+        return LogLevel.valueOf(text.trim().toUpperCase());
+    }
+}
@@ -1,10 +1,40 @@
 package CLI;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Scanner;
 
 public class Main {
 
+    // Vendor and Consumer threads started by the current run, so they can be interrupted on stop
+    private static final List<Thread> activeThreads = new ArrayList<>();
+    // The event journal of the current run (null when the configuration has no journal)
+    private static EventJournal journal;
+    // Takes pool snapshots during the current run (null when the configuration has no snapshot directory)
+    private static PoolSnapshotter snapshotter;
+    // Serves the consumer tiers of the current run (null when consumers take from the pool directly)
+    private static TicketDispatcher dispatcher;
+    // Turns consumers away under overload (null when every consumer may wait)
+    private static AdmissionController admission;
+    // How long stop waits for each thread before closing the journal
+    private static final long JOIN_MILLIS = 1_000L;
+
     public static void main(String[] args) {
+        // With arguments, run the configuration files without prompts (for scripted load tests)
+        if (args.length > 0) {
+            if (args[0].equals("--help")) {
+                HeadlessRunner.printUsage(System.out);
+                SweepRunner.printUsage(System.out);
+                return;
+            }
+            // Run a grid of configurations as parallel simulations (for capacity planning)
+            if (args[0].equals("--sweep")) {
+                System.exit(SweepRunner.run(args));
+            }
+            System.exit(HeadlessRunner.run(args));
+        }
+
         Scanner scanner = new Scanner(System.in);
 
         // Outer loop to restart the system after exiting the main menu
@@ -18,8 +48,14 @@ public class Main {
             // Show the entered configuration details to the user
             configuration.displayConfiguration();
 
+            // Send vendor, consumer and pool messages through the asynchronous event log
+            EventLog.configure(configuration);
+
             // Create a TicketPool to manage ticket-related operations
-            TicketPool ticketPool = new TicketPool(configuration.getMaximumTicketCapacity());
+            TicketPool ticketPool = TicketPool.create(configuration);
+
+            // Continue an earlier run that was cut short, from its latest snapshot and journal
+            recoverTicketPool(ticketPool, configuration);
 
             boolean running = true;
 
@@ -49,13 +85,15 @@ public class Main {
 
                     case 3:
                         // Option 3: Stop the ticketing system
-                        stopTicketingSystem(ticketPool);
+                        stopTicketingSystem(ticketPool, configuration);
                         System.out.println("Ticketing system stopped.");
                         break;
 
                     case 4:
                         // Option 4: Exit the menu and return to configuration
-                        stopTicketingSystem(ticketPool);
+                        stopTicketingSystem(ticketPool, configuration);
+                        dispatcher = null; // The next configuration gets a new pool and its own dispatcher
+                        admission = null;
                         System.out.println("Exiting the menu. Returning to the initial configuration...");
                         running = false; // Exit the inner menu loop
                         break;
@@ -76,15 +114,43 @@ public class Main {
             System.out.print("1. Enter the Total Number of Tickets: ");
             int totalTickets = getValidatedInput(scanner); // Get the total number of tickets
 
-            System.out.print("2. Enter the Ticket Release Rate (in seconds): ");
-            int ticketReleaseRate = getValidatedInput(scanner); // Get the ticket release rate
+            System.out.print("2. Enter the Ticket Release Rate (tickets per second per vendor, e.g. 0.5 or 250000): ");
+            double ticketReleaseRate = getValidatedRate(scanner); // Get the ticket release rate
 
-            System.out.print("3. Enter the Customer Retrieval Rate (in seconds): ");
-            int customerRetrievalRate = getValidatedInput(scanner); // Get the customer retrieval rate
+            System.out.print("3. Enter the Customer Retrieval Rate (tickets per second per customer): ");
+            double customerRetrievalRate = getValidatedRate(scanner); // Get the customer retrieval rate
 
             System.out.print("4. Enter the Maximum Ticket Capacity: ");
             int maxTicketCapacity = getValidatedInput(scanner); // Get the maximum number of tickets the system can hold
 
+            System.out.print("5. Enter the Number of Vendors: ");
+            int vendorCount = getValidatedInput(scanner); // Get how many vendor threads to start
+
+            System.out.print("6. Enter the Number of Customers: ");
+            int consumerCount = getValidatedInput(scanner); // Get how many consumer threads to start
+
+            System.out.print("7. Choose the Thread Mode (1 = Virtual, 2 = Platform): ");
+            int threadModeChoice = getValidatedInput(scanner); // Get the kind of thread to run on
+            if (threadModeChoice > 2) {
+                System.out.println("Error: Thread mode must be 1 (Virtual) or 2 (Platform).");
+                return promptForConfiguration(scanner); // Retry configuration
+            }
+            ThreadMode threadMode = threadModeChoice == 1 ? ThreadMode.VIRTUAL : ThreadMode.PLATFORM;
+
+            System.out.print("8. Choose the Pool Engine (1 = Queue, 2 = Ring Buffer, 3 = Sharded): ");
+            int poolTypeChoice = getValidatedInput(scanner); // Get the ticket pool engine
+            if (poolTypeChoice > PoolType.values().length) {
+                System.out.println("Error: Pool engine must be one of the listed options.");
+                return promptForConfiguration(scanner); // Retry configuration
+            }
+            PoolType poolType = PoolType.values()[poolTypeChoice - 1];
+
+            System.out.print("9. Enter the Vendor Release Batch Size: ");
+            int vendorBatchSize = getValidatedInput(scanner); // Get how many tickets a vendor releases at once
+
+            System.out.print("10. Enter the Customer Purchase Batch Size: ");
+            int consumerBatchSize = getValidatedInput(scanner); // Get how many tickets a customer buys at once
+
             // Error handling to check if total tickets exceed the maximum capacity
             if (totalTickets > maxTicketCapacity) {
                 System.out.println("Error: Total tickets cannot exceed maximum ticket capacity.");
@@ -97,6 +163,12 @@ public class Main {
                     .setTicketReleaseRate(ticketReleaseRate)
                     .setCustomerRetrievalRate(customerRetrievalRate)
                     .setMaximumTicketCapacity(maxTicketCapacity)
+                    .setVendorCount(vendorCount)
+                    .setConsumerCount(consumerCount)
+                    .setThreadMode(threadMode)
+                    .setPoolType(poolType)
+                    .setVendorBatchSize(vendorBatchSize)
+                    .setConsumerBatchSize(consumerBatchSize)
                     .build();
         } catch (Exception e) {
             // Handle invalid inputs and retry
@@ -127,35 +199,200 @@ public class Main {
     }
 
     /**
-     * Starts the ticketing system by initializing and running threads.
+     * Ensures the user enters a positive rate (a whole or decimal number of tickets per second).
+     */
+    private static double getValidatedRate(Scanner scanner) {
+        while (true) {
+            try {
+                String input = scanner.nextLine().trim(); // Read user input and remove extra spaces
+                double rate = Double.parseDouble(input);  // Convert the input to a decimal number
+                if (!(rate > 0) || rate > Configuration.MAX_RATE) {
+                    throw new NumberFormatException("Rate out of range."); // Ensure a usable rate
+                }
+                return rate; // Return the valid rate
+            } catch (NumberFormatException e) {
+                // If the input is not valid, ask the user to try again
+                System.out.println("Invalid input. Please enter a positive number of tickets per second (at most "
+                        + (long) Configuration.MAX_RATE + ").");
+                System.out.print("Try again: ");
+            }
+        }
+    }
+
+    /**
+     * Starts the ticketing system by starting the configured number of vendor and consumer threads.
      */
     private static void startTicketingSystem(TicketPool ticketPool, Configuration configuration) {
-        // Create and start a thread for ticket vending
-        Thread vendorThread = new Thread(new Vendor(ticketPool, configuration), "Vendor");
+        ThreadMode threadMode = configuration.getThreadMode();
 
-        // Create and start a thread for ticket consuming
-        Thread consumerThread = new Thread(new Consumer(ticketPool), "Consumer");
+        // Open the event journal first, so every release and purchase is recorded
+        if (journal == null) {
+            try {
+                journal = EventJournal.open(configuration);
+            } catch (IOException e) {
+                System.out.println("Error opening event journal: " + e.getMessage());
+                return;
+            }
+        }
+        ticketPool.setJournal(journal); // Holds that end unsold are journaled as CANCEL (null = no journal)
+        if (snapshotter != null) {
+            snapshotter.start(ticketPool, journal); // Does nothing if snapshots are already being taken
+        }
 
-        vendorThread.start(); // Start the vendor thread
-        consumerThread.start(); // Start the consumer thread
+        // Create and start one thread per vendor
+        Thread.Builder vendorThreads = threadMode.newThreadBuilder("Vendor");
+        for (int i = 0; i < configuration.getVendorCount(); i++) {
+            activeThreads.add(vendorThreads.start(new Vendor(ticketPool, configuration, journal)));
+        }
+
+        // Create and start one thread per consumer, tier by tier
+        if (dispatcher == null) {
+            dispatcher = TicketDispatcher.create(ticketPool, configuration); // null = no tiers to serve
+        }
+        if (admission == null) {
+            admission = AdmissionController.create(configuration); // null = no admission limits
+        }
+        List<ConsumerTier> tiers = configuration.getTiers();
+        for (int tier = 0; tier < tiers.size(); tier++) {
+            Thread.Builder consumerThreads = threadMode.newThreadBuilder("Consumer-" + tiers.get(tier).getName());
+            for (int i = 0; i < tiers.get(tier).getConsumers(); i++) {
+                activeThreads.add(consumerThreads.start(new Consumer(ticketPool, configuration,
+                        new Consumer.Options().setJournal(journal).setTier(dispatcher, tier).setAdmission(admission))));
+            }
+        }
 
-        System.out.println("Ticketing system started.");
+        System.out.println("Ticketing system started with " + configuration.getVendorCount() + " vendor(s) and "
+                + configuration.getConsumerCount() + " consumer(s) on " + threadMode + " threads.");
     }
 
     /**
      * Displays the current status of the ticketing system.
      */
     private static void displaySystemStatus(TicketPool ticketPool) {
+        EventLog.flush(); // Write out pending ticket messages first so they do not interleave with the status
+        TicketPoolSnapshot status = ticketPool.snapshot(); // Read every counter once, without stalling the threads
         System.out.println("\n--- System Status ---");
-        System.out.println("Tickets Released: " + ticketPool.getTotalAddedTickets()); // Show the number of released tickets
-        System.out.println("Tickets in Pool: " + ticketPool.getCurrentTicketCount()); // Show the current tickets in the system
-        System.out.println("Tickets Retrieved: " + ticketPool.getTotalRetrievedTickets()); // Show the number of retrieved tickets
+        System.out.println("Tickets Released: " + status.getReleased()); // Show the number of released tickets
+        System.out.println("Tickets in Pool: " + status.getTicketsInPool() + " / " + status.getMaxCapacity()); // Show the current tickets in the system
+        System.out.println("Tickets Retrieved: " + status.getRetrieved()); // Show the number of retrieved tickets
+        System.out.println("Vendor Waits (pool full): " + status.getBlockedPuts()); // Adds that had to wait for space
+        System.out.println("Rejected Offers (pool full): " + status.getRejected()); // Offers that were refused or timed out
+        System.out.println("Empty Takes (timed out): " + status.getTimedOut()); // Takes that found the pool empty
+        if (status.getHeld() > 0 || status.getExpiredHolds() > 0) {
+            System.out.println("Tickets on Hold: " + status.getHeld() + " (expired holds: " + status.getExpiredHolds() + ")");
+        }
+        if (ticketPool.isTrackingLatency()) {
+            // Percentiles of the time vendors waited for space, consumers waited for tickets and tickets sat in the pool
+            System.out.println("Vendor Wait: " + ticketPool.getPutWaitHistogram().summarize());
+            System.out.println("Customer Wait: " + ticketPool.getTakeWaitHistogram().summarize());
+            System.out.println("Ticket Age in Pool: " + ticketPool.getTicketAgeHistogram().summarize());
+        }
+        if (dispatcher != null) {
+            // Tickets and waits of every consumer tier, in priority order
+            List<ConsumerTier> tiers = dispatcher.getTiers();
+            for (int tier = 0; tier < tiers.size(); tier++) {
+                System.out.println("Tier " + tiers.get(tier).getName() + " (" + dispatcher.getPolicy() + "): "
+                        + dispatcher.getServedTickets(tier) + " tickets, wait " + dispatcher.getWaitHistogram(tier).summarize());
+            }
+        }
+        if (admission != null) {
+            // Consumers let through, turned away at the waiter limit and shed because waits reached the SLO
+            System.out.println("Admission: " + admission.getAdmitted() + " admitted, " + admission.getWaiters()
+                    + " waiting now, " + admission.getRejected() + " rejected (too many waiting), "
+                    + admission.getShed() + " shed (wait SLO)");
+        }
+        if (EventLog.getDroppedEvents() > 0) {
+            System.out.println("Log Messages Dropped: " + EventLog.getDroppedEvents()); // The log could not keep up
+        }
     }
 
     /**
      * Stops all ticketing system activities.
      */
-    private static void stopTicketingSystem(TicketPool ticketPool) {
+    private static void stopTicketingSystem(TicketPool ticketPool, Configuration configuration) {
         ticketPool.stop(); // Call the stop method to halt operations
+        if (dispatcher != null) {
+            dispatcher.stop(); // Waiting consumers give up and see that the pool has stopped
+        }
+
+        // Wake up vendors and consumers that are blocked on the pool or sleeping
+        for (Thread thread : activeThreads) {
+            thread.interrupt();
+        }
+        closeJournal();
+        closeSnapshotter();
+        activeThreads.clear();
+        EventLog.flush(); // Write out the messages logged so far
+        saveLatencyReport(ticketPool, configuration);
+    }
+
+    /**
+     * Loads the latest pool snapshot, replays the journal after it and puts the result into the new pool.
+     */
+    private static void recoverTicketPool(TicketPool ticketPool, Configuration configuration) {
+        try {
+            snapshotter = PoolSnapshotter.open(configuration, true);
+            if (snapshotter != null) {
+                snapshotter.restoreInto(ticketPool);
+                System.out.println(snapshotter.describeRecovery());
+            }
+        } catch (IOException | IllegalStateException e) {
+            System.out.println("Error recovering the earlier run: " + e.getMessage());
+            snapshotter = null;
+        }
+    }
+
+    /**
+     * Writes a last pool snapshot and stops taking snapshots.
+     */
+    private static void closeSnapshotter() {
+        if (snapshotter == null) {
+            return;
+        }
+        try {
+            snapshotter.close();
+            System.out.println("Pool snapshot saved to " + snapshotter.getDirectory());
+        } catch (IOException e) {
+            System.out.println("Error saving pool snapshot: " + e.getMessage());
+        }
+        snapshotter = null;
+    }
+
+    /**
+     * Waits for the stopped threads to finish their last append, then closes the event journal.
+     * The journal itself also waits for appends still running and refuses any that start later.
+     */
+    private static void closeJournal() {
+        if (journal == null) {
+            return;
+        }
+        try {
+            for (Thread thread : activeThreads) {
+                thread.join(JOIN_MILLIS);
+            }
+            journal.close(); // Forces the last records to disk (unless the sync policy is NONE)
+            System.out.println("Event journal closed at position " + journal.getPosition());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            System.out.println("Error closing event journal: " + e.getMessage());
+        }
+        journal = null;
+    }
+
+    /**
+     * Saves the latency percentiles of the run to the configured report file, if there is one.
+     */
+    private static void saveLatencyReport(TicketPool ticketPool, Configuration configuration) {
+        String reportFile = configuration.getLatencyReportFile();
+        if (!ticketPool.isTrackingLatency() || reportFile.isEmpty()) {
+            return; // Nothing was measured, or no report was asked for
+        }
+        try {
+            new LatencyReport(configuration, ticketPool).saveToJson(reportFile);
+            System.out.println("Latency report saved to " + reportFile);
+        } catch (IOException e) {
+            System.out.println("Error saving latency report: " + e.getMessage());
+        }
     }
 }
@@ -0,0 +1,339 @@
+package CLI;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A bounded, lock-free ring buffer of ticket ids that many producers and many
+ * consumers can use at the same time (the array-based MPMC queue design by
+ * Dmitry Vyukov).
+ *
+ * Every slot has a sequence number that says whose turn it is. A producer claims
+ * a slot by moving the tail forward with a compare-and-set, writes the value and
+ * then publishes the slot by updating its sequence. Consumers do the same with the
+ * head. The values are stored as primitive longs in slots that are allocated once,
+ * so moving a ticket id through the buffer never allocates memory.
+ *
+ * A buffer created with an age histogram also stores the time each value was
+ * added (in a second array written before the slot is published) and records
+ * how long the value waited when it is removed. Batches read the clock once.
+ */
+public class MpmcRingBuffer {
+    /** Returned by {@link #poll()} when the buffer is empty (ticket ids are never negative). */
+    public static final long EMPTY = -1L;
+
+    private final int capacity;             // The number of slots in the buffer
+    private final long[] values;            // The stored ticket ids, one per slot
+    private final long[] addedAt;           // When each value was added (System.nanoTime), or null
+    private final LatencyHistogram ages;    // Where the waiting time of removed values goes, or null
+    private final AtomicLongArray sequences; // The turn number of each slot
+    private final PaddedCounter tail = new PaddedCounter(); // Next position a producer will claim
+    private final PaddedCounter head = new PaddedCounter(); // Next position a consumer will claim
+
+    /**
+     * Constructor to create a ring buffer with a fixed number of slots.
+     *
+     * @param capacity The maximum number of values the buffer can hold.
+     */
+    public MpmcRingBuffer(int capacity) {
+        this(capacity, null);
+    }
+
+    /**
+     * Constructor to create a ring buffer that measures how long each value waits in it.
+     *
+     * @param capacity The maximum number of values the buffer can hold.
+     * @param ages     The histogram that receives each removed value's age, or null to not measure.
+     */
+    public MpmcRingBuffer(int capacity, LatencyHistogram ages) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Ring buffer capacity must be greater than zero.");
+        }
+        this.capacity = capacity;
+        this.values = new long[capacity];
+        this.ages = ages;
+        this.addedAt = ages != null ? new long[capacity] : null;
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i); // Slot i is first free for the producer at position i
+        }
+    }
+
+    /**
+     * Try to add a value without waiting.
+     *
+     * @param value The value to add (must not be negative).
+     * @return True if the value was added, false if the buffer is full.
+     */
+    public boolean offer(long value) {
+        checkValue(value);
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position % capacity);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                // The slot is free for this position, try to claim it
+                if (tail.compareAndSet(position, position + 1)) {
+                    values[index] = value;
+                    if (addedAt != null) {
+                        addedAt[index] = System.nanoTime();
+                    }
+                    sequences.lazySet(index, position + 1); // Publish the value to consumers
+                    return true;
+                }
+                position = tail.get(); // Another producer claimed it first, try again
+            } else if (difference < 0) {
+                return false; // The slot still holds a value from the previous lap, so the buffer is full
+            } else {
+                position = tail.get(); // Another producer moved ahead, reload the tail
+            }
+        }
+    }
+
+    /**
+     * Try to remove a value without waiting.
+     *
+     * @return The removed value, or {@link #EMPTY} if the buffer is empty.
+     */
+    public long poll() {
+        long position = head.get();
+        while (true) {
+            int index = (int) (position % capacity);
+            long difference = sequences.get(index) - (position + 1);
+            if (difference == 0) {
+                // The slot holds a published value for this position, try to claim it
+                if (head.compareAndSet(position, position + 1)) {
+                    long value = values[index];
+                    if (ages != null) {
+                        ages.record(System.nanoTime() - addedAt[index]); // Read before the slot is freed
+                    }
+                    sequences.lazySet(index, position + capacity); // Free the slot for the next lap
+                    return value;
+                }
+                position = head.get(); // Another consumer claimed it first, try again
+            } else if (difference < 0) {
+                return EMPTY; // Nothing has been published at this position yet, so the buffer is empty
+            } else {
+                position = head.get(); // Another consumer moved ahead, reload the head
+            }
+        }
+    }
+
+    /**
+     * Try to add several values with a single claim of the tail. As many
+     * consecutive free slots as are available (up to the number of values
+     * offered) are claimed with one compare-and-set and then filled.
+     *
+     * @param batch The values to add (none may be negative).
+     * @param from  The index of the first value to add.
+     * @param to    The index after the last value to add.
+     * @return The number of values added, starting at {@code from} (0 if the buffer is full).
+     */
+    public int offerBatch(long[] batch, int from, int to) {
+        int wanted = to - from;
+        if (wanted <= 0) {
+            return 0;
+        }
+        for (int i = from; i < to; i++) {
+            checkValue(batch[i]);
+        }
+        long position = tail.get();
+        while (true) {
+            // Count the free slots in a row starting at the tail
+            int free = 0;
+            while (free < wanted && free < capacity) {
+                long slot = position + free;
+                if (sequences.get((int) (slot % capacity)) != slot) {
+                    break;
+                }
+                free++;
+            }
+            if (free == 0) {
+                long difference = sequences.get((int) (position % capacity)) - position;
+                if (difference < 0) {
+                    return 0; // The buffer is full
+                }
+                position = tail.get(); // Another producer moved ahead, reload the tail
+                continue;
+            }
+            // Claim all the free slots at once
+            if (tail.compareAndSet(position, position + free)) {
+                long now = addedAt != null ? System.nanoTime() : 0L; // One clock read for the whole run
+                for (int i = 0; i < free; i++) {
+                    long slot = position + i;
+                    int index = (int) (slot % capacity);
+                    values[index] = batch[from + i];
+                    if (addedAt != null) {
+                        addedAt[index] = now;
+                    }
+                    sequences.lazySet(index, slot + 1); // Publish the value to consumers
+                }
+                return free;
+            }
+            position = tail.get(); // Another producer claimed first, try again
+        }
+    }
+
+    /**
+     * Remove up to {@code maxValues} values with a single claim of the head and
+     * copy them into the target array.
+     *
+     * @param target    The array that receives the removed values.
+     * @param offset    The index in the target array to start writing at.
+     * @param maxValues The maximum number of values to remove.
+     * @return The number of values removed (0 if the buffer is empty).
+     */
+    public int drainTo(long[] target, int offset, int maxValues) {
+        if (maxValues <= 0) {
+            return 0;
+        }
+        long position = head.get();
+        while (true) {
+            // Count the published slots in a row starting at the head
+            int ready = 0;
+            while (ready < maxValues && ready < capacity) {
+                long slot = position + ready;
+                if (sequences.get((int) (slot % capacity)) != slot + 1) {
+                    break;
+                }
+                ready++;
+            }
+            if (ready == 0) {
+                long difference = sequences.get((int) (position % capacity)) - (position + 1);
+                if (difference < 0) {
+                    return 0; // The buffer is empty
+                }
+                position = head.get(); // Another consumer moved ahead, reload the head
+                continue;
+            }
+            // Claim all the published slots at once
+            if (head.compareAndSet(position, position + ready)) {
+                long now = ages != null ? System.nanoTime() : 0L; // One clock read for the whole run
+                for (int i = 0; i < ready; i++) {
+                    long slot = position + i;
+                    int index = (int) (slot % capacity);
+                    target[offset + i] = values[index];
+                    if (ages != null) {
+                        ages.record(now - addedAt[index]); // Read before the slot is freed
+                    }
+                    sequences.lazySet(index, slot + capacity); // Free the slot for the next lap
+                }
+                return ready;
+            }
+            position = head.get(); // Another consumer claimed first, try again
+        }
+    }
+
+    /**
+     * Copy up to {@code maxValues} of the values in the buffer, oldest first,
+     * without removing them. Producers and consumers are never blocked: a value
+     * is copied only if its slot still holds it after the copy, so the result
+     * never contains a value that was not in the buffer, but values added or
+     * removed during the copy may be missing.
+     *
+     * @param target    The array that receives the values.
+     * @param offset    The index in the target array to start writing at.
+     * @param maxValues The maximum number of values to copy.
+     * @return The number of values copied.
+     */
+    public int copyTo(long[] target, int offset, int maxValues) {
+        int copied = 0;
+        long position = head.get();
+        for (int i = 0; i < capacity && copied < maxValues; i++, position++) {
+            int index = (int) (position % capacity);
+            long sequence = sequences.get(index);
+            if (sequence < position + 1) {
+                break; // Nothing published here yet: the rest of the buffer is empty
+            }
+            if (sequence != position + 1) {
+                continue; // Already taken by a consumer during the copy
+            }
+            long value = values[index];
+            if (sequences.get(index) == position + 1) { // Still the same value after reading it
+                target[offset + copied++] = value;
+            }
+        }
+        return copied;
+    }
+
+    /**
+     * Get the number of values currently in the buffer. The value is exact
+     * when the buffer is idle and a close estimate while it is being used.
+     *
+     * @return The number of values in the buffer.
+     */
+    public int size() {
+        while (true) {
+            long headBefore = head.get();
+            long currentTail = tail.get();
+            long headAfter = head.get();
+            if (headBefore == headAfter) {
+                long size = currentTail - headAfter;
+                return (int) Math.max(0, Math.min(size, capacity));
+            }
+        }
+    }
+
+    /**
+     * Get the maximum number of values the buffer can hold.
+     *
+     * @return The capacity of the buffer.
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    // Negative values are reserved so EMPTY can never be confused with a real ticket id.
+    private static void checkValue(long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Ring buffer values must not be negative.");
+        }
+    }
+
+    // Padding before the counter value. The JVM lays out a superclass's fields
+    // before its subclass's, so the three classes below give the order
+    // padding, value, padding and nothing else can share the value's cache line.
+    @SuppressWarnings("unused")
+    private static class CounterPaddingBefore {
+        private long p1, p2, p3, p4, p5, p6, p7; // Padding only, never read
+    }
+
+    // The counter value itself, between the two blocks of padding.
+    private static class CounterValue extends CounterPaddingBefore {
+        protected volatile long value;
+    }
+
+    // Padding after the counter value.
+    @SuppressWarnings("unused")
+    private static class CounterPaddingAfter extends CounterValue {
+        private long p9, p10, p11, p12, p13, p14, p15; // Padding only, never read
+    }
+
+    /**
+     * A counter padded on both sides to fill its own cache line, so the head
+     * and tail counters do not slow each other down or get slowed down by the
+     * objects next to them (false sharing).
+     */
+    private static final class PaddedCounter extends CounterPaddingAfter {
+        private static final VarHandle VALUE;
+
+        static {
+            try {
+                VALUE = MethodHandles.lookup().findVarHandle(CounterValue.class, "value", long.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        // Read the current value.
+        long get() {
+            return value;
+        }
+
+        // Set the value to update if it is still expected; returns true on success.
+        boolean compareAndSet(long expected, long update) {
+            return VALUE.compareAndSet(this, expected, update);
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package CLI;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * A compact binary copy of a ticket pool's state at one moment: the counters,
+ * the IDs of the tickets waiting in the pool and the configuration of the run.
+ *
+ * When the run has an {@link EventJournal}, the snapshot also holds the journal
+ * position it was taken at, so recovery only has to replay the records after
+ * it. Without a journal the ticket IDs are copied from the running pool, so
+ * they may be a few tickets off the counters.
+ *
+ * A snapshot is written to a temporary file, forced to disk and then renamed,
+ * so a crash while writing never leaves a half-written snapshot behind. A
+ * CRC-32C check value at the end of the file catches damaged files, and the
+ * newest few snapshots are kept so an older one can be used if needed.
+ */
+public final class PoolSnapshot {
+    private static final int MAGIC = 0x544B5331; // "TKS1" at the start of every snapshot file
+    private static final int VERSION = 1;        // The file layout version
+    private static final int KEEP_SNAPSHOTS = 3; // How many snapshot files are kept in the folder
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".tks";
+
+    private final long createdMillis;      // When the snapshot was taken (epoch milliseconds)
+    private final long journalPosition;    // The journal position the state belongs to (-1 without a journal)
+    private final long releasedTickets;    // Tickets released so far
+    private final long retrievedTickets;   // Tickets retrieved so far
+    private final long ticketsInPool;      // Tickets waiting in the pool
+    private final long[] ticketIds;        // The IDs of those tickets in release order
+    private final long[] soldBeforeRelease; // Tickets whose sale was journaled before their release
+    private final String configurationJson; // The configuration of the run, as JSON
+
+    /**
+     * Constructor to create a snapshot.
+     *
+     * @param createdMillis     When the snapshot was taken (epoch milliseconds).
+     * @param journalPosition   The journal position the state belongs to (-1 without a journal).
+     * @param releasedTickets   Tickets released so far.
+     * @param retrievedTickets  Tickets retrieved so far.
+     * @param ticketsInPool     Tickets waiting in the pool.
+     * @param ticketIds         The IDs of the tickets in the pool.
+     * @param soldBeforeRelease Tickets whose sale was journaled before their release.
+     * @param configurationJson The configuration of the run, as JSON.
+     */
+    public PoolSnapshot(long createdMillis, long journalPosition, long releasedTickets, long retrievedTickets,
+                        long ticketsInPool, long[] ticketIds, long[] soldBeforeRelease, String configurationJson) {
+        this.createdMillis = createdMillis;
+        this.journalPosition = journalPosition;
+        this.releasedTickets = releasedTickets;
+        this.retrievedTickets = retrievedTickets;
+        this.ticketsInPool = ticketsInPool;
+        this.ticketIds = ticketIds;
+        this.soldBeforeRelease = soldBeforeRelease;
+        this.configurationJson = configurationJson;
+    }
+
+    // Get when the snapshot was taken (epoch milliseconds).
+    public long getCreatedMillis() {
+        return createdMillis;
+    }
+
+    // Get the journal position the state belongs to (-1 if the snapshot was taken without a journal).
+    public long getJournalPosition() {
+        return journalPosition;
+    }
+
+    // Get the number of tickets released so far.
+    public long getReleasedTickets() {
+        return releasedTickets;
+    }
+
+    // Get the number of tickets retrieved so far.
+    public long getRetrievedTickets() {
+        return retrievedTickets;
+    }
+
+    // Get the number of tickets waiting in the pool.
+    public long getTicketsInPool() {
+        return ticketsInPool;
+    }
+
+    // Get the IDs of the tickets waiting in the pool, in release order.
+    public long[] getTicketIds() {
+        return ticketIds;
+    }
+
+    // Get the tickets whose sale was journaled before their release.
+    public long[] getSoldBeforeRelease() {
+        return soldBeforeRelease;
+    }
+
+    // Get the configuration of the run, as JSON.
+    public String getConfigurationJson() {
+        return configurationJson;
+    }
+
+    /**
+     * Write the snapshot as a new file in a folder and delete the oldest files beyond the few kept.
+     *
+     * @param directory The snapshot folder (created if missing).
+     * @return The file written.
+     * @throws IOException If the file cannot be written.
+     */
+    public Path writeTo(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        List<Path> existing = listSnapshots(directory);
+        long number = createdMillis;
+        if (!existing.isEmpty()) {
+            number = Math.max(number, numberOf(existing.get(existing.size() - 1)) + 1); // Names always increase
+        }
+        Path file = directory.resolve(String.format(PREFIX + "%020d" + SUFFIX, number));
+        Path temporary = directory.resolve(file.getFileName() + ".tmp");
+
+        CRC32C checksum = new CRC32C();
+        try (FileOutputStream fileStream = new FileOutputStream(temporary.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                     new CheckedOutputStream(fileStream, checksum), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(createdMillis);
+            out.writeLong(journalPosition);
+            out.writeLong(releasedTickets);
+            out.writeLong(retrievedTickets);
+            out.writeLong(ticketsInPool);
+            writeIds(out, ticketIds);
+            writeIds(out, soldBeforeRelease);
+            byte[] configuration = configurationJson.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(configuration.length);
+            out.write(configuration);
+            out.flush(); // Everything so far goes into the check value
+            out.writeInt((int) checksum.getValue());
+            out.flush();
+            fileStream.getFD().sync(); // On disk before the rename makes it visible
+        }
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE);
+
+        existing.add(file);
+        for (int i = 0; i < existing.size() - KEEP_SNAPSHOTS; i++) {
+            Files.deleteIfExists(existing.get(i));
+        }
+        return file;
+    }
+
+    /**
+     * Read the newest undamaged snapshot in a folder.
+     *
+     * @param directory The snapshot folder.
+     * @return The newest snapshot that passes its checks, or null if there is none.
+     * @throws IOException If the folder cannot be listed.
+     */
+    public static PoolSnapshot readLatest(Path directory) throws IOException {
+        List<Path> snapshots = listSnapshots(directory);
+        for (int i = snapshots.size() - 1; i >= 0; i--) {
+            try {
+                return readFrom(snapshots.get(i));
+            } catch (IOException e) {
+                System.err.println("Skipping snapshot " + snapshots.get(i).getFileName() + ": " + e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Read one snapshot file.
+     *
+     * @param file The snapshot file.
+     * @return The snapshot.
+     * @throws IOException If the file cannot be read, is not a snapshot or fails its check value.
+     */
+    public static PoolSnapshot readFrom(Path file) throws IOException {
+        long maxIds = Files.size(file) / Long.BYTES; // No ID count can be larger than the file allows
+        CRC32C checksum = new CRC32C();
+        try (InputStream fileStream = Files.newInputStream(file);
+             DataInputStream in = new DataInputStream(new CheckedInputStream(
+                     new BufferedInputStream(fileStream, 1 << 16), checksum))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("not a snapshot file of this version");
+            }
+            long createdMillis = in.readLong();
+            long journalPosition = in.readLong();
+            long released = in.readLong();
+            long retrieved = in.readLong();
+            long inPool = in.readLong();
+            long[] ticketIds = readIds(in, maxIds);
+            long[] soldBeforeRelease = readIds(in, maxIds);
+            int configurationLength = in.readInt();
+            if (configurationLength < 0 || configurationLength > (1 << 20)) {
+                throw new IOException("damaged configuration length");
+            }
+            String configurationJson = new String(in.readNBytes(configurationLength), StandardCharsets.UTF_8);
+            int expected = (int) checksum.getValue(); // Before the stored value itself is read
+            if (in.readInt() != expected) {
+                throw new IOException("check value does not match");
+            }
+            return new PoolSnapshot(createdMillis, journalPosition, released, retrieved, inPool,
+                    ticketIds, soldBeforeRelease, configurationJson);
+        }
+    }
+
+    // Write a count followed by the IDs.
+    private static void writeIds(DataOutputStream out, long[] ids) throws IOException {
+        out.writeInt(ids.length);
+        for (long id : ids) {
+            out.writeLong(id);
+        }
+    }
+
+    // Read a count followed by the IDs, refusing a count the file is too short for before allocating anything.
+    private static long[] readIds(DataInputStream in, long maxIds) throws IOException {
+        int count = in.readInt();
+        if (count < 0 || count > maxIds) {
+            throw new IOException("damaged ticket count");
+        }
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = in.readLong();
+        }
+        return ids;
+    }
+
+    // The snapshot files in a folder, oldest first.
+    private static List<Path> listSnapshots(Path directory) throws IOException {
+        List<Path> snapshots = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return snapshots;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> file.getFileName().toString().matches(PREFIX + "\\d{20}\\" + SUFFIX))
+                    .forEach(snapshots::add);
+        }
+        snapshots.sort(null);
+        return snapshots;
+    }
+
+    // The number in a snapshot file name.
+    private static long numberOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+}
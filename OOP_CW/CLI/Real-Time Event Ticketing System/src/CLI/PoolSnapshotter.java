@@ -0,0 +1,244 @@
+package CLI;
+
+import com.google.gson.Gson; // Library to handle JSON data.
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Takes periodic {@link PoolSnapshot}s of a ticket pool and recovers the pool
+ * from the newest one after a restart.
+ *
+ * With an {@link EventJournal}, a background thread follows the journal and
+ * keeps a {@link JournalReplica} of the pool, so every snapshot matches one
+ * journal position exactly and the vendors and consumers are never paused
+ * for it. Recovery loads the newest snapshot and replays only the journal
+ * records after its position, so a restart takes time in proportion to the
+ * records since the last snapshot, not to the whole sale.
+ *
+ * Without a journal the thread saves the pool's counters and copies the IDs of
+ * the tickets waiting in it, without pausing anyone. Recovery puts back the
+ * counters and those tickets; if the copy found fewer tickets than the
+ * counters say are unsold (for example tickets on hold), new IDs make up the
+ * difference. What happened since the last snapshot is lost.
+ *
+ * A ticket sold just before a crash whose sale had not reached the journal yet
+ * is put back into the pool, so after a crash a ticket may be sold twice but
+ * never lost.
+ */
+public final class PoolSnapshotter implements AutoCloseable {
+    private final Path directory;            // The snapshot folder
+    private final long intervalNanos;        // How often a snapshot is taken
+    private final String configurationJson;  // The configuration saved with every snapshot
+    private final JournalReplica replica;    // The pool state rebuilt from the journal
+    private final PoolSnapshot recovered;    // The snapshot recovery started from (null if none)
+    private final long recoveryNanos;        // How long recovery took
+    private long position;                   // The journal position the replica has reached (-1 = unknown)
+    private long replayedRecords;            // Journal records replayed during recovery
+    private TicketPool pool;                 // The pool being snapshotted (set by start)
+    private EventJournal journal;            // The journal being followed (null without one)
+    private Thread worker;                   // The background snapshot thread
+    private volatile boolean closed = false; // Set by close()
+    private long snapshotsWritten = 0;       // Snapshots written by this snapshotter
+
+    private PoolSnapshotter(Configuration configuration, boolean recover) throws IOException {
+        this.directory = Paths.get(configuration.getSnapshotDirectory());
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(configuration.getSnapshotInterval());
+        this.configurationJson = new Gson().toJson(configuration);
+        long started = System.nanoTime();
+        PoolSnapshot latest = recover ? PoolSnapshot.readLatest(directory) : null;
+        this.recovered = latest;
+        this.replica = latest != null ? new JournalReplica(latest) : new JournalReplica();
+        this.position = -1;
+        boolean journaledSnapshot = latest == null || latest.getJournalPosition() >= 0;
+        if (recover && journaledSnapshot && !configuration.getJournalDirectory().isEmpty()) {
+            // Replay only the journal records written after the snapshot
+            long from = latest != null ? latest.getJournalPosition() : 0;
+            EventJournal.Reader reader = new EventJournal.Reader(configuration.getJournalDirectory());
+            this.position = reader.replay(from, replica);
+            this.replayedRecords = replica.getApplied();
+            reader.close();
+        }
+        this.recoveryNanos = System.nanoTime() - started;
+    }
+
+    /**
+     * Open the snapshotter set in a Configuration.
+     *
+     * @param configuration The configuration to read the snapshot and journal settings from.
+     * @param recover       True to load the newest snapshot and replay the journal after it,
+     *                      false to start a new run.
+     * @return The snapshotter, or null if the configuration has no snapshot directory.
+     * @throws IOException If the snapshot folder or the journal cannot be read.
+     */
+    public static PoolSnapshotter open(Configuration configuration, boolean recover) throws IOException {
+        if (configuration.getSnapshotDirectory().isEmpty()) {
+            return null;
+        }
+        return new PoolSnapshotter(configuration, recover);
+    }
+
+    /**
+     * Check whether there was anything to recover.
+     *
+     * @return True if a snapshot was found or journal records were replayed.
+     */
+    public boolean hasRecoveredState() {
+        return recovered != null || replayedRecords > 0;
+    }
+
+    /**
+     * Put the recovered state into a new pool. Call before the vendors and consumers start.
+     *
+     * @param ticketPool The new pool.
+     */
+    public void restoreInto(TicketPool ticketPool) {
+        if (!hasRecoveredState()) {
+            return;
+        }
+        if (position >= 0 || recovered.getJournalPosition() >= 0) {
+            long[] ticketIds = replica.copyTicketIds(); // The real IDs are known
+            ticketPool.restore(replica.getReleased(), replica.getRetrieved(), ticketIds, ticketIds.length);
+        } else {
+            // Without a journal: the saved IDs, topped up with new IDs for unsold tickets the copy missed
+            long inPool = Math.max(0, recovered.getReleasedTickets() - recovered.getRetrievedTickets());
+            long[] ticketIds = new long[(int) inPool]; // More than fit wait outside the pool (see TicketPool.restore)
+            long[] saved = recovered.getTicketIds();
+            int kept = Math.min(saved.length, ticketIds.length);
+            System.arraycopy(saved, 0, ticketIds, 0, kept);
+            TicketIdGenerator.Sequence sequence = TicketIdGenerator.global().newSequence();
+            for (int i = kept; i < ticketIds.length; i++) {
+                ticketIds[i] = sequence.next();
+            }
+            ticketPool.restore(recovered.getReleasedTickets(), recovered.getRetrievedTickets(),
+                    ticketIds, ticketIds.length);
+        }
+    }
+
+    /**
+     * Describe what was recovered, for the console.
+     *
+     * @return One line describing the recovery.
+     */
+    public String describeRecovery() {
+        if (!hasRecoveredState()) {
+            return "No earlier state found in " + directory + "; starting a new run.";
+        }
+        String source = recovered != null
+                ? "snapshot at position " + recovered.getJournalPosition()
+                : "the start of the journal";
+        if (position < 0 && recovered.getJournalPosition() < 0) {
+            return "Recovered " + recovered.getReleasedTickets() + " released and " + recovered.getRetrievedTickets()
+                    + " retrieved tickets and " + recovered.getTicketIds().length
+                    + " ticket IDs in the pool from the last snapshot.";
+        }
+        return "Recovered " + replica.getReleased() + " released and " + replica.getRetrieved()
+                + " retrieved tickets (" + replica.copyTicketIds().length + " in pool) from " + source + " plus "
+                + replayedRecords + " journal records in " + TimeUnit.NANOSECONDS.toMillis(recoveryNanos) + " ms.";
+    }
+
+    /**
+     * Start taking snapshots in the background.
+     *
+     * @param ticketPool The pool to snapshot.
+     * @param journal    The journal the vendors and consumers append to (null without one).
+     */
+    public void start(TicketPool ticketPool, EventJournal journal) {
+        if (worker != null) {
+            return;
+        }
+        this.pool = ticketPool;
+        this.journal = journal;
+        if (journal != null && position < 0) {
+            // A new run: the replica is empty and starts where the journal currently ends
+            position = journal.getPosition();
+        }
+        worker = Thread.ofPlatform().name("PoolSnapshotter").daemon(true).start(this::snapshotLoop);
+    }
+
+    /**
+     * Stop the background thread and write a last snapshot. Close the journal
+     * first, so the last snapshot covers every record.
+     *
+     * @throws IOException If the last snapshot cannot be written.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (worker == null) {
+            return; // Never started, so there is nothing new to save
+        }
+        LockSupport.unpark(worker);
+        try {
+            worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (journal != null) {
+            position = new EventJournal.Reader(journal.getDirectory().toString()).replay(position, replica);
+        }
+        writeSnapshot();
+    }
+
+    // Get the snapshot folder.
+    public Path getDirectory() {
+        return directory;
+    }
+
+    // Get the number of snapshots written so far.
+    public long getSnapshotsWritten() {
+        return snapshotsWritten;
+    }
+
+    // The background thread: follow the journal (or wait) and write a snapshot every interval.
+    private void snapshotLoop() {
+        EventJournal.Reader reader = journal != null
+                ? new EventJournal.Reader(journal.getDirectory().toString())
+                : null;
+        long nextSnapshot = System.nanoTime() + intervalNanos;
+        try {
+            while (!closed) {
+                if (reader != null) {
+                    long deadline = nextSnapshot;
+                    position = reader.tail(position, replica, () -> !closed && System.nanoTime() - deadline < 0);
+                } else {
+                    LockSupport.parkNanos(nextSnapshot - System.nanoTime());
+                }
+                if (closed) {
+                    break; // close() writes the last snapshot
+                }
+                if (System.nanoTime() - nextSnapshot >= 0) {
+                    writeSnapshot();
+                    nextSnapshot = System.nanoTime() + intervalNanos;
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Pool snapshots stopped: " + e.getMessage());
+        }
+    }
+
+    // Write a snapshot of the replica (with a journal) or of the pool's counters (without one).
+    private void writeSnapshot() throws IOException {
+        PoolSnapshot snapshot;
+        if (journal != null) {
+            snapshot = replica.toSnapshot(position, configurationJson);
+        } else {
+            TicketPoolSnapshot counters = pool.snapshot();
+            long retrieved = counters.getRetrieved();
+            long released = Math.max(counters.getReleased(), retrieved);
+            long[] ticketIds = new long[pool.getMaxCapacity()];
+            int copied = pool.copyTicketIds(ticketIds);
+            snapshot = new PoolSnapshot(counters.getTimestampMillis(), -1, released, retrieved,
+                    released - retrieved, Arrays.copyOf(ticketIds, copied), new long[0], configurationJson);
+        }
+        snapshot.writeTo(directory);
+        snapshotsWritten++;
+    }
+}
@@ -0,0 +1,23 @@
+package CLI;
+
+/**
+ * The ticket pool engines that can be selected in the Configuration.
+ */
+public enum PoolType {
+    // LinkedBlockingQueue based pool (one node per ticket, separate put and take locks).
+    QUEUE,
+    // Preallocated, lock-free array ring buffer shared by all vendors and consumers.
+    RING_BUFFER,
+    // Several ring buffers (one per CPU core by default) with work stealing between them.
+    SHARDED;
+
+    /**
+     * Convert text such as "ring_buffer" or "QUEUE" into a PoolType.
+     *
+     * @param text The text to convert.
+     * @return The matching PoolType.
+     */
+    public static PoolType fromText(String text) {
+        return PoolType.valueOf(text.trim().toUpperCase());
+    }
+}
@@ -0,0 +1,340 @@
+package CLI;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class manages a pool of tickets using a queue system,
+ * which is used in a producer-consumer setup.
+ *
+ * When latency is tracked, each Ticket is stamped just before it is put into
+ * the queue. A ticket that has to wait for space is stamped when that wait
+ * begins, so its age also includes the time its vendor was blocked.
+ */
+public class QueueTicketPool extends AbstractTicketPool {
+    private final BlockingQueue<Ticket> tickets; // A queue to hold tickets
+
+    /**
+     * Constructor to create a QueueTicketPool with a maximum capacity.
+     *
+     * @param maxCapacity The maximum number of tickets the pool can hold.
+     */
+    public QueueTicketPool(int maxCapacity) {
+        this(maxCapacity, false);
+    }
+
+    /**
+     * Constructor to create a QueueTicketPool that can also track latency.
+     *
+     * @param maxCapacity     The maximum number of tickets the pool can hold.
+     * @param trackingLatency Whether to record the put-wait, take-wait and ticket age histograms.
+     */
+    public QueueTicketPool(int maxCapacity, boolean trackingLatency) {
+        super(maxCapacity, trackingLatency); // Store the maximum capacity
+        this.tickets = new LinkedBlockingQueue<>(maxCapacity); // Initialize the queue with max capacity
+    }
+
+    /**
+     * Take a ticket from the pool (remove it from the queue).
+     *
+     * @return The ticket taken from the pool.
+     * @throws InterruptedException If the operation is interrupted.
+     */
+    @Override
+    public Ticket takeTicket() throws InterruptedException {
+        Ticket ticket = tickets.poll(); // Get and remove a ticket from the queue if one is waiting
+        if (ticket == null) {
+            long waitStarted = latencyClock();
+            ticket = tickets.take(); // Wait for a ticket
+            recordSince(takeWait, waitStarted);
+        } else {
+            recordNoWait(takeWait);
+        }
+        recordAge(ticket, latencyClock());
+        countRetrieved(1); // Count the ticket as retrieved
+        EventLog.log(EventType.TICKET_RETRIEVED, ticket.getId()); // Log the ID of the ticket retrieved
+        return ticket; // Return the retrieved ticket
+    }
+
+    /**
+     * Add a ticket to the pool (put it into the queue).
+     *
+     * @param ticket The ticket to add.
+     * @throws InterruptedException If the operation is interrupted.
+     */
+    @Override
+    public void addTicket(Ticket ticket) throws InterruptedException {
+        countReleased(1); // Count the ticket as released before a consumer can see it
+        long now = latencyClock();
+        ticket.markEnqueued(now);
+        try {
+            if (tickets.offer(ticket)) {
+                recordNoWait(putWait);
+            } else {
+                countBlockedPut(); // The queue is full, so this add has to wait
+                tickets.put(ticket); // Add the ticket to the queue once there is space
+                recordSince(putWait, now);
+            }
+        } catch (InterruptedException e) {
+            uncountReleased(1); // The ticket never made it into the queue
+            throw e;
+        }
+        EventLog.log(EventType.TICKET_ADDED, ticket.getId()); // Log the ID of the ticket added
+    }
+
+    /**
+     * Try to add a ticket by its ID without waiting (wraps the ID in a Ticket).
+     *
+     * @param ticketId The ID of the ticket to add.
+     * @return True if the ticket was added, false if the pool is full.
+     */
+    @Override
+    public boolean offerTicketId(long ticketId) {
+        countReleased(1); // Count the ticket as released before a consumer can see it
+        Ticket ticket = new Ticket(ticketId);
+        ticket.markEnqueued(latencyClock());
+        if (!tickets.offer(ticket)) {
+            uncountReleased(1);
+            countRejected();
+            return false; // The queue is full
+        }
+        recordNoWait(putWait);
+        EventLog.log(EventType.TICKET_ADDED, ticketId); // Log the ID of the ticket added
+        return true;
+    }
+
+    /**
+     * Try to take a ticket's ID without waiting.
+     *
+     * @return The ID of the ticket taken, or {@link #NO_TICKET} if the pool is empty.
+     */
+    @Override
+    public long pollTicketId() {
+        Ticket ticket = tickets.poll();
+        if (ticket == null) {
+            countTimedOut();
+            return NO_TICKET; // The queue is empty
+        }
+        recordNoWait(takeWait);
+        recordAge(ticket, latencyClock());
+        countRetrieved(1); // Count the ticket as retrieved
+        EventLog.log(EventType.TICKET_RETRIEVED, ticket.getId()); // Log the ID of the ticket retrieved
+        return ticket.getId();
+    }
+
+    /**
+     * Add several tickets to the pool. LinkedBlockingQueue has no bulk put, so
+     * each ticket is put in turn, but the released count is updated only once
+     * (and corrected once if the batch is interrupted part way).
+     *
+     * @param batch The tickets to add.
+     * @throws InterruptedException If the operation is interrupted.
+     */
+    @Override
+    public void addTickets(Collection<Ticket> batch) throws InterruptedException {
+        int added = 0;
+        boolean waited = false;
+        long now = latencyClock(); // One clock read stamps the whole batch
+        countReleased(batch.size()); // Count the whole batch before a consumer can see any of it
+        try {
+            for (Ticket ticket : batch) {
+                ticket.markEnqueued(now);
+                if (!tickets.offer(ticket)) {
+                    countBlockedPut(); // The queue is full, so this add has to wait
+                    waited = true;
+                    tickets.put(ticket); // Add the ticket to the queue once there is space
+                }
+                added++;
+            }
+        } finally {
+            uncountReleased(batch.size() - added); // Take back the tickets that never made it into the queue
+        }
+        if (waited) {
+            recordSince(putWait, now);
+        } else {
+            recordNoWait(putWait);
+        }
+        for (Ticket ticket : batch) {
+            EventLog.log(EventType.TICKET_ADDED, ticket.getId()); // Log the ID of each ticket added
+        }
+    }
+
+    /**
+     * Add ticket IDs one after the other (wrapped in Tickets), waiting at most
+     * the timeout in total while the queue is full.
+     *
+     * @param ticketIds The array holding the ticket IDs.
+     * @param from      The index of the first ID to add.
+     * @param to        The index after the last ID to add.
+     * @param timeout   How long to wait for space in total.
+     * @param unit      The unit of the timeout.
+     * @return The number of IDs added.
+     * @throws InterruptedException If the operation is interrupted.
+     */
+    @Override
+    public int offerTicketIds(long[] ticketIds, int from, int to, long timeout, TimeUnit unit) throws InterruptedException {
+        int count = to - from;
+        int added = 0;
+        boolean waited = false;
+        long now = latencyClock(); // One clock read stamps the whole batch
+        long deadline = System.nanoTime() + unit.toNanos(timeout); // Wraps safely for Long.MAX_VALUE
+        countReleased(count); // Count the whole batch before a consumer can see any of it
+        try {
+            for (int i = from; i < to; i++) {
+                Ticket ticket = new Ticket(ticketIds[i]);
+                ticket.markEnqueued(now);
+                if (!tickets.offer(ticket)) {
+                    countBlockedPut(); // The queue is full, so this add has to wait
+                    waited = true;
+                    if (!tickets.offer(ticket, deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                        countRejected(); // Still full at the timeout: give up on the rest
+                        break;
+                    }
+                }
+                added++;
+            }
+        } finally {
+            uncountReleased(count - added); // Take back the tickets that never made it into the queue
+        }
+        if (waited) {
+            recordSince(putWait, now);
+        } else {
+            recordNoWait(putWait);
+        }
+        for (int i = from; i < from + added; i++) {
+            EventLog.log(EventType.TICKET_ADDED, ticketIds[i]); // Log the ID of each ticket added
+        }
+        return added;
+    }
+
+    /**
+     * Take a ticket from the queue, waiting at most the timeout while it is empty.
+     * The Ticket object itself is returned, so its age in the pool is recorded.
+     *
+     * @param timeout How long to wait for a ticket.
+     * @param unit    The unit of the timeout.
+     * @return The ticket taken, or null if none arrived before the timeout.
+     * @throws InterruptedException If the operation is interrupted.
+     */
+    @Override
+    public Ticket tryTakeTicket(long timeout, TimeUnit unit) throws InterruptedException {
+        List<Ticket> taken = takeTickets(1, timeout, unit);
+        return taken.isEmpty() ? null : taken.get(0);
+    }
+
+    /**
+     * Take up to {@code maxTickets} tickets using the queue's bulk {@code drainTo}.
+     *
+     * @param maxTickets The maximum number of tickets to take.
+     * @param timeout    How long to wait for the first ticket.
+     * @param unit       The unit of the timeout.
+     * @return The tickets taken (empty if none arrived before the timeout).
+     * @throws InterruptedException If the operation is interrupted.
+     */
+    @Override
+    public List<Ticket> takeTickets(int maxTickets, long timeout, TimeUnit unit) throws InterruptedException {
+        List<Ticket> taken = pollTickets(maxTickets, timeout, unit);
+        countRetrieved(taken.size()); // Count the whole purchase at once
+        for (Ticket ticket : taken) {
+            EventLog.log(EventType.TICKET_RETRIEVED, ticket.getId()); // Log the ID of each ticket retrieved
+        }
+        return taken;
+    }
+
+    /**
+     * Take up to {@code maxTickets} ticket IDs without counting them as retrieved (for holds).
+     *
+     * @param target     The array that receives the IDs, starting at index 0.
+     * @param maxTickets The maximum number of IDs to take.
+     * @param timeout    How long to wait for the first ticket.
+     * @param unit       The unit of the timeout.
+     * @return The number of IDs taken (0 if none arrived before the timeout).
+     * @throws InterruptedException If the operation is interrupted.
+     */
+    @Override
+    protected int removeTicketIds(long[] target, int maxTickets, long timeout, TimeUnit unit) throws InterruptedException {
+        List<Ticket> taken = pollTickets(maxTickets, timeout, unit);
+        for (int i = 0; i < taken.size(); i++) {
+            target[i] = taken.get(i).getId();
+        }
+        return taken.size();
+    }
+
+    /**
+     * Put a held ticket back into the queue without waiting or counting it.
+     *
+     * @param ticketId The ID of the ticket to put back.
+     * @return True if the ticket is back in the queue, false if the queue is full.
+     */
+    @Override
+    protected boolean putBackTicketId(long ticketId) {
+        Ticket ticket = new Ticket(ticketId);
+        ticket.markEnqueued(latencyClock()); // Its age starts again from now
+        return tickets.offer(ticket);
+    }
+
+    // Take up to maxTickets tickets with drainTo, waiting for the first one, and record their waits and ages.
+    private List<Ticket> pollTickets(int maxTickets, long timeout, TimeUnit unit) throws InterruptedException {
+        List<Ticket> taken = new ArrayList<>(Math.min(maxTickets, maxCapacity));
+        Ticket first = tickets.poll(); // Take the first ticket straight away if one is waiting
+        if (first == null) {
+            long waitStarted = latencyClock();
+            first = tickets.poll(timeout, unit); // Wait for the first ticket
+            if (first == null) {
+                countTimedOut();
+                return taken;
+            }
+            recordSince(takeWait, waitStarted);
+        } else {
+            recordNoWait(takeWait);
+        }
+        taken.add(first);
+        tickets.drainTo(taken, maxTickets - 1); // Take the rest in one locked step
+        if (isTrackingLatency()) {
+            long now = System.nanoTime(); // One clock read for the whole purchase
+            for (Ticket ticket : taken) {
+                recordAge(ticket, now);
+            }
+        }
+        return taken;
+    }
+
+    // Record how long a ticket waited in the queue (only when latency is tracked).
+    private void recordAge(Ticket ticket, long now) {
+        if (isTrackingLatency()) {
+            ticketAge.record(now - ticket.getEnqueuedAtNanos());
+        }
+    }
+
+    /**
+     * Copy the IDs of the tickets in the queue, oldest first, without taking them.
+     *
+     * @param target The array that receives the IDs, starting at index 0.
+     * @return The number of IDs copied.
+     */
+    @Override
+    public int copyTicketIds(long[] target) {
+        int copied = 0;
+        for (Ticket ticket : tickets) { // The queue's iterator never throws while others use the queue
+            if (copied == target.length) {
+                break;
+            }
+            target[copied++] = ticket.getId();
+        }
+        return copied;
+    }
+
+    /**
+     * Get the current number of tickets in the pool.
+     *
+     * @return The number of tickets currently in the pool.
+     */
+    @Override
+    public int getCurrentTicketCount() {
+        return tickets.size(); // Return the number of tickets in the queue
+    }
+}
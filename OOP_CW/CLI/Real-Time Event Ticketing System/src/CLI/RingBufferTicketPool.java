@@ -0,0 +1,338 @@
+package CLI;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A ticket pool backed by a preallocated, lock-free ring buffer. Vendors and
+ * consumers never take a lock, and tickets are stored as primitive IDs, so the
+ * ID methods move a ticket from vendor to consumer without allocating anything.
+ * When the pool is full (or empty) the caller waits using a {@link Backoff}.
+ */
+public class RingBufferTicketPool extends AbstractTicketPool {
+    private final MpmcRingBuffer tickets; // The ring buffer holding the ticket IDs
+
+    /**
+     * Constructor to create a RingBufferTicketPool with a maximum capacity.
+     *
+     * @param maxCapacity The maximum number of tickets the pool can hold.
+     */
+    public RingBufferTicketPool(int maxCapacity) {
+        this(maxCapacity, false);
+    }
+
+    /**
+     * Constructor to create a RingBufferTicketPool that can also track latency.
+     *
+     * @param maxCapacity     The maximum number of tickets the pool can hold.
+     * @param trackingLatency Whether to record the put-wait, take-wait and ticket age histograms.
+     */
+    public RingBufferTicketPool(int maxCapacity, boolean trackingLatency) {
+        super(maxCapacity, trackingLatency); // Store the maximum capacity
+        // Allocate every slot up front; the ring stamps each ticket and records its age when tracking
+        this.tickets = new MpmcRingBuffer(maxCapacity, trackingLatency ? ticketAge : null);
+    }
+
+    /**
+     * Add a ticket to the pool, waiting while the pool is full.
+     *
+     * @param ticket The ticket to add.
+     * @throws InterruptedException If the operation is interrupted.
+     */
+    @Override
+    public void addTicket(Ticket ticket) throws InterruptedException {
+        addTicketId(ticket.getId());
+    }
+
+    /**
+     * Take a ticket from the pool, waiting while the pool is empty.
+     *
+     * @return The ticket taken from the pool.
+     * @throws InterruptedException If the operation is interrupted.
+     */
+    @Override
+    public Ticket takeTicket() throws InterruptedException {
+        return new Ticket(takeTicketId());
+    }
+
+    /**
+     * Add a ticket ID to the pool without allocating, waiting while the pool is full.
+     *
+     * @param ticketId The ID of the ticket to add.
+     * @throws InterruptedException If the operation is interrupted.
+     */
+    @Override
+    public void addTicketId(long ticketId) throws InterruptedException {
+        countReleased(1); // Count the ticket as released before a consumer can see it
+        if (tickets.offer(ticketId)) {
+            recordNoWait(putWait);
+        } else {
+            countBlockedPut(); // The pool is full, so this add has to wait
+            long waitStarted = latencyClock();
+            Backoff backoff = new Backoff(); // Only created when the pool is actually full
+            try {
+                do {
+                    backoff.idle();
+                } while (!tickets.offer(ticketId));
+            } catch (InterruptedException e) {
+                uncountReleased(1); // The ticket never made it into the pool
+                throw e;
+            }
+            recordSince(putWait, waitStarted);
+        }
+        EventLog.log(EventType.TICKET_ADDED, ticketId); // Log the ID of the ticket added
+    }
+
+    /**
+     * Take a ticket ID from the pool without allocating, waiting while the pool is empty.
+     *
+     * @return The ID of the ticket taken from the pool.
+     * @throws InterruptedException If the operation is interrupted.
+     */
+    @Override
+    public long takeTicketId() throws InterruptedException {
+        long ticketId = tickets.poll();
+        if (ticketId == MpmcRingBuffer.EMPTY) {
+            long waitStarted = latencyClock();
+            Backoff backoff = new Backoff(); // Only created when the pool is actually empty
+            do {
+                backoff.idle();
+                ticketId = tickets.poll();
+            } while (ticketId == MpmcRingBuffer.EMPTY);
+            recordSince(takeWait, waitStarted);
+        } else {
+            recordNoWait(takeWait);
+        }
+        countRetrieved(1); // Count the ticket as retrieved
+        EventLog.log(EventType.TICKET_RETRIEVED, ticketId); // Log the ID of the ticket retrieved
+        return ticketId;
+    }
+
+    /**
+     * Try to add a ticket ID without waiting.
+     *
+     * @param ticketId The ID of the ticket to add.
+     * @return True if the ticket was added, false if the pool is full.
+     */
+    @Override
+    public boolean offerTicketId(long ticketId) {
+        countReleased(1); // Count the ticket as released before a consumer can see it
+        if (!tickets.offer(ticketId)) {
+            uncountReleased(1);
+            countRejected();
+            return false; // The ring is full
+        }
+        recordNoWait(putWait);
+        EventLog.log(EventType.TICKET_ADDED, ticketId); // Log the ID of the ticket added
+        return true;
+    }
+
+    /**
+     * Try to take a ticket ID without waiting.
+     *
+     * @return The ID of the ticket taken, or {@link #NO_TICKET} if the pool is empty.
+     */
+    @Override
+    public long pollTicketId() {
+        long ticketId = tickets.poll();
+        if (ticketId == MpmcRingBuffer.EMPTY) {
+            countTimedOut();
+            return NO_TICKET; // The ring is empty
+        }
+        recordNoWait(takeWait);
+        countRetrieved(1); // Count the ticket as retrieved
+        EventLog.log(EventType.TICKET_RETRIEVED, ticketId); // Log the ID of the ticket retrieved
+        return ticketId;
+    }
+
+    /**
+     * Add several tickets, claiming as many ring slots as possible with each
+     * compare-and-set. Waits while the pool is full.
+     *
+     * @param batch The tickets to add.
+     * @throws InterruptedException If the operation is interrupted.
+     */
+    @Override
+    public void addTickets(Collection<Ticket> batch) throws InterruptedException {
+        long[] ticketIds = new long[batch.size()];
+        int count = 0;
+        for (Ticket ticket : batch) {
+            ticketIds[count++] = ticket.getId();
+        }
+        addTicketIds(ticketIds, count);
+    }
+
+    /**
+     * Add several ticket IDs, claiming as many ring slots as possible with each
+     * compare-and-set. Waits while the pool is full.
+     *
+     * @param ticketIds The array holding the ticket IDs.
+     * @param count     The number of IDs to add, starting at index 0.
+     * @throws InterruptedException If the operation is interrupted.
+     */
+    @Override
+    public void addTicketIds(long[] ticketIds, int count) throws InterruptedException {
+        offerTicketIds(ticketIds, 0, count, Long.MAX_VALUE, TimeUnit.NANOSECONDS); // Waits as long as it takes
+    }
+
+    /**
+     * Add ticket IDs with as few ring slot claims as possible, waiting at most
+     * the timeout while the pool is full.
+     *
+     * @param ticketIds The array holding the ticket IDs.
+     * @param from      The index of the first ID to add.
+     * @param to        The index after the last ID to add.
+     * @param timeout   How long to wait for space in total.
+     * @param unit      The unit of the timeout.
+     * @return The number of IDs added.
+     * @throws InterruptedException If the operation is interrupted.
+     */
+    @Override
+    public int offerTicketIds(long[] ticketIds, int from, int to, long timeout, TimeUnit unit) throws InterruptedException {
+        int count = to - from;
+        int added = 0;
+        Backoff backoff = null;
+        long waitStarted = 0L;
+        long deadline = 0L;
+        countReleased(count); // Count the whole batch before a consumer can see any of it
+        try {
+            while (added < count) {
+                int step = tickets.offerBatch(ticketIds, from + added, to);
+                if (step > 0) {
+                    added += step;
+                } else {
+                    if (backoff == null) {
+                        countBlockedPut(); // The pool is full, so this add has to wait
+                        waitStarted = System.nanoTime();
+                        deadline = waitStarted + unit.toNanos(timeout); // Wraps safely for Long.MAX_VALUE
+                        backoff = new Backoff(); // Only created when the pool is actually full
+                    }
+                    if (System.nanoTime() - deadline >= 0) {
+                        countRejected(); // Still full at the timeout: give up on the rest
+                        break;
+                    }
+                    backoff.idle();
+                }
+            }
+        } finally {
+            uncountReleased(count - added); // Take back the tickets that never made it into the pool
+        }
+        if (backoff == null) {
+            recordNoWait(putWait);
+        } else {
+            recordSince(putWait, waitStarted); // From the first time the batch found the pool full
+        }
+        for (int i = from; i < from + added; i++) {
+            EventLog.log(EventType.TICKET_ADDED, ticketIds[i]); // Log the ID of each ticket added
+        }
+        return added;
+    }
+
+    /**
+     * Take up to {@code maxTickets} tickets with a single claim of the ring head.
+     *
+     * @param maxTickets The maximum number of tickets to take.
+     * @param timeout    How long to wait for the first ticket.
+     * @param unit       The unit of the timeout.
+     * @return The tickets taken (empty if none arrived before the timeout).
+     * @throws InterruptedException If the operation is interrupted.
+     */
+    @Override
+    public List<Ticket> takeTickets(int maxTickets, long timeout, TimeUnit unit) throws InterruptedException {
+        long[] ticketIds = new long[Math.min(maxTickets, maxCapacity)];
+        int count = takeTicketIds(ticketIds, ticketIds.length, timeout, unit);
+        List<Ticket> taken = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            taken.add(new Ticket(ticketIds[i]));
+        }
+        return taken;
+    }
+
+    /**
+     * Take up to {@code maxTickets} ticket IDs with a single claim of the ring head.
+     *
+     * @param target     The array that receives the IDs, starting at index 0.
+     * @param maxTickets The maximum number of IDs to take.
+     * @param timeout    How long to wait for the first ticket.
+     * @param unit       The unit of the timeout.
+     * @return The number of IDs taken (0 if none arrived before the timeout).
+     * @throws InterruptedException If the operation is interrupted.
+     */
+    @Override
+    public int takeTicketIds(long[] target, int maxTickets, long timeout, TimeUnit unit) throws InterruptedException {
+        int count = removeTicketIds(target, maxTickets, timeout, unit);
+        if (count == 0) {
+            return 0; // Timed out with nothing to take
+        }
+        countRetrieved(count); // Count the whole purchase at once
+        for (int i = 0; i < count; i++) {
+            EventLog.log(EventType.TICKET_RETRIEVED, target[i]); // Log the ID of each ticket retrieved
+        }
+        return count;
+    }
+
+    /**
+     * Take up to {@code maxTickets} ticket IDs the same way, without counting them as retrieved (for holds).
+     *
+     * @param target     The array that receives the IDs, starting at index 0.
+     * @param maxTickets The maximum number of IDs to take.
+     * @param timeout    How long to wait for the first ticket.
+     * @param unit       The unit of the timeout.
+     * @return The number of IDs taken (0 if none arrived before the timeout).
+     * @throws InterruptedException If the operation is interrupted.
+     */
+    @Override
+    protected int removeTicketIds(long[] target, int maxTickets, long timeout, TimeUnit unit) throws InterruptedException {
+        int count = tickets.drainTo(target, 0, maxTickets);
+        if (count == 0) {
+            long waitStarted = System.nanoTime();
+            long deadline = waitStarted + unit.toNanos(timeout);
+            Backoff backoff = new Backoff(); // Only created when the pool is actually empty
+            do {
+                if (System.nanoTime() - deadline >= 0) {
+                    countTimedOut();
+                    return 0; // Timed out with nothing to take
+                }
+                backoff.idle();
+            } while ((count = tickets.drainTo(target, 0, maxTickets)) == 0);
+            recordSince(takeWait, waitStarted);
+        } else {
+            recordNoWait(takeWait);
+        }
+        return count;
+    }
+
+    /**
+     * Put a held ticket back into the pool without waiting or counting it.
+     *
+     * @param ticketId The ID of the ticket to put back.
+     * @return True if the ticket is back in the pool, false if the pool is full.
+     */
+    @Override
+    protected boolean putBackTicketId(long ticketId) {
+        return tickets.offer(ticketId);
+    }
+
+    /**
+     * Copy the IDs of the tickets in the ring, oldest first, without taking them.
+     *
+     * @param target The array that receives the IDs, starting at index 0.
+     * @return The number of IDs copied.
+     */
+    @Override
+    public int copyTicketIds(long[] target) {
+        return tickets.copyTo(target, 0, target.length);
+    }
+
+    /**
+     * Get the current number of tickets in the pool.
+     *
+     * @return The number of tickets currently in the pool.
+     */
+    @Override
+    public int getCurrentTicketCount() {
+        return tickets.size(); // Return the number of tickets in the ring buffer
+    }
+}
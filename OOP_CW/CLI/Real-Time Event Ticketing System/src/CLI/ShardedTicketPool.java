@@ -0,0 +1,448 @@
+package CLI;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A ticket pool that splits its capacity across several lock-free ring buffers
+ * (shards), normally one per CPU core. Each thread has a home shard picked from
+ * its thread id. Vendors publish to their home shard and consumers take from
+ * their home shard first, stealing from the other shards only when it is empty.
+ * Spreading the threads over many shards keeps them from all fighting over the
+ * same head and tail counters.
+ *
+ * The shard capacities add up to exactly the configured maximum capacity, so the
+ * pool as a whole never holds more tickets than allowed.
+ */
+public class ShardedTicketPool extends AbstractTicketPool {
+    private final MpmcRingBuffer[] shards; // The ring buffers holding the ticket IDs
+
+    /**
+     * Constructor to create a ShardedTicketPool with one shard per available CPU core.
+     *
+     * @param maxCapacity The maximum number of tickets the pool can hold.
+     */
+    public ShardedTicketPool(int maxCapacity) {
+        this(maxCapacity, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor to create a ShardedTicketPool with a chosen number of shards.
+     *
+     * @param maxCapacity The maximum number of tickets the pool can hold.
+     * @param shardCount  The number of shards (reduced if it is larger than the capacity).
+     */
+    public ShardedTicketPool(int maxCapacity, int shardCount) {
+        this(maxCapacity, shardCount, false);
+    }
+
+    /**
+     * Constructor to create a ShardedTicketPool with a chosen number of shards that can also track latency.
+     *
+     * @param maxCapacity     The maximum number of tickets the pool can hold.
+     * @param shardCount      The number of shards (reduced if it is larger than the capacity).
+     * @param trackingLatency Whether to record the put-wait, take-wait and ticket age histograms.
+     */
+    public ShardedTicketPool(int maxCapacity, int shardCount, boolean trackingLatency) {
+        super(maxCapacity, trackingLatency); // Store the maximum capacity
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Shard count must be greater than zero.");
+        }
+        int shardTotal = Math.min(shardCount, maxCapacity); // Every shard must hold at least one ticket
+        this.shards = new MpmcRingBuffer[shardTotal];
+
+        // Split the capacity evenly and give the remainder to the first shards
+        int baseCapacity = maxCapacity / shardTotal;
+        int remainder = maxCapacity % shardTotal;
+        for (int i = 0; i < shardTotal; i++) {
+            // Every shard records ticket ages into the pool's one histogram when tracking
+            shards[i] = new MpmcRingBuffer(baseCapacity + (i < remainder ? 1 : 0), trackingLatency ? ticketAge : null);
+        }
+    }
+
+    /**
+     * Get the number of shards the capacity is split across.
+     *
+     * @return The shard count.
+     */
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * Add a ticket to the pool, waiting while every shard is full.
+     *
+     * @param ticket The ticket to add.
+     * @throws InterruptedException If the operation is interrupted.
+     */
+    @Override
+    public void addTicket(Ticket ticket) throws InterruptedException {
+        addTicketId(ticket.getId());
+    }
+
+    /**
+     * Take a ticket from the pool, waiting while every shard is empty.
+     *
+     * @return The ticket taken from the pool.
+     * @throws InterruptedException If the operation is interrupted.
+     */
+    @Override
+    public Ticket takeTicket() throws InterruptedException {
+        return new Ticket(takeTicketId());
+    }
+
+    /**
+     * Add a ticket ID to the calling thread's home shard, or to any other shard
+     * with space if the home shard is full. Waits while every shard is full.
+     *
+     * @param ticketId The ID of the ticket to add.
+     * @throws InterruptedException If the operation is interrupted.
+     */
+    @Override
+    public void addTicketId(long ticketId) throws InterruptedException {
+        int home = homeShard();
+        countReleased(1); // Count the ticket as released before a consumer can see it
+        if (offerToAnyShard(ticketId, home)) {
+            recordNoWait(putWait);
+        } else {
+            countBlockedPut(); // The pool is full, so this add has to wait
+            long waitStarted = latencyClock();
+            Backoff backoff = new Backoff(); // Only created when every shard is full
+            try {
+                do {
+                    backoff.idle();
+                } while (!offerToAnyShard(ticketId, home));
+            } catch (InterruptedException e) {
+                uncountReleased(1); // The ticket never made it into the pool
+                throw e;
+            }
+            recordSince(putWait, waitStarted);
+        }
+        EventLog.log(EventType.TICKET_ADDED, ticketId); // Log the ID of the ticket added
+    }
+
+    /**
+     * Take a ticket ID from the calling thread's home shard, or steal one from
+     * another shard if the home shard is empty. Waits while every shard is empty.
+     *
+     * @return The ID of the ticket taken from the pool.
+     * @throws InterruptedException If the operation is interrupted.
+     */
+    @Override
+    public long takeTicketId() throws InterruptedException {
+        int home = homeShard();
+        long ticketId = pollFromAnyShard(home);
+        if (ticketId == MpmcRingBuffer.EMPTY) {
+            long waitStarted = latencyClock();
+            Backoff backoff = new Backoff(); // Only created when every shard is empty
+            do {
+                backoff.idle();
+                ticketId = pollFromAnyShard(home);
+            } while (ticketId == MpmcRingBuffer.EMPTY);
+            recordSince(takeWait, waitStarted);
+        } else {
+            recordNoWait(takeWait);
+        }
+        countRetrieved(1); // Count the ticket as retrieved
+        EventLog.log(EventType.TICKET_RETRIEVED, ticketId); // Log the ID of the ticket retrieved
+        return ticketId;
+    }
+
+    /**
+     * Try to add a ticket ID to any shard with space, home shard first, without waiting.
+     *
+     * @param ticketId The ID of the ticket to add.
+     * @return True if the ticket was added, false if every shard is full.
+     */
+    @Override
+    public boolean offerTicketId(long ticketId) {
+        countReleased(1); // Count the ticket as released before a consumer can see it
+        if (!offerToAnyShard(ticketId, homeShard())) {
+            uncountReleased(1);
+            countRejected();
+            return false; // Every shard is full
+        }
+        recordNoWait(putWait);
+        EventLog.log(EventType.TICKET_ADDED, ticketId); // Log the ID of the ticket added
+        return true;
+    }
+
+    /**
+     * Try to take a ticket ID from the home shard or steal one, without waiting.
+     *
+     * @return The ID of the ticket taken, or {@link #NO_TICKET} if every shard is empty.
+     */
+    @Override
+    public long pollTicketId() {
+        long ticketId = pollFromAnyShard(homeShard());
+        if (ticketId == MpmcRingBuffer.EMPTY) {
+            countTimedOut();
+            return NO_TICKET; // Every shard is empty
+        }
+        recordNoWait(takeWait);
+        countRetrieved(1); // Count the ticket as retrieved
+        EventLog.log(EventType.TICKET_RETRIEVED, ticketId); // Log the ID of the ticket retrieved
+        return ticketId;
+    }
+
+    /**
+     * Add several tickets, filling the home shard first in bulk and spilling
+     * the rest into the other shards. Waits while every shard is full.
+     *
+     * @param batch The tickets to add.
+     * @throws InterruptedException If the operation is interrupted.
+     */
+    @Override
+    public void addTickets(Collection<Ticket> batch) throws InterruptedException {
+        long[] ticketIds = new long[batch.size()];
+        int count = 0;
+        for (Ticket ticket : batch) {
+            ticketIds[count++] = ticket.getId();
+        }
+        addTicketIds(ticketIds, count);
+    }
+
+    /**
+     * Add several ticket IDs, filling the home shard first in bulk and spilling
+     * the rest into the other shards. Waits while every shard is full.
+     *
+     * @param ticketIds The array holding the ticket IDs.
+     * @param count     The number of IDs to add, starting at index 0.
+     * @throws InterruptedException If the operation is interrupted.
+     */
+    @Override
+    public void addTicketIds(long[] ticketIds, int count) throws InterruptedException {
+        offerTicketIds(ticketIds, 0, count, Long.MAX_VALUE, TimeUnit.NANOSECONDS); // Waits as long as it takes
+    }
+
+    /**
+     * Add ticket IDs filling the home shard first in bulk and spilling the
+     * rest into the other shards, waiting at most the timeout while every shard is full.
+     *
+     * @param ticketIds The array holding the ticket IDs.
+     * @param from      The index of the first ID to add.
+     * @param to        The index after the last ID to add.
+     * @param timeout   How long to wait for space in total.
+     * @param unit      The unit of the timeout.
+     * @return The number of IDs added.
+     * @throws InterruptedException If the operation is interrupted.
+     */
+    @Override
+    public int offerTicketIds(long[] ticketIds, int from, int to, long timeout, TimeUnit unit) throws InterruptedException {
+        int home = homeShard();
+        int count = to - from;
+        int added = 0;
+        Backoff backoff = null;
+        long waitStarted = 0L;
+        long deadline = 0L;
+        countReleased(count); // Count the whole batch before a consumer can see any of it
+        try {
+            while (added < count) {
+                int step = 0;
+                for (int i = 0; i < shards.length && added + step < count; i++) {
+                    step += shards[(home + i) % shards.length].offerBatch(ticketIds, from + added + step, to);
+                }
+                if (step > 0) {
+                    added += step;
+                } else {
+                    if (backoff == null) {
+                        countBlockedPut(); // The pool is full, so this add has to wait
+                        waitStarted = System.nanoTime();
+                        deadline = waitStarted + unit.toNanos(timeout); // Wraps safely for Long.MAX_VALUE
+                        backoff = new Backoff(); // Only created when every shard is full
+                    }
+                    if (System.nanoTime() - deadline >= 0) {
+                        countRejected(); // Still full at the timeout: give up on the rest
+                        break;
+                    }
+                    backoff.idle();
+                }
+            }
+        } finally {
+            uncountReleased(count - added); // Take back the tickets that never made it into the pool
+        }
+        if (backoff == null) {
+            recordNoWait(putWait);
+        } else {
+            recordSince(putWait, waitStarted); // From the first time the batch found every shard full
+        }
+        for (int i = from; i < from + added; i++) {
+            EventLog.log(EventType.TICKET_ADDED, ticketIds[i]); // Log the ID of each ticket added
+        }
+        return added;
+    }
+
+    /**
+     * Take up to {@code maxTickets} tickets, draining the home shard first and
+     * then stealing from the other shards.
+     *
+     * @param maxTickets The maximum number of tickets to take.
+     * @param timeout    How long to wait for the first ticket.
+     * @param unit       The unit of the timeout.
+     * @return The tickets taken (empty if none arrived before the timeout).
+     * @throws InterruptedException If the operation is interrupted.
+     */
+    @Override
+    public List<Ticket> takeTickets(int maxTickets, long timeout, TimeUnit unit) throws InterruptedException {
+        long[] ticketIds = new long[Math.min(maxTickets, maxCapacity)];
+        int count = takeTicketIds(ticketIds, ticketIds.length, timeout, unit);
+        List<Ticket> taken = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            taken.add(new Ticket(ticketIds[i]));
+        }
+        return taken;
+    }
+
+    /**
+     * Take up to {@code maxTickets} ticket IDs, draining the home shard first and
+     * then stealing from the other shards.
+     *
+     * @param target     The array that receives the IDs, starting at index 0.
+     * @param maxTickets The maximum number of IDs to take.
+     * @param timeout    How long to wait for the first ticket.
+     * @param unit       The unit of the timeout.
+     * @return The number of IDs taken (0 if none arrived before the timeout).
+     * @throws InterruptedException If the operation is interrupted.
+     */
+    @Override
+    public int takeTicketIds(long[] target, int maxTickets, long timeout, TimeUnit unit) throws InterruptedException {
+        int count = removeTicketIds(target, maxTickets, timeout, unit);
+        if (count == 0) {
+            return 0; // Timed out with nothing to take
+        }
+        countRetrieved(count); // Count the whole purchase at once
+        for (int i = 0; i < count; i++) {
+            EventLog.log(EventType.TICKET_RETRIEVED, target[i]); // Log the ID of each ticket retrieved
+        }
+        return count;
+    }
+
+    /**
+     * Take up to {@code maxTickets} ticket IDs the same way, without counting them as retrieved (for holds).
+     *
+     * @param target     The array that receives the IDs, starting at index 0.
+     * @param maxTickets The maximum number of IDs to take.
+     * @param timeout    How long to wait for the first ticket.
+     * @param unit       The unit of the timeout.
+     * @return The number of IDs taken (0 if none arrived before the timeout).
+     * @throws InterruptedException If the operation is interrupted.
+     */
+    @Override
+    protected int removeTicketIds(long[] target, int maxTickets, long timeout, TimeUnit unit) throws InterruptedException {
+        int home = homeShard();
+        int count = drainFromAnyShard(target, maxTickets, home);
+        if (count == 0) {
+            long waitStarted = System.nanoTime();
+            long deadline = waitStarted + unit.toNanos(timeout);
+            Backoff backoff = new Backoff(); // Only created when every shard is empty
+            do {
+                if (System.nanoTime() - deadline >= 0) {
+                    countTimedOut();
+                    return 0; // Timed out with nothing to take
+                }
+                backoff.idle();
+            } while ((count = drainFromAnyShard(target, maxTickets, home)) == 0);
+            recordSince(takeWait, waitStarted);
+        } else {
+            recordNoWait(takeWait);
+        }
+        return count;
+    }
+
+    /**
+     * Put a held ticket back into the pool without waiting or counting it.
+     *
+     * @param ticketId The ID of the ticket to put back.
+     * @return True if the ticket is back in the pool, false if the pool is full.
+     */
+    @Override
+    protected boolean putBackTicketId(long ticketId) {
+        return offerToAnyShard(ticketId, homeShard());
+    }
+
+    /**
+     * Copy the IDs of the tickets in every shard, one shard after the other, without taking them.
+     *
+     * @param target The array that receives the IDs, starting at index 0.
+     * @return The number of IDs copied.
+     */
+    @Override
+    public int copyTicketIds(long[] target) {
+        int copied = 0;
+        for (MpmcRingBuffer shard : shards) {
+            copied += shard.copyTo(target, copied, target.length - copied);
+        }
+        return copied;
+    }
+
+    /**
+     * Get the current number of tickets in the pool (the sum over all shards).
+     *
+     * @return The number of tickets currently in the pool.
+     */
+    @Override
+    public int getCurrentTicketCount() {
+        int count = 0;
+        for (MpmcRingBuffer shard : shards) {
+            count += shard.size();
+        }
+        return count;
+    }
+
+    // Pick the home shard of the calling thread from its thread id.
+    private int homeShard() {
+        return (int) (Thread.currentThread().threadId() % shards.length);
+    }
+
+    // Try the home shard first, then every other shard once.
+    private boolean offerToAnyShard(long ticketId, int home) {
+        if (shards[home].offer(ticketId)) {
+            return true;
+        }
+        for (int i = 1; i < shards.length; i++) {
+            if (shards[(home + i) % shards.length].offer(ticketId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Try the home shard first, then steal from the other shards starting at a random one.
+    private long pollFromAnyShard(int home) {
+        long ticketId = shards[home].poll();
+        if (ticketId != MpmcRingBuffer.EMPTY || shards.length == 1) {
+            return ticketId;
+        }
+        // A random start spreads thieves out instead of all hitting the same victim
+        int start = ThreadLocalRandom.current().nextInt(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            int victim = (start + i) % shards.length;
+            if (victim != home) {
+                ticketId = shards[victim].poll();
+                if (ticketId != MpmcRingBuffer.EMPTY) {
+                    return ticketId;
+                }
+            }
+        }
+        return MpmcRingBuffer.EMPTY;
+    }
+
+    // Drain the home shard first, then steal from the other shards until maxTickets are taken.
+    private int drainFromAnyShard(long[] target, int maxTickets, int home) {
+        int taken = shards[home].drainTo(target, 0, maxTickets);
+        if (taken == maxTickets || shards.length == 1) {
+            return taken;
+        }
+        int start = ThreadLocalRandom.current().nextInt(shards.length);
+        for (int i = 0; i < shards.length && taken < maxTickets; i++) {
+            int victim = (start + i) % shards.length;
+            if (victim != home) {
+                taken += shards[victim].drainTo(target, taken, maxTickets - taken);
+            }
+        }
+        return taken;
+    }
+}
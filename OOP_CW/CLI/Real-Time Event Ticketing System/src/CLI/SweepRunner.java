@@ -0,0 +1,571 @@
+package CLI;
+
+import com.google.gson.Gson; // Library to handle JSON data.
+import com.google.gson.GsonBuilder; // Library for creating well-formatted JSON.
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs a parameter sweep for capacity planning: one base configuration, a list
+ * or range of values for some of its fields, and one simulation for every
+ * combination of those values.
+ *
+ * Every point of the grid is a {@link DiscreteEventSimulation} with its own
+ * pool, vendors and consumers, so the points share nothing and run in
+ * parallel on a fork-join pool, one per CPU core by default. Each point is
+ * run on a virtual clock, so a sweep measures the configuration rather than
+ * how busy the machine was, and the same seed gives the same report.
+ *
+ * The report has one row per point (and per replicate): the values of the
+ * swept fields, throughput, sell-out time and consumer wait percentiles. It
+ * is written as CSV when the output file ends in .csv, and as JSON otherwise.
+ *
+ * Usage: {@code java CLI.Main --sweep [options] --vary <field>=<values> ... [config.json|config.txt]}
+ */
+public class SweepRunner {
+    private static final String DEFAULT_CONFIG = "configuration.json"; // Used when no file is given
+    private static final int MAX_POINTS = 1_000_000; // Refuses a grid this large, which is most likely a typo
+
+    private final Map<String, List<String>> parameters = new LinkedHashMap<>(); // Swept field -> its values, in order
+    private String configFile = null;  // The base configuration
+    private long durationMillis = 0;   // Simulated time limit of each point (0 = until every ticket is retrieved)
+    private int ticketOverride = 0;    // Replaces the configured total tickets when above 0
+    private int replicates = 1;        // Simulations per point, each with the next seed
+    private long seed = 1L;            // Seed of the first replicate of every point
+    private int parallelism = Runtime.getRuntime().availableProcessors(); // Points simulated at once
+    private String outputFile = null;  // Where the report goes (null = standard output)
+    private String format = null;      // "csv" or "json" (null = decided by the output file name)
+
+    /**
+     * Parse the command line, run the sweep and write its report.
+     *
+     * @param args The command line arguments, starting with {@code --sweep}.
+     * @return The process exit code (0 on success).
+     */
+    public static int run(String[] args) {
+        SweepRunner runner = new SweepRunner();
+        List<SweepPoint> points;
+        try {
+            runner.parseArguments(args);
+            points = runner.buildPoints(runner.load());
+        } catch (IOException e) {
+            System.err.println("Could not load the configuration: " + e.getMessage());
+            return 1;
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            System.err.println("Error: " + e.getMessage());
+            printUsage(System.err);
+            return 2;
+        }
+        try {
+            long started = System.nanoTime();
+            List<SweepResult> results = runner.runAll(points);
+            double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+            System.err.printf(Locale.ROOT, "Simulated %d runs in %.1f seconds (%.1f runs per second).%n",
+                    results.size(), seconds, results.size() / seconds);
+            runner.writeResults(results, seconds);
+            return 0;
+        } catch (IOException | IllegalStateException e) {
+            System.err.println("Sweep failed: " + e.getMessage());
+            return 1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Sweep interrupted.");
+            return 1;
+        }
+    }
+
+    /**
+     * Print the command line options.
+     *
+     * @param out Where to print them.
+     */
+    public static void printUsage(PrintStream out) {
+        out.println("Usage: java CLI.Main --sweep [options] --vary <field>=<values> ... [config.json|config.txt]");
+        out.println("  --vary <field>=<values>  Values of a configuration field: a list (100,200,500) or a range");
+        out.println("                           from:to:step (1000:5000:1000); repeat for a grid of every combination");
+        out.println("  --duration <seconds>     Stop each simulation after this much simulated time");
+        out.println("  --tickets <count>        Override the total tickets of the base configuration");
+        out.println("  --replicates <count>     Simulations per point, each with the next seed (default 1)");
+        out.println("  --seed <number>          Seed of the first replicate of every point (default 1)");
+        out.println("  --parallelism <count>    Simulations run at once (default: one per CPU core)");
+        out.println("  --format <csv|json>      Report format (default: csv for a .csv output file, otherwise json)");
+        out.println("  --output <file>          Write the report to a file instead of the console");
+        out.println("Fields: totalTickets, ticketReleaseRate, customerRetrievalRate, maximumTicketCapacity,");
+        out.println("  vendorCount, consumerCount, vendorBatchSize, consumerBatchSize, holdTime, holdAbandonRate,");
+        out.println("  dispatchPolicy, maxWaiters, waitSlo.");
+        out.println("The configuration file defaults to " + DEFAULT_CONFIG + "; .txt files use the plain text format.");
+    }
+
+    // Read the options, the swept fields and the configuration file name.
+    private void parseArguments(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "--sweep":
+                    break; // Already decided by Main
+                case "--vary":
+                    addParameter(valueAfter(args, i++));
+                    break;
+                case "--duration":
+                    double seconds;
+                    try {
+                        seconds = Double.parseDouble(valueAfter(args, i++));
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("Duration must be a number of seconds.");
+                    }
+                    if (!(seconds > 0)) {
+                        throw new IllegalArgumentException("Duration must be greater than zero.");
+                    }
+                    durationMillis = (long) (seconds * 1000);
+                    break;
+                case "--tickets":
+                    ticketOverride = positive(valueAfter(args, i++), "Ticket count");
+                    break;
+                case "--replicates":
+                    replicates = positive(valueAfter(args, i++), "Replicate count");
+                    break;
+                case "--seed":
+                    try {
+                        seed = Long.parseLong(valueAfter(args, i++));
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("Seed must be a whole number.");
+                    }
+                    break;
+                case "--parallelism":
+                    parallelism = positive(valueAfter(args, i++), "Parallelism");
+                    break;
+                case "--format":
+                    format = valueAfter(args, i++).toLowerCase(Locale.ROOT);
+                    if (!format.equals("csv") && !format.equals("json")) {
+                        throw new IllegalArgumentException("Format must be csv or json.");
+                    }
+                    break;
+                case "--output":
+                    outputFile = valueAfter(args, i++);
+                    break;
+                default:
+                    if (arg.startsWith("--")) {
+                        throw new IllegalArgumentException("Unknown option " + arg);
+                    }
+                    if (configFile != null) {
+                        throw new IllegalArgumentException("A sweep takes one base configuration file.");
+                    }
+                    configFile = arg;
+            }
+        }
+        if (configFile == null) {
+            configFile = DEFAULT_CONFIG;
+        }
+        if (parameters.isEmpty()) {
+            throw new IllegalArgumentException("Give at least one --vary <field>=<values>.");
+        }
+        if (format == null) {
+            format = outputFile != null && outputFile.toLowerCase(Locale.ROOT).endsWith(".csv") ? "csv" : "json";
+        }
+    }
+
+    // Parse "field=values" and remember the values of the field.
+    private void addParameter(String text) {
+        int equals = text.indexOf('=');
+        if (equals <= 0 || equals == text.length() - 1) {
+            throw new IllegalArgumentException("--vary needs <field>=<values>, for example ticketReleaseRate=10,20,50.");
+        }
+        String field = text.substring(0, equals).trim();
+        String values = text.substring(equals + 1).trim();
+        if (parameters.containsKey(field)) {
+            throw new IllegalArgumentException(field + " is varied twice.");
+        }
+        parameters.put(field, values.contains(":") ? expandRange(field, values) : splitList(field, values));
+    }
+
+    // Split a comma-separated list of values.
+    private static List<String> splitList(String field, String values) {
+        List<String> list = new ArrayList<>();
+        for (String value : values.split(",")) {
+            if (!value.trim().isEmpty()) {
+                list.add(value.trim());
+            }
+        }
+        if (list.isEmpty()) {
+            throw new IllegalArgumentException(field + " has no values.");
+        }
+        return list;
+    }
+
+    // Expand "from:to:step" (or "from:to" with a step of 1) into its values, including "to" when a step lands on it.
+    private static List<String> expandRange(String field, String values) {
+        String[] parts = values.split(":");
+        if (parts.length < 2 || parts.length > 3) {
+            throw new IllegalArgumentException(field + " range must be from:to or from:to:step.");
+        }
+        double from;
+        double to;
+        double step;
+        try {
+            from = Double.parseDouble(parts[0].trim());
+            to = Double.parseDouble(parts[1].trim());
+            step = parts.length == 3 ? Double.parseDouble(parts[2].trim()) : 1;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(field + " range must be numbers, such as 100:1000:100.");
+        }
+        if (!(step > 0) || !(to >= from)) {
+            throw new IllegalArgumentException(field + " range needs from <= to and a step greater than zero.");
+        }
+        long count = (long) Math.floor((to - from) / step + 1e-9) + 1; // The small margin keeps "to" despite rounding
+        if (count > MAX_POINTS) {
+            throw new IllegalArgumentException(field + " range has more than " + MAX_POINTS + " values.");
+        }
+        List<String> list = new ArrayList<>();
+        for (long i = 0; i < count; i++) {
+            list.add(formatNumber(from + i * step)); // Multiplying instead of adding keeps long ranges exact
+        }
+        return list;
+    }
+
+    // Write a number without a trailing ".0", so whole numbers can be used for whole-number fields.
+    private static String formatNumber(double value) {
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return String.format(Locale.ROOT, "%.10g", value).replaceAll("0+$", "").replaceAll("\\.$", "");
+    }
+
+    // Get the value that follows an option.
+    private static String valueAfter(String[] args, int index) {
+        if (index + 1 >= args.length) {
+            throw new IllegalArgumentException(args[index] + " needs a value.");
+        }
+        return args[index + 1];
+    }
+
+    // Parse a whole number that must be greater than zero.
+    private static int positive(String text, String name) {
+        int value;
+        try {
+            value = Integer.parseInt(text);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be a whole number.");
+        }
+        if (value <= 0) {
+            throw new IllegalArgumentException(name + " must be greater than zero.");
+        }
+        return value;
+    }
+
+    // Load the base configuration file (JSON unless it ends in .txt) and apply the ticket override.
+    private Configuration load() throws IOException {
+        Configuration configuration = configFile.endsWith(".txt")
+                ? Configuration.loadFromPlainText(configFile)
+                : Configuration.loadFromJson(configFile);
+        if (ticketOverride > 0) {
+            configuration = configuration.toBuilder().setTotalTickets(ticketOverride).build();
+        }
+        return configuration;
+    }
+
+    // Build the configuration of every combination of the swept values, so a bad value fails before anything runs.
+    private List<SweepPoint> buildPoints(Configuration base) {
+        if (parameters.containsKey("consumerCount") && !base.getConsumerTiers().isEmpty()) {
+            // The builder replaces the consumer count with the sum of the tiers, so every point would be the same
+            throw new IllegalArgumentException("consumerCount cannot be swept when the configuration has consumer "
+                    + "tiers (" + base.getConsumerTiers() + "); the tiers decide the number of consumers.");
+        }
+        long total = 1;
+        for (List<String> values : parameters.values()) {
+            total *= values.size();
+            if (total * replicates > MAX_POINTS) {
+                throw new IllegalArgumentException("The sweep has more than " + MAX_POINTS + " runs.");
+            }
+        }
+        List<String> fields = new ArrayList<>(parameters.keySet());
+        List<SweepPoint> points = new ArrayList<>((int) total);
+        int[] index = new int[fields.size()]; // Which value of each field the current point uses (an odometer)
+        for (long point = 0; point < total; point++) {
+            Map<String, String> values = new LinkedHashMap<>();
+            Configuration.Builder builder = base.toBuilder();
+            for (int f = 0; f < fields.size(); f++) {
+                String value = parameters.get(fields.get(f)).get(index[f]);
+                values.put(fields.get(f), value);
+                apply(builder, fields.get(f), value);
+            }
+            Configuration configuration;
+            try {
+                configuration = builder.build();
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                throw new IllegalArgumentException("Point " + values + " is not a valid configuration: " + e.getMessage());
+            }
+            points.add(new SweepPoint(values, configuration));
+            for (int f = fields.size() - 1; f >= 0; f--) { // The last field changes fastest
+                if (++index[f] < parameters.get(fields.get(f)).size()) {
+                    break;
+                }
+                index[f] = 0;
+            }
+        }
+        return points;
+    }
+
+    // Set one field of the builder from its text value.
+    private static void apply(Configuration.Builder builder, String field, String value) {
+        try {
+            switch (field) {
+                case "totalTickets":
+                    builder.setTotalTickets(Integer.parseInt(value));
+                    break;
+                case "ticketReleaseRate":
+                    builder.setTicketReleaseRate(Double.parseDouble(value));
+                    break;
+                case "customerRetrievalRate":
+                    builder.setCustomerRetrievalRate(Double.parseDouble(value));
+                    break;
+                case "maximumTicketCapacity":
+                    builder.setMaximumTicketCapacity(Integer.parseInt(value));
+                    break;
+                case "vendorCount":
+                    builder.setVendorCount(Integer.parseInt(value));
+                    break;
+                case "consumerCount":
+                    builder.setConsumerCount(Integer.parseInt(value));
+                    break;
+                case "vendorBatchSize":
+                    builder.setVendorBatchSize(Integer.parseInt(value));
+                    break;
+                case "consumerBatchSize":
+                    builder.setConsumerBatchSize(Integer.parseInt(value));
+                    break;
+                case "holdTime":
+                    builder.setHoldTime(Integer.parseInt(value));
+                    break;
+                case "holdAbandonRate":
+                    builder.setHoldAbandonRate(Double.parseDouble(value));
+                    break;
+                case "dispatchPolicy":
+                    builder.setDispatchPolicy(DispatchPolicy.fromText(value));
+                    break;
+                case "maxWaiters":
+                    builder.setMaxWaiters(Integer.parseInt(value));
+                    break;
+                case "waitSlo":
+                    builder.setWaitSlo(Integer.parseInt(value));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Cannot sweep " + field + "; see the list of fields below.");
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(value + " is not a valid " + field + ".");
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(field + "=" + value + ": " + e.getMessage());
+        }
+    }
+
+    // Simulate every point and replicate on a fork-join pool, and return the results in grid order.
+    private List<SweepResult> runAll(List<SweepPoint> points) throws InterruptedException {
+        int runs = points.size() * replicates;
+        System.err.println("Sweeping " + points.size() + " points x " + replicates + " replicates = " + runs
+                + " simulations on " + parallelism + " threads");
+        AtomicInteger finished = new AtomicInteger();
+        int reportEvery = Math.max(1, runs / 10); // Progress about every 10%
+        List<Callable<SweepResult>> tasks = new ArrayList<>(runs);
+        for (SweepPoint point : points) {
+            for (int replicate = 0; replicate < replicates; replicate++) {
+                long runSeed = seed + replicate;
+                tasks.add(() -> {
+                    SweepResult result = simulate(point, runSeed);
+                    int done = finished.incrementAndGet();
+                    if (done % reportEvery == 0 || done == runs) {
+                        System.err.println("Finished " + done + "/" + runs);
+                    }
+                    return result;
+                });
+            }
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<SweepResult> results = new ArrayList<>(runs);
+            for (Future<SweepResult> future : pool.invokeAll(tasks)) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("A simulation failed: " + e.getCause(), e.getCause());
+                }
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // Simulate one point with one seed.
+    private SweepResult simulate(SweepPoint point, long runSeed) {
+        DiscreteEventSimulation simulation = new DiscreteEventSimulation(point.configuration, runSeed);
+        long started = System.nanoTime();
+        boolean completed = simulation.run(TimeUnit.MILLISECONDS.toNanos(durationMillis));
+        return new SweepResult(point.values, runSeed, completed, simulation, System.nanoTime() - started);
+    }
+
+    // Write the report as CSV or JSON to the output file or the console.
+    private void writeResults(List<SweepResult> results, double wallClockSeconds) throws IOException {
+        Writer writer = outputFile == null ? new PrintWriter(System.out) : new FileWriter(outputFile);
+        try {
+            if (format.equals("csv")) {
+                writeCsv(results, writer);
+            } else {
+                Gson gson = new GsonBuilder().setPrettyPrinting().serializeSpecialFloatingPointValues().create();
+                gson.toJson(new SweepSummary(Instant.now().toString(), configFile, parallelism, wallClockSeconds,
+                        new ArrayList<>(parameters.keySet()), results), writer);
+                writer.write(System.lineSeparator());
+            }
+        } finally {
+            if (outputFile == null) {
+                writer.flush(); // Leave standard output open
+            } else {
+                writer.close();
+                System.err.println("Sweep report saved to " + outputFile);
+            }
+        }
+    }
+
+    // Write one CSV row per run: the swept fields first, then the measurements.
+    private void writeCsv(List<SweepResult> results, Writer writer) throws IOException {
+        StringBuilder line = new StringBuilder();
+        for (String field : parameters.keySet()) {
+            line.append(field).append(',');
+        }
+        line.append("seed,completed,sellOutSeconds,simulatedSeconds,releasedPerSecond,retrievedPerSecond,")
+                .append("waitP50Millis,waitP90Millis,waitP99Millis,waitMaxMillis,ticketAgeP99Millis,")
+                .append("blockedPuts,timedOutTakes,expiredHolds,rejectedWaiters,shedWaiters,")
+                .append("simulatedEvents,wallClockSeconds");
+        writer.write(line.append(System.lineSeparator()).toString());
+        for (SweepResult result : results) {
+            line.setLength(0);
+            for (String value : result.parameters.values()) {
+                line.append(value).append(',');
+            }
+            line.append(result.seed).append(',')
+                    .append(result.completed).append(',')
+                    .append(result.sellOutSeconds != null ? number(result.sellOutSeconds) : "").append(',')
+                    .append(number(result.simulatedSeconds)).append(',')
+                    .append(number(result.releasedPerSecond)).append(',')
+                    .append(number(result.retrievedPerSecond)).append(',')
+                    .append(number(result.waitP50Millis)).append(',')
+                    .append(number(result.waitP90Millis)).append(',')
+                    .append(number(result.waitP99Millis)).append(',')
+                    .append(number(result.waitMaxMillis)).append(',')
+                    .append(number(result.ticketAgeP99Millis)).append(',')
+                    .append(result.blockedPuts).append(',')
+                    .append(result.timedOutTakes).append(',')
+                    .append(result.expiredHolds).append(',')
+                    .append(result.rejectedWaiters).append(',')
+                    .append(result.shedWaiters).append(',')
+                    .append(result.simulatedEvents).append(',')
+                    .append(number(result.wallClockSeconds));
+            writer.write(line.append(System.lineSeparator()).toString());
+        }
+    }
+
+    // Format a measurement for the CSV (always with a dot, whatever the locale).
+    private static String number(double value) {
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+
+    /**
+     * One point of the grid: the values of the swept fields and the configuration they give.
+     */
+    private static final class SweepPoint {
+        private final Map<String, String> values;       // Swept field -> its value at this point
+        private final Configuration configuration;      // The base configuration with those values
+
+        private SweepPoint(Map<String, String> values, Configuration configuration) {
+            this.values = values;
+            this.configuration = configuration;
+        }
+    }
+
+    /**
+     * The JSON report: how the sweep ran and one entry per simulation.
+     */
+    private static final class SweepSummary {
+        private final String generatedAt;        // When the report was written (ISO-8601)
+        private final String configFile;         // The base configuration
+        private final int parallelism;           // Simulations run at once
+        private final double wallClockSeconds;   // Real time the whole sweep took
+        private final List<String> parameters;   // The swept fields, in grid order
+        private final List<SweepResult> results; // One entry per point and replicate
+
+        private SweepSummary(String generatedAt, String configFile, int parallelism, double wallClockSeconds,
+                             List<String> parameters, List<SweepResult> results) {
+            this.generatedAt = generatedAt;
+            this.configFile = configFile;
+            this.parallelism = parallelism;
+            this.wallClockSeconds = wallClockSeconds;
+            this.parameters = parameters;
+            this.results = results;
+        }
+    }
+
+    /**
+     * The measurements of one simulation. Times are in simulated time, except wallClockSeconds.
+     */
+    private static final class SweepResult {
+        private final Map<String, String> parameters; // Swept field -> its value for this run
+        private final long seed;                 // The seed of the run
+        private final boolean completed;         // Whether every ticket was retrieved within the duration
+        private final Double sellOutSeconds;     // When the last ticket was retrieved (null if it never was)
+        private final double simulatedSeconds;   // Simulated time the run covered
+        private final double releasedPerSecond;  // Release throughput
+        private final double retrievedPerSecond; // Retrieval throughput
+        private final double waitP50Millis;      // Consumer wait per purchase, percentiles
+        private final double waitP90Millis;
+        private final double waitP99Millis;
+        private final double waitMaxMillis;
+        private final double ticketAgeP99Millis; // Time tickets sat in the pool, 99th percentile
+        private final long blockedPuts;          // Vendor adds that had to wait on a full pool
+        private final long timedOutTakes;        // Takes that found the pool empty until their timeout
+        private final long expiredHolds;         // Holds that ran out and put their ticket back
+        private final long rejectedWaiters;      // Consumers turned away because too many were waiting
+        private final long shedWaiters;          // Consumers turned away or given up because waits reached the SLO
+        private final long simulatedEvents;      // Events carried out
+        private final double wallClockSeconds;   // Real time the simulation took
+
+        private SweepResult(Map<String, String> parameters, long seed, boolean completed,
+                            DiscreteEventSimulation simulation, long wallNanos) {
+            TicketPoolSnapshot counters = simulation.snapshot();
+            LatencyHistogram.Summary wait = simulation.getTakeWaitHistogram().summarize();
+            this.parameters = parameters;
+            this.seed = seed;
+            this.completed = completed;
+            this.simulatedSeconds = simulation.getVirtualNanos() / 1_000_000_000.0;
+            this.sellOutSeconds = completed ? simulatedSeconds : null;
+            this.releasedPerSecond = simulatedSeconds > 0 ? counters.getReleased() / simulatedSeconds : 0;
+            this.retrievedPerSecond = simulatedSeconds > 0 ? counters.getRetrieved() / simulatedSeconds : 0;
+            this.waitP50Millis = wait.getP50() / 1_000_000.0;
+            this.waitP90Millis = wait.getP90() / 1_000_000.0;
+            this.waitP99Millis = wait.getP99() / 1_000_000.0;
+            this.waitMaxMillis = wait.getMax() / 1_000_000.0;
+            this.ticketAgeP99Millis = simulation.getTicketAgeHistogram().summarize().getP99() / 1_000_000.0;
+            this.blockedPuts = counters.getBlockedPuts();
+            this.timedOutTakes = counters.getTimedOut();
+            this.expiredHolds = counters.getExpiredHolds();
+            this.rejectedWaiters = simulation.getRejected();
+            this.shedWaiters = simulation.getShed();
+            this.simulatedEvents = simulation.getProcessedEvents();
+            this.wallClockSeconds = wallNanos / 1_000_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package CLI;
+
+/**
+ * Decides which kind of Java thread the Vendor and Consumer runnables are started on.
+ */
+public enum ThreadMode {
+    // Lightweight threads managed by the JVM, so thousands of blocked consumers are cheap.
+    VIRTUAL,
+    // Classic operating system threads, kept so both modes can be compared.
+    PLATFORM;
+
+    /**
+     * Create a thread builder for this mode that names threads "prefix-1", "prefix-2", ...
+     *
+     * @param prefix The name prefix for the created threads (for example "Vendor").
+     * @return A thread builder ready to start runnables.
+     */
+    public Thread.Builder newThreadBuilder(String prefix) {
+        if (this == VIRTUAL) {
+            return Thread.ofVirtual().name(prefix + "-", 1);
+        }
+        return Thread.ofPlatform().name(prefix + "-", 1);
+    }
+
+    /**
+     * Convert text such as "virtual" or "PLATFORM" into a ThreadMode.
+     *
+     * @param text The text to convert.
+     * @return The matching ThreadMode.
+     */
+    public static ThreadMode fromText(String text) {
+        return ThreadMode.valueOf(text.trim().toUpperCase());
+    }
+}
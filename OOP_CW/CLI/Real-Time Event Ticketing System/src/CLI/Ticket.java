@@ -4,34 +4,81 @@ package CLI;
 import java.util.UUID;
 
 public class Ticket {
-    private final UUID uuid; // This is the unique ID of the ticket
+    // Fixed upper half of the UUID form of a ticket id, so ticket UUIDs are easy to recognise
+    private static final long UUID_PREFIX = 0x5449434b45540000L; // "TICKET" in ASCII
+
+    private final long id; // This is the unique ID of the ticket (see TicketIdGenerator)
+    private long enqueuedAtNanos; // When the ticket was put into a pool (System.nanoTime), 0 if never
+
+    /**
+     * Constructor to create a new Ticket with an ID from the calling thread's id sequence.
+     */
+    public Ticket() {
+        this(TicketIdGenerator.nextIdForCurrentThread());
+    }
 
     /**
-     * Constructor to create a new Ticket object.
+     * Constructor to create a Ticket object for an existing ID.
      *
-     * @param addedTickets An extra value (not currently used, but kept for future features).
+     * @param id The unique ID of the ticket, usually from a {@link TicketIdGenerator.Sequence}.
      */
-    public Ticket(int addedTickets) {
-        // Generate a unique ID for this ticket using the UUID class
-        this.uuid = UUID.randomUUID();
+    public Ticket(long id) {
+        if (id < 0) {
+            throw new IllegalArgumentException("Ticket ID must not be negative.");
+        }
+        this.id = id;
     }
 
     /**
      * This method gives the unique ID of the ticket.
      *
+     * @return The unique ID of the ticket as a number.
+     */
+    public long getId() {
+        return id; // Return the unique ID of the ticket
+    }
+
+    /**
+     * This method gives the ticket's ID as a UUID, for systems that expect one.
+     * The UUID is built from the ID each time, so it costs nothing unless it is used.
+     *
      * @return The unique ID of the ticket as a UUID object.
      */
     public UUID getUuid() {
-        return uuid; // Return the unique ID of the ticket
+        return new UUID(UUID_PREFIX, id); // Wrap the numeric ID in a UUID
     }
 
     /**
-     * This method gives the unique ID of the ticket as a text (string).
+     * Record when the ticket was put into a pool, so the pool can measure how
+     * long it waited there. The pool's put and take make the value visible to
+     * the consumer that takes the ticket.
      *
-     * @return The ticket's unique ID in text format.
+     * @param nanos The time from {@link System#nanoTime()}.
      */
-    public String getId() {
-        return uuid.toString(); // Convert the unique ID to a string and return it
+    public void markEnqueued(long nanos) {
+        this.enqueuedAtNanos = nanos;
+    }
+
+    /**
+     * This method gives the time the ticket was put into a pool.
+     *
+     * @return The time from {@link System#nanoTime()}, or 0 if the ticket was never stamped.
+     */
+    public long getEnqueuedAtNanos() {
+        return enqueuedAtNanos;
+    }
+
+    /**
+     * Two tickets are equal when they have the same ID.
+     */
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Ticket && ((Ticket) other).id == id;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(id);
     }
 
     /**
@@ -41,6 +88,6 @@ public class Ticket {
      */
     @Override
     public String toString() {
-        return "Ticket ID: " + uuid; // Combine "Ticket ID: " with the unique ID
+        return "Ticket ID: " + id; // Combine "Ticket ID: " with the unique ID
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,299 @@
+package CLI;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hands the tickets of a pool to tiers of Consumers according to a
+ * {@link DispatchPolicy}, instead of letting every Consumer race for them.
+ *
+ * While nobody is waiting, a Consumer takes from the pool itself, exactly as
+ * without a dispatcher. Once the pool runs dry, Consumers line up in the
+ * waiting queue of their tier (a lock-free queue, so lining up never blocks)
+ * and park. One dispatcher thread picks the next waiter by the policy, takes
+ * up to that waiter's batch from the pool and hands the tickets straight to
+ * it. The pool's own takes are therefore only ever contended by the
+ * dispatcher and by Consumers arriving while no one is waiting.
+ *
+ * The dispatcher waits at most {@link #DISPATCH_WAIT_NANOS} for tickets on
+ * behalf of one waiter before looking again, so a higher tier that starts
+ * waiting in the meantime is served next.
+ *
+ * Every successful take records how long it waited in its tier's histogram,
+ * so the wait of each tier can be compared under load.
+ */
+public final class TicketDispatcher {
+    private static final long DISPATCH_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(1); // Longest wait for one waiter's tickets
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);    // Dispatcher sleep with no waiters
+    private static final int WAITING = 0;   // Waiter state: in its queue, not being served
+    private static final int CLAIMED = 1;   // Waiter state: the dispatcher is taking tickets for it
+    private static final int SERVED = 2;    // Waiter state: tickets handed over
+    private static final int CANCELLED = 3; // Waiter state: gave up (timeout, interrupt or stop)
+
+    private final TicketPool ticketPool;                  // The pool the tickets come from
+    private final DispatchPolicy policy;                  // How the next waiter is picked
+    private final List<ConsumerTier> tiers;               // The tiers in priority order
+    private final List<Queue<Waiter>> waiting;            // One waiting queue per tier
+    private final LatencyHistogram[] waitHistograms;      // Wait per successful take, per tier
+    private final LongAdder[] servedTickets;              // Tickets taken, per tier
+    private final AtomicInteger waiterCount = new AtomicInteger(); // Consumers currently lined up
+    private final double[] pass;                          // WEIGHTED: virtual time each tier has used (dispatcher only)
+    private double virtualTime = 0;                       // WEIGHTED: pass of the last tier served (dispatcher only)
+    private final Thread worker;                          // The dispatcher thread
+    private volatile boolean running = true;              // Cleared by stop()
+    private volatile boolean idle = false;                // True while the dispatcher sleeps with no waiters
+
+    /**
+     * Constructor to create and start a dispatcher.
+     *
+     * @param ticketPool The pool the tickets come from.
+     * @param policy     How the next waiter is picked (not DIRECT).
+     * @param tiers      The tiers in priority order.
+     */
+    public TicketDispatcher(TicketPool ticketPool, DispatchPolicy policy, List<ConsumerTier> tiers) {
+        if (policy == DispatchPolicy.DIRECT || tiers.isEmpty()) {
+            throw new IllegalArgumentException("A dispatcher needs a dispatch policy and at least one tier.");
+        }
+        this.ticketPool = ticketPool;
+        this.policy = policy;
+        this.tiers = List.copyOf(tiers);
+        this.waiting = new ArrayList<>(tiers.size());
+        this.waitHistograms = new LatencyHistogram[tiers.size()];
+        this.servedTickets = new LongAdder[tiers.size()];
+        this.pass = new double[tiers.size()];
+        for (int i = 0; i < tiers.size(); i++) {
+            waiting.add(new ConcurrentLinkedQueue<>());
+            waitHistograms[i] = new LatencyHistogram();
+            servedTickets[i] = new LongAdder();
+        }
+        this.worker = Thread.ofPlatform().name("TicketDispatcher").daemon(true).start(this::run);
+    }
+
+    /**
+     * Create the dispatcher selected in the configuration.
+     *
+     * @param ticketPool    The pool the tickets come from.
+     * @param configuration The system configuration (dispatch policy and tiers).
+     * @return A running dispatcher, or null when Consumers take from the pool directly.
+     */
+    public static TicketDispatcher create(TicketPool ticketPool, Configuration configuration) {
+        if (configuration.getDispatchPolicy() == DispatchPolicy.DIRECT) {
+            return null;
+        }
+        return new TicketDispatcher(ticketPool, configuration.getDispatchPolicy(), configuration.getTiers());
+    }
+
+    /**
+     * Take up to {@code maxTickets} ticket IDs for a Consumer of the given tier.
+     * Waits up to the timeout for the dispatcher to serve it.
+     *
+     * @param tier       The index of the Consumer's tier.
+     * @param target     The array that receives the IDs, starting at index 0.
+     * @param maxTickets The maximum number of IDs to take.
+     * @param timeout    How long to wait for tickets.
+     * @param unit       The unit of the timeout.
+     * @return The number of IDs taken (0 if none were handed over before the timeout).
+     * @throws InterruptedException If the thread is interrupted while waiting and no tickets were handed over.
+     */
+    public int takeTicketIds(int tier, long[] target, int maxTickets, long timeout, TimeUnit unit)
+            throws InterruptedException {
+        long started = System.nanoTime();
+        if (waiterCount.get() == 0) {
+            // Nobody is lined up, so nobody can be overtaken: take from the pool directly
+            int taken = ticketPool.takeTicketIds(target, maxTickets, 0, TimeUnit.NANOSECONDS);
+            if (taken > 0) {
+                served(tier, taken, 0L);
+                return taken;
+            }
+        }
+
+        Waiter waiter = new Waiter(tier, target, maxTickets, Thread.currentThread(), started);
+        waiterCount.incrementAndGet();
+        waiting.get(tier).add(waiter);
+        if (idle) {
+            LockSupport.unpark(worker);
+        }
+        long deadline = started + unit.toNanos(timeout);
+        boolean interrupted = false;
+        try {
+            while (true) {
+                if (waiter.state.get() == SERVED) {
+                    served(tier, waiter.granted, System.nanoTime() - started);
+                    return waiter.granted;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || interrupted || !running) {
+                    if (waiter.state.compareAndSet(WAITING, CANCELLED)) {
+                        if (interrupted) {
+                            interrupted = false; // Reported by the exception instead
+                            throw new InterruptedException();
+                        }
+                        return 0;
+                    }
+                    // The dispatcher is taking tickets for this waiter; its answer comes within one dispatch wait
+                    LockSupport.parkNanos(this, DISPATCH_WAIT_NANOS / 10);
+                    continue;
+                }
+                LockSupport.parkNanos(this, remaining);
+                interrupted |= Thread.interrupted();
+            }
+        } finally {
+            waiterCount.decrementAndGet();
+            if (interrupted) {
+                Thread.currentThread().interrupt(); // Keep the interrupt for the Consumer's loop
+            }
+        }
+    }
+
+    /**
+     * Stop the dispatcher thread. Waiting Consumers give up and return no tickets.
+     */
+    public void stop() {
+        running = false;
+        LockSupport.unpark(worker);
+    }
+
+    // Get the tiers in priority order.
+    public List<ConsumerTier> getTiers() {
+        return tiers;
+    }
+
+    // Get the dispatch policy.
+    public DispatchPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Get the histogram of how long the Consumers of one tier waited for each successful take.
+     *
+     * @param tier The index of the tier.
+     * @return The wait histogram, in nanoseconds.
+     */
+    public LatencyHistogram getWaitHistogram(int tier) {
+        return waitHistograms[tier];
+    }
+
+    /**
+     * Get the number of tickets the Consumers of one tier have taken.
+     *
+     * @param tier The index of the tier.
+     * @return The tickets taken by the tier.
+     */
+    public long getServedTickets(int tier) {
+        return servedTickets[tier].sum();
+    }
+
+    // Count tickets handed to a tier and record how long its Consumer waited.
+    private void served(int tier, int tickets, long waitedNanos) {
+        servedTickets[tier].add(tickets);
+        waitHistograms[tier].record(waitedNanos);
+    }
+
+    // The dispatcher thread: pick a waiter, take its tickets from the pool and hand them over.
+    private void run() {
+        while (running) {
+            Waiter waiter = nextWaiter();
+            if (waiter == null) {
+                idle = true;
+                if (nextWaiter() == null) { // Look again after raising the flag, so a new waiter always wakes us
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                idle = false;
+                continue;
+            }
+            if (!waiter.state.compareAndSet(WAITING, CLAIMED)) {
+                waiting.get(waiter.tier).remove(waiter); // It gave up just now
+                continue;
+            }
+            int taken;
+            try {
+                taken = ticketPool.takeTicketIds(waiter.target, waiter.maxTickets, DISPATCH_WAIT_NANOS,
+                        TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                waiter.state.set(WAITING);
+                break;
+            }
+            if (taken == 0) {
+                waiter.state.set(WAITING); // Still dry: look again, a higher tier may have lined up meanwhile
+                continue;
+            }
+            waiting.get(waiter.tier).remove(waiter);
+            if (policy == DispatchPolicy.WEIGHTED) {
+                double start = Math.max(pass[waiter.tier], virtualTime);
+                virtualTime = start;
+                pass[waiter.tier] = start + (double) taken / tiers.get(waiter.tier).getWeight();
+            }
+            waiter.granted = taken;
+            waiter.state.set(SERVED); // Publishes the IDs written into the waiter's array
+            LockSupport.unpark(waiter.thread);
+        }
+    }
+
+    // Pick the waiter the policy serves next, dropping waiters that gave up. Returns null if nobody waits.
+    private Waiter nextWaiter() {
+        Waiter best = null;
+        double bestPass = Double.MAX_VALUE;
+        for (int tier = 0; tier < waiting.size(); tier++) {
+            Waiter head = firstWaiting(tier);
+            if (head == null) {
+                continue;
+            }
+            switch (policy) {
+                case PRIORITY:
+                    return head; // The highest tier with a waiter wins
+                case WEIGHTED:
+                    // The tier that has used the least of its share so far; an idle tier cannot save up credit
+                    double tierPass = Math.max(pass[tier], virtualTime);
+                    if (tierPass < bestPass) {
+                        bestPass = tierPass;
+                        best = head;
+                    }
+                    break;
+                case FIFO:
+                default:
+                    if (best == null || head.enqueuedAt - best.enqueuedAt < 0) {
+                        best = head; // Longest waiting so far
+                    }
+                    break;
+            }
+        }
+        return best;
+    }
+
+    // Get the first waiter of a tier that has not given up.
+    private Waiter firstWaiting(int tier) {
+        Queue<Waiter> queue = waiting.get(tier);
+        Waiter head;
+        while ((head = queue.peek()) != null && head.state.get() == CANCELLED) {
+            queue.poll(); // Only the dispatcher removes waiters, so this is the head just seen
+        }
+        return head;
+    }
+
+    /**
+     * One Consumer lined up for tickets.
+     */
+    private static final class Waiter {
+        private final int tier;                 // The Consumer's tier
+        private final long[] target;            // Where the dispatcher writes the ticket IDs
+        private final int maxTickets;           // The most tickets the Consumer wants
+        private final Thread thread;            // The Consumer's thread, unparked when served
+        private final long enqueuedAt;          // When the Consumer started waiting (System.nanoTime)
+        private final AtomicInteger state = new AtomicInteger(WAITING); // WAITING, CLAIMED, SERVED or CANCELLED
+        private int granted;                    // Tickets handed over (published by the SERVED state)
+
+        private Waiter(int tier, long[] target, int maxTickets, Thread thread, long enqueuedAt) {
+            this.tier = tier;
+            this.target = target;
+            this.maxTickets = maxTickets;
+            this.thread = thread;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package CLI;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A reservation of one ticket, made with {@link TicketPool#reserveTicket}.
+ *
+ * The ticket is out of the pool while it is held. The buyer either confirms
+ * the hold (the ticket is sold) or releases it (the ticket goes back to the
+ * pool); if neither happens before the hold time is over, the hold expires and
+ * the ticket goes back to the pool by itself. Exactly one of the three
+ * happens: whichever changes the state away from ACTIVE first wins.
+ *
+ * A hold is also the entry of its {@link HoldTimer}'s timing wheel, so keeping
+ * track of it needs no extra objects.
+ */
+public final class TicketHold {
+    /**
+     * The states of a hold.
+     */
+    public enum State {
+        // The ticket is reserved and waiting for the buyer.
+        ACTIVE,
+        // The buyer confirmed the hold; the ticket is sold.
+        CONFIRMED,
+        // The buyer gave the ticket back.
+        RELEASED,
+        // The hold time ran out; the ticket went back to the pool.
+        EXPIRED
+    }
+
+    private static final State[] STATES = State.values();
+
+    private final long ticketId;                  // The reserved ticket
+    private final long deadlineNanos;             // When the hold expires, on the timer's clock
+    private final AtomicInteger state = new AtomicInteger(State.ACTIVE.ordinal()); // The current State
+
+    // Timing wheel links, only touched by the timer thread
+    HoldTimer.Bucket bucket;  // The wheel slot this hold is in (null when not in the wheel)
+    TicketHold next;          // The next hold in the same slot
+    TicketHold previous;      // The previous hold in the same slot
+    long remainingRounds;     // Full turns of the wheel left before the hold expires
+
+    /**
+     * Constructor to create an active hold.
+     *
+     * @param ticketId      The reserved ticket.
+     * @param deadlineNanos When the hold expires, on the timer's clock.
+     */
+    TicketHold(long ticketId, long deadlineNanos) {
+        this.ticketId = ticketId;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    // Get the ID of the reserved ticket.
+    public long getTicketId() {
+        return ticketId;
+    }
+
+    // Get the current state of the hold.
+    public State getState() {
+        return STATES[state.get()];
+    }
+
+    // Check whether the hold is still waiting for the buyer.
+    public boolean isActive() {
+        return state.get() == State.ACTIVE.ordinal();
+    }
+
+    // Get when the hold expires, on the timer's clock.
+    long getDeadlineNanos() {
+        return deadlineNanos;
+    }
+
+    /**
+     * Move the hold from ACTIVE to another state.
+     *
+     * @param newState The state to move to.
+     * @return True if this call ended the hold, false if it had already ended.
+     */
+    boolean finish(State newState) {
+        return state.compareAndSet(State.ACTIVE.ordinal(), newState.ordinal());
+    }
+}
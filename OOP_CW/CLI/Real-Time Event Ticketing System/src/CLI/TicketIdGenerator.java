@@ -0,0 +1,106 @@
+package CLI;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates unique, increasing 64-bit ticket ids in the style of Twitter's
+ * Snowflake ids. The upper bits hold the number of milliseconds since
+ * {@link #EPOCH_MILLIS} and the lower {@link #SEQUENCE_BITS} bits hold a sequence
+ * number, so an id can be sorted by time and its creation time read back.
+ *
+ * Vendors do not share a counter for every ticket. Each vendor gets its own
+ * {@link Sequence}, which leases a block of {@link #BLOCK_SIZE} ids from the
+ * generator with one compare-and-set and then hands them out with a plain
+ * increment. Blocks never overlap, so ids stay unique however many vendors run.
+ */
+public class TicketIdGenerator {
+    /** The start of ticket time: 2024-01-01T00:00:00Z. */
+    public static final long EPOCH_MILLIS = 1_704_067_200_000L;
+    /** The number of low bits used for the sequence within a millisecond. */
+    public static final int SEQUENCE_BITS = 22;
+    /** The number of ids a vendor leases at once. */
+    public static final int BLOCK_SIZE = 4096;
+
+    // The generator shared by all vendors in this JVM
+    private static final TicketIdGenerator GLOBAL = new TicketIdGenerator();
+    // Per-thread sequence used by the convenience Ticket() constructor
+    private static final ThreadLocal<Sequence> THREAD_SEQUENCE = ThreadLocal.withInitial(GLOBAL::newSequence);
+
+    private final AtomicLong nextBlockStart = new AtomicLong(); // The first id of the next free block
+
+    /**
+     * Get the generator shared by all vendors in this JVM.
+     *
+     * @return The shared TicketIdGenerator.
+     */
+    public static TicketIdGenerator global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Get the next id from a sequence owned by the calling thread.
+     *
+     * @return A new unique ticket id.
+     */
+    static long nextIdForCurrentThread() {
+        return THREAD_SEQUENCE.get().next();
+    }
+
+    /**
+     * Create a new sequence for one vendor. A sequence must only be used by one thread.
+     *
+     * @return A new Sequence that leases its ids from this generator.
+     */
+    public Sequence newSequence() {
+        return new Sequence(this);
+    }
+
+    /**
+     * Read back the creation time (in epoch milliseconds) stored in a ticket id.
+     *
+     * @param id The ticket id.
+     * @return The time the id's block was leased, in milliseconds since 1970.
+     */
+    public static long timestampOf(long id) {
+        return (id >>> SEQUENCE_BITS) + EPOCH_MILLIS;
+    }
+
+    // Lease the next block of ids. The block starts at the current time or,
+    // if ids are being used faster than the clock moves, right after the last block.
+    private long leaseBlock() {
+        while (true) {
+            long last = nextBlockStart.get();
+            long now = (System.currentTimeMillis() - EPOCH_MILLIS) << SEQUENCE_BITS;
+            long start = Math.max(now, last);
+            if (nextBlockStart.compareAndSet(last, start + BLOCK_SIZE)) {
+                return start;
+            }
+        }
+    }
+
+    /**
+     * A block-leasing id sequence owned by a single vendor thread.
+     */
+    public static final class Sequence {
+        private final TicketIdGenerator generator; // The generator to lease blocks from
+        private long next;                         // The next id to hand out
+        private long blockEnd;                     // The first id after the current block
+
+        private Sequence(TicketIdGenerator generator) {
+            this.generator = generator;
+        }
+
+        /**
+         * Get the next id. Only leases a new block when the current one is used up.
+         *
+         * @return A new unique ticket id.
+         */
+        public long next() {
+            if (next == blockEnd) {
+                next = generator.leaseBlock();
+                blockEnd = next + BLOCK_SIZE;
+            }
+            return next++;
+        }
+    }
+}
@@ -1,117 +1,384 @@
 package CLI;
 
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
- * This class manages a pool of tickets using a queue system,
- * which is used in a producer-consumer setup.
+ * The contract shared by every ticket pool engine. Vendors add tickets to a pool
+ * and consumers take them out, in a producer-consumer setup.
  */
-public class TicketPool {
-    private final BlockingQueue<Ticket> tickets; // A queue to hold tickets
-    private final int maxCapacity;              // The maximum number of tickets the pool can hold
-    private volatile boolean running = true;    // Indicates if the pool is active or not
-    private int addedTickets = 0;               // Keeps track of the total number of tickets added
+public interface TicketPool {
+    /** Returned by {@link #pollTicketId()} when the pool is empty (ticket IDs are never negative). */
+    long NO_TICKET = -1L;
 
     /**
-     * Constructor to create a TicketPool with a maximum capacity.
+     * Create the pool engine selected in the configuration.
      *
+     * @param configuration The system configuration (pool type and maximum capacity).
+     * @return A new, running TicketPool.
+     */
+    static TicketPool create(Configuration configuration) {
+        return create(configuration.getPoolType(), configuration.getMaximumTicketCapacity(),
+                configuration.getShardCount(), configuration.isLatencyTracking());
+    }
+
+    /**
+     * Create a pool engine of the given type without latency tracking.
+     *
+     * @param poolType    The pool engine to create.
      * @param maxCapacity The maximum number of tickets the pool can hold.
+     * @param shardCount  The number of shards for a sharded pool (0 means one per CPU core).
+     * @return A new, running TicketPool.
      */
-    public TicketPool(int maxCapacity) {
-        this.tickets = new LinkedBlockingQueue<>(maxCapacity); // Initialize the queue with max capacity
-        this.maxCapacity = maxCapacity; // Store the maximum capacity
+    static TicketPool create(PoolType poolType, int maxCapacity, int shardCount) {
+        return create(poolType, maxCapacity, shardCount, false);
     }
 
     /**
-     * Get the queue holding the tickets.
+     * Create a pool engine of the given type.
      *
-     * @return The queue of tickets.
+     * @param poolType        The pool engine to create.
+     * @param maxCapacity     The maximum number of tickets the pool can hold.
+     * @param shardCount      The number of shards for a sharded pool (0 means one per CPU core).
+     * @param trackingLatency Whether to record the put-wait, take-wait and ticket age histograms.
+     * @return A new, running TicketPool.
      */
-    public BlockingQueue<Ticket> getTickets() {
-        return tickets; // Return the ticket queue
+    static TicketPool create(PoolType poolType, int maxCapacity, int shardCount, boolean trackingLatency) {
+        switch (poolType) {
+            case RING_BUFFER:
+                return new RingBufferTicketPool(maxCapacity, trackingLatency);
+            case SHARDED:
+                return new ShardedTicketPool(maxCapacity,
+                        shardCount > 0 ? shardCount : Runtime.getRuntime().availableProcessors(), trackingLatency);
+            case QUEUE:
+            default:
+                return new QueueTicketPool(maxCapacity, trackingLatency);
+        }
     }
 
     /**
-     * Check if the TicketPool is still running.
+     * Add a ticket to the pool, waiting while the pool is full.
      *
-     * @return True if the pool is running, false otherwise.
+     * @param ticket The ticket to add.
+     * @throws InterruptedException If the operation is interrupted.
+     */
+    void addTicket(Ticket ticket) throws InterruptedException;
+
+    /**
+     * Take a ticket from the pool, waiting while the pool is empty.
+     *
+     * @return The ticket taken from the pool.
+     * @throws InterruptedException If the operation is interrupted.
+     */
+    Ticket takeTicket() throws InterruptedException;
+
+    /**
+     * Add several tickets to the pool, waiting while the pool is full. The
+     * tickets are transferred in as few bulk steps as the pool allows.
+     *
+     * @param tickets The tickets to add.
+     * @throws InterruptedException If the operation is interrupted.
+     */
+    void addTickets(Collection<Ticket> tickets) throws InterruptedException;
+
+    /**
+     * Add several tickets to the pool, waiting while the pool is full.
+     *
+     * @param tickets The tickets to add.
+     * @throws InterruptedException If the operation is interrupted.
+     */
+    default void addTickets(Ticket[] tickets) throws InterruptedException {
+        addTickets(Arrays.asList(tickets));
+    }
+
+    /**
+     * Take up to {@code maxTickets} tickets from the pool in one bulk step. Waits
+     * up to the timeout for the first ticket, then returns whatever is available
+     * without waiting any longer.
+     *
+     * @param maxTickets The maximum number of tickets to take.
+     * @param timeout    How long to wait for the first ticket.
+     * @param unit       The unit of the timeout.
+     * @return The tickets taken (empty if none arrived before the timeout).
+     * @throws InterruptedException If the operation is interrupted.
+     */
+    List<Ticket> takeTickets(int maxTickets, long timeout, TimeUnit unit) throws InterruptedException;
+
+    /**
+     * Add a ticket by its ID alone, waiting while the pool is full. Pools built on
+     * {@link MpmcRingBuffer} store the ID directly, so no object is allocated;
+     * other pools wrap it in a {@link Ticket}.
+     *
+     * @param ticketId The ID of the ticket to add.
+     * @throws InterruptedException If the operation is interrupted.
      */
-    public boolean isRunning() {
-        return running; // Return whether the pool is active
+    default void addTicketId(long ticketId) throws InterruptedException {
+        addTicket(new Ticket(ticketId));
     }
 
     /**
-     * Stop the TicketPool. This means no more tickets will be added.
+     * Take a ticket's ID from the pool, waiting while the pool is empty.
+     *
+     * @return The ID of the ticket taken from the pool.
+     * @throws InterruptedException If the operation is interrupted.
      */
-    public void stop() {
-        running = false; // Set the pool to inactive
-        System.out.println("TicketPool has stopped."); // Inform that the pool is stopped
+    default long takeTicketId() throws InterruptedException {
+        return takeTicket().getId();
     }
 
     /**
-     * Get the total number of tickets added to the pool so far.
+     * Try to add a ticket by its ID without waiting.
      *
-     * @return The total count of tickets added.
+     * @param ticketId The ID of the ticket to add.
+     * @return True if the ticket was added, false if the pool is full.
+     */
+    boolean offerTicketId(long ticketId);
+
+    /**
+     * Try to take a ticket's ID without waiting.
+     *
+     * @return The ID of the ticket taken, or {@link #NO_TICKET} if the pool is empty.
+     */
+    long pollTicketId();
+
+    /**
+     * Take a ticket from the pool, waiting at most the timeout while the pool is
+     * empty. Unlike {@link #takeTicket()}, the caller gets control back even if
+     * no vendor ever adds another ticket, so it can notice that the pool stopped.
+     *
+     * @param timeout How long to wait for a ticket.
+     * @param unit    The unit of the timeout.
+     * @return The ticket taken, or null if none arrived before the timeout.
+     * @throws InterruptedException If the operation is interrupted.
      */
-    public int getAddedTickets() {
-        return addedTickets; // Return the count of tickets added
+    default Ticket tryTakeTicket(long timeout, TimeUnit unit) throws InterruptedException {
+        long[] taken = new long[1];
+        return takeTicketIds(taken, 1, timeout, unit) == 0 ? null : new Ticket(taken[0]);
     }
 
     /**
-     * Increase the count of added tickets by one.
+     * Add a ticket by its ID, waiting at most the timeout while the pool is full.
+     *
+     * @param ticketId The ID of the ticket to add.
+     * @param timeout  How long to wait for space.
+     * @param unit     The unit of the timeout.
+     * @return True if the ticket was added, false if the pool stayed full until the timeout.
+     * @throws InterruptedException If the operation is interrupted.
      */
-    public synchronized void incrementAddedTickets() {
-        addedTickets++; // Increment the number of tickets added
+    default boolean offerTicketId(long ticketId, long timeout, TimeUnit unit) throws InterruptedException {
+        return offerTicketIds(new long[] {ticketId}, 0, 1, timeout, unit) == 1;
     }
 
     /**
-     * Take a ticket from the pool (remove it from the queue).
+     * Add the ticket IDs from index {@code from} up to (not including) {@code to},
+     * waiting at most the timeout while the pool is full. The IDs are added in
+     * order, so after a timeout the ones not added are exactly those from
+     * {@code from} plus the returned count onwards. An add cut short by the
+     * timeout is counted as a rejected offer.
      *
-     * @return The ticket taken from the pool.
+     * @param ticketIds The array holding the ticket IDs.
+     * @param from      The index of the first ID to add.
+     * @param to        The index after the last ID to add.
+     * @param timeout   How long to wait for space in total.
+     * @param unit      The unit of the timeout.
+     * @return The number of IDs added.
+     * @throws InterruptedException If the operation is interrupted.
+     */
+    int offerTicketIds(long[] ticketIds, int from, int to, long timeout, TimeUnit unit) throws InterruptedException;
+
+    /**
+     * Add several tickets by ID, waiting while the pool is full.
+     *
+     * @param ticketIds The array holding the ticket IDs.
+     * @param count     The number of IDs to add, starting at index 0.
      * @throws InterruptedException If the operation is interrupted.
      */
-    public Ticket takeTicket() throws InterruptedException {
-        Ticket ticket = tickets.take(); // Get and remove a ticket from the queue
-        System.out.println("Ticket retrieved: " + ticket.getId()); // Print the ID of the ticket retrieved
-        return ticket; // Return the retrieved ticket
+    default void addTicketIds(long[] ticketIds, int count) throws InterruptedException {
+        List<Ticket> batch = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            batch.add(new Ticket(ticketIds[i]));
+        }
+        addTickets(batch);
     }
 
     /**
-     * Add a ticket to the pool (put it into the queue).
+     * Take up to {@code maxTickets} ticket IDs into the target array. Waits up to
+     * the timeout for the first ticket, then takes whatever is available.
      *
-     * @param ticket The ticket to add.
+     * @param target     The array that receives the IDs, starting at index 0.
+     * @param maxTickets The maximum number of IDs to take.
+     * @param timeout    How long to wait for the first ticket.
+     * @param unit       The unit of the timeout.
+     * @return The number of IDs taken (0 if none arrived before the timeout).
      * @throws InterruptedException If the operation is interrupted.
      */
-    public void addTicket(Ticket ticket) throws InterruptedException {
-        tickets.put(ticket); // Add the ticket to the queue
-        System.out.println("Ticket added: " + ticket.getId()); // Print the ID of the ticket added
+    default int takeTicketIds(long[] target, int maxTickets, long timeout, TimeUnit unit) throws InterruptedException {
+        List<Ticket> taken = takeTickets(maxTickets, timeout, unit);
+        for (int i = 0; i < taken.size(); i++) {
+            target[i] = taken.get(i).getId();
+        }
+        return taken.size();
     }
 
+    /**
+     * Reserve a ticket: take it out of the pool without selling it. The hold
+     * must be confirmed with {@link #confirmHold(TicketHold)} or given back
+     * with {@link #releaseHold(TicketHold)}; otherwise the ticket goes back to
+     * the pool by itself once the hold time is over.
+     *
+     * @param holdTime How long the hold lasts.
+     * @param timeout  How long to wait for a ticket while the pool is empty.
+     * @param unit     The unit of both times.
+     * @return The hold, or null if no ticket arrived before the timeout or the pool has stopped.
+     * @throws InterruptedException If the operation is interrupted.
+     */
+    TicketHold reserveTicket(long holdTime, long timeout, TimeUnit unit) throws InterruptedException;
+
+    /**
+     * Sell the ticket of a hold. It is counted as retrieved.
+     *
+     * @param hold The hold to confirm.
+     * @return True if the hold was confirmed, false if it had already ended (for example expired).
+     */
+    boolean confirmHold(TicketHold hold);
+
+    /**
+     * Give the ticket of a hold back to the pool before the hold time is over.
+     *
+     * @param hold The hold to release.
+     * @return True if the hold was released, false if it had already ended.
+     */
+    boolean releaseHold(TicketHold hold);
+
+    /**
+     * Record holds that end without a sale (expired, released or given back
+     * on stop) as {@link EventJournal.Operation#CANCEL} in the journal. Set it
+     * before any consumer starts; null turns it off.
+     *
+     * @param journal The journal of the run, or null for none.
+     */
+    void setJournal(EventJournal journal);
+
+    /**
+     * Claim the right to release one more ticket. Many vendors can call this at the
+     * same time and together they never release more than the given total.
+     *
+     * @param totalTickets The total number of tickets that may be released.
+     * @return True if the caller may release another ticket, false if the total is reached.
+     */
+    boolean tryIssueTicket(int totalTickets);
+
+    /**
+     * Claim the right to release up to {@code maxTickets} more tickets at once.
+     *
+     * @param totalTickets The total number of tickets that may be released.
+     * @param maxTickets   The most tickets the caller wants to release now.
+     * @return The number of tickets the caller may release (0 if the total is reached).
+     */
+    int tryIssueTickets(int totalTickets, int maxTickets);
+
+    /**
+     * Put back the state of an earlier run, for example after a crash. Call this
+     * before any vendor or consumer starts. The given tickets are added to the
+     * pool and the counters continue from the given values. Tickets that do not
+     * fit wait outside the pool, counted as held, and move in as space frees up.
+     *
+     * @param releasedTickets  The number of tickets released by the earlier run (including the given ones).
+     * @param retrievedTickets The number of tickets retrieved by the earlier run.
+     * @param ticketIds        The IDs of the tickets that were waiting in the pool.
+     * @param count            The number of IDs to add, starting at index 0.
+     */
+    void restore(long releasedTickets, long retrievedTickets, long[] ticketIds, int count);
+
+    /**
+     * Copy the IDs of the tickets waiting in the pool without taking them, for
+     * example for a snapshot. Vendors and consumers are not paused, so while
+     * they run the copy may miss tickets added or taken during it.
+     *
+     * @param target The array that receives the IDs, starting at index 0 (at most its length are copied).
+     * @return The number of IDs copied.
+     */
+    int copyTicketIds(long[] target);
+
+    /**
+     * Get the maximum number of tickets the pool can hold.
+     *
+     * @return The maximum capacity.
+     */
+    int getMaxCapacity();
+
     /**
      * Get the current number of tickets in the pool.
      *
      * @return The number of tickets currently in the pool.
      */
-    public int getCurrentTicketCount() {
-        return tickets.size(); // Return the number of tickets in the queue
-    }
+    int getCurrentTicketCount();
 
     /**
      * Get the total number of tickets added to the pool so far.
      *
      * @return The total count of tickets added.
      */
-    public int getTotalAddedTickets() {
-        return addedTickets; // Return the total tickets added
-    }
+    int getTotalAddedTickets();
 
     /**
      * Get the total number of tickets retrieved from the pool so far.
      *
      * @return The total count of tickets retrieved.
      */
-    public int getTotalRetrievedTickets() {
-        return addedTickets - tickets.size(); // Calculate tickets retrieved (added - remaining in pool)
-    }
-}
\ No newline at end of file
+    int getTotalRetrievedTickets();
+
+    /**
+     * Read all of the pool's counters at once. Taking a snapshot never blocks
+     * vendors or consumers, so it is cheap enough to call from a status screen
+     * or a status endpoint as often as needed.
+     *
+     * @return An immutable copy of the counters.
+     */
+    TicketPoolSnapshot snapshot();
+
+    /**
+     * Check whether the pool records latency histograms. When it does not, the
+     * histograms below stay empty and no clock is read on the hot path.
+     *
+     * @return True if latency is being tracked.
+     */
+    boolean isTrackingLatency();
+
+    /**
+     * Get the histogram of how long each add (or batch of adds) waited for space in a full pool.
+     *
+     * @return The put-wait histogram, in nanoseconds.
+     */
+    LatencyHistogram getPutWaitHistogram();
+
+    /**
+     * Get the histogram of how long each successful take (or batch take) waited for a ticket.
+     *
+     * @return The take-wait histogram, in nanoseconds.
+     */
+    LatencyHistogram getTakeWaitHistogram();
+
+    /**
+     * Get the histogram of how long each ticket sat in the pool, from being added to being taken.
+     *
+     * @return The ticket age histogram, in nanoseconds.
+     */
+    LatencyHistogram getTicketAgeHistogram();
+
+    /**
+     * Check if the TicketPool is still running.
+     *
+     * @return True if the pool is running, false otherwise.
+     */
+    boolean isRunning();
+
+    /**
+     * Stop the TicketPool. This means no more tickets will be added. Holds
+     * still active are released and their tickets put back into the pool.
+     */
+    void stop();
+}
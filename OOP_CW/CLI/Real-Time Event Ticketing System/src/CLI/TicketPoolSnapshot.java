@@ -0,0 +1,128 @@
+package CLI;
+
+/**
+ * An immutable copy of a ticket pool's counters, taken at one moment by
+ * {@link TicketPool#snapshot()}. Reading a snapshot never touches the pool again,
+ * so status screens and reports can use it as often as they like.
+ *
+ * The counters are read in an order that keeps the totals consistent: a ticket
+ * is counted as released before any consumer can see it, so the retrieved count
+ * is never larger than the released count.
+ */
+public final class TicketPoolSnapshot {
+    private final long timestampMillis; // When the snapshot was taken (epoch milliseconds)
+    private final boolean running;      // Whether the pool was still running
+    private final int maxCapacity;      // The maximum number of tickets the pool can hold
+    private final int ticketsInPool;    // Tickets waiting in the pool
+    private final long released;        // Tickets added (or being added) by vendors
+    private final long retrieved;       // Tickets taken by consumers
+    private final long rejected;        // Offers refused, or cut short by their timeout, because the pool was full
+    private final long timedOut;        // Takes that gave up because the pool stayed empty
+    private final long blockedPuts;     // Adds that had to wait for space in a full pool
+    private final long held;            // Tickets reserved by a hold and not yet sold or back in the pool
+    private final long expiredHolds;    // Holds whose time ran out
+
+    /**
+     * Constructor to create a snapshot from counter values that were already read.
+     *
+     * @param timestampMillis When the snapshot was taken (epoch milliseconds).
+     * @param running         Whether the pool was still running.
+     * @param maxCapacity     The maximum number of tickets the pool can hold.
+     * @param ticketsInPool   Tickets waiting in the pool.
+     * @param released        Tickets added by vendors.
+     * @param retrieved       Tickets taken by consumers.
+     * @param rejected        Offers refused, or cut short by their timeout, because the pool was full.
+     * @param timedOut        Takes that gave up because the pool stayed empty.
+     * @param blockedPuts     Adds that had to wait for space in a full pool.
+     * @param held            Tickets reserved by a hold and not yet sold or back in the pool.
+     * @param expiredHolds    Holds whose time ran out.
+     */
+    public TicketPoolSnapshot(long timestampMillis, boolean running, int maxCapacity, int ticketsInPool,
+                              long released, long retrieved, long rejected, long timedOut, long blockedPuts,
+                              long held, long expiredHolds) {
+        this.timestampMillis = timestampMillis;
+        this.running = running;
+        this.maxCapacity = maxCapacity;
+        this.ticketsInPool = ticketsInPool;
+        this.released = released;
+        this.retrieved = retrieved;
+        this.rejected = rejected;
+        this.timedOut = timedOut;
+        this.blockedPuts = blockedPuts;
+        this.held = held;
+        this.expiredHolds = expiredHolds;
+    }
+
+    // Get when the snapshot was taken (epoch milliseconds).
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    // Get whether the pool was still running.
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Get the maximum number of tickets the pool can hold.
+    public int getMaxCapacity() {
+        return maxCapacity;
+    }
+
+    // Get the number of tickets waiting in the pool.
+    public int getTicketsInPool() {
+        return ticketsInPool;
+    }
+
+    // Get the number of tickets released by vendors.
+    public long getReleased() {
+        return released;
+    }
+
+    // Get the number of tickets retrieved by consumers.
+    public long getRetrieved() {
+        return retrieved;
+    }
+
+    // Get the number of offers refused, or cut short by their timeout, because the pool was full.
+    public long getRejected() {
+        return rejected;
+    }
+
+    // Get the number of takes that gave up because the pool stayed empty.
+    public long getTimedOut() {
+        return timedOut;
+    }
+
+    // Get the number of adds that had to wait for space in a full pool.
+    public long getBlockedPuts() {
+        return blockedPuts;
+    }
+
+    // Get the number of tickets reserved by a hold and not yet sold or back in the pool.
+    public long getHeld() {
+        return held;
+    }
+
+    // Get the number of holds whose time ran out.
+    public long getExpiredHolds() {
+        return expiredHolds;
+    }
+
+    // Get the number of released tickets that have not been retrieved yet.
+    public long getOutstanding() {
+        return released - retrieved;
+    }
+
+    /**
+     * Get a one-line text description of the snapshot.
+     *
+     * @return The counters as text.
+     */
+    @Override
+    public String toString() {
+        return "TicketPoolSnapshot{released=" + released + ", retrieved=" + retrieved
+                + ", inPool=" + ticketsInPool + "/" + maxCapacity + ", rejected=" + rejected
+                + ", timedOut=" + timedOut + ", blockedPuts=" + blockedPuts + ", held=" + held
+                + ", expiredHolds=" + expiredHolds + ", running=" + running + '}';
+    }
+}
@@ -1,45 +1,76 @@
 package CLI;
 
+import java.util.concurrent.TimeUnit;
+
 // The Vendor class represents a thread responsible for adding tickets to the TicketPool
 public class Vendor implements Runnable {
+    private static final long ADD_WAIT_SECONDS = 1;  // Longest wait for space before checking the pool is still running
     private final TicketPool ticketPool;          // The shared TicketPool where tickets are added
     private final Configuration configuration;    // Holds the settings like total tickets and release rate
+    private final EventJournal journal;           // Records every release (null when there is no journal)
 
     // Constructor to initialize the Vendor with a TicketPool and Configuration
     public Vendor(TicketPool ticketPool, Configuration configuration) {
+        this(ticketPool, configuration, null);
+    }
+
+    // Constructor to initialize the Vendor with a TicketPool, Configuration and the EventJournal to record releases in
+    public Vendor(TicketPool ticketPool, Configuration configuration, EventJournal journal) {
         this.ticketPool = ticketPool;             // Assign the TicketPool to this Vendor
         this.configuration = configuration;       // Assign the Configuration to this Vendor
+        this.journal = journal;                   // Assign the EventJournal (may be null)
     }
 
     // The run method is executed when the thread starts
     @Override
     public void run() {
+        int batchSize = configuration.getVendorBatchSize();
+        long[] batch = new long[batchSize]; // Ticket IDs of one release, reused for every release
+        TicketIdGenerator.Sequence ticketIds = TicketIdGenerator.global().newSequence(); // This vendor's own IDs
+        // Paces this vendor to the release rate without drifting, however long each release takes
+        RatePacer pacer = new RatePacer(configuration.getTicketReleaseRate(), configuration.getReleaseBurst());
         try {
-            // Keep adding tickets as long as the TicketPool is running
-            // and the total number of tickets added is less than the configured limit
-            while (ticketPool.isRunning() && ticketPool.getAddedTickets() < configuration.getTotalTickets()) {
-                // Create a new Ticket with the current ticket count as its ID
-                Ticket ticket = new Ticket(ticketPool.getAddedTickets());
+            // Keep releasing batches as long as the TicketPool is running and this vendor can still
+            // claim tickets (the claim keeps many vendors from releasing more than the configured total)
+            int claimed;
+            while (ticketPool.isRunning()
+                    && (claimed = ticketPool.tryIssueTickets(configuration.getTotalTickets(), batchSize)) > 0) {
+                // Give each claimed ticket a new ID (no Ticket objects are needed on this path)
+                for (int i = 0; i < claimed; i++) {
+                    batch[i] = ticketIds.next();
+                }
 
-                // Add the new ticket to the TicketPool queue
-                ticketPool.getTickets().put(ticket);
+                // Add the whole batch to the TicketPool in as few bulk steps as it allows (this also counts them
+                // as released). Each try waits at most a second for space, so a vendor facing a full pool notices
+                // when the pool stops instead of waiting forever
+                int added = 0;
+                while (added < claimed && ticketPool.isRunning()) {
+                    added += ticketPool.offerTicketIds(batch, added, claimed, ADD_WAIT_SECONDS, TimeUnit.SECONDS);
+                }
 
-                // Increase the count of total tickets added
-                ticketPool.incrementAddedTickets();
+                // Record the added tickets in the journal with one claim (and one shared force with ALWAYS)
+                if (journal != null && added > 0) {
+                    journal.appendBatch(EventJournal.Operation.RELEASE, batch, added);
+                }
 
-                // Display a message showing the added ticket's ID
-                System.out.println(Thread.currentThread().getName() + " added Ticket ID: " + ticket.getId());
+                // Log the added tickets' IDs (written later by the EventLog's background writer)
+                for (int i = 0; i < added; i++) {
+                    EventLog.log(EventType.VENDOR_ADDED, batch[i]);
+                }
+                if (added < claimed) {
+                    break; // The pool stopped while it was full
+                }
 
-                // Wait for the time specified in the configuration before adding the next ticket
-                Thread.sleep(configuration.getTicketReleaseRate() * 1000L);
+                // Wait until the release rate allows the tickets just released (no wait while within the burst)
+                pacer.acquire(claimed);
             }
 
             // If all tickets are added, show a message that this Vendor is done
-            System.out.println(Thread.currentThread().getName() + " has completed adding tickets.");
+            EventLog.log(EventType.VENDOR_COMPLETED);
         } catch (InterruptedException e) {
             // If the thread is interrupted, stop gracefully
             Thread.currentThread().interrupt();
-            System.out.println(Thread.currentThread().getName() + " interrupted while adding tickets.");
+            EventLog.log(EventType.VENDOR_INTERRUPTED);
         }
     }
 }
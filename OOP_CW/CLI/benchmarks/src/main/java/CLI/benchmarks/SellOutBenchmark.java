@@ -0,0 +1,119 @@
+package CLI.benchmarks;
+
+import CLI.EventLog;
+import CLI.LogLevel;
+import CLI.PoolType;
+import CLI.ThreadMode;
+import CLI.TicketIdGenerator;
+import CLI.TicketPool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time to sell out a whole on-sale: vendor and consumer threads run the same pool
+ * calls as the Vendor and Consumer loops (claim, add in batches, take in batches),
+ * without the pacing sleeps, until every ticket has been taken.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, batchSize = 1)
+@Measurement(iterations = 10, batchSize = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Benchmark)
+public class SellOutBenchmark {
+
+    @Param({"QUEUE", "RING_BUFFER", "SHARDED"})
+    public PoolType poolType;
+
+    @Param({"VIRTUAL", "PLATFORM"})
+    public ThreadMode threadMode;
+
+    @Param({"1", "4"})
+    public int vendors;
+
+    @Param({"1", "4", "64"})
+    public int consumers;
+
+    @Param({"1", "32"})
+    public int batchSize;
+
+    @Param({"1024"})
+    public int maxCapacity;
+
+    @Param({"200000"})
+    public int totalTickets;
+
+    private TicketPool pool; // A fresh pool for every sell-out
+
+    @Setup(Level.Invocation)
+    public void setUp() {
+        EventLog.configure(LogLevel.OFF, 1, null); // Measure the pool, not the console
+        pool = TicketPool.create(poolType, maxCapacity, 0);
+    }
+
+    @Benchmark
+    public long sellOut() throws InterruptedException {
+        AtomicLong taken = new AtomicLong(); // Tickets taken by all consumers together
+        List<Thread> threads = new ArrayList<>(vendors + consumers);
+
+        Thread.Builder vendorThreads = threadMode.newThreadBuilder("Vendor");
+        for (int i = 0; i < vendors; i++) {
+            threads.add(vendorThreads.start(this::runVendor));
+        }
+        Thread.Builder consumerThreads = threadMode.newThreadBuilder("Consumer");
+        for (int i = 0; i < consumers; i++) {
+            threads.add(consumerThreads.start(() -> runConsumer(taken)));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return taken.get();
+    }
+
+    // Same calls as Vendor.run, without the release-rate sleep.
+    private void runVendor() {
+        TicketIdGenerator.Sequence ticketIds = TicketIdGenerator.global().newSequence();
+        long[] batch = new long[batchSize];
+        try {
+            int claimed;
+            while ((claimed = pool.tryIssueTickets(totalTickets, batchSize)) > 0) {
+                for (int i = 0; i < claimed; i++) {
+                    batch[i] = ticketIds.next();
+                }
+                pool.addTicketIds(batch, claimed);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Same calls as Consumer.run, without the processing sleep. Stops once every ticket is taken.
+    private void runConsumer(AtomicLong taken) {
+        long[] batch = new long[batchSize];
+        try {
+            while (taken.get() < totalTickets) {
+                int count = pool.takeTicketIds(batch, batchSize, 1, TimeUnit.MILLISECONDS);
+                if (count > 0) {
+                    taken.addAndGet(count);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
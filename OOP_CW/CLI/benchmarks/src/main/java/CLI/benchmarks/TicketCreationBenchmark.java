@@ -0,0 +1,72 @@
+package CLI.benchmarks;
+
+import CLI.Ticket;
+import CLI.TicketIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of creating a ticket identity, comparing the old UUID.randomUUID() approach
+ * with the TicketIdGenerator, both as objects and as the text written to logs.
+ * Runs with 4 threads so contention on shared state shows up in the results.
+ * Add {@code -prof gc} to see the bytes allocated per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@Threads(4)
+@State(Scope.Thread)
+public class TicketCreationBenchmark {
+
+    // Each benchmark thread owns a sequence, like each Vendor does
+    private final TicketIdGenerator.Sequence ticketIds = TicketIdGenerator.global().newSequence();
+
+    // Baseline: how tickets were identified before (shared SecureRandom)
+    @Benchmark
+    public UUID randomUuid() {
+        return UUID.randomUUID();
+    }
+
+    // Baseline: the 36-character text that used to be logged for every ticket
+    @Benchmark
+    public String randomUuidText() {
+        return UUID.randomUUID().toString();
+    }
+
+    // A primitive ID from the vendor's own sequence (no allocation)
+    @Benchmark
+    public long sequenceId() {
+        return ticketIds.next();
+    }
+
+    // A Ticket object around a new ID
+    @Benchmark
+    public Ticket newTicket() {
+        return new Ticket(ticketIds.next());
+    }
+
+    // A Ticket created with the per-thread convenience constructor
+    @Benchmark
+    public Ticket newTicketFromThreadSequence() {
+        return new Ticket();
+    }
+
+    // The UUID form of a ticket ID, for callers that still want one
+    @Benchmark
+    public UUID ticketUuid() {
+        return new Ticket(ticketIds.next()).getUuid();
+    }
+}
@@ -0,0 +1,153 @@
+package CLI.benchmarks;
+
+import CLI.EventLog;
+import CLI.LogLevel;
+import CLI.PoolType;
+import CLI.TicketIdGenerator;
+import CLI.TicketPool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Control;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of adding and taking ticket IDs for every pool engine, with
+ * 1:1, N:1, 1:M and N:M vendor to consumer thread ratios and several pool sizes.
+ *
+ * Each JMH group runs vendor threads that add and consumer threads that take
+ * at the same time on one shared pool. The reported score of the group is the
+ * combined number of add and take operations per microsecond.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Group)
+public class TicketPoolBenchmark {
+
+    // The pool engine under test
+    @Param({"QUEUE", "RING_BUFFER", "SHARDED"})
+    public PoolType poolType;
+
+    // The maximum number of tickets the pool can hold
+    @Param({"16", "1024", "65536"})
+    public int maxCapacity;
+
+    private TicketPool pool; // The pool shared by the vendor and consumer threads of a group
+
+    // Each vendor thread has its own ticket ID sequence, as in the real Vendor
+    @State(Scope.Thread)
+    public static class VendorState {
+        final TicketIdGenerator.Sequence ticketIds = TicketIdGenerator.global().newSequence();
+    }
+
+    // A fresh pool per iteration keeps the counters small and the results independent
+    @Setup(Level.Iteration)
+    public void setUp() {
+        EventLog.configure(LogLevel.OFF, 1, null); // Measure the pool, not the console
+        pool = TicketPool.create(poolType, maxCapacity, 0);
+    }
+
+    // --- One vendor, one consumer ---
+
+    @Benchmark
+    @Group("oneToOne")
+    @GroupThreads(1)
+    public boolean oneToOneAdd(VendorState vendor, Control control) {
+        return add(vendor, control);
+    }
+
+    @Benchmark
+    @Group("oneToOne")
+    @GroupThreads(1)
+    public long oneToOneTake(Control control) {
+        return take(control);
+    }
+
+    // --- Four vendors, one consumer ---
+
+    @Benchmark
+    @Group("manyToOne")
+    @GroupThreads(4)
+    public boolean manyToOneAdd(VendorState vendor, Control control) {
+        return add(vendor, control);
+    }
+
+    @Benchmark
+    @Group("manyToOne")
+    @GroupThreads(1)
+    public long manyToOneTake(Control control) {
+        return take(control);
+    }
+
+    // --- One vendor, four consumers ---
+
+    @Benchmark
+    @Group("oneToMany")
+    @GroupThreads(1)
+    public boolean oneToManyAdd(VendorState vendor, Control control) {
+        return add(vendor, control);
+    }
+
+    @Benchmark
+    @Group("oneToMany")
+    @GroupThreads(4)
+    public long oneToManyTake(Control control) {
+        return take(control);
+    }
+
+    // --- Four vendors, four consumers ---
+
+    @Benchmark
+    @Group("manyToMany")
+    @GroupThreads(4)
+    public boolean manyToManyAdd(VendorState vendor, Control control) {
+        return add(vendor, control);
+    }
+
+    @Benchmark
+    @Group("manyToMany")
+    @GroupThreads(4)
+    public long manyToManyTake(Control control) {
+        return take(control);
+    }
+
+    // Add one ticket, spinning while the pool is full. Gives up when the iteration
+    // ends, so a vendor never stays stuck after the consumers have stopped.
+    private boolean add(VendorState vendor, Control control) {
+        long ticketId = vendor.ticketIds.next();
+        while (!pool.offerTicketId(ticketId)) {
+            if (control.stopMeasurement) {
+                return false;
+            }
+            Thread.onSpinWait();
+        }
+        return true;
+    }
+
+    // Take one ticket, spinning while the pool is empty (same shutdown rule as add).
+    private long take(Control control) {
+        long ticketId;
+        while ((ticketId = pool.pollTicketId()) == TicketPool.NO_TICKET) {
+            if (control.stopMeasurement) {
+                return TicketPool.NO_TICKET;
+            }
+            Thread.onSpinWait();
+        }
+        return ticketId;
+    }
+}
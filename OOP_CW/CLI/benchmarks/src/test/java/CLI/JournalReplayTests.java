@@ -0,0 +1,68 @@
+package CLI;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JournalReplayTests {
+
+    @TempDir
+    Path journalDirectory;
+
+    @BeforeEach
+    void turnOffTheLog() {
+        EventLog.configure(LogLevel.OFF, 1, null);
+    }
+
+    @Test
+    void journalsHoldsThatEndUnsoldAsCancel() throws Exception {
+        EventJournal journal = EventJournal.open(journalDirectory.toString(), JournalSyncPolicy.NONE, 10);
+        TicketPool pool = TicketPool.create(PoolType.QUEUE, 10, 0);
+        pool.setJournal(journal);
+        for (long ticketId = 1; ticketId <= 3; ticketId++) {
+            assertTrue(pool.offerTicketId(ticketId));
+            journal.append(EventJournal.Operation.RELEASE, ticketId);
+        }
+
+        // Ticket 1 is held until it expires, ticket 2 is given back and ticket 3 is sold
+        assertNotNull(pool.reserveTicket(20, 0, TimeUnit.MILLISECONDS));
+        TicketHold released = pool.reserveTicket(60_000, 0, TimeUnit.MILLISECONDS);
+        assertTrue(pool.releaseHold(released));
+        TicketHold sold = pool.reserveTicket(60_000, 0, TimeUnit.MILLISECONDS);
+        assertTrue(pool.confirmHold(sold));
+        journal.append(EventJournal.Operation.SELL, sold.getTicketId());
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (pool.snapshot().getExpiredHolds() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        pool.stop();
+        journal.close();
+
+        List<Long> cancelled = new ArrayList<>();
+        JournalReplica replica = new JournalReplica();
+        try (EventJournal.Reader reader = new EventJournal.Reader(journalDirectory.toString())) {
+            reader.replay(0, (position, operation, ticketId, timestampMillis, actor) -> {
+                if (operation == EventJournal.Operation.CANCEL) {
+                    cancelled.add(ticketId);
+                }
+                replica.onRecord(position, operation, ticketId, timestampMillis, actor);
+            });
+        }
+
+        assertEquals(List.of(2L, 1L), cancelled); // The release comes first, the expiry about 20 ms later
+        assertEquals(2, replica.getCancelled());
+        assertEquals(3, replica.getReleased());
+        assertEquals(1, replica.getRetrieved());
+        assertArrayEquals(new long[] {1, 2}, replica.copyTicketIds()); // Cancelled tickets are still in the pool
+    }
+}
@@ -12,6 +12,7 @@ type PollingResult = {
   error: string | null;
 };
 
+// Subscribes to the server's status stream; falls back to polling every pollingInterval ms if the stream fails
 const useSystemStatusPoller = (enabled: boolean, pollingInterval: number): PollingResult => {
   const [status, setStatus] = useState<SystemStatus | null>(null);
   const [error, setError] = useState<string | null>(null);
@@ -22,6 +23,8 @@ const useSystemStatusPoller = (enabled: boolean, pollingInterval: number): Polli
       return;
     }
 
+    let intervalId: ReturnType<typeof setInterval> | null = null;
+
     const fetchSystemStatus = async () => {
       try {
         const data = await SystemStatusService.getSystemStatus();
@@ -37,10 +40,29 @@ const useSystemStatusPoller = (enabled: boolean, pollingInterval: number): Polli
       }
     };
 
-    const intervalId = setInterval(fetchSystemStatus, pollingInterval);
+    const eventSource = SystemStatusService.subscribeToSystemStatus(
+      (data) => {
+        setStatus({
+          systemStatus: data.systemStatus,
+          ticketsAvailable: data.ticketsAvailable,
+        });
+        setError(null);
+      },
+      () => {
+        // The stream is unavailable, so poll instead
+        if (intervalId === null) {
+          intervalId = setInterval(fetchSystemStatus, pollingInterval);
+        }
+      }
+    );
 
     // Cleanup function
-    return () => clearInterval(intervalId);
+    return () => {
+      eventSource.close();
+      if (intervalId !== null) {
+        clearInterval(intervalId);
+      }
+    };
   }, [enabled, pollingInterval]);
 
   return { status, error };
@@ -19,6 +19,23 @@ const getSystemStatus = async (): Promise<SystemStatus> => {
   }
 };
 
+// Function to receive the system status from the server's status stream (Server-Sent Events)
+const subscribeToSystemStatus = (
+  onStatus: (status: SystemStatus) => void,
+  onError: () => void
+): EventSource => {
+  const eventSource = new EventSource(`${BASE_URL}/status/stream`);
+  eventSource.addEventListener('status', (event) => {
+    onStatus(JSON.parse((event as MessageEvent).data));
+  });
+  eventSource.onerror = () => {
+    // Stop the browser from reconnecting forever and let the caller fall back to polling
+    eventSource.close();
+    onError();
+  };
+  return eventSource;
+};
+
 // Function to start the simulation with the provided configuration
 const startSimulation = async (config: Record<string, string>) => {
   try {
@@ -43,6 +60,7 @@ const stopSimulation = async () => {
 
 export default {
   getSystemStatus,
+  subscribeToSystemStatus,
   startSimulation,
   stopSimulation,
 };